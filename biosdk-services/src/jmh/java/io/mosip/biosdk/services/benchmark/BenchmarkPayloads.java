@@ -0,0 +1,89 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.mosip.biosdk.services.synthetic.ModalityProfile;
+import io.mosip.biosdk.services.synthetic.SyntheticRecordGenerator;
+import io.mosip.biosdk.services.synthetic.SyntheticRequests;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Synthetic payloads of realistic size for the benchmarks, built by
+ * {@link SyntheticRecordGenerator} with the preset {@link ModalityProfile}s:
+ * ten 16 KiB finger images, two 40 KiB iris images or one 120 KiB face image
+ * per sample, and two 1.5 KiB finger minutiae templates per gallery record.
+ * Payloads are seeded so that runs are comparable.
+ */
+final class BenchmarkPayloads {
+	static final String VERSION = SyntheticRequests.VERSION;
+
+	/**
+	 * The Gson configuration used by the service.
+	 */
+	static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+	private static final long GALLERY_FROM = 1_000L;
+	private static final SyntheticRecordGenerator TEMPLATES = new SyntheticRecordGenerator(0L)
+			.withModality(ModalityProfile.fingerTemplate());
+
+	private BenchmarkPayloads() {
+		throw new IllegalStateException("BenchmarkPayloads class");
+	}
+
+	/**
+	 * Builds the sample of a modality as captured for registration.
+	 *
+	 * @param modality FINGER, IRIS or FACE.
+	 * @param seed     the random seed of the sample.
+	 * @return the sample record.
+	 */
+	static BiometricRecord sample(BiometricType modality, long seed) {
+		return new SyntheticRecordGenerator(seed).withModality(ModalityProfile.imageOf(modality)).record(0);
+	}
+
+	/**
+	 * Builds a finger template record. Template {@code 1000 + i} is record
+	 * {@code i} of the {@link #gallery(int)}.
+	 *
+	 * @param index the template index.
+	 * @return the template record.
+	 */
+	static BiometricRecord template(long index) {
+		return TEMPLATES.record(index);
+	}
+
+	/**
+	 * Builds a match gallery of finger templates.
+	 *
+	 * @param size the number of records.
+	 * @return the gallery.
+	 */
+	static BiometricRecord[] gallery(int size) {
+		return TEMPLATES.records(GALLERY_FROM, size);
+	}
+
+	/**
+	 * Wraps a request body the way clients send it.
+	 *
+	 * @param body the request body.
+	 * @return the JSON of the {@code RequestDto}.
+	 */
+	static String requestJson(Object body) {
+		return SyntheticRequests.requestJson(body);
+	}
+
+	/**
+	 * Base64 encodes a JSON document.
+	 *
+	 * @param json the JSON.
+	 * @return the encoded JSON.
+	 */
+	static String encode(String json) {
+		return Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
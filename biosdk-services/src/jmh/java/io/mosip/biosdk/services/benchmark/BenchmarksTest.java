@@ -0,0 +1,120 @@
+package io.mosip.biosdk.services.benchmark;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.gson.JsonObject;
+
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.match.LazyMatchRequest;
+import io.mosip.biosdk.services.utils.ErrorCode;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+public class BenchmarksTest {
+	@Test
+	public void buildsSeededPayloadsOfProfileSize() {
+		BiometricRecord fingers = BenchmarkPayloads.sample(BiometricType.FINGER, 1L);
+		assertEquals(10, fingers.getSegments().size());
+		for (BIR segment : fingers.getSegments()) {
+			assertEquals(16 * 1024, segment.getBdb().length);
+		}
+		assertEquals(2, BenchmarkPayloads.sample(BiometricType.IRIS, 1L).getSegments().size());
+		assertEquals(1, BenchmarkPayloads.sample(BiometricType.FACE, 1L).getSegments().size());
+		assertArrayEquals(fingers.getSegments().get(3).getBdb(),
+				BenchmarkPayloads.sample(BiometricType.FINGER, 1L).getSegments().get(3).getBdb());
+
+		BiometricRecord[] gallery = BenchmarkPayloads.gallery(3);
+		assertEquals(3, gallery.length);
+		assertArrayEquals(BenchmarkPayloads.template(1_002L).getSegments().get(1).getBdb(),
+				gallery[2].getSegments().get(1).getBdb());
+		assertEquals(1536, gallery[0].getSegments().get(0).getBdb().length);
+	}
+
+	@Test
+	public void decodesRequestBody() {
+		DecodeBenchmark.SampleRequest sampleRequest = new DecodeBenchmark.SampleRequest();
+		ReflectionTestUtils.setField(sampleRequest, "modality", BiometricType.IRIS);
+		sampleRequest.setUp();
+		DecodeBenchmark.MatchRequest matchRequest = new DecodeBenchmark.MatchRequest();
+		ReflectionTestUtils.setField(matchRequest, "gallerySize", 10);
+		matchRequest.setUp();
+		DecodeBenchmark benchmark = new DecodeBenchmark();
+
+		CheckQualityRequestDto checkQuality = BenchmarkPayloads.GSON.fromJson(benchmark.decodeSample(sampleRequest),
+				CheckQualityRequestDto.class);
+		MatchRequestDto match = BenchmarkPayloads.GSON.fromJson(
+				new String(benchmark.decodeMatchToBytes(matchRequest), StandardCharsets.UTF_8), MatchRequestDto.class);
+
+		assertEquals(2, checkQuality.getSample().getSegments().size());
+		assertEquals(10, match.getGallery().length);
+	}
+
+	@Test
+	public void parsesEagerlyAndLazilyToSameGallery() {
+		ParseBenchmark.MatchRequests requests = new ParseBenchmark.MatchRequests();
+		ReflectionTestUtils.setField(requests, "gallerySize", 10);
+		requests.setUp();
+		ParseBenchmark benchmark = new ParseBenchmark();
+
+		MatchRequestDto match = benchmark.match(requests);
+		LazyMatchRequest matchIndex = benchmark.matchIndex(requests);
+		BiometricRecord[] materialized = benchmark.matchIndexMaterialized(requests);
+
+		assertEquals(10, match.getGallery().length);
+		assertEquals(10, matchIndex.size());
+		assertEquals(10, materialized.length);
+		assertArrayEquals(match.getGallery()[9].getSegments().get(0).getBdb(),
+				materialized[9].getSegments().get(0).getBdb());
+	}
+
+	@Test
+	public void serialisesResponseEnvelopes() {
+		EnvelopeBenchmark.Responses responses = new EnvelopeBenchmark.Responses();
+		responses.setUp();
+		EnvelopeBenchmark.MatchResponse matchResponse = new EnvelopeBenchmark.MatchResponse();
+		ReflectionTestUtils.setField(matchResponse, "gallerySize", 10);
+		matchResponse.setUp();
+		EnvelopeBenchmark benchmark = new EnvelopeBenchmark();
+
+		JsonObject checkQuality = BenchmarkPayloads.GSON.fromJson(benchmark.checkQuality(responses), JsonObject.class);
+		JsonObject match = BenchmarkPayloads.GSON.fromJson(benchmark.match(responses, matchResponse),
+				JsonObject.class);
+		JsonObject error = BenchmarkPayloads.GSON.fromJson(benchmark.error(responses), JsonObject.class);
+
+		assertEquals(BenchmarkPayloads.VERSION, checkQuality.get("version").getAsString());
+		assertEquals(87.5, checkQuality.getAsJsonObject("response").getAsJsonObject("response")
+				.getAsJsonObject("scores").getAsJsonObject("FINGER").get("score").getAsDouble(), 0);
+		assertEquals(10, match.getAsJsonObject("response").getAsJsonArray("response").size());
+		assertEquals(1, error.getAsJsonArray("errors").size());
+		assertNotNull(benchmark.responseTemplate(responses).getResponsetime());
+	}
+
+	@Test
+	public void dispatchesSupportedVersionsAndRejectsOthers() {
+		DispatchBenchmark benchmark = new DispatchBenchmark();
+		benchmark.setUp();
+
+		assertNotNull(benchmark.supportedVersion());
+		assertNotNull(benchmark.supportedAsyncVersion());
+		assertEquals(ErrorCode.NO_PROVIDERS.getErrorCode(), benchmark.unsupportedVersion().getErrorCode());
+	}
+
+	@Test
+	public void rendersSampleAsText() {
+		ToStringBenchmark benchmark = new ToStringBenchmark();
+		ReflectionTestUtils.setField(benchmark, "modality", BiometricType.FACE);
+		benchmark.setUp();
+
+		assertTrue(benchmark.sample().length() > 0);
+	}
+}
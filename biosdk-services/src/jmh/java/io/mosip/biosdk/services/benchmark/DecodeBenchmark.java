@@ -0,0 +1,76 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+
+/**
+ * Base64 decoding of the request body, as done by {@link Utils#base64Decode}
+ * for every operation and {@link Utils#base64DecodeToBytes} for match.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--enable-preview", "--add-opens", "java.base/java.time=ALL-UNNAMED",
+		"-Xms2g", "-Xmx2g" })
+public class DecodeBenchmark {
+	@State(Scope.Benchmark)
+	public static class SampleRequest {
+		@Param({ "FINGER", "IRIS", "FACE" })
+		private BiometricType modality;
+
+		private String request;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
+			checkQualityRequestDto.setSample(BenchmarkPayloads.sample(modality, 1L));
+			checkQualityRequestDto.setModalitiesToCheck(List.of(modality));
+			request = BenchmarkPayloads.encode(BenchmarkPayloads.GSON.toJson(checkQualityRequestDto));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class MatchRequest {
+		@Param({ "1", "10", "100", "1000" })
+		private int gallerySize;
+
+		private String request;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			MatchRequestDto matchRequestDto = new MatchRequestDto();
+			matchRequestDto.setSample(BenchmarkPayloads.template(0L));
+			matchRequestDto.setGallery(BenchmarkPayloads.gallery(gallerySize));
+			request = BenchmarkPayloads.encode(BenchmarkPayloads.GSON.toJson(matchRequestDto));
+		}
+	}
+
+	@Benchmark
+	public String decodeSample(SampleRequest sampleRequest) {
+		return Utils.base64Decode(sampleRequest.request);
+	}
+
+	@Benchmark
+	public byte[] decodeMatchToBytes(MatchRequest matchRequest) {
+		return Utils.base64DecodeToBytes(matchRequest.request);
+	}
+}
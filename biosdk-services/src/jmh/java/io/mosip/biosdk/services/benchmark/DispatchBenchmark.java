@@ -0,0 +1,72 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.factory.BioSdkServiceFactory;
+import io.mosip.biosdk.services.impl.spec_1_0.AsyncBioSdkServiceProviderImpl_V_1_0;
+import io.mosip.biosdk.services.impl.spec_1_0.BioSdkServiceProviderImpl_V_1_0;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.spi.AsyncBioSdkServiceProvider;
+import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.utils.Utils;
+
+/**
+ * Selection of the provider of a request version by
+ * {@link BioSdkServiceFactory}, for a supported version, synchronous and
+ * asynchronous, and for one that is rejected with {@code NO_PROVIDERS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--enable-preview", "--add-opens", "java.base/java.time=ALL-UNNAMED",
+		"-Xms2g", "-Xmx2g" })
+public class DispatchBenchmark {
+	private BioSdkServiceFactory factory;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BioSdkMetrics metrics = new BioSdkMetrics(new SimpleMeterRegistry(), false, new SlowRequestLog(-1, 1));
+		BioSdkServiceProviderImpl_V_1_0 provider = new BioSdkServiceProviderImpl_V_1_0(null, new Utils(), metrics);
+		List<AsyncBioSdkServiceProvider> asyncProviders = List
+				.of(new AsyncBioSdkServiceProviderImpl_V_1_0(provider, metrics, 1, 1, 0));
+		factory = new BioSdkServiceFactory(List.of(provider), asyncProviders);
+	}
+
+	@Benchmark
+	public BioSdkServiceProvider supportedVersion() {
+		return factory.getBioSdkServiceProvider(BenchmarkPayloads.VERSION);
+	}
+
+	@Benchmark
+	public AsyncBioSdkServiceProvider supportedAsyncVersion() {
+		return factory.getAsyncBioSdkServiceProvider(BenchmarkPayloads.VERSION);
+	}
+
+	@Benchmark
+	public BioSDKException unsupportedVersion() {
+		try {
+			factory.getBioSdkServiceProvider("0.9");
+			return null;
+		} catch (BioSDKException e) {
+			return e;
+		}
+	}
+}
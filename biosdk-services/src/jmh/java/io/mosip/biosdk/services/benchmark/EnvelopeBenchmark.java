@@ -0,0 +1,146 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mosip.biosdk.services.dto.ErrorDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Serialisation of the response envelope the way the controller builds it: a
+ * {@link ResponseDto} stamped with the current response time, holding the SDK
+ * {@link Response}, written by the {@code serializeNulls} Gson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--enable-preview", "--add-opens", "java.base/java.time=ALL-UNNAMED",
+		"-Xms2g", "-Xmx2g" })
+public class EnvelopeBenchmark {
+	@State(Scope.Benchmark)
+	public static class Responses {
+		private Utils utils;
+		private Response<QualityCheck> checkQuality;
+		private Response<Object> extractTemplate;
+		private ErrorDto error;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			utils = new Utils();
+
+			QualityScore qualityScore = new QualityScore();
+			qualityScore.setScore(87.5f);
+			qualityScore.setErrors(new ArrayList<>());
+			qualityScore.setAnalyticsInfo(new HashMap<>());
+			QualityCheck qualityCheck = new QualityCheck();
+			Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+			scores.put(BiometricType.FINGER, qualityScore);
+			qualityCheck.setScores(scores);
+			qualityCheck.setAnalyticsInfo(new HashMap<>());
+			checkQuality = ok(qualityCheck);
+
+			extractTemplate = ok(BenchmarkPayloads.template(0L));
+
+			error = new ErrorDto("UNKNOWN_ERROR", "UNKNOWN_ERROR");
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class MatchResponse {
+		@Param({ "1", "10", "100", "1000" })
+		private int gallerySize;
+
+		private Response<MatchDecision[]> match;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			MatchDecision[] matchDecisions = new MatchDecision[gallerySize];
+			for (int i = 0; i < gallerySize; i++) {
+				Decision decision = new Decision();
+				decision.setMatch(i == 0 ? Match.MATCHED : Match.NOT_MATCHED);
+				decision.setErrors(new ArrayList<>());
+				decision.setAnalyticsInfo(new HashMap<>());
+				Map<BiometricType, Decision> decisions = new EnumMap<>(BiometricType.class);
+				decisions.put(BiometricType.FINGER, decision);
+				matchDecisions[i] = new MatchDecision(i);
+				matchDecisions[i].setDecisions(decisions);
+				matchDecisions[i].setAnalyticsInfo(new HashMap<>());
+			}
+			match = ok(matchDecisions);
+		}
+	}
+
+	private static <T> Response<T> ok(T body) {
+		Response<T> response = new Response<>();
+		response.setStatusCode(200);
+		response.setResponse(body);
+		return response;
+	}
+
+	private static String toJson(Utils utils, Object body, ErrorDto error) {
+		ResponseDto<Object> responseDto = new ResponseDto<>();
+		responseDto.setVersion(BenchmarkPayloads.VERSION);
+		responseDto.setResponsetime(utils.getCurrentResponseTime());
+		responseDto.setErrors(new ArrayList<>());
+		responseDto.setResponse(body);
+		if (error != null) {
+			responseDto.getErrors().add(error);
+		}
+		return BenchmarkPayloads.GSON.toJson(responseDto);
+	}
+
+	@Benchmark
+	public String checkQuality(Responses responses) {
+		return toJson(responses.utils, responses.checkQuality, null);
+	}
+
+	@Benchmark
+	public String extractTemplate(Responses responses) {
+		return toJson(responses.utils, responses.extractTemplate, null);
+	}
+
+	@Benchmark
+	public String error(Responses responses) {
+		return toJson(responses.utils, "", responses.error);
+	}
+
+	@Benchmark
+	public String match(Responses responses, MatchResponse matchResponse) {
+		return toJson(responses.utils, matchResponse.match, null);
+	}
+
+	@Benchmark
+	public ResponseDto<Object> responseTemplate(Responses responses) {
+		ResponseDto<Object> responseDto = new ResponseDto<>();
+		responseDto.setVersion(BenchmarkPayloads.VERSION);
+		responseDto.setResponsetime(responses.utils.getCurrentResponseTime());
+		responseDto.setErrors(new ArrayList<>());
+		responseDto.setResponse("");
+		return responseDto;
+	}
+}
@@ -0,0 +1,125 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.HdrHistogram.Histogram;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * GC pauses and heap usage of the current JVM over a measurement window.
+ * <p>
+ * Pauses are taken from the GC notifications of every collector, skipping the
+ * concurrent cycles that do not stop application threads. The heap peak is
+ * the larger of the heap in use before each collection and the heap in use
+ * sampled every 50 ms.
+ * </p>
+ */
+final class JvmMonitor implements NotificationListener {
+	private static final long HIGHEST_PAUSE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	private final Histogram pauses = new Histogram(HIGHEST_PAUSE_MILLIS, 3);
+	private final AtomicLong heapPeak = new AtomicLong();
+	private final List<NotificationEmitter> emitters = new ArrayList<>();
+	private final Set<String> heapPools = new HashSet<>();
+	private ScheduledExecutorService sampler;
+
+	/**
+	 * Starts monitoring.
+	 */
+	void start() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				heapPools.add(pool.getName());
+			}
+		}
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (collector instanceof NotificationEmitter emitter) {
+				emitter.addNotificationListener(this, null, null);
+				emitters.add(emitter);
+			}
+		}
+		sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "heap-sampler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sampler.scheduleAtFixedRate(
+				() -> heapPeak.accumulateAndGet(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+						Math::max),
+				0, 50, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops monitoring.
+	 */
+	void stop() {
+		for (NotificationEmitter emitter : emitters) {
+			try {
+				emitter.removeNotificationListener(this);
+			} catch (ListenerNotFoundException e) {
+				// already removed
+			}
+		}
+		emitters.clear();
+		if (sampler != null) {
+			sampler.shutdownNow();
+		}
+	}
+
+	@Override
+	public void handleNotification(Notification notification, Object handback) {
+		if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+			return;
+		}
+		GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+				.from((CompositeData) notification.getUserData());
+		long used = 0;
+		for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+			if (heapPools.contains(pool.getKey())) {
+				used += pool.getValue().getUsed();
+			}
+		}
+		heapPeak.accumulateAndGet(used, Math::max);
+		if (info.getGcAction().contains("concurrent") || info.getGcName().contains("Concurrent")
+				|| info.getGcName().contains("Cycles")) {
+			return;
+		}
+		synchronized (pauses) {
+			pauses.recordValue(Math.min(info.getGcInfo().getDuration(), HIGHEST_PAUSE_MILLIS));
+		}
+	}
+
+	/**
+	 * Prints the GC pauses and heap peak.
+	 */
+	void report() {
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		synchronized (pauses) {
+			System.out.printf("GC pauses: %d, total %d ms, p99 %d ms, max %d ms%n", pauses.getTotalCount(),
+					(long) (pauses.getMean() * pauses.getTotalCount()), pauses.getValueAtPercentile(99),
+					pauses.getMaxValue());
+		}
+		System.out.printf("Heap peak: %.1f MiB of %.1f MiB max%n", heapPeak.get() / 1048576.0,
+				heap.getMax() / 1048576.0);
+	}
+}
@@ -0,0 +1,293 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.mosip.biosdk.services.SdkApplication;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.synthetic.SyntheticBioApi;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Open-loop load generator for the running service.
+ * <p>
+ * Unless {@code --url} points to a running service, the application is
+ * started in this JVM on a random port with the {@link SyntheticBioApi}.
+ * Requests to {@code /check-quality}, {@code /extract-template} and
+ * {@code /match} are issued at the configured arrival rate, independently of
+ * the responses, each from its own virtual thread. Latency is measured from
+ * the scheduled arrival time, so a stalled service is charged for the requests
+ * that queued up behind it. After the warm-up period, latencies are recorded
+ * into HdrHistograms and, for an in-process service, GC pauses and heap usage
+ * are tracked.
+ * </p>
+ * <p>
+ * Options, with their defaults:
+ * </p>
+ *
+ * <pre>
+ * --rate 100                   arrivals per second
+ * --arrivals poisson           poisson or constant
+ * --warmup 10                  seconds before recording
+ * --duration 60                recorded seconds
+ * --mix check-quality=5,extract-template=3,match=2
+ * --gallery 100                gallery records per match request
+ * --url http://host:port/biosdk-service
+ * --seed 1
+ * -- [application arguments]   passed to the in-process service
+ * </pre>
+ */
+public final class LoadHarness {
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+	private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+	private static final List<BiometricType> SAMPLE_MODALITIES = List.of(BiometricType.FINGER, BiometricType.IRIS,
+			BiometricType.FACE);
+
+	enum Operation {
+		CHECK_QUALITY("check-quality"), EXTRACT_TEMPLATE("extract-template"), MATCH("match");
+
+		private final String path;
+
+		Operation(String path) {
+			this.path = path;
+		}
+	}
+
+	private final Map<String, String> options;
+	private final Map<Operation, List<String>> bodies = new EnumMap<>(Operation.class);
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10)).build();
+	private volatile long measureFromNanos = Long.MAX_VALUE;
+
+	private LoadHarness(Map<String, String> options) {
+		this.options = options;
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+			errors.put(operation, new LongAdder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		List<String> applicationArgs = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if ("--".equals(args[i])) {
+				applicationArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+				break;
+			}
+			if (!args[i].startsWith("--") || i + 1 == args.length) {
+				throw new IllegalArgumentException("Expected --option value at " + args[i]);
+			}
+			options.put(args[i].substring(2), args[++i]);
+		}
+		new LoadHarness(options).run(applicationArgs);
+	}
+
+	private String option(String name, String defaultValue) {
+		return options.getOrDefault(name, defaultValue);
+	}
+
+	private void run(List<String> applicationArgs) throws InterruptedException {
+		ConfigurableApplicationContext context = null;
+		String url = options.get("url");
+		if (url == null) {
+			List<String> args = new ArrayList<>(List.of("--server.port=0",
+					"--biosdk_bioapi_impl=" + SyntheticBioApi.class.getName()));
+			args.addAll(applicationArgs);
+			long startNanos = System.nanoTime();
+			context = SpringApplication.run(SdkApplication.class, args.toArray(new String[0]));
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			url = "http://localhost:" + port + context.getEnvironment().getProperty("server.servlet.context-path", "");
+			System.out.printf("Service started in %d ms at %s%n",
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), url);
+		}
+		try {
+			drive(url, context != null);
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+	}
+
+	private void drive(String url, boolean inProcess) throws InterruptedException {
+		double rate = Double.parseDouble(option("rate", "100"));
+		boolean poisson = "poisson".equals(option("arrivals", "poisson"));
+		long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "10")));
+		long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "60")));
+		if (rate <= 0 || durationNanos <= 0) {
+			throw new IllegalArgumentException("--rate and --duration must be positive");
+		}
+		SplittableRandom random = new SplittableRandom(Long.parseLong(option("seed", "1")));
+		Operation[] mix = mix(option("mix", "check-quality=5,extract-template=3,match=2"));
+		buildBodies(Integer.parseInt(option("gallery", "100")));
+		Map<Operation, URI> uris = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			uris.put(operation, URI.create(url + "/" + operation.path));
+		}
+
+		JvmMonitor jvmMonitor = inProcess ? new JvmMonitor() : null;
+		double meanInterArrivalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+		long startNanos = System.nanoTime();
+		long measureUntilNanos = startNanos + warmupNanos + durationNanos;
+		long next = startNanos;
+		long sent = 0;
+		boolean measuring = false;
+		System.out.printf("Driving %.1f requests/s (%s arrivals) for %d s after %d s of warm-up%n", rate,
+				poisson ? "poisson" : "constant", TimeUnit.NANOSECONDS.toSeconds(durationNanos),
+				TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+		try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+			while (next < measureUntilNanos) {
+				if (!measuring && next >= startNanos + warmupNanos) {
+					measuring = true;
+					measureFromNanos = next;
+					recorders.values().forEach(Recorder::reset);
+					errors.values().forEach(LongAdder::reset);
+					if (jvmMonitor != null) {
+						jvmMonitor.start();
+					}
+				}
+				long delay = next - System.nanoTime();
+				if (delay > 0) {
+					LockSupport.parkNanos(delay);
+				}
+				Operation operation = mix[random.nextInt(mix.length)];
+				List<String> candidates = bodies.get(operation);
+				String body = candidates.get(random.nextInt(candidates.size()));
+				long scheduledNanos = next;
+				requests.execute(() -> send(operation, uris.get(operation), body, scheduledNanos));
+				sent++;
+				next += poisson ? (long) (-meanInterArrivalNanos * Math.log(1 - random.nextDouble()))
+						: (long) meanInterArrivalNanos;
+			}
+		}
+		if (jvmMonitor != null) {
+			jvmMonitor.stop();
+		}
+		report(sent, durationNanos / 1e9, jvmMonitor);
+	}
+
+	private void send(Operation operation, URI uri, String body, long scheduledNanos) {
+		boolean success;
+		try {
+			HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT)
+					.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body))
+					.build();
+			HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+			success = response.statusCode() == 200 && response.body().contains("\"errors\":[]")
+					&& response.body().contains("\"statusCode\":200");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			success = false;
+		} catch (Exception e) {
+			success = false;
+		}
+		if (scheduledNanos < measureFromNanos) {
+			return;
+		}
+		long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+		recorders.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+		if (!success) {
+			errors.get(operation).increment();
+		}
+	}
+
+	private static Operation[] mix(String mix) {
+		List<Operation> weighted = new ArrayList<>();
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.trim().split("=");
+			Operation operation = Operation.valueOf(parts[0].trim().toUpperCase().replace('-', '_'));
+			int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+			for (int i = 0; i < weight; i++) {
+				weighted.add(operation);
+			}
+		}
+		if (weighted.isEmpty()) {
+			throw new IllegalArgumentException("Empty mix " + mix);
+		}
+		return weighted.toArray(new Operation[0]);
+	}
+
+	private void buildBodies(int gallerySize) {
+		List<String> checkQuality = new ArrayList<>();
+		List<String> extractTemplate = new ArrayList<>();
+		for (BiometricType modality : SAMPLE_MODALITIES) {
+			BiometricRecord sample = BenchmarkPayloads.sample(modality, modality.ordinal());
+			CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
+			checkQualityRequestDto.setSample(sample);
+			checkQualityRequestDto.setModalitiesToCheck(List.of(modality));
+			checkQuality.add(BenchmarkPayloads.requestJson(checkQualityRequestDto));
+
+			ExtractTemplateRequestDto extractTemplateRequestDto = new ExtractTemplateRequestDto();
+			extractTemplateRequestDto.setSample(sample);
+			extractTemplateRequestDto.setModalitiesToExtract(List.of(modality));
+			extractTemplate.add(BenchmarkPayloads.requestJson(extractTemplateRequestDto));
+		}
+		bodies.put(Operation.CHECK_QUALITY, checkQuality);
+		bodies.put(Operation.EXTRACT_TEMPLATE, extractTemplate);
+
+		BiometricRecord[] gallery = BenchmarkPayloads.gallery(gallerySize);
+		MatchRequestDto hit = new MatchRequestDto();
+		hit.setSample(gallery[gallerySize / 2]);
+		hit.setGallery(gallery);
+		hit.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		MatchRequestDto miss = new MatchRequestDto();
+		miss.setSample(BenchmarkPayloads.template(0L));
+		miss.setGallery(gallery);
+		miss.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		bodies.put(Operation.MATCH, List.of(BenchmarkPayloads.requestJson(hit), BenchmarkPayloads.requestJson(miss)));
+	}
+
+	private void report(long sent, double seconds, JvmMonitor jvmMonitor) {
+		System.out.println();
+		System.out.printf("%-18s %9s %7s %10s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/s",
+				"p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		Histogram all = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+		long allErrors = 0;
+		for (Operation operation : Operation.values()) {
+			Histogram histogram = recorders.get(operation).getIntervalHistogram();
+			long operationErrors = errors.get(operation).sum();
+			all.add(histogram);
+			allErrors += operationErrors;
+			printRow(operation.path, histogram, operationErrors, seconds);
+		}
+		printRow("all", all, allErrors, seconds);
+		System.out.printf("%nSent %d requests in total, including warm-up%n", sent);
+		if (jvmMonitor != null) {
+			jvmMonitor.report();
+		}
+	}
+
+	private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+		System.out.printf("%-18s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+				histogram.getTotalCount() / seconds, histogram.getValueAtPercentile(50) / 1e3,
+				histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+				histogram.getMaxValue() / 1e3);
+	}
+}
@@ -0,0 +1,122 @@
+package io.mosip.biosdk.services.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class LoadHarnessTest {
+	private static final String CONTEXT_PATH = "/biosdk-service";
+	private static final String SUCCESS = "{\"errors\":[],\"response\":{\"statusCode\":200}}";
+	private static final String FAILURE = "{\"errors\":[{\"errorCode\":\"UNKNOWN_ERROR\"}],\"response\":null}";
+	private static final Pattern ROW = Pattern.compile("^(\\S+)\\s+(\\d+)\\s+(\\d+)\\s", Pattern.MULTILINE);
+	private static final Pattern SENT = Pattern.compile("Sent (\\d+) requests");
+
+	private final Map<String, LongAdder> received = new ConcurrentHashMap<>();
+	private HttpServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext(CONTEXT_PATH + "/check-quality", exchange -> answer(exchange, SUCCESS));
+		server.createContext(CONTEXT_PATH + "/match", exchange -> answer(exchange, FAILURE));
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void drivesMixAtRateAndReportsLatenciesAndErrors() throws Exception {
+		String output = run("--url", "http://localhost:" + server.getAddress().getPort() + CONTEXT_PATH, "--rate",
+				"100", "--arrivals", "constant", "--warmup", "0", "--duration", "1", "--mix",
+				"check-quality=1,match=1", "--gallery", "2");
+
+		Map<String, long[]> rows = new HashMap<>();
+		Matcher row = ROW.matcher(output);
+		while (row.find()) {
+			rows.put(row.group(1), new long[] { Long.parseLong(row.group(2)), Long.parseLong(row.group(3)) });
+		}
+		Matcher sent = SENT.matcher(output);
+		assertTrue(output, sent.find());
+		long checkQuality = received.get("/check-quality").sum();
+		long match = received.get("/match").sum();
+		assertEquals(100, Long.parseLong(sent.group(1)));
+		assertEquals(100, checkQuality + match);
+		assertTrue(checkQuality > 0 && match > 0);
+		assertEquals(checkQuality, rows.get("check-quality")[0]);
+		assertEquals(0, rows.get("check-quality")[1]);
+		assertEquals(match, rows.get("match")[0]);
+		assertEquals(match, rows.get("match")[1]);
+		assertEquals(0, rows.get("extract-template")[0]);
+		assertEquals(100, rows.get("all")[0]);
+		assertEquals(match, rows.get("all")[1]);
+	}
+
+	@Test
+	public void reportsGcPausesAndHeapPeak() {
+		JvmMonitor jvmMonitor = new JvmMonitor();
+		PrintStream out = System.out;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+		try {
+			jvmMonitor.start();
+			System.gc();
+			jvmMonitor.stop();
+			jvmMonitor.report();
+		} finally {
+			System.setOut(out);
+		}
+
+		String output = buffer.toString(StandardCharsets.UTF_8);
+		assertTrue(output, output.contains("GC pauses: "));
+		assertTrue(output, output.matches("(?s).*Heap peak: \\d+\\.\\d MiB of .*"));
+	}
+
+	private static String run(String... args) throws Exception {
+		PrintStream out = System.out;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+		try {
+			LoadHarness.main(args);
+		} finally {
+			System.setOut(out);
+		}
+		return buffer.toString(StandardCharsets.UTF_8);
+	}
+
+	private void answer(HttpExchange exchange, String body) throws IOException {
+		try (InputStream request = exchange.getRequestBody()) {
+			request.readAllBytes();
+		}
+		received.computeIfAbsent(exchange.getHttpContext().getPath().substring(CONTEXT_PATH.length()),
+				path -> new LongAdder()).increment();
+		byte[] response = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, response.length);
+		try (OutputStream stream = exchange.getResponseBody()) {
+			stream.write(response);
+		}
+	}
+}
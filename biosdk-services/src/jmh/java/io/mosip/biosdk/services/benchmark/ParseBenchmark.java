@@ -0,0 +1,156 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.match.LazyMatchRequest;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Gson parsing of the decoded request of every operation.
+ * <p>
+ * The match request is parsed both eagerly into a {@link MatchRequestDto} and
+ * through the {@link LazyMatchRequest} index used by the provider, with and
+ * without materializing the gallery.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--enable-preview", "--add-opens", "java.base/java.time=ALL-UNNAMED",
+		"-Xms2g", "-Xmx2g" })
+public class ParseBenchmark {
+	private static final Gson GSON = BenchmarkPayloads.GSON;
+
+	@State(Scope.Benchmark)
+	public static class SampleRequests {
+		@Param({ "FINGER", "IRIS", "FACE" })
+		private BiometricType modality;
+
+		private String initJson;
+		private String checkQualityJson;
+		private String extractTemplateJson;
+		private String segmentJson;
+		private String convertFormatJson;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			BiometricRecord sample = BenchmarkPayloads.sample(modality, 1L);
+			List<BiometricType> modalities = List.of(modality);
+
+			InitRequestDto initRequestDto = new InitRequestDto();
+			Map<String, String> initParams = new HashMap<>();
+			initParams.put("threshold", "0.7");
+			initRequestDto.setInitParams(initParams);
+			initJson = GSON.toJson(initRequestDto);
+
+			CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
+			checkQualityRequestDto.setSample(sample);
+			checkQualityRequestDto.setModalitiesToCheck(modalities);
+			checkQualityJson = GSON.toJson(checkQualityRequestDto);
+
+			ExtractTemplateRequestDto extractTemplateRequestDto = new ExtractTemplateRequestDto();
+			extractTemplateRequestDto.setSample(sample);
+			extractTemplateRequestDto.setModalitiesToExtract(modalities);
+			extractTemplateJson = GSON.toJson(extractTemplateRequestDto);
+
+			SegmentRequestDto segmentRequestDto = new SegmentRequestDto();
+			segmentRequestDto.setSample(sample);
+			segmentRequestDto.setModalitiesToSegment(modalities);
+			segmentJson = GSON.toJson(segmentRequestDto);
+
+			ConvertFormatRequestDto convertFormatRequestDto = new ConvertFormatRequestDto();
+			convertFormatRequestDto.setSample(sample);
+			convertFormatRequestDto.setSourceFormat("ISO19794_4_2011");
+			convertFormatRequestDto.setTargetFormat("IMAGE/JPEG");
+			convertFormatRequestDto.setModalitiesToConvert(modalities);
+			convertFormatJson = GSON.toJson(convertFormatRequestDto);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class MatchRequests {
+		@Param({ "1", "10", "100", "1000" })
+		private int gallerySize;
+
+		private String matchJson;
+		private byte[] matchBytes;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			MatchRequestDto matchRequestDto = new MatchRequestDto();
+			matchRequestDto.setSample(BenchmarkPayloads.template(0L));
+			matchRequestDto.setGallery(BenchmarkPayloads.gallery(gallerySize));
+			matchRequestDto.setModalitiesToMatch(List.of(BiometricType.FINGER));
+			matchJson = GSON.toJson(matchRequestDto);
+			matchBytes = matchJson.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	@Benchmark
+	public InitRequestDto init(SampleRequests requests) {
+		return GSON.fromJson(requests.initJson, InitRequestDto.class);
+	}
+
+	@Benchmark
+	public CheckQualityRequestDto checkQuality(SampleRequests requests) {
+		return GSON.fromJson(requests.checkQualityJson, CheckQualityRequestDto.class);
+	}
+
+	@Benchmark
+	public ExtractTemplateRequestDto extractTemplate(SampleRequests requests) {
+		return GSON.fromJson(requests.extractTemplateJson, ExtractTemplateRequestDto.class);
+	}
+
+	@Benchmark
+	public SegmentRequestDto segment(SampleRequests requests) {
+		return GSON.fromJson(requests.segmentJson, SegmentRequestDto.class);
+	}
+
+	@Benchmark
+	public ConvertFormatRequestDto convertFormat(SampleRequests requests) {
+		return GSON.fromJson(requests.convertFormatJson, ConvertFormatRequestDto.class);
+	}
+
+	@Benchmark
+	public MatchRequestDto match(MatchRequests requests) {
+		return GSON.fromJson(requests.matchJson, MatchRequestDto.class);
+	}
+
+	@Benchmark
+	public LazyMatchRequest matchIndex(MatchRequests requests) {
+		return LazyMatchRequest.parse(requests.matchBytes, GSON);
+	}
+
+	@Benchmark
+	public BiometricRecord[] matchIndexMaterialized(MatchRequests requests) {
+		LazyMatchRequest matchRequest = LazyMatchRequest.parse(requests.matchBytes, GSON);
+		return matchRequest.materialize(0, matchRequest.size());
+	}
+}
@@ -0,0 +1,295 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.mosip.biosdk.services.SdkApplication;
+import io.mosip.biosdk.services.synthetic.SyntheticBioApi;
+
+/**
+ * Compares the startup time of the service launched as in the Docker image
+ * with the layout built by the {@code cds} profile.
+ * <p>
+ * Each run starts the service in a new JVM and polls its health groups:
+ * <em>started</em> is the time until {@code /actuator/health/liveness} answers,
+ * i.e. the application context is up, and <em>ready</em> the time until
+ * {@code /actuator/health/readiness} is {@code UP}, i.e. the SDK is created,
+ * initialised and warmed up. The variants are run in turns so that drift
+ * affects them alike, and the first round is discarded.
+ * </p>
+ * <ul>
+ * <li>{@code fat}: {@code -Dloader.path=sdk/ -jar} the repackaged jar, as the
+ * Docker image does</li>
+ * <li>{@code exploded}: the application jar with its dependencies and the SDK
+ * jars on the class path</li>
+ * <li>{@code aot}: exploded, with the Spring AOT initialisers</li>
+ * <li>{@code cds}: exploded, with the class data sharing archive</li>
+ * <li>{@code cds-aot}: both</li>
+ * </ul>
+ * <p>
+ * The children use the JDK running this benchmark, which must be the one that
+ * built the archive. Options, with their defaults:
+ * </p>
+ *
+ * <pre>
+ * --variants fat,exploded,aot,cds,cds-aot
+ * --runs 5                     measured runs per variant
+ * --target target              build directory holding the jars and cds/
+ * --sdk-impl io.mosip.biosdk.services.synthetic.SyntheticBioApi
+ * --timeout 300                seconds to wait for readiness
+ * -- [application arguments]   passed to every service
+ * </pre>
+ */
+public final class StartupBenchmark {
+	private static final String CDS_DIRECTORY = "cds";
+	private static final String ARCHIVE = "biosdk-services.jsa";
+	private static final String ARCHIVE_REJECTED = "Unable to use shared archive";
+	private static final String CONTEXT_PATH = "/biosdk-service";
+	private static final long POLL_MILLIS = 20;
+	private static final List<String> JVM_ARGS = List.of("--add-modules=ALL-SYSTEM", "--add-opens",
+			"java.xml/jdk.xml.internal=ALL-UNNAMED", "--add-opens", "java.base/java.lang.reflect=ALL-UNNAMED",
+			"--add-opens", "java.base/java.lang.stream=ALL-UNNAMED", "--add-opens",
+			"java.base/java.time=ALL-UNNAMED", "--enable-preview");
+	private static final String LAYOUT_CONFIG_ARG = "-Dspring.config.import=optional:classpath:bootstrap.properties,optional:configserver:";
+
+	enum Variant {
+		FAT("fat", false, false), EXPLODED("exploded", false, false), AOT("aot", true, false),
+		CDS("cds", false, true), CDS_AOT("cds-aot", true, true);
+
+		private final String name;
+		private final boolean aot;
+		private final boolean cds;
+
+		Variant(String name, boolean aot, boolean cds) {
+			this.name = name;
+			this.aot = aot;
+			this.cds = cds;
+		}
+
+		static Variant of(String name) {
+			for (Variant variant : values()) {
+				if (variant.name.equals(name)) {
+					return variant;
+				}
+			}
+			throw new IllegalArgumentException("Unknown variant " + name);
+		}
+	}
+
+	private final Map<String, String> options;
+	private final List<String> applicationArgs;
+	private final Path cdsDirectory;
+	private final Path logDirectory;
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(1)).build();
+
+	private StartupBenchmark(Map<String, String> options, List<String> applicationArgs) {
+		this.options = options;
+		this.applicationArgs = applicationArgs;
+		Path target = Path.of(options.getOrDefault("target", "target")).toAbsolutePath();
+		this.cdsDirectory = target.resolve(CDS_DIRECTORY);
+		this.logDirectory = target.resolve("startup");
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		List<String> applicationArgs = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if ("--".equals(args[i])) {
+				applicationArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+				break;
+			}
+			if (!args[i].startsWith("--") || i + 1 == args.length) {
+				throw new IllegalArgumentException("Expected --option value at " + args[i]);
+			}
+			options.put(args[i].substring(2), args[++i]);
+		}
+		new StartupBenchmark(options, applicationArgs).run();
+	}
+
+	private void run() throws IOException, InterruptedException {
+		List<Variant> variants = new ArrayList<>();
+		for (String name : options.getOrDefault("variants", "fat,exploded,aot,cds,cds-aot").split(",")) {
+			variants.add(Variant.of(name.trim()));
+		}
+		int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+		Files.createDirectories(logDirectory);
+
+		Map<Variant, List<long[]>> results = new EnumMap<>(Variant.class);
+		for (int round = 0; round <= runs; round++) {
+			for (Variant variant : variants) {
+				long[] timings = start(variant, round);
+				System.out.printf("%s round %d: started %d ms, ready %d ms%n", variant.name, round, timings[0],
+						timings[1]);
+				if (round > 0) {
+					results.computeIfAbsent(variant, v -> new ArrayList<>()).add(timings);
+				}
+			}
+		}
+		report(results);
+	}
+
+	/**
+	 * Starts the service and waits until it is ready.
+	 *
+	 * @return the milliseconds until started and until ready.
+	 */
+	private long[] start(Variant variant, int round) throws IOException, InterruptedException {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Path log = logDirectory.resolve(variant.name + "-" + round + ".log");
+		ProcessBuilder processBuilder = new ProcessBuilder(command(variant, port)).directory(cdsDirectory.toFile())
+				.redirectErrorStream(true).redirectOutput(log.toFile());
+		String base = "http://localhost:" + port + CONTEXT_PATH + "/actuator/health/";
+		long timeoutNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("timeout", "300")));
+
+		long startNanos = System.nanoTime();
+		Process process = processBuilder.start();
+		try {
+			long started = awaitUp(process, base + "liveness", startNanos, timeoutNanos, log);
+			long ready = awaitUp(process, base + "readiness", startNanos, timeoutNanos, log);
+			warnOnArchiveMismatch(variant, log);
+			return new long[] { TimeUnit.NANOSECONDS.toMillis(started), TimeUnit.NANOSECONDS.toMillis(ready) };
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	private List<String> command(Variant variant, int port) throws IOException {
+		List<String> command = new ArrayList<>();
+		command.add(ProcessHandle.current().info().command().orElse("java"));
+		if (variant.cds) {
+			command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+			// a missing or rejected archive is only reported at info level
+			command.add("-Xlog:cds");
+		}
+		command.addAll(JVM_ARGS);
+		if (variant != Variant.FAT) {
+			command.add(LAYOUT_CONFIG_ARG);
+		}
+		if (variant.aot) {
+			command.add("-Dspring.aot.enabled=true");
+		}
+		command.add("-Dbiosdk_bioapi_impl=" + options.getOrDefault("sdk-impl", SyntheticBioApi.class.getName()));
+		command.add("-Dspring.cloud.config.enabled=false");
+		command.add("-Dserver.port=" + port);
+		if (variant == Variant.FAT) {
+			command.add("-Dloader.path=sdk/");
+			command.add("-jar");
+			command.add(jar(cdsDirectory.getParent(), "-cds.jar").toString());
+		} else {
+			command.add("-cp");
+			command.add(jar(cdsDirectory, null).getFileName() + File.pathSeparator + "sdk/*");
+			command.add(SdkApplication.class.getName());
+		}
+		command.addAll(applicationArgs);
+		return command;
+	}
+
+	/**
+	 * Finds the repackaged jar, which is the jar without classifier, or the
+	 * application jar of the cds layout when {@code excludedSuffix} is null.
+	 */
+	private static Path jar(Path directory, String excludedSuffix) throws IOException {
+		try (DirectoryStream<Path> jars = Files.newDirectoryStream(directory, "biosdk-services-*.jar")) {
+			for (Path jar : jars) {
+				String name = jar.getFileName().toString();
+				if (excludedSuffix == null || !name.endsWith(excludedSuffix) && !name.endsWith("-sources.jar")
+						&& !name.endsWith("-javadoc.jar")) {
+					return jar;
+				}
+			}
+		}
+		throw new IllegalStateException(
+				"No service jar in " + directory + ", build it with mvn -Pcds -DskipTests package");
+	}
+
+	private long awaitUp(Process process, String url, long startNanos, long timeoutNanos, Path log)
+			throws InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).build();
+		while (true) {
+			try {
+				HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+				if (response.statusCode() == 200) {
+					return System.nanoTime() - startNanos;
+				}
+			} catch (ConnectException e) {
+				// not listening yet
+			} catch (IOException e) {
+				// closed while starting
+			}
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Service exited with " + process.exitValue() + ", see " + log);
+			}
+			if (System.nanoTime() - startNanos > timeoutNanos) {
+				throw new IllegalStateException("Service not up within the timeout, see " + log);
+			}
+			Thread.sleep(POLL_MILLIS);
+		}
+	}
+
+	private static void warnOnArchiveMismatch(Variant variant, Path log) {
+		if (!variant.cds) {
+			return;
+		}
+		try (Stream<String> lines = Files.lines(log)) {
+			lines.filter(line -> line.contains("[cds") && (line.contains("[warning]") || line.contains("[error]")
+					|| line.contains(ARCHIVE_REJECTED))).findFirst()
+					.ifPresent(line -> System.out.println("  archive not used: " + line));
+		} catch (IOException | UncheckedIOException e) {
+			// the log is informational only
+		}
+	}
+
+	/**
+	 * Prints the medians and ranges, and the speed-up of the medians relative to
+	 * the first variant.
+	 */
+	private static void report(Map<Variant, List<long[]>> results) {
+		long[] baseline = null;
+		System.out.printf("%n%-10s %5s %26s %26s %9s%n", "variant", "runs", "started p50 (min-max) ms",
+				"ready p50 (min-max) ms", "speed-up");
+		for (Map.Entry<Variant, List<long[]>> entry : results.entrySet()) {
+			long[] started = entry.getValue().stream().mapToLong(timings -> timings[0]).sorted().toArray();
+			long[] ready = entry.getValue().stream().mapToLong(timings -> timings[1]).sorted().toArray();
+			if (baseline == null) {
+				baseline = new long[] { median(started), median(ready) };
+			}
+			System.out.printf("%-10s %5d %26s %26s %4.2f/%4.2f%n", entry.getKey().name, started.length,
+					summary(started), summary(ready), (double) baseline[0] / median(started),
+					(double) baseline[1] / median(ready));
+		}
+	}
+
+	private static String summary(long[] sorted) {
+		return String.format("%d (%d-%d)", median(sorted), sorted[0], sorted[sorted.length - 1]);
+	}
+
+	private static long median(long[] sorted) {
+		return sorted[sorted.length / 2];
+	}
+}
@@ -0,0 +1,93 @@
+package io.mosip.biosdk.services.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.StringJoiner;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StartupBenchmarkTest {
+	private static final Pattern ROUND = Pattern.compile("^(\\S+) round (\\d+): started (\\d+) ms, ready (\\d+) ms$",
+			Pattern.MULTILINE);
+	private static final Pattern ROW = Pattern.compile("^(exploded|cds)\\s+1\\s+\\d+ \\(\\d+-\\d+\\)",
+			Pattern.MULTILINE);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void timesStartupOfEveryVariantUntilReady() throws Exception {
+		Path target = folder.getRoot().toPath();
+		Path cds = Files.createDirectories(target.resolve("cds"));
+		Files.createDirectories(cds.resolve("sdk"));
+		writeClassPathJar(cds.resolve("biosdk-services-test.jar"));
+
+		String output = run("--variants", "exploded,cds", "--runs", "1", "--timeout", "180", "--target",
+				target.toString());
+
+		Matcher round = ROUND.matcher(output);
+		int rounds = 0;
+		while (round.find()) {
+			rounds++;
+			assertTrue(output, Long.parseLong(round.group(3)) <= Long.parseLong(round.group(4)));
+		}
+		assertEquals(output, 4, rounds);
+		Matcher row = ROW.matcher(output);
+		assertTrue(output, row.find());
+		assertEquals("exploded", row.group(1));
+		assertTrue(output, row.find());
+		assertEquals("cds", row.group(1));
+		assertTrue(output, output.contains("archive not used"));
+		assertTrue(Files.isRegularFile(target.resolve("startup").resolve("exploded-1.log")));
+	}
+
+	/**
+	 * Writes the application jar of the cds layout as a manifest-only jar
+	 * pointing to the test class path, so the children run the classes under
+	 * test without a packaged build.
+	 */
+	private static void writeClassPathJar(Path jar) throws IOException {
+		String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+		StringJoiner entries = new StringJoiner(" ");
+		for (String entry : classPath.split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				entries.add(Path.of(entry).toAbsolutePath().toUri().toString());
+			}
+		}
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, entries.toString());
+		try (OutputStream out = Files.newOutputStream(jar);
+				JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+			jarOut.finish();
+		}
+	}
+
+	private static String run(String... args) throws Exception {
+		PrintStream out = System.out;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+		try {
+			StartupBenchmark.main(args);
+		} finally {
+			System.setOut(out);
+		}
+		return buffer.toString(StandardCharsets.UTF_8);
+	}
+}
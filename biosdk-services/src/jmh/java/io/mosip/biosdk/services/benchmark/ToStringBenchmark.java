@@ -0,0 +1,50 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Rendering of a sample for the debug log by
+ * {@link Utils#toString(BiometricRecord)}, which hashes every BDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--enable-preview", "--add-opens", "java.base/java.time=ALL-UNNAMED",
+		"-Xms2g", "-Xmx2g" })
+public class ToStringBenchmark {
+	@Param({ "FINGER", "IRIS", "FACE" })
+	private BiometricType modality;
+
+	private Utils utils;
+	private BiometricRecord sample;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		utils = new Utils();
+		sample = BenchmarkPayloads.sample(modality, 1L);
+	}
+
+	@Benchmark
+	public String sample() {
+		return utils.toString(sample);
+	}
+}
@@ -0,0 +1,99 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.SdkWorkerProperties;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.sdk.worker.SdkWorkerPool;
+import io.mosip.biosdk.services.synthetic.SyntheticBioApi;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Cost of running the SDK in a worker process of a {@link SdkWorkerPool}
+ * rather than in the service: {@code checkQuality} of a finger sample and
+ * {@code match} against galleries of 1 to 1000 finger templates, on the
+ * {@link SyntheticBioApi} with no simulated cost, so that only the transfer of
+ * the payloads through the shared memory buffers is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--enable-preview", "--add-opens", "java.base/java.time=ALL-UNNAMED",
+		"-Xms2g", "-Xmx2g" })
+public class WorkerBenchmark {
+	@Param({ "in-process", "worker" })
+	public String mode;
+
+	@Param({ "1", "100", "1000" })
+	public int gallerySize;
+
+	private SdkWorkerPool pool;
+	private IBioApiV2 sdk;
+	private BiometricRecord sample;
+	private BiometricRecord probe;
+	private BiometricRecord[] gallery;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if ("worker".equals(mode)) {
+			System.setProperty("biosdk_bioapi_impl", SyntheticBioApi.class.getName());
+			SdkWorkerProperties properties = new SdkWorkerProperties();
+			properties.setEnabled(true);
+			properties.setWorkers(1);
+			pool = new SdkWorkerPool(properties, new StandardEnvironment(),
+					new BioSdkMetrics(new SimpleMeterRegistry(), false, new SlowRequestLog(-1, 1)));
+			sdk = pool.newBioApi();
+		} else {
+			SyntheticBioApi synthetic = new SyntheticBioApi();
+			synthetic.setEnvironment(new StandardEnvironment());
+			sdk = synthetic;
+		}
+		sdk.init(Map.of("cpu-micros", "0"));
+		sample = BenchmarkPayloads.sample(BiometricType.FINGER, 1L);
+		probe = BenchmarkPayloads.template(0L);
+		gallery = BenchmarkPayloads.gallery(gallerySize);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (pool != null) {
+			pool.stop();
+		}
+	}
+
+	@Benchmark
+	public Response<QualityCheck> checkQuality() {
+		return sdk.checkQuality(sample, List.of(BiometricType.FINGER), Map.of());
+	}
+
+	@Benchmark
+	public Response<MatchDecision[]> match() {
+		return sdk.match(probe, gallery, List.of(BiometricType.FINGER), Map.of());
+	}
+}
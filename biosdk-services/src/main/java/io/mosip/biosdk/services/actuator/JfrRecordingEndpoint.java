@@ -0,0 +1,199 @@
+package io.mosip.biosdk.services.actuator;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.metrics.jfr.BioSdkCallEvent;
+import io.mosip.biosdk.services.metrics.jfr.BioSdkOperationEvent;
+import io.mosip.kernel.core.logger.spi.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Actuator endpoint controlling a continuous Flight Recorder recording of the
+ * service.
+ * <p>
+ * {@code POST /actuator/jfr} with {@code {"action": "start"}} starts a
+ * continuous recording using the {@code mosip.biosdk.jfr.settings}
+ * configuration, with the BioSDK events enabled and data kept for
+ * {@code mosip.biosdk.jfr.max-age-minutes}. {@code "dump"} writes the data
+ * recorded so far to a new file under {@code mosip.biosdk.jfr.dump-directory}
+ * and {@code "stop"} ends the recording. {@code GET /actuator/jfr} reports the
+ * state of the recording.
+ * </p>
+ * <p>
+ * The endpoint is disabled by default and, when enabled, is only served to
+ * users holding an admin role (see
+ * {@link io.mosip.biosdk.services.config.SecurityConfig}).
+ * </p>
+ * <p>
+ * A running recording keeps files open in the JFR repository, so it is closed
+ * before a CRaC checkpoint and a new one is started after restore. The data
+ * recorded before the checkpoint is lost.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+@Endpoint(id = "jfr", enableByDefault = false)
+public class JfrRecordingEndpoint implements Resource {
+	private static final String RECORDING_NAME = "biosdk";
+	private static final DateTimeFormatter DUMP_FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	private Logger logger = LoggerConfig.logConfig(JfrRecordingEndpoint.class);
+
+	@Value("${mosip.biosdk.jfr.settings:default}")
+	private String settings;
+
+	@Value("${mosip.biosdk.jfr.max-age-minutes:30}")
+	private long maxAgeMinutes;
+
+	@Value("${mosip.biosdk.jfr.dump-directory:${java.io.tmpdir}}")
+	private String dumpDirectory;
+
+	private Recording recording;
+
+	private boolean restartAfterRestore;
+
+	/**
+	 * Registers the endpoint with the CRaC global context, a no-op on a JVM
+	 * without CRaC support.
+	 */
+	@PostConstruct
+	public void registerCheckpointResource() {
+		Core.getGlobalContext().register(this);
+	}
+
+	@Override
+	public synchronized void beforeCheckpoint(Context<? extends Resource> context) {
+		restartAfterRestore = recording != null;
+		stop();
+	}
+
+	@Override
+	public synchronized void afterRestore(Context<? extends Resource> context) {
+		if (restartAfterRestore) {
+			restartAfterRestore = false;
+			start();
+		}
+	}
+
+	/**
+	 * Reports the state of the recording.
+	 *
+	 * @return the recording state.
+	 */
+	@ReadOperation
+	public synchronized Map<String, Object> status() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		if (recording == null) {
+			status.put("state", "NONE");
+			return status;
+		}
+		status.put("state", recording.getState().name());
+		status.put("settings", settings);
+		status.put("startTime", String.valueOf(recording.getStartTime()));
+		status.put("maxAge", String.valueOf(recording.getMaxAge()));
+		status.put("size", recording.getSize());
+		return status;
+	}
+
+	/**
+	 * Starts, dumps or stops the recording.
+	 *
+	 * @param action one of {@code start}, {@code dump} or {@code stop}.
+	 * @return the recording state, with the dump file for {@code dump}.
+	 */
+	@WriteOperation
+	public synchronized Map<String, Object> recording(String action) {
+		switch (action) {
+		case "start":
+			start();
+			return status();
+		case "dump":
+			Path dump = dump();
+			Map<String, Object> status = status();
+			status.put("file", dump.toString());
+			return status;
+		case "stop":
+			stop();
+			return status();
+		default:
+			throw new InvalidEndpointRequestException("Unknown action: " + action, "Unknown action");
+		}
+	}
+
+	private void start() {
+		if (recording != null) {
+			throw new InvalidEndpointRequestException("Recording already started", "Recording already started");
+		}
+		Configuration configuration;
+		try {
+			configuration = Configuration.getConfiguration(settings);
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("Unable to load JFR settings " + settings, e);
+		}
+		Recording started = new Recording(configuration);
+		started.setName(RECORDING_NAME);
+		started.setToDisk(true);
+		started.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+		started.enable(BioSdkOperationEvent.class);
+		started.enable(BioSdkCallEvent.class);
+		started.start();
+		recording = started;
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "jfr", "recording started with settings " + settings);
+	}
+
+	private Path dump() {
+		if (recording == null) {
+			throw new InvalidEndpointRequestException("No recording started", "No recording started");
+		}
+		try {
+			Path directory = Files.createDirectories(Paths.get(dumpDirectory));
+			Path file = directory
+					.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(DUMP_FILE_TIMESTAMP) + ".jfr");
+			recording.dump(file);
+			logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "jfr", "recording dumped to " + file);
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Stops and discards the recording, if any.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+			logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "jfr", "recording stopped");
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package io.mosip.biosdk.services.actuator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.warmup.SdkHotSwap;
+
+/**
+ * Actuator endpoint swapping the Bio SDK implementation without a restart.
+ * <p>
+ * {@code POST /actuator/sdkswap} with
+ * {@code {"impl": "com.vendor.BioApi", "classPath": "vendor-2.0"}} starts
+ * swapping to the given class, loaded from the comma separated class path
+ * entries, resolved against {@code mosip.biosdk.swap.class-path-directory}
+ * and rejected when outside of it; without a class path the class is loaded
+ * from the application class path. {@code GET /actuator/sdkswap} reports the
+ * progress of the last swap and the warm-up latency of the new implementation
+ * (see {@link SdkHotSwap}).
+ * </p>
+ * <p>
+ * The endpoint is disabled by default and, when enabled, is only served to
+ * users holding an admin role (see
+ * {@link io.mosip.biosdk.services.config.SecurityConfig}).
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+@Endpoint(id = "sdkswap", enableByDefault = false)
+public class SdkSwapEndpoint {
+	private final SdkHotSwap sdkHotSwap;
+
+	/**
+	 * Constructs a new {@code SdkSwapEndpoint}.
+	 *
+	 * @param sdkHotSwap the swap of the SDK implementation.
+	 */
+	public SdkSwapEndpoint(SdkHotSwap sdkHotSwap) {
+		this.sdkHotSwap = sdkHotSwap;
+	}
+
+	/**
+	 * Reports the progress of the last swap.
+	 *
+	 * @return the swap state and details.
+	 */
+	@ReadOperation
+	public Map<String, Object> status() {
+		return sdkHotSwap.status();
+	}
+
+	/**
+	 * Starts swapping the SDK implementation.
+	 *
+	 * @param impl      the class implementing {@code IBioApiV2}.
+	 * @param classPath the comma separated class path entries of the
+	 *                  implementation; may be {@code null}.
+	 * @return the swap state.
+	 */
+	@WriteOperation
+	public Map<String, Object> swap(String impl, @Nullable String classPath) {
+		List<String> entries = classPath == null ? List.of()
+				: Arrays.stream(classPath.split(",")).map(String::trim).filter(entry -> !entry.isEmpty()).toList();
+		try {
+			return sdkHotSwap.start(impl, entries);
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+		}
+	}
+}
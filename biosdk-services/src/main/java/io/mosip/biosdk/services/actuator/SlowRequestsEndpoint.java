@@ -0,0 +1,61 @@
+package io.mosip.biosdk.services.actuator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+
+/**
+ * Actuator endpoint exposing the requests captured by the
+ * {@link SlowRequestLog}.
+ * <p>
+ * {@code GET /actuator/slowrequests} lists the captured requests, most recent
+ * first; {@code DELETE /actuator/slowrequests} empties the log. The endpoint
+ * is disabled by default and, when enabled, is only served to users holding an
+ * admin role (see {@link io.mosip.biosdk.services.config.SecurityConfig}).
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+@Endpoint(id = "slowrequests", enableByDefault = false)
+public class SlowRequestsEndpoint {
+	private final SlowRequestLog slowRequestLog;
+
+	/**
+	 * Constructs a new {@code SlowRequestsEndpoint}.
+	 *
+	 * @param slowRequestLog the log of slow requests.
+	 */
+	@Autowired
+	public SlowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+		this.slowRequestLog = slowRequestLog;
+	}
+
+	/**
+	 * Lists the captured requests.
+	 *
+	 * @return the capture threshold and the captured requests.
+	 */
+	@ReadOperation
+	public Map<String, Object> slowRequests() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("thresholdMillis", slowRequestLog.getThresholdMillis());
+		result.put("requests", slowRequestLog.snapshot());
+		return result;
+	}
+
+	/**
+	 * Empties the log.
+	 */
+	@DeleteOperation
+	public void clear() {
+		slowRequestLog.clear();
+	}
+}
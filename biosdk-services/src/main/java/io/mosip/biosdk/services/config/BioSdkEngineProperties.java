@@ -0,0 +1,84 @@
+package io.mosip.biosdk.services.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import lombok.Data;
+
+/**
+ * Configuration properties of the SDK engines, vendor {@code IBioApiV2}
+ * implementations each serving some modalities.
+ * <p>
+ * An engine is declared under {@code mosip.biosdk.engines.<name>}:
+ * </p>
+ *
+ * <pre>
+ * mosip.biosdk.engines.finger.impl=com.vendor.a.FingerSdk
+ * mosip.biosdk.engines.finger.class-path=vendor-a/
+ * mosip.biosdk.engines.finger.modalities=FINGER
+ * mosip.biosdk.engines.finger.max-concurrency=4
+ * </pre>
+ * <p>
+ * Modalities of no engine are served by {@code biosdk_bioapi_impl}, when set,
+ * and rejected otherwise.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mosip.biosdk")
+@Data
+public class BioSdkEngineProperties {
+	/**
+	 * Engines by name.
+	 */
+	private Map<String, Engine> engines = new LinkedHashMap<>();
+
+	/**
+	 * Package prefixes an engine class loader takes from the application rather
+	 * than from the engine class path, so that the SDK interfaces and model are
+	 * shared.
+	 */
+	private List<String> engineParentFirstPackages = new ArrayList<>(List.of("java.", "javax.", "jakarta.", "jdk.",
+			"sun.", "com.sun.", "org.slf4j.", "org.springframework.", "io.mosip.kernel."));
+
+	/**
+	 * Maximum number of threads running the sub-requests of calls split across
+	 * engines; beyond that the calling thread runs them.
+	 */
+	private int engineThreads = 16;
+
+	/**
+	 * One SDK engine.
+	 */
+	@Data
+	public static class Engine {
+		/**
+		 * Class implementing {@code IBioApiV2}.
+		 */
+		private String impl;
+
+		/**
+		 * Jars and directories of jars the engine is loaded from, relative to
+		 * {@code loader.path} unless absolute. Empty to load the class from the
+		 * application class path.
+		 */
+		private List<String> classPath = new ArrayList<>();
+
+		/**
+		 * Modalities routed to the engine.
+		 */
+		private List<BiometricType> modalities = new ArrayList<>();
+
+		/**
+		 * Maximum number of concurrent calls into the engine; 0 for no limit.
+		 */
+		private int maxConcurrency;
+	}
+}
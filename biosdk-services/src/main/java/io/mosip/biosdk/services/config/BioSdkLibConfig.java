@@ -10,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -17,6 +18,10 @@ import org.springframework.core.env.Environment;
 
 import io.mosip.biosdk.services.constants.ErrorMessages;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.sdk.BioSdkEngines;
+import io.mosip.biosdk.services.sdk.ModalityRoutingBioApi;
+import io.mosip.biosdk.services.sdk.worker.SdkWorkerPool;
+import io.mosip.biosdk.services.sdk.worker.WorkerBioApi;
 import io.mosip.kernel.biometrics.spi.IBioApiV2;
 import jakarta.annotation.PostConstruct;
 
@@ -28,6 +33,16 @@ import jakarta.annotation.PostConstruct;
  * It reads the SDK implementation class name from the application environment
  * properties and ensures that the class is available and can be instantiated.
  * </p>
+ * <p>
+ * When {@link BioSdkEngines} are configured the SDK is a
+ * {@link ModalityRoutingBioApi} routing each modality to its engine, with the
+ * {@code biosdk_bioapi_impl} class, if any, serving the other modalities.
+ * </p>
+ * <p>
+ * When the {@link SdkWorkerPool} is enabled the {@code biosdk_bioapi_impl}
+ * class runs in worker processes, and its instances are {@link WorkerBioApi}
+ * handles.
+ * </p>
  *
  * <pre>
  * {@code
@@ -46,14 +61,22 @@ public class BioSdkLibConfig {
 
 	private Environment env;
 
+	private BioSdkEngines bioSdkEngines;
+
+	private SdkWorkerPool sdkWorkerPool;
+
 	/**
 	 * Constructs a new {@code BioSdkLibConfig} with the specified environment.
 	 *
-	 * @param env the environment containing the application properties.
+	 * @param env           the environment containing the application properties.
+	 * @param bioSdkEngines the SDK engines routed to per modality.
+	 * @param sdkWorkerPool the worker processes running the SDK, when enabled.
 	 */
 	@Autowired
-	public BioSdkLibConfig(Environment env) {
+	public BioSdkLibConfig(Environment env, BioSdkEngines bioSdkEngines, SdkWorkerPool sdkWorkerPool) {
 		this.env = env;
+		this.bioSdkEngines = bioSdkEngines;
+		this.sdkWorkerPool = sdkWorkerPool;
 	}
 
 	/**
@@ -61,10 +84,11 @@ public class BioSdkLibConfig {
 	 * <p>
 	 * This method is called after the bean's properties have been set. It checks if
 	 * the {@code biosdk_bioapi_impl} property is specified and if the corresponding
-	 * class is available.
+	 * class is available, and validates the configured engines.
 	 * </p>
 	 *
 	 * @throws ClassNotFoundException if the specified class is not found.
+	 * @throws BioSDKException        if the engine configuration is invalid.
 	 */
 	@PostConstruct
 	public void validateBioSdkLib() throws ClassNotFoundException {
@@ -74,6 +98,7 @@ public class BioSdkLibConfig {
 			logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "validating Bio SDK Class is present or not");
 			Class.forName(sdkClass);
 		}
+		bioSdkEngines.validate();
 
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "validateBioSdkLib: Bio SDK Class is not provided");
 	}
@@ -83,8 +108,9 @@ public class BioSdkLibConfig {
 	 * <p>
 	 * This method retrieves the class name of the Bio SDK implementation from the
 	 * environment properties, instantiates it using reflection, and returns the
-	 * instance. If the class name is not specified or if instantiation fails, an
-	 * exception is thrown.
+	 * instance. An implementation that is {@link EnvironmentAware} is handed the
+	 * environment to read its own settings. If the class name is not specified or
+	 * if instantiation fails, an exception is thrown.
 	 * </p>
 	 *
 	 * @return an instance of {@link IBioApiV2}.
@@ -102,16 +128,70 @@ public class BioSdkLibConfig {
 	@Lazy
 	public IBioApiV2 iBioApi() throws ClassNotFoundException, InstantiationException, IllegalAccessException,
 			NoSuchMethodException, SecurityException, IllegalArgumentException, InvocationTargetException {
+		return newBioApi();
+	}
+
+	/**
+	 * Creates a new instance of the Bio SDK implementation, distinct from the
+	 * {@link #iBioApi()} bean. Used to initialise a standby instance while the
+	 * active one keeps serving requests.
+	 *
+	 * @return a new, uninitialised instance of {@link IBioApiV2}, a
+	 *         {@link ModalityRoutingBioApi} when engines are configured, or a
+	 *         {@link WorkerBioApi} when the workers are enabled.
+	 * @throws ClassNotFoundException    if the specified class is not found.
+	 * @throws InstantiationException    if the class cannot be instantiated.
+	 * @throws IllegalAccessException    if the class or its nullary constructor is
+	 *                                   not accessible.
+	 * @throws NoSuchMethodException     if the class does not have a nullary
+	 *                                   constructor.
+	 * @throws InvocationTargetException if the underlying constructor throws an
+	 *                                   exception.
+	 * @throws BioSDKException           if no Bio SDK provider is found, or the
+	 *                                   workers cannot be started.
+	 * @since 1.2.1
+	 */
+	public IBioApiV2 newBioApi() throws ClassNotFoundException, InstantiationException, IllegalAccessException,
+			NoSuchMethodException, SecurityException, IllegalArgumentException, InvocationTargetException {
 		String sdkClass = this.env.getProperty("biosdk_bioapi_impl");
 		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "iBioApi::Biosdk class:", sdkClass);
-		if (StringUtils.isNotBlank(sdkClass)) {
+		if (StringUtils.isNotBlank(sdkClass) && sdkWorkerPool.isEnabled()) {
+			logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "instance of Bio SDK is created in the workers");
+			IBioApiV2 iBioApi = sdkWorkerPool.newBioApi();
+			return bioSdkEngines.isConfigured() ? bioSdkEngines.newBioApi(iBioApi) : iBioApi;
+		} else if (StringUtils.isNotBlank(sdkClass)) {
 			logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "instance of Bio SDK is created");
 			Constructor<?> constructor = Class.forName(sdkClass).getDeclaredConstructor();
-			return (IBioApiV2) constructor.newInstance();
+			IBioApiV2 iBioApi = (IBioApiV2) constructor.newInstance();
+			if (iBioApi instanceof EnvironmentAware environmentAware) {
+				environmentAware.setEnvironment(env);
+			}
+			return bioSdkEngines.isConfigured() ? bioSdkEngines.newBioApi(iBioApi) : iBioApi;
+		} else if (bioSdkEngines.isConfigured()) {
+			return bioSdkEngines.newBioApi(null);
 		} else {
 			logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "no Bio SDK is provided");
 			throw new BioSDKException(ErrorMessages.NO_BIOSDK_PROVIDER_FOUND.toString(),
 					ErrorMessages.NO_BIOSDK_PROVIDER_FOUND.getMessage());
 		}
 	}
+
+	/**
+	 * Returns whether an SDK instance is of the classes currently configured, e.g.
+	 * to check that an instance restored from a checkpoint is still the one
+	 * expected.
+	 *
+	 * @param sdk the SDK instance.
+	 * @return {@code true} if the instance matches {@code biosdk_bioapi_impl} and
+	 *         the configured engines.
+	 * @since 1.2.1
+	 */
+	public boolean isCurrent(IBioApiV2 sdk) {
+		String sdkClass = this.env.getProperty("biosdk_bioapi_impl");
+		if (bioSdkEngines.isConfigured()) {
+			return sdk instanceof ModalityRoutingBioApi routing
+					&& routing.getEngineClasses().equals(bioSdkEngines.engineClasses(sdkClass));
+		}
+		return StringUtils.isBlank(sdkClass) || sdkClass.equals(WorkerBioApi.sdkClassOf(sdk));
+	}
 }
@@ -0,0 +1,92 @@
+package io.mosip.biosdk.services.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Configuration properties of the SDK worker processes, child JVMs running
+ * {@code biosdk_bioapi_impl} out of the service process.
+ * <p>
+ * Declared under {@code mosip.biosdk.worker}:
+ * </p>
+ *
+ * <pre>
+ * mosip.biosdk.worker.enabled=true
+ * mosip.biosdk.worker.workers=2
+ * mosip.biosdk.worker.concurrency=4
+ * mosip.biosdk.worker.jvm-options=-Xmx1g
+ * </pre>
+ *
+ * @since 1.2.1
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mosip.biosdk.worker")
+@Data
+public class SdkWorkerProperties {
+	/**
+	 * Whether SDK calls run in worker processes.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Number of worker processes.
+	 */
+	private int workers = 2;
+
+	/**
+	 * Maximum number of concurrent calls per worker process.
+	 */
+	private int concurrency = 4;
+
+	/**
+	 * JVM options of the worker processes, besides the class path.
+	 */
+	private List<String> jvmOptions = new ArrayList<>(List.of("--enable-preview", "-Xmx1g",
+			"--add-opens=java.base/java.time=ALL-UNNAMED", "--add-opens=java.base/java.lang.reflect=ALL-UNNAMED",
+			"--enable-native-access=ALL-UNNAMED"));
+
+	/**
+	 * Prefixes of the service properties passed to the worker processes as
+	 * system properties, e.g. the settings of the SDK.
+	 */
+	private List<String> forwardedProperties = new ArrayList<>(List.of("mosip.biosdk.synthetic.",
+			"mosip.biosdk.native."));
+
+	/**
+	 * Directory of the files shared with the worker processes, preferably a
+	 * memory file system.
+	 */
+	private String sharedDirectory = "/dev/shm";
+
+	/**
+	 * Initial size in bytes of the shared buffer of each call slot; buffers grow
+	 * to fit larger payloads.
+	 */
+	private int bufferBytes = 1 << 20;
+
+	/**
+	 * Time a worker process is given to start.
+	 */
+	private long startTimeoutMs = 30000;
+
+	/**
+	 * Interval between two health checks of each worker process.
+	 */
+	private long healthIntervalMs = 5000;
+
+	/**
+	 * Time a worker process is given to answer a health check before it is
+	 * restarted.
+	 */
+	private long healthTimeoutMs = 2000;
+
+	/**
+	 * Delay before a worker process that exited is restarted.
+	 */
+	private long restartDelayMs = 1000;
+}
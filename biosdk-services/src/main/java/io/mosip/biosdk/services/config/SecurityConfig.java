@@ -1,9 +1,17 @@
 package io.mosip.biosdk.services.config;
 
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.firewall.DefaultHttpFirewall;
@@ -30,6 +38,16 @@ import jakarta.servlet.http.HttpServletResponse;
 @Configuration
 public class SecurityConfig {
 
+	/**
+	 * Actuator endpoints exposing diagnostic data or operating the SDK, reserved
+	 * to authenticated users holding one of the {@code mosip.role.biosdk.admin}
+	 * roles.
+	 */
+	static final String[] ADMIN_ENDPOINTS = { "jfr", "slowrequests", "sdkswap" };
+
+	@Value("${mosip.role.biosdk.admin:BIOSDK_ADMIN}")
+	private String[] adminRoles;
+
 	/**
 	 * Configures and returns the default HTTP firewall.
 	 * <p>
@@ -45,12 +63,40 @@ public class SecurityConfig {
 		return new DefaultHttpFirewall();
 	}
 
+	/**
+	 * Configures and returns the security filter chain of the
+	 * {@link #ADMIN_ENDPOINTS}.
+	 * <p>
+	 * These endpoints require HTTP basic authentication of a user holding one of
+	 * the {@code mosip.role.biosdk.admin} roles, see {@link #adminUsers}. The
+	 * source address of the request is not trusted, as a service mesh sidecar
+	 * delivers every request from the loopback interface.
+	 * </p>
+	 *
+	 * @param httpSecurity the {@link HttpSecurity} to configure.
+	 * @return a {@link SecurityFilterChain} instance securing the admin
+	 *         endpoints.
+	 * @throws Exception if an error occurs while configuring the security filter
+	 *                   chain.
+	 */
+	@Bean
+	@Order(1)
+	public SecurityFilterChain adminFilterChain(HttpSecurity httpSecurity) throws Exception {
+		httpSecurity.securityMatcher(EndpointRequest.to(ADMIN_ENDPOINTS));
+		httpSecurity.csrf(AbstractHttpConfigurer::disable);
+		httpSecurity.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+		httpSecurity.httpBasic(basic -> basic.authenticationEntryPoint(unauthorizedEntryPoint()));
+		httpSecurity.authorizeHttpRequests(http -> http.anyRequest().hasAnyRole(adminRoles));
+		return httpSecurity.build();
+	}
+
 	/**
 	 * Configures and returns the security filter chain.
 	 * <p>
 	 * This method disables HTTP basic authentication and CSRF protection, as the
 	 * service is designed to be stateless and use token-based authentication. All
-	 * incoming HTTP requests are permitted without authentication.
+	 * incoming HTTP requests are permitted without authentication, except for the
+	 * {@link #ADMIN_ENDPOINTS}, secured by {@link #adminFilterChain}.
 	 * </p>
 	 *
 	 * @param httpSecurity the {@link HttpSecurity} to configure.
@@ -60,6 +106,7 @@ public class SecurityConfig {
 	 *                   chain.
 	 */
 	@Bean
+	@Order(2)
 	public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
 		httpSecurity.httpBasic(AbstractHttpConfigurer::disable);
 		/*
@@ -71,6 +118,31 @@ public class SecurityConfig {
 		return httpSecurity.build();
 	}
 
+	/**
+	 * Configures and returns the users of the {@link #ADMIN_ENDPOINTS}.
+	 * <p>
+	 * The user {@code mosip.biosdk.admin.username} is granted the
+	 * {@code mosip.role.biosdk.admin} roles when
+	 * {@code mosip.biosdk.admin.password} is set, as an encoded password with its
+	 * {@code {id}} prefix, e.g.
+	 * {@code {bcrypt}$2a$10$...}. Without a password there is no user, and the
+	 * admin endpoints answer every request with 401.
+	 * </p>
+	 *
+	 * @param username the name of the admin user.
+	 * @param password the encoded password of the admin user; may be empty.
+	 * @return a {@link UserDetailsService} holding the admin user, if any.
+	 */
+	@Bean
+	public UserDetailsService adminUsers(@Value("${mosip.biosdk.admin.username:biosdk-admin}") String username,
+			@Value("${mosip.biosdk.admin.password:}") String password) {
+		InMemoryUserDetailsManager users = new InMemoryUserDetailsManager();
+		if (StringUtils.isNotBlank(password)) {
+			users.createUser(User.withUsername(username).password(password).roles(adminRoles).build());
+		}
+		return users;
+	}
+
 	/**
 	 * Configures and returns an authentication entry point for handling
 	 * unauthorized access attempts.
@@ -86,4 +158,4 @@ public class SecurityConfig {
 	public AuthenticationEntryPoint unauthorizedEntryPoint() {
 		return (request, response, authException) -> response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
 	}
-}
\ No newline at end of file
+}
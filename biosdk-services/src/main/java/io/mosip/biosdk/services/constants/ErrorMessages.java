@@ -13,6 +13,13 @@ package io.mosip.biosdk.services.constants;
  *     NO_BIOSDK_PROVIDER_FOUND("No BioSDK provider found with the given version"),
  *     BIOSDK_LIB_EXCEPTION("Exception thrown by BioSDK library"),
  *     INVALID_REQUEST_BODY("Unable to parse request body"),
+ *     UNSUPPORTED_OPERATION("Operation not supported for the given version"),
+ *     UNSUPPORTED_METHOD("Method not supported by the BioSDK"),
+ *     UNSUPPORTED_MODALITY("Modality not supported by the BioSDK for the method"),
+ *     INVALID_ENGINE_CONFIGURATION("Invalid BioSDK engine configuration"),
+ *     SDK_WORKER_FAILURE("BioSDK worker process failed"),
+ *     SDK_BUSY("Too many requests queued for the BioSDK"),
+ *     SDK_TIMEOUT("BioSDK did not answer in time"),
  *     UNCHECKED_EXCEPTION("UNCHECKED_EXCEPTION");
  * }
  * </pre>
@@ -35,6 +42,42 @@ public enum ErrorMessages {
      */
     INVALID_REQUEST_BODY("Unable to parse request body"),
     
+    /**
+     * Indicates that the operation is not supported by the requested version.
+     */
+    UNSUPPORTED_OPERATION("Operation not supported for the given version"),
+    
+    /**
+     * Indicates that the BioSDK does not declare support for the method.
+     */
+    UNSUPPORTED_METHOD("Method not supported by the BioSDK"),
+    
+    /**
+     * Indicates that the BioSDK does not declare support for a requested modality
+     * with the method.
+     */
+    UNSUPPORTED_MODALITY("Modality not supported by the BioSDK for the method"),
+    
+    /**
+     * Indicates that the SDK engines are misconfigured.
+     */
+    INVALID_ENGINE_CONFIGURATION("Invalid BioSDK engine configuration"),
+    
+    /**
+     * Indicates that an SDK worker process could not serve a call.
+     */
+    SDK_WORKER_FAILURE("BioSDK worker process failed"),
+    
+    /**
+     * Indicates that the queue of requests waiting for the BioSDK is full.
+     */
+    SDK_BUSY("Too many requests queued for the BioSDK"),
+    
+    /**
+     * Indicates that the BioSDK did not answer a request in time.
+     */
+    SDK_TIMEOUT("BioSDK did not answer in time"),
+    
     /**
      * Indicates that an unchecked exception occurred.
      */
@@ -3,8 +3,18 @@ package io.mosip.biosdk.services.controller;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -22,9 +32,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 import io.mosip.biosdk.services.config.LoggerConfig;
 import io.mosip.biosdk.services.constants.ErrorMessages;
@@ -33,6 +46,11 @@ import io.mosip.biosdk.services.dto.RequestDto;
 import io.mosip.biosdk.services.dto.ResponseDto;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
 import io.mosip.biosdk.services.factory.BioSdkServiceFactory;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.RequestTimings;
+import io.mosip.biosdk.services.metrics.RequestTimings.Phase;
+import io.mosip.biosdk.services.metrics.ServerTimingFilter;
+import io.mosip.biosdk.services.spi.AsyncBioSdkServiceProvider;
 import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
 import io.mosip.biosdk.services.utils.Utils;
 import io.mosip.kernel.core.logger.spi.Logger;
@@ -41,6 +59,8 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Main controller class handling incoming requests for the BioSDK service.
@@ -49,6 +69,12 @@ import io.swagger.v3.oas.annotations.Parameter;
  * APIs. It utilizes Spring annotations for dependency injection, request
  * mapping, and security.
  * 
+ * The SDK operations are served asynchronously: their endpoints return a
+ * {@link CompletableFuture} of the {@link AsyncBioSdkServiceProvider} of the
+ * requested version, so that the container thread is released while the SDK
+ * works on the request, and the response is written when the future
+ * completes.
+ * 
  * @since 1.0.0
  */
 @RestController
@@ -57,10 +83,20 @@ import io.swagger.v3.oas.annotations.Parameter;
 @CrossOrigin("*")
 public class MainController {
 
+	private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+	private static final String INIT = "init";
+	private static final String CHECK_QUALITY = "checkQuality";
+	private static final String EXTRACT_TEMPLATE = "extractTemplate";
+	private static final String MATCH = "match";
+	private static final String MATCH_STREAM = "matchStream";
+	private static final String SEGMENT = "segment";
+	private static final String CONVERT_FORMAT = "convertFormat";
+
 	private Logger logger = LoggerConfig.logConfig(MainController.class);
 
 	private Utils serviceUtil;
 	private BioSdkServiceFactory bioSdkServiceFactory;
+	private BioSdkMetrics metrics;
 	private Gson gson = null;
 
 	/**
@@ -68,11 +104,13 @@ public class MainController {
 	 * 
 	 * @param serviceUtil          The utility functions dependency.
 	 * @param bioSdkServiceFactory The BioSDK service factory dependency.
+	 * @param metrics              The service metrics dependency.
 	 */
 	@Autowired
-	public MainController(Utils serviceUtil, BioSdkServiceFactory bioSdkServiceFactory) {
+	public MainController(Utils serviceUtil, BioSdkServiceFactory bioSdkServiceFactory, BioSdkMetrics metrics) {
 		this.serviceUtil = serviceUtil;
 		this.bioSdkServiceFactory = bioSdkServiceFactory;
+		this.metrics = metrics;
 		gson = new GsonBuilder().serializeNulls().create();
 	}
 
@@ -120,28 +158,16 @@ public class MainController {
 	 * 
 	 * @param request The BioSDK service initialization request object.
 	 * @param errors  Spring validation errors (intended for internal use).
-	 * @return A ResponseEntity object with status OK and a JSON response containing
-	 *         the initialization result or errors.
+	 * @return A future of a ResponseEntity object with status OK and a JSON
+	 *         response containing the initialization result or errors.
 	 * @throws BioSDKException If an error occurs during initialization.
 	 */
 	@PostMapping(path = "/init", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Initialization")
 	@ApiResponses(value = { @ApiResponse(code = 200, message = "Initialization successful") })
-	public ResponseEntity<String> init(@Validated @RequestBody(required = true) RequestDto request,
+	public CompletableFuture<ResponseEntity<String>> init(@Validated @RequestBody(required = true) RequestDto request,
 			@Parameter(hidden = true) Errors errors) {
-		ResponseDto<Object> responseDto = generateResponseTemplate(request.getVersion());
-		try {
-			responseDto.setVersion(request.getVersion());
-			BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-			bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-			responseDto.setResponse(bioSdkServiceProviderImpl.init(request));
-		} catch (BioSDKException e) {
-			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "init: ", e);
-			ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-			responseDto.getErrors().add(errorDto);
-			return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-		}
-		return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+		return serve(INIT, request, provider -> provider.init(request));
 	}
 
 	/**
@@ -152,28 +178,87 @@ public class MainController {
 	 * 
 	 * @param request The BioSDK service match request object.
 	 * @param errors  Spring validation errors (intended for internal use).
-	 * @return A ResponseEntity object with status OK and a JSON response containing
-	 *         the match result or errors.
+	 * @return A future of a ResponseEntity object with status OK and a JSON
+	 *         response containing the match result or errors.
 	 * @throws BioSDKException If an error occurs during the match operation.
 	 */
 	@PostMapping(path = "/match", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Match")
 	@ApiResponses(value = { @ApiResponse(code = 200, message = "Match successful") })
-	public ResponseEntity<String> match(@Validated @RequestBody(required = true) RequestDto request,
+	public CompletableFuture<ResponseEntity<String>> match(@Validated @RequestBody(required = true) RequestDto request,
 			@Parameter(hidden = true) Errors errors) {
-		ResponseDto<Object> responseDto = generateResponseTemplate(request.getVersion());
+		return serve(MATCH, request, provider -> provider.match(request));
+	}
+
+	/**
+	 * POST endpoint for BioSDK service streaming match operation.
+	 * 
+	 * This API expects newline-delimited JSON: the first line is the
+	 * {@link RequestDto} of a match request without gallery, every following line
+	 * is one gallery {@code BiometricRecord}. Match decisions are written back as
+	 * one JSON line each while the gallery is still being read. If an error is
+	 * encountered, a final line holding the response envelope with the errors is
+	 * written.
+	 * 
+	 * @param httpRequest  The HTTP request carrying the newline-delimited match
+	 *                     request.
+	 * @param httpResponse The HTTP response the decisions are streamed to.
+	 * @throws IOException If reading the request or writing the response fails.
+	 */
+	@PostMapping(path = "/match-stream", consumes = MEDIA_TYPE_NDJSON, produces = MEDIA_TYPE_NDJSON)
+	@ApiOperation(value = "Match stream")
+	@ApiResponses(value = { @ApiResponse(code = 200, message = "Match successful") })
+	public void matchStream(HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+		httpResponse.setStatus(HttpStatus.OK.value());
+		httpResponse.setContentType(MEDIA_TYPE_NDJSON);
+		httpResponse.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8));
+		Writer writer = new BufferedWriter(
+				new OutputStreamWriter(httpResponse.getOutputStream(), StandardCharsets.UTF_8));
+		RequestDto request = null;
+		RequestTimings timings = metrics.startRequest(MATCH_STREAM, null, -1);
+		ServerTimingFilter.apply(httpRequest, timings);
 		try {
-			responseDto.setVersion(request.getVersion());
+			request = gson.fromJson(reader.readLine(), RequestDto.class);
+			if (request == null) {
+				throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+						ErrorMessages.INVALID_REQUEST_BODY.getMessage());
+			}
+			timings.setVersion(metricsVersion(request.getVersion()));
 			BioSdkServiceProvider bioSdkServiceProviderImpl = null;
 			bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-			responseDto.setResponse(bioSdkServiceProviderImpl.match(request));
+			bioSdkServiceProviderImpl.matchStream(request, reader, writer);
+			timings.setOutcome(RequestTimings.OUTCOME_SUCCESS);
+		} catch (JsonParseException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "matchStream: ", e);
+			writeStreamError(writer, timings, null, new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+					ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.getMessage()));
 		} catch (BioSDKException e) {
-			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "match: ", e);
-			ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-			responseDto.getErrors().add(errorDto);
-			return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "matchStream: ", e);
+			writeStreamError(writer, timings, request == null ? null : request.getVersion(), e);
+		} finally {
+			timings.close();
 		}
-		return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+		writer.flush();
+	}
+
+	/**
+	 * Writes the response envelope holding the given error as the final line of a
+	 * newline-delimited response.
+	 * 
+	 * @param writer  The writer of the streamed response.
+	 * @param timings The timing context of the request.
+	 * @param version The version of the request, if known.
+	 * @param e       The error to report.
+	 * @throws IOException If writing the line fails.
+	 */
+	private void writeStreamError(Writer writer, RequestTimings timings, String version, BioSDKException e)
+			throws IOException {
+		ResponseDto<Object> responseDto = generateResponseTemplate(version);
+		responseDto.getErrors().add(new ErrorDto(e.getErrorCode(), e.getErrorText()));
+		writer.write(toJson(timings, responseDto));
+		writer.write('\n');
 	}
 
 	/**
@@ -184,29 +269,17 @@ public class MainController {
 	 * 
 	 * @param request The BioSDK service check quality request object.
 	 * @param errors  Spring validation errors (intended for internal use).
-	 * @return A ResponseEntity object with status OK and a JSON response containing
-	 *         the quality assessment result or errors.
+	 * @return A future of a ResponseEntity object with status OK and a JSON
+	 *         response containing the quality assessment result or errors.
 	 * @throws BioSDKException If an error occurs during the quality check
 	 *                         operation.
 	 */
 	@PostMapping(path = "/check-quality", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Check quality")
 	@ApiResponses(value = { @ApiResponse(code = 200, message = "Check successful") })
-	public ResponseEntity<String> checkQuality(@Validated @RequestBody(required = true) RequestDto request,
+	public CompletableFuture<ResponseEntity<String>> checkQuality(@Validated @RequestBody(required = true) RequestDto request,
 			@Parameter(hidden = true) Errors errors) {
-		ResponseDto<Object> responseDto = generateResponseTemplate(request.getVersion());
-		try {
-			responseDto.setVersion(request.getVersion());
-			BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-			bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-			responseDto.setResponse(bioSdkServiceProviderImpl.checkQuality(request));
-		} catch (BioSDKException e) {
-			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "checkQuality: ", e);
-			ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-			responseDto.getErrors().add(errorDto);
-			return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-		}
-		return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+		return serve(CHECK_QUALITY, request, provider -> provider.checkQuality(request));
 	}
 
 	/**
@@ -218,29 +291,17 @@ public class MainController {
 	 * 
 	 * @param request The BioSDK service extract template request object.
 	 * @param errors  Spring validation errors (intended for internal use).
-	 * @return A ResponseEntity object with status OK and a JSON response containing
-	 *         the extracted template or errors.
+	 * @return A future of a ResponseEntity object with status OK and a JSON
+	 *         response containing the extracted template or errors.
 	 * @throws BioSDKException If an error occurs during the template extraction
 	 *                         operation.
 	 */
 	@PostMapping(path = "/extract-template", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Extract template")
 	@ApiResponses(value = { @ApiResponse(code = 200, message = "Extract successful") })
-	public ResponseEntity<String> extractTemplate(@Validated @RequestBody(required = true) RequestDto request,
+	public CompletableFuture<ResponseEntity<String>> extractTemplate(@Validated @RequestBody(required = true) RequestDto request,
 			@Parameter(hidden = true) Errors errors) {
-		ResponseDto<Object> responseDto = generateResponseTemplate(request.getVersion());
-		try {
-			responseDto.setVersion(request.getVersion());
-			BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-			bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-			responseDto.setResponse(bioSdkServiceProviderImpl.extractTemplate(request));
-		} catch (BioSDKException e) {
-			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "extractTemplate: ", e);
-			ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-			responseDto.getErrors().add(errorDto);
-			return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-		}
-		return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+		return serve(EXTRACT_TEMPLATE, request, provider -> provider.extractTemplate(request));
 	}
 
 	/**
@@ -256,28 +317,16 @@ public class MainController {
 	 *                about the request object can be found in the
 	 *                {@link RequestDto} class documentation)
 	 * @param errors  Spring validation errors (intended for internal use).
-	 * @return A ResponseEntity object with status OK and a JSON response containing
-	 *         the converted sample or errors.
+	 * @return A future of a ResponseEntity object with status OK and a JSON
+	 *         response containing the converted sample or errors.
 	 * @throws BioSDKException If an error occurs during the conversion operation.
 	 */
 	@PostMapping(path = "/convert-format", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Convert format")
 	@ApiResponses(value = { @ApiResponse(code = 200, message = "Convert successful") })
-	public ResponseEntity<String> convertFormat(@Validated @RequestBody(required = true) RequestDto request,
+	public CompletableFuture<ResponseEntity<String>> convertFormat(@Validated @RequestBody(required = true) RequestDto request,
 			@Parameter(hidden = true) Errors errors) {
-		ResponseDto<Object> responseDto = generateResponseTemplate(request.getVersion());
-		try {
-			responseDto.setVersion(request.getVersion());
-			BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-			bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-			responseDto.setResponse(bioSdkServiceProviderImpl.convertFormat(request));
-		} catch (BioSDKException e) {
-			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "convertFormat: ", e);
-			ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-			responseDto.getErrors().add(errorDto);
-			return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-		}
-		return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+		return serve(CONVERT_FORMAT, request, provider -> provider.convertFormat(request));
 	}
 
 	/**
@@ -293,28 +342,78 @@ public class MainController {
 	 *                the request object can be found in the {@link RequestDto}
 	 *                class documentation)
 	 * @param errors  Spring validation errors (intended for internal use).
-	 * @return A ResponseEntity object with status OK and a JSON response containing
-	 *         the segmented data or errors.
+	 * @return A future of a ResponseEntity object with status OK and a JSON
+	 *         response containing the segmented data or errors.
 	 * @throws BioSDKException If an error occurs during the segmentation operation.
 	 */
 	@PostMapping(path = "/segment", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Segment")
 	@ApiResponses(value = { @ApiResponse(code = 200, message = "Segment successful") })
-	public ResponseEntity<String> segment(@Validated @RequestBody(required = true) RequestDto request,
+	public CompletableFuture<ResponseEntity<String>> segment(@Validated @RequestBody(required = true) RequestDto request,
 			@Parameter(hidden = true) Errors errors) {
+		return serve(SEGMENT, request, provider -> provider.segment(request));
+	}
+
+	/**
+	 * Serves a request with the asynchronous provider of its version.
+	 * <p>
+	 * The timing context of the request is detached from the container thread
+	 * once the operation is started, and closed when its response is built.
+	 * Errors reported by the provider are answered in the response envelope;
+	 * other exceptions complete the returned future exceptionally.
+	 * </p>
+	 *
+	 * @param operation The provider operation.
+	 * @param request   The request.
+	 * @param call      Starts the operation on the provider.
+	 * @return A future of the HTTP response.
+	 */
+	private CompletableFuture<ResponseEntity<String>> serve(String operation, RequestDto request,
+			Function<AsyncBioSdkServiceProvider, CompletableFuture<Object>> call) {
 		ResponseDto<Object> responseDto = generateResponseTemplate(request.getVersion());
+		RequestTimings timings = startRequest(operation, request);
+		CompletableFuture<Object> result;
 		try {
-			responseDto.setVersion(request.getVersion());
-			BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-			bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-			responseDto.setResponse(bioSdkServiceProviderImpl.segment(request));
-		} catch (BioSDKException e) {
-			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "segment: ", e);
-			ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-			responseDto.getErrors().add(errorDto);
-			return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+			result = call.apply(bioSdkServiceFactory.getAsyncBioSdkServiceProvider(request.getVersion()));
+		} catch (RuntimeException e) {
+			result = CompletableFuture.failedFuture(e);
+		} finally {
+			timings.detach();
+		}
+		return result.handle((response, error) -> timings
+				.bind(() -> complete(operation, timings, responseDto, response, error)).get());
+	}
+
+	/**
+	 * Builds the HTTP response of a request served asynchronously, and closes
+	 * its timing context.
+	 *
+	 * @param operation   The provider operation.
+	 * @param timings     The timing context of the request.
+	 * @param responseDto The response template.
+	 * @param response    The result of the operation, if it succeeded.
+	 * @param error       The failure of the operation, if it failed.
+	 * @return The HTTP response.
+	 */
+	private ResponseEntity<String> complete(String operation, RequestTimings timings, ResponseDto<Object> responseDto,
+			Object response, Throwable error) {
+		try {
+			if (error == null) {
+				responseDto.setResponse(response);
+				return respond(timings, responseDto);
+			}
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+					: error;
+			if (!(cause instanceof BioSDKException e)) {
+				throw error instanceof CompletionException completionException ? completionException
+						: new CompletionException(cause);
+			}
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, operation + ": ", e);
+			responseDto.getErrors().add(new ErrorDto(e.getErrorCode(), e.getErrorText()));
+			return respond(timings, responseDto);
+		} finally {
+			timings.close();
 		}
-		return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
 	}
 
 	/**
@@ -338,6 +437,82 @@ public class MainController {
 		return responseDto;
 	}
 
+	/**
+	 * Opens the timing context of a request served by this controller.
+	 *
+	 * @param operation The provider operation.
+	 * @param request   The request.
+	 * @return The timing context, bound to the current thread.
+	 */
+	private RequestTimings startRequest(String operation, RequestDto request) {
+		RequestTimings timings = metrics.startRequest(operation, metricsVersion(request.getVersion()),
+				payloadBytes(request));
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			ServerTimingFilter.apply(attributes.getRequest(), timings);
+		}
+		return timings;
+	}
+
+	/**
+	 * Returns the version a request is tagged with in the metrics: the version
+	 * itself when a provider serves it, otherwise null, recorded as
+	 * {@code unknown}, so that clients cannot create series at will.
+	 *
+	 * @param version The version of the request.
+	 * @return The version to tag, or null.
+	 */
+	private String metricsVersion(String version) {
+		return bioSdkServiceFactory.isSupported(version) ? version : null;
+	}
+
+	/**
+	 * Builds the HTTP response of a request, adding the {@code Server-Timing}
+	 * header when it is enabled for the request.
+	 *
+	 * @param timings     The timing context of the request.
+	 * @param responseDto The response to serialise.
+	 * @return The HTTP response.
+	 */
+	private ResponseEntity<String> respond(RequestTimings timings, ResponseDto<Object> responseDto) {
+		String body = toJson(timings, responseDto);
+		ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.OK);
+		if (timings.isServerTiming()) {
+			timings.setResponseBytes(ServerTimingFilter.utf8Length(body));
+			builder.header(ServerTimingFilter.SERVER_TIMING, ServerTimingFilter.format(timings));
+		}
+		return builder.body(body);
+	}
+
+	/**
+	 * Serialises a response, recording the serialisation time and the outcome of
+	 * the request.
+	 *
+	 * @param timings     The timing context of the request.
+	 * @param responseDto The response to serialise.
+	 * @return The JSON of the response.
+	 */
+	private String toJson(RequestTimings timings, ResponseDto<Object> responseDto) {
+		timings.setOutcome(responseDto.getErrors() == null || responseDto.getErrors().isEmpty()
+				? RequestTimings.OUTCOME_SUCCESS
+				: responseDto.getErrors().get(0).getCode());
+		long start = System.nanoTime();
+		try {
+			return gson.toJson(responseDto);
+		} finally {
+			timings.add(Phase.SERIALISE, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Returns the size of the encoded request.
+	 *
+	 * @param request The request.
+	 * @return The length of the Base64 request body.
+	 */
+	private static long payloadBytes(RequestDto request) {
+		return request.getRequest() == null ? 0 : request.getRequest().length();
+	}
+
 	@SuppressWarnings({ "unused" })
 	private String getVersion(String request) throws BioSDKException {
 		JSONParser parser = new JSONParser();
@@ -1,11 +1,15 @@
 package io.mosip.biosdk.services.factory;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import io.mosip.biosdk.services.dto.RequestDto;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.spi.AsyncBioSdkServiceProvider;
 import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
 import io.mosip.biosdk.services.utils.ErrorCode;
 
@@ -18,6 +22,11 @@ import io.mosip.biosdk.services.utils.ErrorCode;
  * {@link BioSdkServiceProvider}s injected via constructor to dynamically fetch
  * the appropriate service provider based on the specified version.
  * </p>
+ * <p>
+ * The {@link AsyncBioSdkServiceProvider}s are registered alongside, per
+ * version too; a version with a synchronous provider only is served
+ * asynchronously by running its operations on the calling thread.
+ * </p>
  *
  *
  * @since 1.0.0
@@ -25,16 +34,21 @@ import io.mosip.biosdk.services.utils.ErrorCode;
 @Component
 public class BioSdkServiceFactory {
 	private List<BioSdkServiceProvider> bioSdkServiceProviders;
+	private List<AsyncBioSdkServiceProvider> asyncBioSdkServiceProviders;
 
 	/**
 	 * Constructs a new BioSdkServiceFactory with a list of BioSdkServiceProviders.
 	 *
-	 * @param bioSdkServiceProviders the list of BioSdkServiceProviders to be
-	 *                               managed by the factory.
+	 * @param bioSdkServiceProviders      the list of BioSdkServiceProviders to be
+	 *                                    managed by the factory.
+	 * @param asyncBioSdkServiceProviders the list of AsyncBioSdkServiceProviders
+	 *                                    to be managed by the factory.
 	 */
 	@Autowired
-	public BioSdkServiceFactory(List<BioSdkServiceProvider> bioSdkServiceProviders) {
+	public BioSdkServiceFactory(List<BioSdkServiceProvider> bioSdkServiceProviders,
+			List<AsyncBioSdkServiceProvider> asyncBioSdkServiceProviders) {
 		this.bioSdkServiceProviders = bioSdkServiceProviders;
+		this.asyncBioSdkServiceProviders = asyncBioSdkServiceProviders;
 	}
 
 	/**
@@ -54,4 +68,98 @@ public class BioSdkServiceFactory {
 		}
 		throw new BioSDKException(ErrorCode.NO_PROVIDERS.getErrorCode(), ErrorCode.NO_PROVIDERS.getErrorMessage());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Tells whether a registered provider serves the specified version.
+	 *
+	 * @param version the version of the BioSDK service provider.
+	 * @return true if a BioSdkServiceProvider or AsyncBioSdkServiceProvider is
+	 *         registered for the version.
+	 */
+	public boolean isSupported(String version) {
+		for (BioSdkServiceProvider provider : bioSdkServiceProviders) {
+			if (provider.getSpecVersion().equals(version)) {
+				return true;
+			}
+		}
+		for (AsyncBioSdkServiceProvider provider : asyncBioSdkServiceProviders) {
+			if (provider.getSpecVersion().equals(version)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieves the AsyncBioSdkServiceProvider instance for the specified version.
+	 *
+	 * @param version the version of the BioSDK service provider to retrieve.
+	 * @return the AsyncBioSdkServiceProvider instance corresponding to the given
+	 *         version, or the BioSdkServiceProvider of the version run on the
+	 *         calling thread.
+	 * @throws BioSDKException if no provider is found for the specified version.
+	 */
+	public AsyncBioSdkServiceProvider getAsyncBioSdkServiceProvider(String version) {
+		for (AsyncBioSdkServiceProvider provider : asyncBioSdkServiceProviders) {
+			if (provider.getSpecVersion().equals(version)) {
+				return provider;
+			}
+		}
+		return new CallingThreadProvider(getBioSdkServiceProvider(version));
+	}
+
+	/**
+	 * A synchronous provider seen through the asynchronous interface: each
+	 * operation runs on the calling thread and returns a completed future.
+	 */
+	private static final class CallingThreadProvider implements AsyncBioSdkServiceProvider {
+		private final BioSdkServiceProvider provider;
+
+		CallingThreadProvider(BioSdkServiceProvider provider) {
+			this.provider = provider;
+		}
+
+		@Override
+		public Object getSpecVersion() {
+			return provider.getSpecVersion();
+		}
+
+		@Override
+		public CompletableFuture<Object> init(RequestDto request) {
+			return call(provider::init, request);
+		}
+
+		@Override
+		public CompletableFuture<Object> checkQuality(RequestDto request) {
+			return call(provider::checkQuality, request);
+		}
+
+		@Override
+		public CompletableFuture<Object> match(RequestDto request) {
+			return call(provider::match, request);
+		}
+
+		@Override
+		public CompletableFuture<Object> extractTemplate(RequestDto request) {
+			return call(provider::extractTemplate, request);
+		}
+
+		@Override
+		public CompletableFuture<Object> segment(RequestDto request) {
+			return call(provider::segment, request);
+		}
+
+		@Override
+		public CompletableFuture<Object> convertFormat(RequestDto request) {
+			return call(provider::convertFormat, request);
+		}
+
+		private static CompletableFuture<Object> call(Function<RequestDto, Object> operation, RequestDto request) {
+			try {
+				return CompletableFuture.completedFuture(operation.apply(request));
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package io.mosip.biosdk.services.impl.spec_1_0;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.RequestTimings;
+import io.mosip.biosdk.services.metrics.RequestTimings.Phase;
+import io.mosip.biosdk.services.spi.AsyncBioSdkServiceProvider;
+import io.mosip.kernel.core.logger.spi.Logger;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous implementation of the BioSDK service specification 1.0.
+ * <p>
+ * Each operation of {@link BioSdkServiceProviderImpl_V_1_0} is run on a pool of
+ * {@code mosip.biosdk.async.threads} call threads, so that the container
+ * thread of the request is released while the request waits for a call
+ * thread and while the SDK works on it. Up to
+ * {@code mosip.biosdk.async.queue-capacity} requests wait for a call thread;
+ * further requests fail at once with {@link ErrorMessages#SDK_BUSY}, rather
+ * than queueing without bound. The timing context of the request goes along
+ * with it to the call thread, where the wait is recorded as its queue phase.
+ * </p>
+ * <p>
+ * The call threads default to the maximum number of Tomcat threads, the number
+ * of requests that could call the SDK at once when requests were served on the
+ * container threads. A request not answered within
+ * {@code mosip.biosdk.async.timeout-ms}, queue wait included, fails with
+ * {@link ErrorMessages#SDK_TIMEOUT}; a request still queued then never reaches
+ * the SDK, while an SDK call in progress is left to complete, its result being
+ * discarded.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class AsyncBioSdkServiceProviderImpl_V_1_0 implements AsyncBioSdkServiceProvider {
+	private Logger logger = LoggerConfig.logConfig(AsyncBioSdkServiceProviderImpl_V_1_0.class);
+
+	private static final String INIT = "init";
+	private static final String CHECK_QUALITY = "checkQuality";
+	private static final String EXTRACT_TEMPLATE = "extractTemplate";
+	private static final String MATCH = "match";
+	private static final String SEGMENT = "segment";
+	private static final String CONVERT_FORMAT = "convertFormat";
+
+	private final BioSdkServiceProviderImpl_V_1_0 provider;
+	private final BioSdkMetrics metrics;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMs;
+
+	/**
+	 * Constructor for AsyncBioSdkServiceProviderImpl_V_1_0.
+	 *
+	 * @param provider      The synchronous provider of the specification.
+	 * @param metrics       The service metrics dependency.
+	 * @param threads       The number of call threads.
+	 * @param queueCapacity The number of requests that may wait for a call
+	 *                      thread.
+	 * @param timeoutMs     The time after which a request fails, in
+	 *                      milliseconds; {@code 0} or less for no timeout.
+	 */
+	@Autowired
+	public AsyncBioSdkServiceProviderImpl_V_1_0(BioSdkServiceProviderImpl_V_1_0 provider, BioSdkMetrics metrics,
+			@Value("${mosip.biosdk.async.threads:${server.tomcat.threads.max:200}}") int threads,
+			@Value("${mosip.biosdk.async.queue-capacity:512}") int queueCapacity,
+			@Value("${mosip.biosdk.async.timeout-ms:60000}") long timeoutMs) {
+		this.provider = provider;
+		this.metrics = metrics;
+		this.timeoutMs = timeoutMs;
+		AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+					Thread thread = new Thread(runnable, "biosdk-call-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Retrieves the version of the BioSDK service specification this implementation
+	 * adheres to.
+	 *
+	 * @return The BioSDK service specification version.
+	 */
+	@Override
+	public String getSpecVersion() {
+		return provider.getSpecVersion();
+	}
+
+	/**
+	 * Initializes the biometric SDK, see
+	 * {@link BioSdkServiceProviderImpl_V_1_0#init(RequestDto)}.
+	 */
+	@Override
+	public CompletableFuture<Object> init(RequestDto request) {
+		return submit(INIT, () -> provider.init(request));
+	}
+
+	/**
+	 * Checks the quality of a sample, see
+	 * {@link BioSdkServiceProviderImpl_V_1_0#checkQuality(RequestDto)}.
+	 */
+	@Override
+	public CompletableFuture<Object> checkQuality(RequestDto request) {
+		return submit(CHECK_QUALITY, () -> provider.checkQuality(request));
+	}
+
+	/**
+	 * Matches a probe against a gallery, see
+	 * {@link BioSdkServiceProviderImpl_V_1_0#match(RequestDto)}.
+	 */
+	@Override
+	public CompletableFuture<Object> match(RequestDto request) {
+		return submit(MATCH, () -> provider.match(request));
+	}
+
+	/**
+	 * Extracts the templates of a sample, see
+	 * {@link BioSdkServiceProviderImpl_V_1_0#extractTemplate(RequestDto)}.
+	 */
+	@Override
+	public CompletableFuture<Object> extractTemplate(RequestDto request) {
+		return submit(EXTRACT_TEMPLATE, () -> provider.extractTemplate(request));
+	}
+
+	/**
+	 * Segments a sample, see
+	 * {@link BioSdkServiceProviderImpl_V_1_0#segment(RequestDto)}.
+	 */
+	@Override
+	public CompletableFuture<Object> segment(RequestDto request) {
+		return submit(SEGMENT, () -> provider.segment(request));
+	}
+
+	/**
+	 * Converts the format of a sample, see
+	 * {@link BioSdkServiceProviderImpl_V_1_0#convertFormat(RequestDto)}.
+	 */
+	@Override
+	public CompletableFuture<Object> convertFormat(RequestDto request) {
+		return submit(CONVERT_FORMAT, () -> provider.convertFormat(request));
+	}
+
+	private CompletableFuture<Object> submit(String operation, Supplier<Object> call) {
+		long queuedNanos = System.nanoTime();
+		Supplier<Object> task = RequestTimings.bound(() -> {
+			metrics.recordCallWait(operation, System.nanoTime() - queuedNanos);
+			RequestTimings.record(Phase.QUEUE, queuedNanos);
+			return call.get();
+		});
+		CompletableFuture<Object> result;
+		try {
+			result = CompletableFuture.supplyAsync(task, executor);
+		} catch (RejectedExecutionException e) {
+			metrics.recordCallRejected(operation);
+			logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, operation,
+					"rejected, " + executor.getQueue().size() + " requests queued for the SDK");
+			return CompletableFuture.failedFuture(
+					new BioSDKException(ErrorMessages.SDK_BUSY.toString(), ErrorMessages.SDK_BUSY.getMessage()));
+		}
+		if (timeoutMs <= 0) {
+			return result;
+		}
+		return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).exceptionallyCompose(error -> {
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+					: error;
+			if (!(cause instanceof TimeoutException)) {
+				return CompletableFuture.failedFuture(error);
+			}
+			metrics.recordCallTimeout(operation);
+			logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, operation, "not answered in " + timeoutMs + " ms");
+			return CompletableFuture.failedFuture(
+					new BioSDKException(ErrorMessages.SDK_TIMEOUT.toString(), ErrorMessages.SDK_TIMEOUT.getMessage()));
+		});
+	}
+
+	/**
+	 * Stops the call threads.
+	 */
+	@PreDestroy
+	public void close() {
+		executor.shutdownNow();
+	}
+}
@@ -3,15 +3,27 @@ package io.mosip.biosdk.services.impl.spec_1_0;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 import io.mosip.biosdk.services.config.LoggerConfig;
 import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.ResponseStatus;
 import io.mosip.biosdk.services.dto.RequestDto;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
@@ -20,9 +32,23 @@ import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequest
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.match.DecisionSelector;
+import io.mosip.biosdk.services.impl.spec_1_0.match.FirstMatchSearch;
+import io.mosip.biosdk.services.impl.spec_1_0.match.GalleryPrefilter;
+import io.mosip.biosdk.services.impl.spec_1_0.match.LazyMatchRequest;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.RequestTimings;
+import io.mosip.biosdk.services.metrics.RequestTimings.Phase;
+import io.mosip.biosdk.services.metrics.jfr.BioSdkCallEvent;
+import io.mosip.biosdk.services.sdk.SdkCapabilities;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
 import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.utils.BiometricRecordProjection;
 import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
 import io.mosip.kernel.biometrics.model.Response;
 import io.mosip.kernel.biometrics.model.SDKInfo;
 import io.mosip.kernel.biometrics.spi.IBioApiV2;
@@ -65,29 +91,69 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	private static final String CHECK_QUALITY = "checkQuality";
 	private static final String EXTRACT_TEMPLATE = "extractTemplate";
 	private static final String MATCH = "match";
+	private static final String MATCH_STREAM = "matchStream";
 	private static final String SEGMENT = "segment";
 	private static final String CONVERT_FORMAT = "convertFormat";
 
 	private static final String DECODE_SUCCESS = "decoding successful";
 	private static final String JSON_TO_DTO_SUCCESS = "json to dto successful";
 
-	private IBioApiV2 iBioApi;
+	private static final String STAGE_SCAN = "scan";
+	private static final String STAGE_PARSED = "parsed";
+
+	private SdkInitCache sdkInitCache;
 	private Utils utils;
+	private BioSdkMetrics metrics;
 	private Gson gson;
 
 	@Value("${mosip.biosdk.log-request-response-enabled:false}")
 	private boolean isLogRequestResponse;
 
+	@Value("${mosip.biosdk.projection.enabled:true}")
+	private boolean isProjectionEnabled;
+
+	@Value("${mosip.biosdk.match.partition-size:0}")
+	private int matchPartitionSize;
+
+	@Value("${mosip.biosdk.match.first-match.batch-size:4}")
+	private int firstMatchBatchSize;
+
+	@Value("${mosip.biosdk.match.stream.batch-size:50}")
+	private int matchStreamBatchSize;
+
+	@Value("${mosip.biosdk.match.prefilter.enabled:false}")
+	private boolean isMatchPrefilterEnabled;
+
+	@Value("${mosip.biosdk.match.prefilter.format-check:false}")
+	private boolean isMatchPrefilterFormatCheck;
+
+	@Value("${mosip.biosdk.match.prefilter.min-quality:0}")
+	private long matchPrefilterMinQuality;
+
+	@Value("${mosip.biosdk.capability-check.enabled:false}")
+	private boolean isCapabilityCheckEnabled;
+
+	@Value("${mosip.biosdk.capability-check.scan-bytes:4096}")
+	private int capabilityScanBytes;
+
 	/**
 	 * Constructor for BioSdkServiceProviderImpl_V_1_0.
+	 * <p>
+	 * The SDK is taken from the {@code SdkInitCache}, which creates it lazily so
+	 * that its loading does not hold up the application context; it is created
+	 * by the {@code SdkWarmup} in the background, or by the first request when
+	 * warm-up is disabled. Each request takes the active instance once and
+	 * makes all its SDK calls on it.
 	 * 
-	 * @param iBioApi The Biometric API (version 2) dependency.
-	 * @param utils   The utility functions dependency.
+	 * @param sdkInitCache The initialised SDK instances.
+	 * @param utils        The utility functions dependency.
+	 * @param metrics      The service metrics dependency.
 	 */
 	@Autowired
-	public BioSdkServiceProviderImpl_V_1_0(IBioApiV2 iBioApi, Utils utils) {
-		this.iBioApi = iBioApi;
+	public BioSdkServiceProviderImpl_V_1_0(SdkInitCache sdkInitCache, Utils utils, BioSdkMetrics metrics) {
+		this.sdkInitCache = sdkInitCache;
 		this.utils = utils;
+		this.metrics = metrics;
 		gson = new GsonBuilder().serializeNulls().create();
 	}
 
@@ -110,6 +176,10 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 * of {@code IBioApiV2} to initialize the SDK. It logs the request details and
 	 * the SDKInfo response object.
 	 * <p>
+	 * A repeated init with the same parameters is answered from the
+	 * {@code SdkInitCache} without calling the SDK, and new parameters are applied
+	 * to a standby instance swapped in once initialised.
+	 * <p>
 	 * If any exception occurs during the initialization process, it logs the error
 	 * and throws a {@code BioSDKException} with an appropriate error message.
 	 *
@@ -129,11 +199,12 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 		SDKInfo sdkInfo = null;
 		String decryptedRequest = decode(request.getRequest());
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT, DECODE_SUCCESS);
-		InitRequestDto initRequestDto = gson.fromJson(decryptedRequest, InitRequestDto.class);
+		InitRequestDto initRequestDto = timed(Phase.PARSE, () -> gson.fromJson(decryptedRequest, InitRequestDto.class));
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT, JSON_TO_DTO_SUCCESS);
 		try {
 			logRequest(initRequestDto);
-			sdkInfo = iBioApi.init(initRequestDto.getInitParams());
+			sdkInfo = sdkInitCache.init(initRequestDto.getInitParams(),
+					sdk -> callSdk(-1, () -> sdk.init(initRequestDto.getInitParams())));
 			logObject(sdkInfo);
 		} catch (Exception e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT, e);
@@ -151,6 +222,8 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 * {@code checkQuality} method of {@code IBioApiV2} to assess the quality of
 	 * biometric samples. It logs the request details and the response object.
 	 * <p>
+	 * Only the segments of the modalities to check are handed to the SDK.
+	 * <p>
 	 * If any exception occurs during the quality check process, it logs the error
 	 * and throws a {@code BioSDKException} with an appropriate error message.
 	 *
@@ -169,15 +242,25 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 */
 	@Override
 	public Object checkQuality(RequestDto request) {
+		boolean isCapabilityChecked = precheckCapabilities(CHECK_QUALITY, BiometricFunction.QUALITY_CHECK, request,
+				"modalitiesToCheck");
 		Response<?> response;
 		String decryptedRequest = decode(request.getRequest());
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, CHECK_QUALITY, DECODE_SUCCESS);
-		CheckQualityRequestDto checkQualityRequestDto = gson.fromJson(decryptedRequest, CheckQualityRequestDto.class);
+		CheckQualityRequestDto checkQualityRequestDto = timed(Phase.PARSE,
+				() -> gson.fromJson(decryptedRequest, CheckQualityRequestDto.class));
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, CHECK_QUALITY, JSON_TO_DTO_SUCCESS);
-		try {
+		RequestTimings.describe(checkQualityRequestDto.getModalitiesToCheck(), -1,
+				checkQualityRequestDto.getSample());
+		if (!isCapabilityChecked) {
+			checkCapabilities(CHECK_QUALITY, BiometricFunction.QUALITY_CHECK, checkQualityRequestDto.getModalitiesToCheck());
+		}
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
 			logRequest(checkQualityRequestDto);
-			response = iBioApi.checkQuality(checkQualityRequestDto.getSample(),
-					checkQualityRequestDto.getModalitiesToCheck(), checkQualityRequestDto.getFlags());
+			BiometricRecordProjection projection = project(CHECK_QUALITY, checkQualityRequestDto.getSample(),
+					checkQualityRequestDto.getModalitiesToCheck());
+			response = callSdk(-1, () -> lease.sdk().checkQuality(projection.getRecord(),
+					checkQualityRequestDto.getModalitiesToCheck(), checkQualityRequestDto.getFlags()));
 			logResponse(response);
 		} catch (Exception e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, CHECK_QUALITY, e);
@@ -195,6 +278,17 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 * method of {@code IBioApiV2} to match biometric samples against a gallery. It
 	 * logs the request details and the response object.
 	 * <p>
+	 * Unless disabled, the gallery is first passed through a
+	 * {@link GalleryPrefilter} so that segments which cannot match the probe are
+	 * not handed to the SDK; records left without segments are reported as not
+	 * matched. Gallery records are only materialized from the decoded request one
+	 * partition at a time (see {@code mosip.biosdk.match.partition-size}). With
+	 * the {@value FirstMatchSearch#FLAG_FIRST_MATCH} flag, matching stops at the
+	 * first matched record (see {@link FirstMatchSearch}); the
+	 * {@value DecisionSelector#FLAG_TOP_K} and
+	 * {@value DecisionSelector#FLAG_SCORE_THRESHOLD} flags compact the returned
+	 * decisions (see {@link DecisionSelector}).
+	 * <p>
 	 * If any exception occurs during the matching process, it logs the error and
 	 * throws a {@code BioSDKException} with an appropriate error message.
 	 *
@@ -211,16 +305,31 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 */
 	@Override
 	public Object match(RequestDto request) {
+		boolean isCapabilityChecked = precheckCapabilities(MATCH, BiometricFunction.MATCH, request,
+				"modalitiesToMatch");
 		Response<?> response;
-		String decryptedRequest = decode(request.getRequest());
+		byte[] decryptedRequest = decodeToBytes(request.getRequest());
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH, DECODE_SUCCESS);
-		MatchRequestDto matchRequestDto = gson.fromJson(decryptedRequest, MatchRequestDto.class);
+		LazyMatchRequest matchRequest = timed(Phase.PARSE, () -> LazyMatchRequest.parse(decryptedRequest, gson));
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH, JSON_TO_DTO_SUCCESS);
+		RequestTimings.describe(matchRequest.getRequest().getModalitiesToMatch(), matchRequest.size(),
+				matchRequest.getRequest().getSample());
+		if (!isCapabilityChecked) {
+			checkCapabilities(MATCH, BiometricFunction.MATCH, matchRequest.getRequest().getModalitiesToMatch());
+		}
+		DecisionSelector selector;
 		try {
-			logRequest(matchRequestDto);
-			response = iBioApi.match(matchRequestDto.getSample(), matchRequestDto.getGallery(),
-					matchRequestDto.getModalitiesToMatch(), matchRequestDto.getFlags());
+			selector = DecisionSelector.of(matchRequest.getRequest().getFlags());
+		} catch (IllegalArgumentException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, ErrorMessages.INVALID_REQUEST_BODY.toString(), e);
+			throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+					ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString() + " " + e.getMessage());
+		}
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
+			response = matchGallery(lease.sdk(), matchRequest, selector);
 			logResponse(response);
+		} catch (BioSDKException e) {
+			throw e;
 		} catch (Exception e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH, e);
 			throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(),
@@ -229,6 +338,348 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 		return response;
 	}
 
+	/**
+	 * Matches the probe against the gallery one partition at a time.
+	 * <p>
+	 * Gallery records are materialized from the decoded request only when their
+	 * partition is about to be matched and are released right after, so the
+	 * records held in memory never exceed the configured partition size. The
+	 * decisions of all partitions are merged and re-keyed to their position in the
+	 * whole gallery. A partition answered with a non-success status ends the match
+	 * with that status. When a {@link DecisionSelector} is given, decisions are
+	 * offered to it as partitions complete instead of being collected.
+	 *
+	 * @param sdk          The SDK instance matching every partition.
+	 * @param matchRequest The indexed match request.
+	 * @param selector     The decision selector, or {@code null} to return every
+	 *                     decision.
+	 * @return The SDK response with decisions for every gallery record, or for
+	 *         the selected ones.
+	 */
+	private Response<MatchDecision[]> matchGallery(IBioApiV2 sdk, LazyMatchRequest matchRequest,
+			DecisionSelector selector) {
+		MatchRequestDto matchRequestDto = matchRequest.getRequest();
+		if (!matchRequest.isGalleryPresent()) {
+			logRequest(matchRequestDto);
+			return sdkMatch(sdk, matchRequestDto, null);
+		}
+		metrics.recordGallerySize(MATCH, matchRequest.size());
+		if (matchRequest.size() > 0 && FirstMatchSearch.isRequested(matchRequestDto.getFlags())) {
+			return select(matchFirst(sdk, matchRequest), selector);
+		}
+
+		int size = matchRequest.size();
+		int partitionSize = matchPartitionSize > 0 ? matchPartitionSize : Math.max(size, 1);
+		List<MatchDecision> decisions = new ArrayList<>(size);
+		Response<MatchDecision[]> response;
+		int from = 0;
+		do {
+			int to = Math.min(size, from + partitionSize);
+			int partitionFrom = from;
+			matchRequestDto.setGallery(parseGallery(() -> matchRequest.materialize(partitionFrom, to)));
+			logRequest(matchRequestDto);
+			response = matchPartition(sdk, matchRequestDto);
+			matchRequestDto.setGallery(null);
+			if (response == null || (from == 0 && to == size)) {
+				return select(response, selector);
+			}
+			if (response.getResponse() != null) {
+				for (MatchDecision decision : response.getResponse()) {
+					if (decision != null) {
+						decision.setGalleryIndex(decision.getGalleryIndex() + from);
+					}
+					if (selector != null) {
+						selector.offer(decision);
+					} else {
+						decisions.add(decision);
+					}
+				}
+			}
+			if (!Integer.valueOf(ResponseStatus.SUCCESS.getStatusCode()).equals(response.getStatusCode())) {
+				break;
+			}
+			from = to;
+		} while (from < size);
+		response.setResponse(selector != null ? selector.toArray() : decisions.toArray(new MatchDecision[0]));
+		return response;
+	}
+
+	/**
+	 * Compacts the decisions of a response with the given selector.
+	 *
+	 * @param response The SDK response; may be {@code null}.
+	 * @param selector The decision selector; may be {@code null}.
+	 * @return {@code response} holding only the selected decisions.
+	 */
+	private static Response<MatchDecision[]> select(Response<MatchDecision[]> response, DecisionSelector selector) {
+		if (response == null || selector == null || response.getResponse() == null) {
+			return response;
+		}
+		for (MatchDecision decision : response.getResponse()) {
+			selector.offer(decision);
+		}
+		response.setResponse(selector.toArray());
+		return response;
+	}
+
+	/**
+	 * Matches the probe against the gallery until a first match is found.
+	 * <p>
+	 * Gallery records are handed to the SDK by decreasing quality, in batches of
+	 * {@code mosip.biosdk.match.first-match.batch-size}, and no further batch is
+	 * matched once a batch yields a {@code MATCHED} decision or a non-success
+	 * status. Records that were not scored get a decision marked as not evaluated.
+	 *
+	 * @param sdk          The SDK instance matching every batch.
+	 * @param matchRequest The indexed match request with a non-empty gallery.
+	 * @return The SDK response with decisions for every gallery record.
+	 */
+	private Response<MatchDecision[]> matchFirst(IBioApiV2 sdk, LazyMatchRequest matchRequest) {
+		MatchRequestDto matchRequestDto = matchRequest.getRequest();
+		int size = matchRequest.size();
+		int[] order = parseGallery(
+				() -> FirstMatchSearch.qualityOrder(matchRequest, matchRequestDto.getModalitiesToMatch()));
+		int batchSize = Math.max(1, firstMatchBatchSize);
+		MatchDecision[] decisions = new MatchDecision[size];
+		Response<MatchDecision[]> response;
+		boolean matched = false;
+		int scored = 0;
+		do {
+			int from = scored;
+			int to = Math.min(size, scored + batchSize);
+			BiometricRecord[] batch = parseGallery(() -> {
+				BiometricRecord[] records = new BiometricRecord[to - from];
+				for (int i = from; i < to; i++) {
+					records[i - from] = matchRequest.materialize(order[i]);
+				}
+				return records;
+			});
+			matchRequestDto.setGallery(batch);
+			logRequest(matchRequestDto);
+			response = matchPartition(sdk, matchRequestDto);
+			matchRequestDto.setGallery(null);
+			if (response == null) {
+				return null;
+			}
+			if (response.getResponse() != null) {
+				for (MatchDecision decision : response.getResponse()) {
+					if (decision != null && decision.getGalleryIndex() >= 0
+							&& decision.getGalleryIndex() < batch.length) {
+						int galleryIndex = order[scored + decision.getGalleryIndex()];
+						decision.setGalleryIndex(galleryIndex);
+						decisions[galleryIndex] = decision;
+						matched |= FirstMatchSearch.isMatched(decision);
+					}
+				}
+			}
+			scored = to;
+			if (!Integer.valueOf(ResponseStatus.SUCCESS.getStatusCode()).equals(response.getStatusCode())) {
+				break;
+			}
+		} while (!matched && scored < size);
+		metrics.recordFirstMatch(scored, size);
+		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH,
+				"first match scored " + scored + " of " + size + " gallery records");
+
+		for (int i = 0; i < size; i++) {
+			if (decisions[i] == null) {
+				decisions[i] = FirstMatchSearch.notEvaluated(i);
+			}
+		}
+		response.setResponse(decisions);
+		return response;
+	}
+
+	/**
+	 * Matches the probe against one gallery partition, dropping gallery segments
+	 * the prefilter rules out before calling the SDK.
+	 *
+	 * @param sdk             The SDK instance.
+	 * @param matchRequestDto The match request holding the partition as gallery.
+	 * @return The SDK response with decisions for every record of the partition.
+	 */
+	private Response<MatchDecision[]> matchPartition(IBioApiV2 sdk, MatchRequestDto matchRequestDto) {
+		BiometricRecord[] gallery = matchRequestDto.getGallery();
+		if (!isMatchPrefilterEnabled || gallery == null || gallery.length == 0) {
+			return sdkMatch(sdk, matchRequestDto, gallery);
+		}
+
+		GalleryPrefilter.Result prefiltered = new GalleryPrefilter(gallery).filter(matchRequestDto.getSample(),
+				matchRequestDto.getModalitiesToMatch(), isMatchPrefilterFormatCheck, matchPrefilterMinQuality);
+		metrics.recordPrefilter(prefiltered.getKeptSegments(), prefiltered.getSkippedSegments(),
+				prefiltered.getSkippedRecords());
+		if (prefiltered.getSkippedSegments() == 0) {
+			return sdkMatch(sdk, matchRequestDto, gallery);
+		}
+		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH, "prefilter skipped " + prefiltered.getSkippedSegments()
+				+ " segments and " + prefiltered.getSkippedRecords() + " gallery records");
+
+		Response<MatchDecision[]> response;
+		if (prefiltered.getFilteredGallery().length == 0) {
+			response = new Response<>();
+			response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+			response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+		} else {
+			response = sdkMatch(sdk, matchRequestDto, prefiltered.getFilteredGallery());
+		}
+		if (response != null) {
+			response.setResponse(prefiltered.merge(response.getResponse()));
+		}
+		return response;
+	}
+
+	/**
+	 * Calls the SDK match with the probe, modalities and flags of the request.
+	 *
+	 * @param sdk             The SDK instance.
+	 * @param matchRequestDto The match request.
+	 * @param gallery         The gallery handed to the SDK.
+	 * @return The SDK response.
+	 */
+	private Response<MatchDecision[]> sdkMatch(IBioApiV2 sdk, MatchRequestDto matchRequestDto,
+			BiometricRecord[] gallery) {
+		int gallerySize = gallery == null ? -1 : gallery.length;
+		return callSdk(gallerySize, () -> sdk.match(matchRequestDto.getSample(), gallery,
+				matchRequestDto.getModalitiesToMatch(), matchRequestDto.getFlags()));
+	}
+
+	/**
+	 * Matches a probe against a gallery streamed as newline-delimited
+	 * {@code BiometricRecord} JSON lines.
+	 * <p>
+	 * The request carries the Base64-encoded match body without a gallery. Gallery
+	 * records are read one line at a time and matched in batches of
+	 * {@code mosip.biosdk.match.stream.batch-size} with the same semantics as
+	 * {@link #match(RequestDto)}, including the prefilter. The decisions of every
+	 * batch are written as one JSON line each, in gallery order, and flushed before
+	 * the next batch is read, so at most one batch of records is held in memory.
+	 *
+	 * @param request   The {@code RequestDto} containing the encoded match body.
+	 * @param gallery   The reader positioned on the first gallery record.
+	 * @param decisions The writer the decisions are written to.
+	 * @throws IOException     If reading the gallery or writing a decision fails.
+	 * @throws BioSDKException If a record cannot be parsed or the SDK fails.
+	 */
+	@Override
+	public void matchStream(RequestDto request, BufferedReader gallery, Writer decisions) throws IOException {
+		String decryptedRequest = decode(request.getRequest());
+		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH_STREAM, DECODE_SUCCESS);
+		MatchRequestDto matchRequestDto = fromJson(decryptedRequest, MatchRequestDto.class);
+		matchRequestDto.setGallery(null);
+		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH_STREAM, JSON_TO_DTO_SUCCESS);
+		checkCapabilities(MATCH_STREAM, BiometricFunction.MATCH, matchRequestDto.getModalitiesToMatch());
+
+		int batchSize = Math.max(1, matchStreamBatchSize);
+		List<BiometricRecord> batch = new ArrayList<>(batchSize);
+		int offset = 0;
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
+			IBioApiV2 sdk = lease.sdk();
+			String line;
+			while ((line = gallery.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				batch.add(fromJson(line, BiometricRecord.class));
+				if (batch.size() == batchSize) {
+					offset = matchStreamBatch(sdk, matchRequestDto, batch, offset, decisions);
+				}
+			}
+			if (!batch.isEmpty()) {
+				offset = matchStreamBatch(sdk, matchRequestDto, batch, offset, decisions);
+			}
+		}
+		metrics.recordGallerySize(MATCH_STREAM, offset);
+		RequestTimings.describe(matchRequestDto.getModalitiesToMatch(), offset, matchRequestDto.getSample());
+	}
+
+	/**
+	 * Matches one batch of a streamed gallery and writes its decisions.
+	 *
+	 * @param sdk             The SDK instance matching every batch of the stream.
+	 * @param matchRequestDto The match request without gallery.
+	 * @param batch           The gallery records of the batch; cleared on return.
+	 * @param offset          The gallery index of the first record of the batch.
+	 * @param decisions       The writer the decisions are written to.
+	 * @return The gallery index of the first record of the next batch.
+	 * @throws IOException If writing a decision fails.
+	 */
+	private int matchStreamBatch(IBioApiV2 sdk, MatchRequestDto matchRequestDto, List<BiometricRecord> batch,
+			int offset, Writer decisions) throws IOException {
+		Response<MatchDecision[]> response;
+		matchRequestDto.setGallery(batch.toArray(new BiometricRecord[0]));
+		try {
+			logRequest(matchRequestDto);
+			response = matchPartition(sdk, matchRequestDto);
+			logResponse(response);
+		} catch (Exception e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, MATCH_STREAM, e);
+			throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(),
+					ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage() + ": " + e.toString() + " " + e.getMessage());
+		} finally {
+			matchRequestDto.setGallery(null);
+		}
+		if (response == null
+				|| !Integer.valueOf(ResponseStatus.SUCCESS.getStatusCode()).equals(response.getStatusCode())) {
+			throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(),
+					ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage() + ": "
+							+ (response == null ? "no response" : response.getStatusMessage()));
+		}
+		if (response.getResponse() != null) {
+			MatchDecision[] batchDecisions = response.getResponse().clone();
+			Arrays.sort(batchDecisions, Comparator.nullsLast(Comparator.comparingInt(MatchDecision::getGalleryIndex)));
+			for (MatchDecision decision : batchDecisions) {
+				if (decision != null) {
+					decision.setGalleryIndex(decision.getGalleryIndex() + offset);
+					decisions.write(gson.toJson(decision));
+					decisions.write('\n');
+				}
+			}
+		}
+		decisions.flush();
+		int next = offset + batch.size();
+		batch.clear();
+		return next;
+	}
+
+	/**
+	 * Binds JSON to the given type, reporting malformed input as an invalid
+	 * request body.
+	 *
+	 * @param json  The JSON to bind.
+	 * @param clazz The target type.
+	 * @param <T>   The target type.
+	 * @return The bound object.
+	 * @throws BioSDKException If the JSON cannot be bound.
+	 */
+	private <T> T fromJson(String json, Class<T> clazz) {
+		try {
+			return timed(Phase.PARSE, () -> gson.fromJson(json, clazz));
+		} catch (JsonParseException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, ErrorMessages.INVALID_REQUEST_BODY.toString(), e);
+			throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+					ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString() + " " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Materializes gallery records of an indexed match request, reporting a
+	 * malformed record as an invalid request body rather than an SDK failure.
+	 *
+	 * @param parse The materialization of the records.
+	 * @param <T>   The materialized type.
+	 * @return The materialized records.
+	 * @throws BioSDKException If a record cannot be bound.
+	 */
+	private <T> T parseGallery(Supplier<T> parse) {
+		try {
+			return timed(Phase.PARSE, parse);
+		} catch (JsonParseException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, ErrorMessages.INVALID_REQUEST_BODY.toString(), e);
+			throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+					ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString() + " " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Extracts biometric templates from samples based on the provided request.
 	 * <p>
@@ -237,6 +688,9 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 * {@code extractTemplate} method of {@code IBioApiV2} to extract biometric
 	 * templates from samples. It logs the request details and the response object.
 	 * <p>
+	 * Only the segments of the modalities to extract are handed to the SDK; the
+	 * other segments are put back into the returned record unchanged.
+	 * <p>
 	 * If any exception occurs during the template extraction process, it logs the
 	 * error and throws a {@code BioSDKException} with an appropriate error message.
 	 *
@@ -255,16 +709,25 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 */
 	@Override
 	public Object extractTemplate(RequestDto request) {
+		boolean isCapabilityChecked = precheckCapabilities(EXTRACT_TEMPLATE, BiometricFunction.EXTRACT, request,
+				"modalitiesToExtract");
 		Response<?> response;
 		String decryptedRequest = decode(request.getRequest());
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, EXTRACT_TEMPLATE, DECODE_SUCCESS);
-		ExtractTemplateRequestDto extractTemplateRequestDto = gson.fromJson(decryptedRequest,
-				ExtractTemplateRequestDto.class);
+		ExtractTemplateRequestDto extractTemplateRequestDto = timed(Phase.PARSE,
+				() -> gson.fromJson(decryptedRequest, ExtractTemplateRequestDto.class));
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, EXTRACT_TEMPLATE, JSON_TO_DTO_SUCCESS);
-		try {
+		RequestTimings.describe(extractTemplateRequestDto.getModalitiesToExtract(), -1,
+				extractTemplateRequestDto.getSample());
+		if (!isCapabilityChecked) {
+			checkCapabilities(EXTRACT_TEMPLATE, BiometricFunction.EXTRACT, extractTemplateRequestDto.getModalitiesToExtract());
+		}
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
 			logRequest(extractTemplateRequestDto);
-			response = iBioApi.extractTemplate(extractTemplateRequestDto.getSample(),
-					extractTemplateRequestDto.getModalitiesToExtract(), extractTemplateRequestDto.getFlags());
+			BiometricRecordProjection projection = project(EXTRACT_TEMPLATE, extractTemplateRequestDto.getSample(),
+					extractTemplateRequestDto.getModalitiesToExtract());
+			response = restore(projection, callSdk(-1, () -> lease.sdk().extractTemplate(projection.getRecord(),
+					extractTemplateRequestDto.getModalitiesToExtract(), extractTemplateRequestDto.getFlags())));
 			logResponse(response);
 		} catch (Exception e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, EXTRACT_TEMPLATE, e);
@@ -282,6 +745,9 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 * method of {@code IBioApiV2} to segment biometric samples into modalities. It
 	 * logs the request details and the response object.
 	 * <p>
+	 * Only the segments of the modalities to segment are handed to the SDK; the
+	 * other segments are put back into the returned record unchanged.
+	 * <p>
 	 * If any exception occurs during the segmentation process, it logs the error
 	 * and throws a {@code BioSDKException} with an appropriate error message.
 	 *
@@ -299,15 +765,24 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 */
 	@Override
 	public Object segment(RequestDto request) {
+		boolean isCapabilityChecked = precheckCapabilities(SEGMENT, BiometricFunction.SEGMENT, request,
+				"modalitiesToSegment");
 		Response<?> response;
 		String decryptedRequest = decode(request.getRequest());
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, SEGMENT, DECODE_SUCCESS);
-		SegmentRequestDto segmentRequestDto = gson.fromJson(decryptedRequest, SegmentRequestDto.class);
+		SegmentRequestDto segmentRequestDto = timed(Phase.PARSE,
+				() -> gson.fromJson(decryptedRequest, SegmentRequestDto.class));
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, SEGMENT, JSON_TO_DTO_SUCCESS);
-		try {
+		RequestTimings.describe(segmentRequestDto.getModalitiesToSegment(), -1, segmentRequestDto.getSample());
+		if (!isCapabilityChecked) {
+			checkCapabilities(SEGMENT, BiometricFunction.SEGMENT, segmentRequestDto.getModalitiesToSegment());
+		}
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
 			logRequest(segmentRequestDto);
-			response = iBioApi.segment(segmentRequestDto.getSample(), segmentRequestDto.getModalitiesToSegment(),
-					segmentRequestDto.getFlags());
+			BiometricRecordProjection projection = project(SEGMENT, segmentRequestDto.getSample(),
+					segmentRequestDto.getModalitiesToSegment());
+			response = restore(projection, callSdk(-1, () -> lease.sdk().segment(projection.getRecord(),
+					segmentRequestDto.getModalitiesToSegment(), segmentRequestDto.getFlags())));
 			logResponse(response);
 		} catch (Exception e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, SEGMENT, e);
@@ -344,18 +819,26 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 */
 	@Override
 	public Object convertFormat(RequestDto request) {
+		boolean isCapabilityChecked = precheckCapabilities(CONVERT_FORMAT, BiometricFunction.CONVERT_FORMAT, request,
+				"modalitiesToConvert");
 		Response<?> response;
 		String decryptedRequest = decode(request.getRequest());
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, CONVERT_FORMAT, DECODE_SUCCESS);
-		ConvertFormatRequestDto convertFormatRequestDto = gson.fromJson(decryptedRequest,
-				ConvertFormatRequestDto.class);
+		ConvertFormatRequestDto convertFormatRequestDto = timed(Phase.PARSE,
+				() -> gson.fromJson(decryptedRequest, ConvertFormatRequestDto.class));
 		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, CONVERT_FORMAT, JSON_TO_DTO_SUCCESS);
-		try {
+		RequestTimings.describe(convertFormatRequestDto.getModalitiesToConvert(), -1,
+				convertFormatRequestDto.getSample());
+		if (!isCapabilityChecked) {
+			checkCapabilities(CONVERT_FORMAT, BiometricFunction.CONVERT_FORMAT,
+					convertFormatRequestDto.getModalitiesToConvert());
+		}
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
 			logRequest(convertFormatRequestDto);
-			response = iBioApi.convertFormatV2(convertFormatRequestDto.getSample(),
+			response = callSdk(-1, () -> lease.sdk().convertFormatV2(convertFormatRequestDto.getSample(),
 					convertFormatRequestDto.getSourceFormat(), convertFormatRequestDto.getTargetFormat(),
 					convertFormatRequestDto.getSourceParams(), convertFormatRequestDto.getTargetParams(),
-					convertFormatRequestDto.getModalitiesToConvert());
+					convertFormatRequestDto.getModalitiesToConvert()));
 			logResponse(response);
 		} catch (Exception e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, CONVERT_FORMAT, e);
@@ -365,6 +848,43 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 		return response;
 	}
 
+	/**
+	 * Projects the sample of a request down to the requested modalities and
+	 * records how many segments were left out.
+	 *
+	 * @param operation  The provider operation, used for logging and metrics.
+	 * @param sample     The sample of the request.
+	 * @param modalities The modalities requested by the caller.
+	 * @return The projection whose record is handed to the SDK.
+	 */
+	private BiometricRecordProjection project(String operation, BiometricRecord sample,
+			List<BiometricType> modalities) {
+		BiometricRecordProjection projection = BiometricRecordProjection.of(sample,
+				isProjectionEnabled ? modalities : null);
+		metrics.recordProjection(operation, projection.getSkippedSegments());
+		if (projection.getSkippedSegments() > 0) {
+			logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, operation,
+					"skipped " + projection.getSkippedSegments() + " segments of unrequested modalities");
+		}
+		return projection;
+	}
+
+	/**
+	 * Puts the segments left out of a projection back into the record returned by
+	 * the SDK.
+	 *
+	 * @param projection The projection the SDK was called with.
+	 * @param response   The SDK response.
+	 * @return The response holding a record of the original shape.
+	 */
+	private static Response<BiometricRecord> restore(BiometricRecordProjection projection,
+			Response<BiometricRecord> response) {
+		if (response != null) {
+			response.setResponse(projection.restore(response.getResponse()));
+		}
+		return response;
+	}
+
 	/**
 	 * Logs the details of an ExtractTemplateRequestDto if logging of request and
 	 * response is enabled.
@@ -486,6 +1006,71 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 		}
 	}
 
+	/**
+	 * Rejects a request the active SDK does not declare support for, before the
+	 * request is decoded.
+	 * <p>
+	 * The function is checked against the {@link SdkCapabilities} of the active
+	 * SDK, and the modalities found by {@link RequestModalities} in the ends of
+	 * the encoded request, within {@code mosip.biosdk.capability-check.scan-bytes}.
+	 *
+	 * @param operation The provider operation.
+	 * @param function  The SDK function the operation calls.
+	 * @param request   The encoded request.
+	 * @param member    The name of the modalities member of the request.
+	 * @return Whether the request was fully checked; if not, its modalities are
+	 *         to be checked with {@link #checkCapabilities} once parsed.
+	 * @throws BioSDKException If the SDK does not support the request.
+	 */
+	private boolean precheckCapabilities(String operation, BiometricFunction function, RequestDto request,
+			String member) {
+		SdkCapabilities capabilities = sdkInitCache.capabilities();
+		if (!isCapabilityCheckEnabled || !capabilities.isKnown()) {
+			return true;
+		}
+		List<BiometricType> modalities = null;
+		if (capabilities.supports(function)) {
+			modalities = timed(Phase.DECODE,
+					() -> RequestModalities.peek(request.getRequest(), member, capabilityScanBytes, gson));
+		}
+		rejectUnsupported(operation, STAGE_SCAN, capabilities, function, modalities);
+		return modalities != null;
+	}
+
+	/**
+	 * Rejects a parsed request the active SDK does not declare support for.
+	 *
+	 * @param operation  The provider operation.
+	 * @param function   The SDK function the operation calls.
+	 * @param modalities The requested modalities.
+	 * @throws BioSDKException If the SDK does not support the request.
+	 */
+	private void checkCapabilities(String operation, BiometricFunction function, List<BiometricType> modalities) {
+		if (isCapabilityCheckEnabled) {
+			rejectUnsupported(operation, STAGE_PARSED, sdkInitCache.capabilities(), function, modalities);
+		}
+	}
+
+	private void rejectUnsupported(String operation, String stage, SdkCapabilities capabilities,
+			BiometricFunction function, List<BiometricType> modalities) {
+		ErrorMessages error;
+		String detail;
+		if (!capabilities.supports(function)) {
+			error = ErrorMessages.UNSUPPORTED_METHOD;
+			detail = function.name();
+		} else if (!capabilities.supportsAny(function, modalities)) {
+			error = ErrorMessages.UNSUPPORTED_MODALITY;
+			detail = function.name() + " " + capabilities.unsupported(function, modalities);
+		} else {
+			// the SDK reports the modalities it does not support in its response
+			return;
+		}
+		metrics.recordCapabilityRejection(operation, error == ErrorMessages.UNSUPPORTED_METHOD ? "method" : "modality",
+				stage);
+		logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, operation, "rejected unsupported " + detail);
+		throw new BioSDKException(error.toString(), error.getMessage() + ": " + detail);
+	}
+
 	/**
 	 * Decodes Base64-encoded data.
 	 * 
@@ -494,12 +1079,72 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	 * @throws BioSDKException If an error occurs during decoding.
 	 */
 	private String decode(String data) {
+		return new String(decodeToBytes(data), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes Base64-encoded data without converting it to a string.
+	 * 
+	 * @param data The Base64-encoded data to decode.
+	 * @return The decoded bytes.
+	 * @throws BioSDKException If an error occurs during decoding.
+	 */
+	private byte[] decodeToBytes(String data) {
+		long start = System.nanoTime();
 		try {
-			return Utils.base64Decode(data);
+			return Utils.base64DecodeToBytes(data);
 		} catch (RuntimeException e) {
 			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, ErrorMessages.INVALID_REQUEST_BODY.toString(), e);
 			throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
 					ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString() + " " + e.getMessage());
+		} finally {
+			RequestTimings.record(Phase.DECODE, start);
+		}
+	}
+
+	/**
+	 * Runs a call, adding its duration to a phase of the current request.
+	 * 
+	 * @param phase The phase the call belongs to.
+	 * @param call  The call to run.
+	 * @param <T>   The result type.
+	 * @return The result of the call.
+	 */
+	private static <T> T timed(Phase phase, Supplier<T> call) {
+		long start = System.nanoTime();
+		try {
+			return call.get();
+		} finally {
+			RequestTimings.record(phase, start);
+		}
+	}
+
+	/**
+	 * Calls into the SDK, recording the call as SDK time of the current request
+	 * and as a {@link BioSdkCallEvent}.
+	 * 
+	 * @param gallerySize The number of gallery records handed to the SDK, or
+	 *                    {@code -1}.
+	 * @param call        The SDK call.
+	 * @param <T>         The result type.
+	 * @return The result of the call.
+	 */
+	private static <T> T callSdk(int gallerySize, Supplier<T> call) {
+		BioSdkCallEvent event = new BioSdkCallEvent();
+		event.begin();
+		try {
+			return timed(Phase.SDK, call);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				RequestTimings timings = RequestTimings.current();
+				if (timings != null) {
+					event.operation = timings.getOperation();
+					event.modalities = timings.getModalitiesText();
+				}
+				event.gallerySize = gallerySize;
+				event.commit();
+			}
 		}
 	}
-}
\ No newline at end of file
+}
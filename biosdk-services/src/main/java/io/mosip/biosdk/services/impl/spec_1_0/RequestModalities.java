@@ -0,0 +1,115 @@
+package io.mosip.biosdk.services.impl.spec_1_0;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+
+/**
+ * Reads the requested modalities of a spec 1.0 request from its Base64 encoding
+ * without decoding the whole request.
+ * <p>
+ * Base64 decodes in independent groups of four characters, so the first and
+ * the last characters of the encoding can be decoded on their own. The
+ * modalities member is looked up in these two windows: at the start of the
+ * object when it precedes the sample, and at its end when it follows the
+ * sample, as with the default member order of the request DTOs. A member
+ * found at the end is only trusted if the rest of the window closes the
+ * top-level object, so that a same-named member nested in the sample is never
+ * taken for it.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class RequestModalities {
+	private static final Type MODALITIES_TYPE = new TypeToken<List<BiometricType>>() {
+	}.getType();
+
+	private RequestModalities() {
+		throw new IllegalStateException("RequestModalities class");
+	}
+
+	/**
+	 * Looks up the modalities member of an encoded request.
+	 *
+	 * @param encoded     the Base64-encoded request JSON.
+	 * @param member      the name of the modalities member, e.g.
+	 *                    {@code modalitiesToCheck}.
+	 * @param windowBytes the number of decoded bytes examined at either end.
+	 * @param gson        the Gson instance the request is bound with.
+	 * @return the modalities, or {@code null} if the member is {@code null}, not
+	 *         in the windows, or the encoding cannot be read.
+	 */
+	static List<BiometricType> peek(String encoded, String member, int windowBytes, Gson gson) {
+		if (encoded == null || encoded.length() % 4 != 0 || windowBytes <= 0) {
+			return null;
+		}
+		int chars = Math.min(encoded.length(), windowBytes / 3 * 4);
+		try {
+			List<BiometricType> modalities = fromHead(decode(encoded, 0, chars), member, gson);
+			if (modalities == null && chars < encoded.length()) {
+				modalities = fromTail(decode(encoded, encoded.length() - chars, encoded.length()), member, gson);
+			}
+			return modalities;
+		} catch (IllegalArgumentException | JsonParseException e) {
+			return null;
+		}
+	}
+
+	private static String decode(String encoded, int from, int to) {
+		return new String(Base64.getDecoder().decode(encoded.substring(from, to)), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the top-level members of a possibly truncated object until the
+	 * modalities member or the end of the window.
+	 */
+	private static List<BiometricType> fromHead(String head, String member, Gson gson) {
+		try (JsonReader reader = new JsonReader(new StringReader(head))) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if (member.equals(reader.nextName())) {
+					return gson.fromJson(reader, MODALITIES_TYPE);
+				}
+				reader.skipValue();
+			}
+		} catch (IOException | IllegalStateException | JsonParseException e) {
+			// truncated by the window, or not an object
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the modalities member from its last occurrence in the window,
+	 * provided the members after it close the top-level object.
+	 */
+	private static List<BiometricType> fromTail(String tail, String member, Gson gson) {
+		int start = tail.lastIndexOf('"' + member + '"');
+		if (start < 0) {
+			return null;
+		}
+		try (JsonReader reader = new JsonReader(new StringReader("{" + tail.substring(start)))) {
+			reader.beginObject();
+			reader.nextName();
+			List<BiometricType> modalities = gson.fromJson(reader, MODALITIES_TYPE);
+			while (reader.hasNext()) {
+				reader.nextName();
+				reader.skipValue();
+			}
+			reader.endObject();
+			return reader.peek() == JsonToken.END_DOCUMENT ? modalities : null;
+		} catch (IOException | IllegalStateException | JsonParseException e) {
+			return null;
+		}
+	}
+}
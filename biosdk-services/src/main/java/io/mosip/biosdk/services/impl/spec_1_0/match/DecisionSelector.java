@@ -0,0 +1,188 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+/**
+ * Compacts the decisions of a match to the ones the caller asked for.
+ * <p>
+ * The {@value #FLAG_SCORE_THRESHOLD} flag keeps only decisions scoring at least
+ * the threshold; the {@value #FLAG_TOP_K} flag keeps only the {@code K} best
+ * scoring decisions. Decisions are offered one by one as partition results
+ * come in and at most {@code K} of them are retained in a bounded heap, so the
+ * full decision list of a large gallery is never built. Every kept decision
+ * carries its gallery index.
+ * </p>
+ * <p>
+ * The score of a decision is the {@value #ANALYTICS_SCORE} value of its
+ * analytics info, or the best one of its modality decisions. SDKs that do not
+ * report a score are ranked {@code 1} for {@link Match#MATCHED} and {@code 0}
+ * otherwise.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class DecisionSelector {
+	/**
+	 * Match flag holding the maximum number of decisions to return.
+	 */
+	public static final String FLAG_TOP_K = "topK";
+
+	/**
+	 * Match flag holding the minimum score of the decisions to return.
+	 */
+	public static final String FLAG_SCORE_THRESHOLD = "scoreThreshold";
+
+	/**
+	 * Analytics info key read for the score of a decision.
+	 */
+	public static final String ANALYTICS_SCORE = "score";
+
+	private static final Comparator<Scored> WORST_FIRST = Comparator.comparingDouble((Scored s) -> s.score)
+			.thenComparing(Comparator.comparingInt((Scored s) -> s.decision.getGalleryIndex()).reversed());
+
+	private final int topK;
+	private final Double threshold;
+	private final PriorityQueue<Scored> heap;
+	private final List<MatchDecision> selected;
+
+	private DecisionSelector(int topK, Double threshold) {
+		this.topK = topK;
+		this.threshold = threshold;
+		this.heap = topK > 0 ? new PriorityQueue<>(topK + 1, WORST_FIRST) : null;
+		this.selected = topK > 0 ? null : new ArrayList<>();
+	}
+
+	/**
+	 * Creates the selector requested by the match flags.
+	 *
+	 * @param flags the match flags; may be {@code null}.
+	 * @return the selector, or {@code null} when no compaction was requested.
+	 * @throws IllegalArgumentException if a flag value is not a positive integer
+	 *                                  or a finite number respectively.
+	 */
+	public static DecisionSelector of(Map<String, String> flags) {
+		if (flags == null) {
+			return null;
+		}
+		String topK = flags.get(FLAG_TOP_K);
+		String threshold = flags.get(FLAG_SCORE_THRESHOLD);
+		if (isBlank(topK) && isBlank(threshold)) {
+			return null;
+		}
+		int k = 0;
+		if (!isBlank(topK)) {
+			k = Integer.parseInt(topK.trim());
+			if (k <= 0) {
+				throw new IllegalArgumentException(FLAG_TOP_K + " must be positive: " + topK);
+			}
+		}
+		Double minScore = isBlank(threshold) ? null : Double.valueOf(threshold.trim());
+		if (minScore != null && !Double.isFinite(minScore)) {
+			throw new IllegalArgumentException(FLAG_SCORE_THRESHOLD + " must be finite: " + threshold);
+		}
+		return new DecisionSelector(k, minScore);
+	}
+
+	private static boolean isBlank(String value) {
+		return value == null || value.isBlank();
+	}
+
+	/**
+	 * Offers the decision of one gallery record.
+	 *
+	 * @param matchDecision the decision, with its final gallery index; ignored if
+	 *                      {@code null}.
+	 */
+	public void offer(MatchDecision matchDecision) {
+		if (matchDecision == null) {
+			return;
+		}
+		double score = scoreOf(matchDecision);
+		if (threshold != null && score < threshold) {
+			return;
+		}
+		if (heap == null) {
+			selected.add(matchDecision);
+			return;
+		}
+		heap.offer(new Scored(matchDecision, score));
+		if (heap.size() > topK) {
+			heap.poll();
+		}
+	}
+
+	/**
+	 * Returns the selected decisions: by decreasing score when {@code topK} was
+	 * requested, in gallery order otherwise.
+	 *
+	 * @return the selected decisions.
+	 */
+	public MatchDecision[] toArray() {
+		if (heap == null) {
+			return selected.toArray(new MatchDecision[0]);
+		}
+		MatchDecision[] result = new MatchDecision[heap.size()];
+		for (int i = result.length - 1; i >= 0; i--) {
+			result[i] = heap.poll().decision;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the score of a decision.
+	 *
+	 * @param matchDecision the decision of a gallery record.
+	 * @return the reported score, or {@code 1}/{@code 0} for matched/not matched.
+	 */
+	static double scoreOf(MatchDecision matchDecision) {
+		Double score = parseScore(matchDecision.getAnalyticsInfo());
+		if (score != null) {
+			return score;
+		}
+		double best = 0;
+		boolean scored = false;
+		if (matchDecision.getDecisions() != null) {
+			for (Decision decision : matchDecision.getDecisions().values()) {
+				Double decisionScore = decision == null ? null : parseScore(decision.getAnalyticsInfo());
+				if (decisionScore != null) {
+					best = scored ? Math.max(best, decisionScore) : decisionScore;
+					scored = true;
+				}
+			}
+		}
+		if (scored) {
+			return best;
+		}
+		return FirstMatchSearch.isMatched(matchDecision) ? 1 : 0;
+	}
+
+	private static Double parseScore(Map<String, String> analyticsInfo) {
+		String value = analyticsInfo == null ? null : analyticsInfo.get(ANALYTICS_SCORE);
+		if (isBlank(value)) {
+			return null;
+		}
+		try {
+			return Double.valueOf(value.trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static final class Scored {
+		private final MatchDecision decision;
+		private final double score;
+
+		private Scored(MatchDecision decision, double score) {
+			this.decision = decision;
+			this.score = score;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+/**
+ * Support for the first-match mode of the match operation.
+ * <p>
+ * When the {@value #FLAG_FIRST_MATCH} flag is set, the gallery is traversed
+ * from the record with the best {@link BDBInfo} quality to the worst, in small
+ * batches, and traversal stops at the first batch holding a
+ * {@link Match#MATCHED} decision. Records that were never handed to the SDK
+ * are reported by {@link #notEvaluated(int)}.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class FirstMatchSearch {
+	/**
+	 * Match flag requesting the first-match mode. Its value must be
+	 * {@code "true"}.
+	 */
+	public static final String FLAG_FIRST_MATCH = "firstMatch";
+
+	/**
+	 * Key set to {@code "false"} in {@link MatchDecision#getAnalyticsInfo()} of
+	 * the decisions of gallery records that were never scored.
+	 */
+	public static final String ANALYTICS_EVALUATED = "evaluated";
+
+	private FirstMatchSearch() {
+		throw new IllegalStateException("FirstMatchSearch class");
+	}
+
+	/**
+	 * Returns whether the match flags request the first-match mode.
+	 *
+	 * @param flags the match flags; may be {@code null}.
+	 * @return {@code true} if {@value #FLAG_FIRST_MATCH} is {@code "true"}.
+	 */
+	public static boolean isRequested(Map<String, String> flags) {
+		return flags != null && Boolean.parseBoolean(flags.get(FLAG_FIRST_MATCH));
+	}
+
+	/**
+	 * Orders the gallery by decreasing quality.
+	 * <p>
+	 * The quality of a record is the best quality score among its segments of the
+	 * requested modalities. Only the metadata of every record is parsed. Records
+	 * without any quality score come last; ties keep gallery order.
+	 * </p>
+	 *
+	 * @param matchRequest the indexed match request.
+	 * @param modalities   the modalities to match; {@code null} or empty considers
+	 *                     every segment, {@code null} entries are ignored.
+	 * @return the gallery indexes in traversal order.
+	 */
+	public static int[] qualityOrder(LazyMatchRequest matchRequest, List<BiometricType> modalities) {
+		Set<BiometricType> wanted = EnumSet.noneOf(BiometricType.class);
+		if (modalities != null) {
+			for (BiometricType modality : modalities) {
+				if (modality != null) {
+					wanted.add(modality);
+				}
+			}
+		}
+		int size = matchRequest.size();
+		long[] quality = new long[size];
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			quality[i] = quality(matchRequest.metadata(i), wanted);
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Long.compare(quality[b], quality[a]));
+		int[] result = new int[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = order[i];
+		}
+		return result;
+	}
+
+	private static long quality(BiometricRecord biometricRecord, Set<BiometricType> modalities) {
+		long best = Long.MIN_VALUE;
+		if (biometricRecord == null || biometricRecord.getSegments() == null) {
+			return best;
+		}
+		for (BIR segment : biometricRecord.getSegments()) {
+			BDBInfo bdbInfo = segment == null ? null : segment.getBdbInfo();
+			if (bdbInfo == null || bdbInfo.getQuality() == null || bdbInfo.getQuality().getScore() == null
+					|| !isOfModality(bdbInfo, modalities)) {
+				continue;
+			}
+			best = Math.max(best, bdbInfo.getQuality().getScore());
+		}
+		return best;
+	}
+
+	private static boolean isOfModality(BDBInfo bdbInfo, Set<BiometricType> modalities) {
+		if (modalities.isEmpty() || bdbInfo.getType() == null || bdbInfo.getType().isEmpty()) {
+			return true;
+		}
+		for (BiometricType type : bdbInfo.getType()) {
+			if (modalities.contains(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether any modality of a decision matched.
+	 *
+	 * @param matchDecision the decision of a gallery record; may be {@code null}.
+	 * @return {@code true} if a modality is {@link Match#MATCHED}.
+	 */
+	public static boolean isMatched(MatchDecision matchDecision) {
+		if (matchDecision == null || matchDecision.getDecisions() == null) {
+			return false;
+		}
+		for (Decision decision : matchDecision.getDecisions().values()) {
+			if (decision != null && decision.getMatch() == Match.MATCHED) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Builds the decision of a gallery record skipped because a match was already
+	 * found.
+	 *
+	 * @param galleryIndex the position of the record in the gallery.
+	 * @return a decision without modality decisions, marked as not evaluated.
+	 */
+	public static MatchDecision notEvaluated(int galleryIndex) {
+		MatchDecision matchDecision = new MatchDecision(galleryIndex);
+		matchDecision.setDecisions(new EnumMap<>(BiometricType.class));
+		Map<String, String> analyticsInfo = new HashMap<>();
+		analyticsInfo.put(ANALYTICS_EVALUATED, Boolean.FALSE.toString());
+		matchDecision.setAnalyticsInfo(analyticsInfo);
+		return matchDecision;
+	}
+}
@@ -0,0 +1,403 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.mosip.biosdk.services.utils.BiometricRecordProjection;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+/**
+ * Metadata index over the segments of a match gallery, used to drop segments
+ * that can never match the probe before the gallery is handed to the SDK.
+ * <p>
+ * Every gallery segment is given an ordinal and the {@link BDBInfo} type,
+ * subtype, format and quality of the segment are indexed into {@link BitSet}s
+ * keyed by value. Filtering a probe against the gallery is then a handful of
+ * bitset unions and intersections; no BDB is decoded or copied. Segments whose
+ * metadata is missing are always kept, since they cannot be ruled out, and
+ * nothing is filtered out when the probe itself cannot be profiled.
+ * </p>
+ * <p>
+ * Gallery records left without any compatible segment are not sent to the SDK
+ * at all and are reported as {@link Match#NOT_MATCHED} by
+ * {@link Result#merge(MatchDecision[])}.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public class GalleryPrefilter {
+	/**
+	 * Key set in {@link MatchDecision#getAnalyticsInfo()} of decisions produced
+	 * by the prefilter instead of the SDK.
+	 */
+	public static final String ANALYTICS_PREFILTERED = "prefiltered";
+
+	private final BiometricRecord[] gallery;
+	private final int[] segmentOffsets;
+	private final Map<BiometricType, BitSet> typeIndex = new EnumMap<>(BiometricType.class);
+	private final Map<String, BitSet> subtypeIndex = new HashMap<>();
+	private final Map<String, BitSet> formatIndex = new HashMap<>();
+	private final BitSet untyped = new BitSet();
+	private final BitSet unspecifiedSubtype = new BitSet();
+	private final BitSet unspecifiedFormat = new BitSet();
+	private final long[] qualityScores;
+
+	/**
+	 * Builds the index over all segments of the given gallery.
+	 *
+	 * @param gallery the gallery records of a match request.
+	 */
+	public GalleryPrefilter(BiometricRecord[] gallery) {
+		this.gallery = gallery;
+		this.segmentOffsets = new int[gallery.length + 1];
+		int segmentCount = 0;
+		for (int i = 0; i < gallery.length; i++) {
+			segmentOffsets[i] = segmentCount;
+			segmentCount += segmentsOf(gallery[i]).size();
+		}
+		segmentOffsets[gallery.length] = segmentCount;
+		this.qualityScores = new long[segmentCount];
+
+		int ordinal = 0;
+		for (BiometricRecord galleryRecord : gallery) {
+			for (BIR segment : segmentsOf(galleryRecord)) {
+				index(ordinal++, segment == null ? null : segment.getBdbInfo());
+			}
+		}
+	}
+
+	private void index(int ordinal, BDBInfo bdbInfo) {
+		qualityScores[ordinal] = Long.MIN_VALUE;
+		if (bdbInfo == null) {
+			untyped.set(ordinal);
+			unspecifiedSubtype.set(ordinal);
+			unspecifiedFormat.set(ordinal);
+			return;
+		}
+		if (bdbInfo.getType() == null || bdbInfo.getType().isEmpty()) {
+			untyped.set(ordinal);
+		} else {
+			for (BiometricType type : bdbInfo.getType()) {
+				if (type != null) {
+					typeIndex.computeIfAbsent(type, t -> new BitSet()).set(ordinal);
+				}
+			}
+		}
+		String subtype = subtypeKey(bdbInfo.getSubtype());
+		if (subtype == null) {
+			unspecifiedSubtype.set(ordinal);
+		} else {
+			subtypeIndex.computeIfAbsent(subtype, s -> new BitSet()).set(ordinal);
+		}
+		String format = formatKey(bdbInfo.getFormat());
+		if (format == null) {
+			unspecifiedFormat.set(ordinal);
+		} else {
+			formatIndex.computeIfAbsent(format, f -> new BitSet()).set(ordinal);
+		}
+		if (bdbInfo.getQuality() != null && bdbInfo.getQuality().getScore() != null) {
+			qualityScores[ordinal] = bdbInfo.getQuality().getScore();
+		}
+	}
+
+	/**
+	 * Selects the gallery segments that are compatible with the probe.
+	 * <p>
+	 * A segment is kept when its type is one of the modalities to match, the
+	 * probe holds a segment of that modality with the same subtype and, if
+	 * requested, the same format, and its quality score is not below
+	 * {@code minQuality}. When {@code modalitiesToMatch} is empty the modalities
+	 * present in the probe are used.
+	 * </p>
+	 * <p>
+	 * Every segment is kept when the probe has no segment, a segment without
+	 * type, or no segment of one of the modalities to match, since its profile
+	 * does not tell which gallery segments the SDK could match then.
+	 * </p>
+	 *
+	 * @param sample            the probe record.
+	 * @param modalitiesToMatch the modalities requested by the caller.
+	 * @param checkFormat       whether gallery segments must share the probe
+	 *                          format of their modality.
+	 * @param minQuality        the minimum quality score of kept segments, or
+	 *                          {@code 0} to ignore quality.
+	 * @return the filtered gallery along with the bookkeeping needed to merge the
+	 *         SDK decisions back.
+	 */
+	public Result filter(BiometricRecord sample, List<BiometricType> modalitiesToMatch, boolean checkFormat,
+			long minQuality) {
+		Map<BiometricType, ProbeProfile> probe = profile(sample);
+		Set<BiometricType> modalities = EnumSet.noneOf(BiometricType.class);
+		if (modalitiesToMatch != null) {
+			for (BiometricType modality : modalitiesToMatch) {
+				if (modality != null) {
+					modalities.add(modality);
+				}
+			}
+		}
+		if (modalities.isEmpty() && probe != null) {
+			modalities.addAll(probe.keySet());
+		}
+		if (probe == null || modalities.isEmpty() || !probe.keySet().containsAll(modalities)) {
+			BitSet all = new BitSet();
+			all.set(0, segmentOffsets[gallery.length]);
+			return new Result(all, new ArrayList<>(modalities));
+		}
+
+		BitSet keep = (BitSet) untyped.clone();
+		for (BiometricType modality : modalities) {
+			BitSet ofType = typeIndex.get(modality);
+			if (ofType == null) {
+				continue;
+			}
+			ProbeProfile probeProfile = probe.get(modality);
+			BitSet candidates = (BitSet) ofType.clone();
+			if (!probeProfile.anySubtype) {
+				candidates.and(union(unspecifiedSubtype, subtypeIndex, probeProfile.subtypes));
+			}
+			if (checkFormat && !probeProfile.anyFormat) {
+				candidates.and(union(unspecifiedFormat, formatIndex, probeProfile.formats));
+			}
+			keep.or(candidates);
+		}
+		if (minQuality > 0) {
+			for (int ordinal = keep.nextSetBit(0); ordinal >= 0; ordinal = keep.nextSetBit(ordinal + 1)) {
+				if (qualityScores[ordinal] != Long.MIN_VALUE && qualityScores[ordinal] < minQuality) {
+					keep.clear(ordinal);
+				}
+			}
+		}
+		return new Result(keep, new ArrayList<>(modalities));
+	}
+
+	private static BitSet union(BitSet unspecified, Map<String, BitSet> index, Set<String> keys) {
+		BitSet allowed = (BitSet) unspecified.clone();
+		for (String key : keys) {
+			BitSet bits = index.get(key);
+			if (bits != null) {
+				allowed.or(bits);
+			}
+		}
+		return allowed;
+	}
+
+	/**
+	 * Returns the profile of each modality of the probe, or {@code null} when a
+	 * probe segment has no type.
+	 */
+	private static Map<BiometricType, ProbeProfile> profile(BiometricRecord sample) {
+		Map<BiometricType, ProbeProfile> profiles = new EnumMap<>(BiometricType.class);
+		for (BIR segment : segmentsOf(sample)) {
+			BDBInfo bdbInfo = segment == null ? null : segment.getBdbInfo();
+			if (bdbInfo == null || bdbInfo.getType() == null || bdbInfo.getType().stream().noneMatch(Objects::nonNull)) {
+				return null;
+			}
+			String subtype = subtypeKey(bdbInfo.getSubtype());
+			String format = formatKey(bdbInfo.getFormat());
+			for (BiometricType type : bdbInfo.getType()) {
+				if (type == null) {
+					continue;
+				}
+				ProbeProfile probeProfile = profiles.computeIfAbsent(type, t -> new ProbeProfile());
+				if (subtype == null) {
+					probeProfile.anySubtype = true;
+				} else {
+					probeProfile.subtypes.add(subtype);
+				}
+				if (format == null) {
+					probeProfile.anyFormat = true;
+				} else {
+					probeProfile.formats.add(format);
+				}
+			}
+		}
+		return profiles;
+	}
+
+	private static List<BIR> segmentsOf(BiometricRecord biometricRecord) {
+		return biometricRecord == null || biometricRecord.getSegments() == null ? Collections.emptyList()
+				: biometricRecord.getSegments();
+	}
+
+	private static String subtypeKey(List<String> subtype) {
+		if (subtype == null || subtype.isEmpty()) {
+			return null;
+		}
+		String key = String.join(" ", subtype).trim().toLowerCase(Locale.ROOT);
+		return key.isEmpty() ? null : key;
+	}
+
+	private static String formatKey(RegistryIDType format) {
+		if (format == null || (format.getOrganization() == null && format.getType() == null)) {
+			return null;
+		}
+		return format.getOrganization() + "/" + format.getType();
+	}
+
+	/**
+	 * Modalities, subtypes and formats present in the probe record.
+	 */
+	private static class ProbeProfile {
+		private final Set<String> subtypes = new HashSet<>();
+		private final Set<String> formats = new HashSet<>();
+		private boolean anySubtype;
+		private boolean anyFormat;
+	}
+
+	/**
+	 * Outcome of {@link GalleryPrefilter#filter}: the gallery to hand to the SDK
+	 * and the mapping back to the original gallery positions.
+	 */
+	public class Result {
+		private final BiometricRecord[] filteredGallery;
+		private final int[] originalIndexes;
+		private final int[] skippedIndexes;
+		private final List<BiometricType> modalities;
+		private final int keptSegments;
+		private final int skippedSegments;
+
+		private Result(BitSet keep, List<BiometricType> modalities) {
+			this.modalities = modalities;
+			this.keptSegments = keep.cardinality();
+			this.skippedSegments = segmentOffsets[gallery.length] - keptSegments;
+
+			List<BiometricRecord> filtered = new ArrayList<>(gallery.length);
+			int[] kept = new int[gallery.length];
+			int[] skipped = new int[gallery.length];
+			int keptCount = 0;
+			int skippedCount = 0;
+			for (int i = 0; i < gallery.length; i++) {
+				int from = segmentOffsets[i];
+				int to = segmentOffsets[i + 1];
+				int keptInRecord = keep.get(from, to).cardinality();
+				if (keptInRecord == 0 && to > from) {
+					skipped[skippedCount++] = i;
+				} else {
+					kept[keptCount++] = i;
+					filtered.add(keptInRecord == to - from ? gallery[i] : project(gallery[i], keep, from));
+				}
+			}
+			this.filteredGallery = filtered.toArray(new BiometricRecord[0]);
+			this.originalIndexes = Arrays.copyOf(kept, keptCount);
+			this.skippedIndexes = Arrays.copyOf(skipped, skippedCount);
+		}
+
+		private BiometricRecord project(BiometricRecord source, BitSet keep, int firstOrdinal) {
+			List<BIR> segments = source.getSegments();
+			List<BIR> keptSegmentList = new ArrayList<>(segments.size());
+			for (int s = 0; s < segments.size(); s++) {
+				if (keep.get(firstOrdinal + s)) {
+					keptSegmentList.add(segments.get(s));
+				}
+			}
+			return BiometricRecordProjection.withSegments(source, keptSegmentList);
+		}
+
+		/**
+		 * Returns the gallery to hand to the SDK.
+		 *
+		 * @return the gallery records that kept at least one segment.
+		 */
+		public BiometricRecord[] getFilteredGallery() {
+			return filteredGallery;
+		}
+
+		/**
+		 * Returns the number of segments handed to the SDK.
+		 *
+		 * @return the kept segment count.
+		 */
+		public int getKeptSegments() {
+			return keptSegments;
+		}
+
+		/**
+		 * Returns the number of segments dropped before the SDK call.
+		 *
+		 * @return the skipped segment count.
+		 */
+		public int getSkippedSegments() {
+			return skippedSegments;
+		}
+
+		/**
+		 * Returns the number of gallery records answered without the SDK.
+		 *
+		 * @return the skipped record count.
+		 */
+		public int getSkippedRecords() {
+			return skippedIndexes.length;
+		}
+
+		/**
+		 * Merges the SDK decisions for the filtered gallery with the decisions of
+		 * the skipped records, re-keying every decision to its position in the
+		 * original gallery.
+		 *
+		 * @param sdkDecisions the decisions returned by the SDK, indexed by the
+		 *                     filtered gallery; may be {@code null} when the SDK was
+		 *                     not called.
+		 * @return the decisions for the whole gallery ordered by gallery index.
+		 */
+		public MatchDecision[] merge(MatchDecision[] sdkDecisions) {
+			List<MatchDecision> merged = new ArrayList<>(gallery.length);
+			if (sdkDecisions != null) {
+				for (MatchDecision decision : sdkDecisions) {
+					if (decision != null && decision.getGalleryIndex() >= 0
+							&& decision.getGalleryIndex() < originalIndexes.length) {
+						decision.setGalleryIndex(originalIndexes[decision.getGalleryIndex()]);
+					}
+					merged.add(decision);
+				}
+			}
+			for (int skippedIndex : skippedIndexes) {
+				merged.add(notMatched(skippedIndex, modalities));
+			}
+			merged.sort(Comparator.nullsLast(Comparator.comparingInt(MatchDecision::getGalleryIndex)));
+			return merged.toArray(new MatchDecision[0]);
+		}
+	}
+
+	/**
+	 * Builds a not-matched decision for a gallery record that was never scored.
+	 *
+	 * @param galleryIndex the position of the record in the gallery.
+	 * @param modalities   the modalities the caller asked to match.
+	 * @return a decision reporting every modality as not matched.
+	 */
+	static MatchDecision notMatched(int galleryIndex, List<BiometricType> modalities) {
+		MatchDecision matchDecision = new MatchDecision(galleryIndex);
+		Map<BiometricType, Decision> decisions = new EnumMap<>(BiometricType.class);
+		for (BiometricType modality : modalities) {
+			Decision decision = new Decision();
+			decision.setMatch(Match.NOT_MATCHED);
+			decision.setErrors(new ArrayList<>());
+			decision.setAnalyticsInfo(new HashMap<>());
+			decisions.put(modality, decision);
+		}
+		matchDecision.setDecisions(decisions);
+		Map<String, String> analyticsInfo = new HashMap<>();
+		analyticsInfo.put(ANALYTICS_PREFILTERED, Boolean.TRUE.toString());
+		matchDecision.setAnalyticsInfo(analyticsInfo);
+		return matchDecision;
+	}
+}
@@ -0,0 +1,338 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Match request whose gallery is parsed on demand.
+ * <p>
+ * Parsing walks the decoded JSON once without building any object for the
+ * gallery: it only records the byte range of every gallery entry in the
+ * decoded buffer. The remaining members (sample, modalities and flags) are
+ * bound to a {@link MatchRequestDto} whose {@code gallery} is left
+ * {@code null}. Gallery records are built by {@link #materialize(int, int)}
+ * for one partition at a time, so the object graph held at any point is
+ * proportional to the partition rather than to the whole gallery.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class LazyMatchRequest {
+	private static final byte[] GALLERY_KEY = "gallery".getBytes(StandardCharsets.UTF_8);
+	private static final Gson METADATA_GSON = new GsonBuilder().setExclusionStrategies(new ExclusionStrategy() {
+		@Override
+		public boolean shouldSkipField(FieldAttributes f) {
+			return f.getDeclaredClass() == byte[].class;
+		}
+
+		@Override
+		public boolean shouldSkipClass(Class<?> clazz) {
+			return false;
+		}
+	}).create();
+
+	private final byte[] buffer;
+	private final Gson gson;
+	private final MatchRequestDto request;
+	private final int[] entryStarts;
+	private final int[] entryEnds;
+	private final int size;
+	private final boolean galleryPresent;
+
+	private LazyMatchRequest(byte[] buffer, Gson gson, MatchRequestDto request, int[] entryStarts,
+			int[] entryEnds, int size, boolean galleryPresent) {
+		this.buffer = buffer;
+		this.gson = gson;
+		this.request = request;
+		this.entryStarts = entryStarts;
+		this.entryEnds = entryEnds;
+		this.size = size;
+		this.galleryPresent = galleryPresent;
+	}
+
+	/**
+	 * Indexes a decoded match request.
+	 *
+	 * @param json the UTF-8 JSON of a match request.
+	 * @param gson the Gson instance used to bind the request members.
+	 * @return the indexed request.
+	 * @throws JsonSyntaxException if the buffer is not a JSON object.
+	 */
+	public static LazyMatchRequest parse(byte[] json, Gson gson) {
+		return new Scanner(json).scan(gson);
+	}
+
+	/**
+	 * Returns the request members other than the gallery.
+	 *
+	 * @return the request with a {@code null} gallery.
+	 */
+	public MatchRequestDto getRequest() {
+		return request;
+	}
+
+	/**
+	 * Returns whether the request carried a gallery array.
+	 *
+	 * @return {@code false} when the gallery was absent or {@code null}.
+	 */
+	public boolean isGalleryPresent() {
+		return galleryPresent;
+	}
+
+	/**
+	 * Returns the number of gallery entries.
+	 *
+	 * @return the gallery size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the size in bytes of a gallery entry in the decoded request.
+	 *
+	 * @param index the gallery index.
+	 * @return the encoded length of the entry.
+	 */
+	public int entryLength(int index) {
+		return entryEnds[index] - entryStarts[index];
+	}
+
+	/**
+	 * Builds the gallery records in {@code [from, to)}.
+	 *
+	 * @param from the first gallery index, inclusive.
+	 * @param to   the last gallery index, exclusive.
+	 * @return the materialized records.
+	 */
+	public BiometricRecord[] materialize(int from, int to) {
+		BiometricRecord[] records = new BiometricRecord[to - from];
+		for (int i = from; i < to; i++) {
+			records[i - from] = materialize(i);
+		}
+		return records;
+	}
+
+	/**
+	 * Builds a single gallery record.
+	 *
+	 * @param index the gallery index.
+	 * @return the materialized record.
+	 */
+	public BiometricRecord materialize(int index) {
+		return gson.fromJson(reader(entryStarts[index], entryEnds[index]), BiometricRecord.class);
+	}
+
+	/**
+	 * Builds a gallery record without its biometric data.
+	 * <p>
+	 * Byte array members such as the BDB and SB of every segment are skipped
+	 * while parsing, so only the headers and {@code BDBInfo} metadata are bound.
+	 * The result must not be handed to the SDK.
+	 * </p>
+	 *
+	 * @param index the gallery index.
+	 * @return the record metadata.
+	 */
+	public BiometricRecord metadata(int index) {
+		return METADATA_GSON.fromJson(reader(entryStarts[index], entryEnds[index]), BiometricRecord.class);
+	}
+
+	private Reader reader(int start, int end) {
+		return new InputStreamReader(new ByteArrayInputStream(buffer, start, end - start), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Single pass structural scanner over the decoded request. JSON structural
+	 * characters are ASCII, so scanning UTF-8 bytes is safe without decoding.
+	 */
+	private static final class Scanner {
+		private final byte[] json;
+		private int[] starts = new int[16];
+		private int[] ends = new int[16];
+		private int count;
+		private boolean galleryPresent;
+
+		private Scanner(byte[] json) {
+			this.json = json;
+		}
+
+		private LazyMatchRequest scan(Gson gson) {
+			ByteArrayOutputStream members = new ByteArrayOutputStream();
+			members.write('{');
+			int pos = expect(skipWhitespace(0), '{');
+			pos = skipWhitespace(pos);
+			if (at(pos) == '}') {
+				pos++;
+			} else {
+				boolean first = true;
+				while (true) {
+					int memberStart = pos;
+					int keyEnd = skipString(expectAt(pos, '"'));
+					boolean isGallery = isKey(pos + 1, keyEnd - 1, GALLERY_KEY);
+					pos = skipWhitespace(expect(skipWhitespace(keyEnd), ':'));
+					int valueEnd;
+					if (isGallery) {
+						valueEnd = scanGallery(pos);
+					} else {
+						valueEnd = skipValue(pos);
+						if (!first) {
+							members.write(',');
+						}
+						members.write(json, memberStart, valueEnd - memberStart);
+						first = false;
+					}
+					pos = skipWhitespace(valueEnd);
+					if (at(pos) == ',') {
+						pos = skipWhitespace(pos + 1);
+					} else {
+						expect(pos, '}');
+						break;
+					}
+				}
+			}
+			members.write('}');
+			MatchRequestDto request = gson.fromJson(
+					new InputStreamReader(new ByteArrayInputStream(members.toByteArray()), StandardCharsets.UTF_8),
+					MatchRequestDto.class);
+			request.setGallery(null);
+			return new LazyMatchRequest(json, gson, request, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count),
+					count, galleryPresent);
+		}
+
+		private int scanGallery(int pos) {
+			if (at(pos) != '[') {
+				return skipValue(pos);
+			}
+			galleryPresent = true;
+			pos = skipWhitespace(pos + 1);
+			if (at(pos) == ']') {
+				return pos + 1;
+			}
+			while (true) {
+				int end = skipValue(pos);
+				add(pos, end);
+				pos = skipWhitespace(end);
+				if (at(pos) == ',') {
+					pos = skipWhitespace(pos + 1);
+				} else {
+					return expect(pos, ']');
+				}
+			}
+		}
+
+		private void add(int start, int end) {
+			if (count == starts.length) {
+				starts = Arrays.copyOf(starts, count * 2);
+				ends = Arrays.copyOf(ends, count * 2);
+			}
+			starts[count] = start;
+			ends[count] = end;
+			count++;
+		}
+
+		private boolean isKey(int from, int to, byte[] key) {
+			return Arrays.equals(json, from, to, key, 0, key.length);
+		}
+
+		private int skipValue(int pos) {
+			byte b = at(pos);
+			if (b == '"') {
+				return skipString(pos);
+			}
+			if (b == '{' || b == '[') {
+				return skipContainer(pos);
+			}
+			int i = pos;
+			while (i < json.length && !isDelimiter(json[i])) {
+				i++;
+			}
+			if (i == pos) {
+				throw syntaxError(pos);
+			}
+			return i;
+		}
+
+		private int skipContainer(int pos) {
+			int depth = 0;
+			int i = pos;
+			while (i < json.length) {
+				byte b = json[i];
+				if (b == '"') {
+					i = skipString(i);
+					continue;
+				}
+				if (b == '{' || b == '[') {
+					depth++;
+				} else if ((b == '}' || b == ']') && --depth == 0) {
+					return i + 1;
+				}
+				i++;
+			}
+			throw syntaxError(pos);
+		}
+
+		private int skipString(int pos) {
+			int i = pos + 1;
+			while (i < json.length) {
+				byte b = json[i];
+				if (b == '\\') {
+					i += 2;
+				} else if (b == '"') {
+					return i + 1;
+				} else {
+					i++;
+				}
+			}
+			throw syntaxError(pos);
+		}
+
+		private int skipWhitespace(int pos) {
+			int i = pos;
+			while (i < json.length && (json[i] == ' ' || json[i] == '\n' || json[i] == '\r' || json[i] == '\t')) {
+				i++;
+			}
+			return i;
+		}
+
+		private static boolean isDelimiter(byte b) {
+			return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+		}
+
+		private byte at(int pos) {
+			if (pos >= json.length) {
+				throw syntaxError(pos);
+			}
+			return json[pos];
+		}
+
+		private int expect(int pos, char c) {
+			return expectAt(pos, c) + 1;
+		}
+
+		private int expectAt(int pos, char c) {
+			if (at(pos) != c) {
+				throw syntaxError(pos);
+			}
+			return pos;
+		}
+
+		private static JsonSyntaxException syntaxError(int pos) {
+			return new JsonSyntaxException("Malformed match request at byte " + pos);
+		}
+	}
+}
@@ -0,0 +1,397 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Central registry of the Micrometer meters published by the MOSIP Biometric
+ * SDK service.
+ * <p>
+ * Meter names and tags are kept in one place so that the Prometheus series
+ * exposed through the actuator stay stable as new instrumentation is added.
+ * </p>
+ * <p>
+ * When the SDK warm-up ends, and again when the JVM is restored from a CRaC
+ * checkpoint, the {@code biosdk} meters, but {@code biosdk.startup}, are
+ * removed and the slow request log cleared, so that the service does not
+ * report the synthetic calls of the warm-up as traffic.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class BioSdkMetrics implements Resource {
+	private static final String TAG_OUTCOME = "outcome";
+	private static final String TAG_OPERATION = "operation";
+	private static final String TAG_VERSION = "version";
+	private static final String TAG_PHASE = "phase";
+	private static final String TAG_ENGINE = "engine";
+	private static final String UNKNOWN = "unknown";
+	private static final String METER_PREFIX = "biosdk.";
+	private static final String STARTUP = "biosdk.startup";
+
+	private final MeterRegistry meterRegistry;
+	private final boolean isResourceAccounting;
+	private final SlowRequestLog slowRequestLog;
+	private volatile Counter prefilterSegmentsKept;
+	private volatile Counter prefilterSegmentsSkipped;
+	private volatile Counter prefilterRecordsSkipped;
+	private volatile DistributionSummary firstMatchScoredRatio;
+
+	/**
+	 * Constructs a new {@code BioSdkMetrics} registering its meters in the given
+	 * registry.
+	 *
+	 * @param meterRegistry        the registry the meters are published to.
+	 * @param isResourceAccounting whether the CPU time and heap allocations of
+	 *                             each request are measured.
+	 * @param slowRequestLog       the log capturing slow requests.
+	 */
+	@Autowired
+	public BioSdkMetrics(MeterRegistry meterRegistry,
+			@Value("${mosip.biosdk.metrics.resource-accounting.enabled:true}") boolean isResourceAccounting,
+			SlowRequestLog slowRequestLog) {
+		this.meterRegistry = meterRegistry;
+		this.isResourceAccounting = isResourceAccounting;
+		this.slowRequestLog = slowRequestLog;
+		registerMeters();
+	}
+
+	private void registerMeters() {
+		prefilterSegmentsKept = Counter.builder("biosdk.match.prefilter.segments")
+				.description("Gallery segments examined by the match prefilter").tag(TAG_OUTCOME, "kept")
+				.register(meterRegistry);
+		prefilterSegmentsSkipped = Counter.builder("biosdk.match.prefilter.segments")
+				.description("Gallery segments examined by the match prefilter").tag(TAG_OUTCOME, "skipped")
+				.register(meterRegistry);
+		prefilterRecordsSkipped = Counter.builder("biosdk.match.prefilter.records.skipped")
+				.description("Gallery records answered as not matched without calling the SDK")
+				.register(meterRegistry);
+		firstMatchScoredRatio = DistributionSummary.builder("biosdk.match.first-match.scored.ratio")
+				.description("Fraction of the gallery scored by the SDK in first-match mode").register(meterRegistry);
+	}
+
+	/**
+	 * Registers the metrics with the CRaC global context, a no-op on a JVM
+	 * without CRaC support.
+	 */
+	@PostConstruct
+	public void registerCheckpointResource() {
+		Core.getGlobalContext().register(this);
+	}
+
+	@Override
+	public void beforeCheckpoint(Context<? extends Resource> context) {
+		// nothing to release, the meters are reset after restore
+	}
+
+	@Override
+	public void afterRestore(Context<? extends Resource> context) {
+		reset();
+	}
+
+	/**
+	 * Removes the {@code biosdk} meters but the startup timers, and clears the
+	 * slow request log.
+	 */
+	public void reset() {
+		for (Meter meter : new ArrayList<>(meterRegistry.getMeters())) {
+			String name = meter.getId().getName();
+			if (name.startsWith(METER_PREFIX) && !STARTUP.equals(name)) {
+				meterRegistry.remove(meter);
+			}
+		}
+		registerMeters();
+		slowRequestLog.clear();
+	}
+
+	/**
+	 * Records the outcome of one prefilter pass over a match gallery.
+	 *
+	 * @param keptSegments    the number of segments handed to the SDK.
+	 * @param skippedSegments the number of segments dropped before the SDK call.
+	 * @param skippedRecords  the number of gallery records that were not sent to
+	 *                        the SDK at all.
+	 */
+	public void recordPrefilter(int keptSegments, int skippedSegments, int skippedRecords) {
+		prefilterSegmentsKept.increment(keptSegments);
+		prefilterSegmentsSkipped.increment(skippedSegments);
+		prefilterRecordsSkipped.increment(skippedRecords);
+	}
+
+	/**
+	 * Records how many segments of a request record were left out of the record
+	 * handed to the SDK because their modality was not requested.
+	 *
+	 * @param operation       the provider operation.
+	 * @param skippedSegments the number of segments left out.
+	 */
+	public void recordProjection(String operation, int skippedSegments) {
+		DistributionSummary.builder("biosdk.projection.segments.skipped")
+				.description("Segments per request left out of the record handed to the SDK")
+				.tag(TAG_OPERATION, operation).register(meterRegistry).record(skippedSegments);
+	}
+
+	/**
+	 * Records how much of a gallery was scored before a first-match search
+	 * stopped.
+	 *
+	 * @param scoredRecords the number of gallery records handed to the SDK.
+	 * @param gallerySize   the number of records in the gallery.
+	 */
+	public void recordFirstMatch(int scoredRecords, int gallerySize) {
+		if (gallerySize > 0) {
+			firstMatchScoredRatio.record((double) scoredRecords / gallerySize);
+		}
+	}
+
+	/**
+	 * Records a request rejected because the SDK does not declare support for it.
+	 *
+	 * @param operation the provider operation.
+	 * @param reason    {@code method} or {@code modality}.
+	 * @param stage     {@code scan} when rejected before the request was decoded,
+	 *                  {@code parsed} when after.
+	 */
+	public void recordCapabilityRejection(String operation, String reason, String stage) {
+		Counter.builder("biosdk.capability.rejected")
+				.description("Requests rejected as unsupported by the SDK without calling it")
+				.tag(TAG_OPERATION, operation).tag("reason", reason).tag("stage", stage).register(meterRegistry)
+				.increment();
+	}
+
+	/**
+	 * Records how an {@code init} request was served.
+	 *
+	 * @param outcome {@code cached} when answered from the active instance,
+	 *                {@code swapped} when an instance initialised earlier with the
+	 *                same parameters was swapped in, {@code in-place} when the
+	 *                uninitialised SDK, or the instance used by the warm-up only,
+	 *                was initialised, or {@code standby} when a new instance was
+	 *                initialised and swapped in.
+	 */
+	public void recordInit(String outcome) {
+		Counter.builder("biosdk.init").description("Init requests by how they were served")
+				.tag(TAG_OUTCOME, outcome).register(meterRegistry).increment();
+	}
+
+	/**
+	 * Records a call into one SDK engine of a routing SDK.
+	 *
+	 * @param engine    the engine name.
+	 * @param operation the SDK operation.
+	 * @param outcome   {@code success}, {@code failure} for a response that is not
+	 *                  successful, or {@code error} for an exception.
+	 * @param nanos     the duration of the call in nanoseconds.
+	 */
+	public void recordEngineCall(String engine, String operation, String outcome, long nanos) {
+		Timer.builder("biosdk.engine.call").description("Time spent in each SDK engine per call")
+				.tag(TAG_ENGINE, engine).tag(TAG_OPERATION, operation).tag(TAG_OUTCOME, outcome)
+				.register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records how long a call waited for a permit of an SDK engine with a
+	 * concurrency limit.
+	 *
+	 * @param engine the engine name.
+	 * @param nanos  the wait in nanoseconds.
+	 */
+	public void recordEngineWait(String engine, long nanos) {
+		Timer.builder("biosdk.engine.wait").description("Time spent waiting for an SDK engine permit")
+				.tag(TAG_ENGINE, engine).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a call made in an SDK worker process.
+	 *
+	 * @param operation the SDK operation.
+	 * @param outcome   {@code success}, {@code error} when the SDK failed, or
+	 *                  {@code failure} when the worker did.
+	 * @param nanos     the duration in nanoseconds, payload transfer included.
+	 */
+	public void recordWorkerCall(String operation, String outcome, long nanos) {
+		Timer.builder("biosdk.worker.call").description("Time of the calls made in SDK worker processes")
+				.tag(TAG_OPERATION, operation).tag(TAG_OUTCOME, outcome).register(meterRegistry)
+				.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records how long a call waited for a free slot of an SDK worker process.
+	 *
+	 * @param nanos the wait in nanoseconds.
+	 */
+	public void recordWorkerWait(long nanos) {
+		Timer.builder("biosdk.worker.wait").description("Time spent waiting for an SDK worker slot")
+				.register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Counts an SDK worker process that exited and is restarted.
+	 *
+	 * @param reason {@code exited} or {@code unresponsive}.
+	 */
+	public void recordWorkerRestart(String reason) {
+		Counter.builder("biosdk.worker.restart").description("SDK worker processes restarted")
+				.tag("reason", reason).register(meterRegistry).increment();
+	}
+
+	/**
+	 * Records how long a request served asynchronously waited for a call thread.
+	 *
+	 * @param operation the provider operation.
+	 * @param nanos     the wait in nanoseconds.
+	 */
+	public void recordCallWait(String operation, long nanos) {
+		Timer.builder("biosdk.call.wait").description("Time requests spent queued for an SDK call thread")
+				.tag(TAG_OPERATION, operation).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Counts a request rejected because the queue of the SDK call threads is
+	 * full.
+	 *
+	 * @param operation the provider operation.
+	 */
+	public void recordCallRejected(String operation) {
+		Counter.builder("biosdk.call.rejected").description("Requests rejected by the full SDK call queue")
+				.tag(TAG_OPERATION, operation).register(meterRegistry).increment();
+	}
+
+	/**
+	 * Counts a request served asynchronously that was not answered in time.
+	 *
+	 * @param operation the provider operation.
+	 */
+	public void recordCallTimeout(String operation) {
+		Counter.builder("biosdk.call.timeout").description("Requests not answered by the SDK call threads in time")
+				.tag(TAG_OPERATION, operation).register(meterRegistry).increment();
+	}
+
+	/**
+	 * Records the duration of a phase of an SDK hot swap.
+	 *
+	 * @param phase the phase, {@code load}, {@code init}, {@code warmup} or
+	 *              {@code drain}.
+	 * @param nanos the duration in nanoseconds.
+	 */
+	public void recordSwapPhase(String phase, long nanos) {
+		Timer.builder("biosdk.swap.phase").description("Duration of the SDK hot swap phases").tag(TAG_PHASE, phase)
+				.register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a warm-up call of an SDK hot swap, made on the instance replacing
+	 * the active one.
+	 *
+	 * @param operation the SDK operation.
+	 * @param nanos     the duration in nanoseconds.
+	 */
+	public void recordSwapCall(String operation, long nanos) {
+		Timer.builder("biosdk.swap.call").description("Time of the SDK hot swap warm-up calls")
+				.tag(TAG_OPERATION, operation).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Counts an SDK hot swap by outcome.
+	 *
+	 * @param outcome {@code completed} or {@code failed}.
+	 */
+	public void recordSwap(String outcome) {
+		Counter.builder("biosdk.swap").description("SDK hot swaps").tag(TAG_OUTCOME, outcome).register(meterRegistry)
+				.increment();
+	}
+
+	/**
+	 * Records the duration of a startup phase of the SDK.
+	 *
+	 * @param phase the phase, e.g. {@code bootstrap}, {@code init} or
+	 *              {@code warmup}.
+	 * @param nanos the duration in nanoseconds.
+	 */
+	public void recordStartup(String phase, long nanos) {
+		Timer.builder(STARTUP).description("Duration of the SDK startup phases").tag(TAG_PHASE, phase)
+				.register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Opens the timing context of a request on the current thread and records the
+	 * size of its payload.
+	 *
+	 * @param operation    the provider operation.
+	 * @param version      the spec version of the request.
+	 * @param payloadBytes the size of the encoded request, or a negative value if
+	 *                     unknown.
+	 * @return the context to close once the response is serialised.
+	 */
+	public RequestTimings startRequest(String operation, String version, long payloadBytes) {
+		if (payloadBytes >= 0) {
+			DistributionSummary.builder("biosdk.request.payload.bytes").description("Size of the encoded request")
+					.baseUnit("bytes").tag(TAG_OPERATION, operation).register(meterRegistry).record(payloadBytes);
+		}
+		RequestTimings timings = new RequestTimings(this, operation, version, isResourceAccounting);
+		timings.setRequestBytes(payloadBytes);
+		return timings;
+	}
+
+	/**
+	 * Publishes the durations of a completed request, one timer per phase the
+	 * request went through plus its total duration, and the CPU time and heap
+	 * bytes it consumed when measured. Slow requests are handed to the
+	 * {@link SlowRequestLog}.
+	 *
+	 * @param timings the timing context of the request.
+	 */
+	void recordRequest(RequestTimings timings) {
+		long elapsedNanos = timings.getElapsedNanos();
+		String version = timings.getVersion() == null ? UNKNOWN : timings.getVersion();
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			if (timings.isRecorded(phase)) {
+				Timer.builder("biosdk.request.phase").description("Time spent per request in each processing phase")
+						.tag(TAG_OPERATION, timings.getOperation()).tag(TAG_VERSION, version)
+						.tag(TAG_PHASE, phase.getTag()).tag(TAG_OUTCOME, timings.getOutcome())
+						.register(meterRegistry).record(timings.getNanos(phase), TimeUnit.NANOSECONDS);
+			}
+		}
+		Timer.builder("biosdk.request").description("Time spent serving a request")
+				.tag(TAG_OPERATION, timings.getOperation()).tag(TAG_VERSION, version)
+				.tag(TAG_OUTCOME, timings.getOutcome()).register(meterRegistry)
+				.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		if (timings.getCpuNanos() >= 0) {
+			DistributionSummary.builder("biosdk.request.cpu").description("CPU time consumed per request")
+					.baseUnit("seconds").tag(TAG_OPERATION, timings.getOperation()).register(meterRegistry)
+					.record(timings.getCpuNanos() / 1e9);
+		}
+		if (timings.getAllocatedBytes() >= 0) {
+			DistributionSummary.builder("biosdk.request.allocated").description("Heap bytes allocated per request")
+					.baseUnit("bytes").tag(TAG_OPERATION, timings.getOperation()).register(meterRegistry)
+					.record(timings.getAllocatedBytes());
+		}
+		slowRequestLog.offer(timings, elapsedNanos);
+	}
+
+	/**
+	 * Records the number of records in a match gallery.
+	 *
+	 * @param operation   the provider operation.
+	 * @param gallerySize the number of gallery records.
+	 */
+	public void recordGallerySize(String operation, int gallerySize) {
+		DistributionSummary.builder("biosdk.match.gallery.size").description("Records per match gallery")
+				.tag(TAG_OPERATION, operation).register(meterRegistry).record(gallerySize);
+	}
+}
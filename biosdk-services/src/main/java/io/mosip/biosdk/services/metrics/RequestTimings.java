@@ -0,0 +1,498 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.mosip.biosdk.services.metrics.jfr.BioSdkOperationEvent;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Phase durations of the request being served on the current thread.
+ * <p>
+ * A context is opened by the controller through
+ * {@link BioSdkMetrics#startRequest(String, String, long)} and bound to the
+ * serving thread until {@link #close()}, which publishes the accumulated
+ * durations tagged with the request outcome. Code further down the call chain
+ * adds to the current context with {@link #record(Phase, long)} without
+ * having to thread it through method signatures; recording is a no-op when no
+ * context is open. Requests whose outcome was never set are published as
+ * {@value #OUTCOME_EXCEPTION}. Each context also spans a
+ * {@link BioSdkOperationEvent}, committed on close when Flight Recorder is
+ * recording it.
+ * </p>
+ * <p>
+ * When resource accounting is on, the context also measures the CPU time and
+ * heap bytes consumed by the serving thread between open and close. Work the
+ * request hands to other threads is added by running it through
+ * {@link #bound(Supplier)}, which also binds the context to those threads;
+ * phases may therefore be recorded concurrently.
+ * </p>
+ * <p>
+ * A request served asynchronously {@link #detach()}es its context from the
+ * serving thread, and continues on other threads with {@link #bind(Supplier)};
+ * it is then closed by whichever thread completes it.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class RequestTimings implements AutoCloseable {
+	/**
+	 * Outcome tag of requests answered without errors.
+	 */
+	public static final String OUTCOME_SUCCESS = "success";
+
+	/**
+	 * Outcome tag of requests that ended with an unhandled exception.
+	 */
+	public static final String OUTCOME_EXCEPTION = "exception";
+
+	private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Phases of a request.
+	 */
+	public enum Phase {
+		/**
+		 * Time from arrival until the controller picks the request up, and until a
+		 * call thread does when it is served asynchronously.
+		 */
+		QUEUE("queue"),
+		/** Base64 decoding of the request body. */
+		DECODE("decode"),
+		/** JSON binding of the decoded request. */
+		PARSE("parse"),
+		/** Calls into the vendor SDK. */
+		SDK("sdk"),
+		/** JSON serialisation of the response. */
+		SERIALISE("serialise");
+
+		private final String tag;
+
+		Phase(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * Returns the value of the phase tag.
+		 *
+		 * @return the tag value.
+		 */
+		public String getTag() {
+			return tag;
+		}
+	}
+
+	private final BioSdkMetrics metrics;
+	private final String operation;
+	private final long startNanos;
+	private final String threadName = Thread.currentThread().getName();
+	private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+	private final AtomicIntegerArray phaseRecorded = new AtomicIntegerArray(Phase.values().length);
+	private final RequestTimings previous;
+	private String version;
+	private String outcome = OUTCOME_EXCEPTION;
+	private long requestBytes = -1;
+	private long responseBytes = -1;
+	private boolean serverTiming;
+	private List<BiometricType> modalities;
+	private int gallerySize = -1;
+	private BiometricRecord sample;
+	private final BioSdkOperationEvent event = new BioSdkOperationEvent();
+	private final boolean resourceAccounting;
+	private final long startCpuNanos;
+	private final long startAllocatedBytes;
+	private final LongAdder forkedCpuNanos = new LongAdder();
+	private final LongAdder forkedAllocatedBytes = new LongAdder();
+	private long cpuNanos = -1;
+	private long allocatedBytes = -1;
+	private boolean detached;
+
+	RequestTimings(BioSdkMetrics metrics, String operation, String version, boolean resourceAccounting) {
+		this.metrics = metrics;
+		this.operation = operation;
+		this.version = version;
+		this.resourceAccounting = resourceAccounting;
+		this.startCpuNanos = resourceAccounting ? ThreadResources.cpuTime() : 0;
+		this.startAllocatedBytes = resourceAccounting ? ThreadResources.allocatedBytes() : 0;
+		this.startNanos = System.nanoTime();
+		this.previous = CURRENT.get();
+		CURRENT.set(this);
+		event.begin();
+	}
+
+	/**
+	 * Returns the context of the request served on the current thread.
+	 *
+	 * @return the open context, or {@code null} if none.
+	 */
+	public static RequestTimings current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Adds the time elapsed since {@code startNanos} to a phase of the current
+	 * request.
+	 *
+	 * @param phase      the phase.
+	 * @param startNanos the {@link System#nanoTime()} at which the phase started.
+	 */
+	public static void record(Phase phase, long startNanos) {
+		RequestTimings timings = CURRENT.get();
+		if (timings != null) {
+			timings.add(phase, System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Describes the shape of the request served on the current thread.
+	 * <p>
+	 * The sample is only referenced, not copied; its segment metadata is read
+	 * if the request turns out to be slow (see {@link SlowRequestLog}).
+	 * </p>
+	 *
+	 * @param modalities  the modalities the request operates on; may be
+	 *                    {@code null}.
+	 * @param gallerySize the number of gallery records, or {@code -1} for
+	 *                    operations without gallery.
+	 * @param sample      the sample of the request; may be {@code null}.
+	 */
+	public static void describe(List<BiometricType> modalities, int gallerySize, BiometricRecord sample) {
+		RequestTimings timings = CURRENT.get();
+		if (timings != null) {
+			timings.modalities = modalities;
+			timings.gallerySize = gallerySize;
+			timings.sample = sample;
+		}
+	}
+
+	/**
+	 * Wraps a task handed to another thread on behalf of the request served on
+	 * the current thread, so that it runs bound to its context.
+	 *
+	 * @param task the task.
+	 * @param <T>  the result type.
+	 * @return the bound task, or {@code task} when no context is open.
+	 */
+	public static <T> Supplier<T> bound(Supplier<T> task) {
+		RequestTimings timings = CURRENT.get();
+		return timings == null ? task : timings.bind(task);
+	}
+
+	/**
+	 * Wraps a task so that it runs with this context bound to its thread, the
+	 * CPU time and heap bytes it consumes being accounted to this request. A
+	 * task run on a thread the context is already bound to, such as one run by
+	 * the caller of a saturated executor, is accounted once by that binding.
+	 *
+	 * @param task the task.
+	 * @param <T>  the result type.
+	 * @return the bound task.
+	 */
+	public <T> Supplier<T> bind(Supplier<T> task) {
+		return () -> {
+			RequestTimings bound = CURRENT.get();
+			if (bound == this) {
+				return task.get();
+			}
+			long cpu = resourceAccounting ? ThreadResources.cpuTime() : 0;
+			long allocated = resourceAccounting ? ThreadResources.allocatedBytes() : 0;
+			CURRENT.set(this);
+			try {
+				return task.get();
+			} finally {
+				if (bound == null) {
+					CURRENT.remove();
+				} else {
+					CURRENT.set(bound);
+				}
+				if (resourceAccounting) {
+					forkedCpuNanos.add(ThreadResources.cpuTime() - cpu);
+					forkedAllocatedBytes.add(ThreadResources.allocatedBytes() - allocated);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Unbinds the context from the serving thread, accounting the resources it
+	 * consumed so far, while the request goes on on other threads; it may then
+	 * be closed from any thread.
+	 */
+	public void detach() {
+		if (detached) {
+			return;
+		}
+		detached = true;
+		if (resourceAccounting) {
+			forkedCpuNanos.add(ThreadResources.cpuTime() - startCpuNanos);
+			forkedAllocatedBytes.add(ThreadResources.allocatedBytes() - startAllocatedBytes);
+		}
+		unbind();
+	}
+
+	private void unbind() {
+		if (CURRENT.get() != this) {
+			return;
+		}
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * Adds a duration to a phase.
+	 *
+	 * @param phase the phase.
+	 * @param nanos the duration in nanoseconds.
+	 */
+	public void add(Phase phase, long nanos) {
+		phaseNanos.addAndGet(phase.ordinal(), nanos);
+		phaseRecorded.set(phase.ordinal(), 1);
+	}
+
+	/**
+	 * Returns the time spent so far in a phase.
+	 *
+	 * @param phase the phase.
+	 * @return the accumulated duration in nanoseconds.
+	 */
+	public long getNanos(Phase phase) {
+		return phaseNanos.get(phase.ordinal());
+	}
+
+	/**
+	 * Returns whether a phase was entered.
+	 *
+	 * @param phase the phase.
+	 * @return {@code true} if a duration was recorded for the phase.
+	 */
+	public boolean isRecorded(Phase phase) {
+		return phaseRecorded.get(phase.ordinal()) != 0;
+	}
+
+	/**
+	 * Returns the time elapsed since the request was opened.
+	 *
+	 * @return the elapsed time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Returns the provider operation of the request.
+	 *
+	 * @return the operation.
+	 */
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Returns the spec version of the request.
+	 *
+	 * @return the version.
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Sets the spec version of the request, once known.
+	 *
+	 * @param version the version.
+	 */
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	/**
+	 * Returns the outcome of the request.
+	 *
+	 * @return {@value #OUTCOME_SUCCESS}, the error code, or
+	 *         {@value #OUTCOME_EXCEPTION} if no outcome was set.
+	 */
+	public String getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * Sets the outcome of the request.
+	 *
+	 * @param outcome {@value #OUTCOME_SUCCESS} or the error code.
+	 */
+	public void setOutcome(String outcome) {
+		this.outcome = outcome;
+	}
+
+	/**
+	 * Returns the size of the encoded request.
+	 *
+	 * @return the size in bytes, or {@code -1} if unknown.
+	 */
+	public long getRequestBytes() {
+		return requestBytes;
+	}
+
+	/**
+	 * Sets the size of the encoded request.
+	 *
+	 * @param requestBytes the size in bytes.
+	 */
+	public void setRequestBytes(long requestBytes) {
+		this.requestBytes = requestBytes;
+	}
+
+	/**
+	 * Returns the size of the serialised response.
+	 *
+	 * @return the size in bytes, or {@code -1} if unknown.
+	 */
+	public long getResponseBytes() {
+		return responseBytes;
+	}
+
+	/**
+	 * Sets the size of the serialised response.
+	 *
+	 * @param responseBytes the size in bytes.
+	 */
+	public void setResponseBytes(long responseBytes) {
+		this.responseBytes = responseBytes;
+	}
+
+	/**
+	 * Returns whether the response should carry a {@code Server-Timing} header.
+	 *
+	 * @return {@code true} if the header was requested or is enabled.
+	 */
+	public boolean isServerTiming() {
+		return serverTiming;
+	}
+
+	/**
+	 * Sets whether the response should carry a {@code Server-Timing} header.
+	 *
+	 * @param serverTiming {@code true} to emit the header.
+	 */
+	public void setServerTiming(boolean serverTiming) {
+		this.serverTiming = serverTiming;
+	}
+
+	/**
+	 * Returns the modalities the request operates on.
+	 *
+	 * @return the modalities, or {@code null} if not described.
+	 */
+	public List<BiometricType> getModalities() {
+		return modalities;
+	}
+
+	/**
+	 * Returns the modalities the request operates on as a comma separated list.
+	 *
+	 * @return the modalities, or an empty string if not described.
+	 */
+	public String getModalitiesText() {
+		if (modalities == null || modalities.isEmpty()) {
+			return "";
+		}
+		StringBuilder text = new StringBuilder();
+		for (BiometricType modality : modalities) {
+			if (!text.isEmpty()) {
+				text.append(',');
+			}
+			text.append(modality);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Returns the number of gallery records of the request.
+	 *
+	 * @return the gallery size, or {@code -1} for operations without gallery.
+	 */
+	public int getGallerySize() {
+		return gallerySize;
+	}
+
+	/**
+	 * Returns the sample of the request.
+	 *
+	 * @return the sample, or {@code null} if not described.
+	 */
+	public BiometricRecord getSample() {
+		return sample;
+	}
+
+	/**
+	 * Returns the name of the thread that opened the context.
+	 *
+	 * @return the thread name.
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * Returns the CPU time consumed by the request, including bound tasks.
+	 *
+	 * @return the CPU time in nanoseconds, or {@code -1} before close or when
+	 *         accounting is off.
+	 */
+	public long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	/**
+	 * Returns the heap bytes allocated by the request, including bound tasks.
+	 *
+	 * @return the allocated bytes, or {@code -1} before close or when accounting
+	 *         is off.
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Unbinds the context from the current thread, unless it was detached, and
+	 * publishes its durations.
+	 */
+	@Override
+	public void close() {
+		if (detached) {
+			if (resourceAccounting) {
+				cpuNanos = forkedCpuNanos.sum();
+				allocatedBytes = forkedAllocatedBytes.sum();
+			}
+		} else {
+			if (resourceAccounting) {
+				cpuNanos = ThreadResources.cpuTime() - startCpuNanos + forkedCpuNanos.sum();
+				allocatedBytes = ThreadResources.allocatedBytes() - startAllocatedBytes
+						+ forkedAllocatedBytes.sum();
+			}
+			unbind();
+		}
+		metrics.recordRequest(this);
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.version = version;
+			event.outcome = outcome;
+			event.modalities = getModalitiesText();
+			event.gallerySize = gallerySize;
+			event.payloadBytes = requestBytes;
+			event.decodeNanos = getNanos(Phase.DECODE);
+			event.parseNanos = getNanos(Phase.PARSE);
+			event.sdkNanos = getNanos(Phase.SDK);
+			event.serialiseNanos = getNanos(Phase.SERIALISE);
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filter supporting the {@value #SERVER_TIMING} response header.
+ * <p>
+ * Running ahead of every other filter, it stamps each request with its arrival
+ * time so that the time spent in the filter chain and waiting for the
+ * controller can be reported as the {@code queue} phase. The header is emitted
+ * when {@code mosip.biosdk.server-timing.enabled} is set, or when the client
+ * sends {@value #REQUEST_HEADER}{@code : true}. Building it only formats the
+ * durations already collected in {@link RequestTimings}, so leaving it enabled
+ * costs a few string concatenations per response.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+	/**
+	 * Name of the response header carrying the phase breakdown.
+	 */
+	public static final String SERVER_TIMING = "Server-Timing";
+
+	/**
+	 * Request header enabling the {@value #SERVER_TIMING} header for one request.
+	 */
+	public static final String REQUEST_HEADER = "X-Server-Timing";
+
+	private static final String ARRIVAL_NANOS_ATTRIBUTE = ServerTimingFilter.class.getName() + ".arrivalNanos";
+	private static final String ENABLED_ATTRIBUTE = ServerTimingFilter.class.getName() + ".enabled";
+
+	@Value("${mosip.biosdk.server-timing.enabled:false}")
+	private boolean isServerTimingEnabled;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		request.setAttribute(ARRIVAL_NANOS_ATTRIBUTE, System.nanoTime());
+		request.setAttribute(ENABLED_ATTRIBUTE,
+				isServerTimingEnabled || Boolean.parseBoolean(request.getHeader(REQUEST_HEADER)));
+		filterChain.doFilter(request, response);
+	}
+
+	/**
+	 * Binds the arrival time and header setting of a request to its timing
+	 * context, recording the time elapsed since arrival as the queue phase.
+	 *
+	 * @param request the HTTP request, or {@code null} outside a request.
+	 * @param timings the timing context opened for the request.
+	 */
+	public static void apply(HttpServletRequest request, RequestTimings timings) {
+		if (request == null) {
+			return;
+		}
+		if (request.getAttribute(ARRIVAL_NANOS_ATTRIBUTE) instanceof Long arrivalNanos) {
+			timings.add(RequestTimings.Phase.QUEUE, System.nanoTime() - arrivalNanos);
+		}
+		timings.setServerTiming(Boolean.TRUE.equals(request.getAttribute(ENABLED_ATTRIBUTE)));
+	}
+
+	/**
+	 * Formats the {@value #SERVER_TIMING} header value of a request.
+	 *
+	 * @param timings the timing context of the request.
+	 * @return the header value, with durations in milliseconds.
+	 */
+	public static String format(RequestTimings timings) {
+		StringBuilder header = new StringBuilder(160);
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			if (timings.isRecorded(phase)) {
+				appendDuration(header, phase.getTag(), timings.getNanos(phase));
+			}
+		}
+		appendDuration(header, "total", timings.getElapsedNanos());
+		if (timings.getRequestBytes() >= 0) {
+			appendDescription(header, "request-bytes", timings.getRequestBytes());
+		}
+		if (timings.getResponseBytes() >= 0) {
+			appendDescription(header, "response-bytes", timings.getResponseBytes());
+		}
+		return header.toString();
+	}
+
+	/**
+	 * Returns the UTF-8 encoded length of a string without encoding it.
+	 *
+	 * @param value the string.
+	 * @return the number of bytes of its UTF-8 encoding.
+	 */
+	public static long utf8Length(String value) {
+		long length = value.length();
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 0x800) {
+				length += Character.isSurrogate(c) ? 1 : 2;
+			} else if (c >= 0x80) {
+				length++;
+			}
+		}
+		return length;
+	}
+
+	private static void appendDuration(StringBuilder header, String name, long nanos) {
+		separate(header).append(name).append(";dur=").append(nanos / 1_000 / 1_000.0);
+	}
+
+	private static void appendDescription(StringBuilder header, String name, long value) {
+		separate(header).append(name).append(";desc=").append(value);
+	}
+
+	private static StringBuilder separate(StringBuilder header) {
+		return header.isEmpty() ? header : header.append(", ");
+	}
+}
@@ -0,0 +1,88 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Metadata of a request captured by the {@link SlowRequestLog}.
+ * <p>
+ * Only the shape of the request is kept: no biometric data, identifiers or
+ * flags are captured.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Getter
+@AllArgsConstructor
+public class SlowRequest {
+	/**
+	 * Capture sequence number, increasing with every captured request.
+	 */
+	private final long sequence;
+
+	/**
+	 * Completion time of the request, ISO-8601.
+	 */
+	private final String completedAt;
+
+	private final String operation;
+	private final String version;
+	private final String outcome;
+
+	/**
+	 * Name of the thread that served the request.
+	 */
+	private final String thread;
+
+	private final double totalMillis;
+
+	/**
+	 * Time spent per phase, in milliseconds.
+	 */
+	private final Map<String, Double> phaseMillis;
+
+	/**
+	 * CPU time consumed by the request, or {@code -1} when not measured.
+	 */
+	private final double cpuMillis;
+
+	/**
+	 * Wall time the serving thread was not on CPU (waiting, blocked or
+	 * descheduled), or {@code -1} when not measured.
+	 */
+	private final double offCpuMillis;
+
+	private final long allocatedBytes;
+	private final long requestBytes;
+	private final long responseBytes;
+	private final String modalities;
+	private final int gallerySize;
+
+	/**
+	 * Shape of the segments of the request sample.
+	 */
+	private final List<Segment> sampleSegments;
+
+	/**
+	 * Shape of one sample segment.
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class Segment {
+		private final String type;
+		private final String subtype;
+
+		/**
+		 * BDB format as {@code organization/type}.
+		 */
+		private final String format;
+
+		/**
+		 * Size of the BDB, or {@code -1} if absent.
+		 */
+		private final int bdbBytes;
+	}
+}
@@ -0,0 +1,144 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Lock-free ring buffer of the most recent requests slower than
+ * {@code mosip.biosdk.slow-request.threshold-ms}.
+ * <p>
+ * Requests under the threshold cost one comparison. A slow request claims a
+ * slot with a single atomic increment and overwrites the oldest entry, so
+ * serving threads never wait on each other or on readers. Readers take a
+ * best-effort snapshot that may miss an entry being overwritten concurrently.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class SlowRequestLog {
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final long thresholdNanos;
+	private final AtomicReferenceArray<SlowRequest> entries;
+	private final int mask;
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * Constructs a new {@code SlowRequestLog}.
+	 *
+	 * @param thresholdMillis the latency from which a request is captured; a
+	 *                        negative value disables capture.
+	 * @param capacity        the number of requests kept, rounded up to a power
+	 *                        of two.
+	 */
+	public SlowRequestLog(@Value("${mosip.biosdk.slow-request.threshold-ms:2000}") long thresholdMillis,
+			@Value("${mosip.biosdk.slow-request.capacity:128}") int capacity) {
+		this.thresholdNanos = thresholdMillis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.entries = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Captures a completed request if it was slower than the threshold.
+	 *
+	 * @param timings     the timing context of the request.
+	 * @param elapsedNanos the latency of the request.
+	 */
+	void offer(RequestTimings timings, long elapsedNanos) {
+		if (elapsedNanos < thresholdNanos) {
+			return;
+		}
+		long seq = sequence.getAndIncrement();
+		entries.set((int) (seq & mask), capture(seq, timings, elapsedNanos));
+	}
+
+	private static SlowRequest capture(long seq, RequestTimings timings, long elapsedNanos) {
+		Map<String, Double> phaseMillis = new LinkedHashMap<>();
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			if (timings.isRecorded(phase)) {
+				phaseMillis.put(phase.getTag(), timings.getNanos(phase) / NANOS_PER_MILLI);
+			}
+		}
+		double cpuMillis = timings.getCpuNanos() < 0 ? -1 : timings.getCpuNanos() / NANOS_PER_MILLI;
+		double offCpuMillis = timings.getCpuNanos() < 0 ? -1
+				: Math.max(0, elapsedNanos - timings.getCpuNanos()) / NANOS_PER_MILLI;
+		return new SlowRequest(seq, Instant.now().toString(), timings.getOperation(), timings.getVersion(),
+				timings.getOutcome(), timings.getThreadName(), elapsedNanos / NANOS_PER_MILLI, phaseMillis,
+				cpuMillis, offCpuMillis, timings.getAllocatedBytes(), timings.getRequestBytes(),
+				timings.getResponseBytes(), timings.getModalitiesText(), timings.getGallerySize(),
+				segments(timings.getSample()));
+	}
+
+	private static List<SlowRequest.Segment> segments(BiometricRecord sample) {
+		List<SlowRequest.Segment> segments = new ArrayList<>();
+		if (sample == null || sample.getSegments() == null) {
+			return segments;
+		}
+		for (BIR segment : sample.getSegments()) {
+			if (segment == null) {
+				continue;
+			}
+			BDBInfo bdbInfo = segment.getBdbInfo();
+			String type = bdbInfo == null || bdbInfo.getType() == null ? null : bdbInfo.getType().toString();
+			String subtype = bdbInfo == null || bdbInfo.getSubtype() == null ? null
+					: String.join(" ", bdbInfo.getSubtype());
+			String format = bdbInfo == null || bdbInfo.getFormat() == null ? null
+					: bdbInfo.getFormat().getOrganization() + "/" + bdbInfo.getFormat().getType();
+			int bdbBytes = segment.getBdb() == null ? -1 : segment.getBdb().length;
+			segments.add(new SlowRequest.Segment(type, subtype, format, bdbBytes));
+		}
+		return segments;
+	}
+
+	/**
+	 * Returns the captured requests, most recent first.
+	 *
+	 * @return a snapshot of the buffer.
+	 */
+	public List<SlowRequest> snapshot() {
+		List<SlowRequest> snapshot = new ArrayList<>(entries.length());
+		for (int i = 0; i < entries.length(); i++) {
+			SlowRequest entry = entries.get(i);
+			if (entry != null) {
+				snapshot.add(entry);
+			}
+		}
+		snapshot.sort(Comparator.comparingLong(SlowRequest::getSequence).reversed());
+		return snapshot;
+	}
+
+	/**
+	 * Empties the buffer.
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length(); i++) {
+			entries.set(i, null);
+		}
+	}
+
+	/**
+	 * Returns the capture threshold.
+	 *
+	 * @return the threshold in milliseconds, or {@code -1} if capture is
+	 *         disabled.
+	 */
+	public long getThresholdMillis() {
+		return thresholdNanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+}
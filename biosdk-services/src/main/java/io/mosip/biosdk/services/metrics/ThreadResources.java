@@ -0,0 +1,57 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Access to the CPU time and heap allocation counters of the current thread.
+ * <p>
+ * Both counters are read through {@link com.sun.management.ThreadMXBean},
+ * which on HotSpot costs a thread-local read for allocations and a
+ * {@code clock_gettime} call for CPU time. When the JVM does not support a
+ * counter, it reads as {@code 0}.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class ThreadResources {
+	private static final com.sun.management.ThreadMXBean THREADS;
+	private static final boolean CPU_TIME_SUPPORTED;
+	private static final boolean ALLOCATED_BYTES_SUPPORTED;
+
+	static {
+		com.sun.management.ThreadMXBean threads = null;
+		boolean cpuTimeSupported = false;
+		boolean allocatedBytesSupported = false;
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+			threads = bean;
+			cpuTimeSupported = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+			allocatedBytesSupported = bean.isThreadAllocatedMemorySupported()
+					&& bean.isThreadAllocatedMemoryEnabled();
+		}
+		THREADS = threads;
+		CPU_TIME_SUPPORTED = cpuTimeSupported;
+		ALLOCATED_BYTES_SUPPORTED = allocatedBytesSupported;
+	}
+
+	private ThreadResources() {
+		throw new IllegalStateException("ThreadResources class");
+	}
+
+	/**
+	 * Returns the CPU time consumed by the current thread.
+	 *
+	 * @return the CPU time in nanoseconds, or {@code 0} if unsupported.
+	 */
+	public static long cpuTime() {
+		return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+	}
+
+	/**
+	 * Returns the heap bytes allocated by the current thread.
+	 *
+	 * @return the allocated bytes, or {@code 0} if unsupported.
+	 */
+	public static long allocatedBytes() {
+		return ALLOCATED_BYTES_SUPPORTED ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+	}
+}
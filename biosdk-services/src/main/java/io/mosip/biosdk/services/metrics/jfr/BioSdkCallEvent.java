@@ -0,0 +1,30 @@
+package io.mosip.biosdk.services.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one call into the vendor SDK, so that time
+ * spent in {@code IBioApiV2} can be told apart from the rest of the service in
+ * a recording.
+ *
+ * @since 1.2.1
+ */
+@Name("io.mosip.biosdk.SdkCall")
+@Label("BioSDK Call")
+@Category({ "MOSIP", "BioSDK" })
+@Description("Call into the vendor biometric SDK")
+public class BioSdkCallEvent extends Event {
+	@Label("Operation")
+	public String operation;
+
+	@Label("Modalities")
+	public String modalities;
+
+	@Label("Gallery Size")
+	@Description("Number of gallery records handed to the SDK, or -1 for calls without gallery")
+	public int gallerySize;
+}
@@ -0,0 +1,61 @@
+package io.mosip.biosdk.services.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning one request to a {@code BioSdkServiceProvider}
+ * operation, from the controller picking it up to its response being
+ * serialised.
+ *
+ * @since 1.2.1
+ */
+@Name("io.mosip.biosdk.Operation")
+@Label("BioSDK Operation")
+@Category({ "MOSIP", "BioSDK" })
+@Description("Request served by a BioSDK service provider operation")
+@StackTrace(false)
+public class BioSdkOperationEvent extends Event {
+	@Label("Operation")
+	public String operation;
+
+	@Label("Spec Version")
+	public String version;
+
+	@Label("Outcome")
+	@Description("success, the error code, or exception")
+	public String outcome;
+
+	@Label("Modalities")
+	public String modalities;
+
+	@Label("Gallery Size")
+	@Description("Number of gallery records, or -1 for operations without gallery")
+	public int gallerySize;
+
+	@Label("Payload")
+	@DataAmount
+	public long payloadBytes;
+
+	@Label("Decode")
+	@Timespan
+	public long decodeNanos;
+
+	@Label("Parse")
+	@Timespan
+	public long parseNanos;
+
+	@Label("SDK")
+	@Timespan
+	public long sdkNanos;
+
+	@Label("Serialise")
+	@Timespan
+	public long serialiseNanos;
+}
@@ -0,0 +1,302 @@
+package io.mosip.biosdk.services.sdk;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.BioSdkEngineProperties;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The SDK engines configured under {@code mosip.biosdk.engines}, vendor SDKs
+ * loaded side by side, each from its own class path in its own
+ * {@link EngineClassLoader}.
+ * <p>
+ * Class path entries are resolved against the directories of
+ * {@code loader.path}, where the SDK jars are deployed, unless absolute; a
+ * directory contributes itself and the jars it contains. One class loader is
+ * created per engine and kept for the life of the service, since the native
+ * libraries an SDK loads can only be bound to one class loader: the instances
+ * created for standby {@code init} share it.
+ * </p>
+ * <p>
+ * The sub-requests of a call that involves several engines run on up to
+ * {@code mosip.biosdk.engine-threads} shared threads; when all are busy, the
+ * calling thread runs them itself.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class BioSdkEngines {
+	/** Name of the engine created from {@code biosdk_bioapi_impl}. */
+	public static final String DEFAULT_ENGINE = "default";
+
+	private Logger logger = LoggerConfig.logConfig(BioSdkEngines.class);
+
+	private final BioSdkEngineProperties properties;
+	private final Environment env;
+	private final BioSdkMetrics metrics;
+	private final Map<String, ClassLoader> classLoaders = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Constructs a new {@code BioSdkEngines}.
+	 *
+	 * @param properties the engine configuration.
+	 * @param env        the environment, handed to {@link EnvironmentAware}
+	 *                   engines.
+	 * @param metrics    the service metrics.
+	 */
+	@Autowired
+	public BioSdkEngines(BioSdkEngineProperties properties, Environment env, BioSdkMetrics metrics) {
+		this.properties = properties;
+		this.env = env;
+		this.metrics = metrics;
+		AtomicInteger count = new AtomicInteger();
+		int threads = Math.max(1, properties.getEngineThreads());
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "biosdk-engine-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Returns whether any engine is configured.
+	 *
+	 * @return {@code true} if requests are routed per modality.
+	 */
+	public boolean isConfigured() {
+		return !properties.getEngines().isEmpty();
+	}
+
+	/**
+	 * Checks the engine configuration: every engine names a class that can be
+	 * loaded from its class path and at least one modality, and no modality is
+	 * routed to two engines.
+	 *
+	 * @throws ClassNotFoundException if the class of an engine is not found.
+	 * @throws BioSDKException        if the configuration is invalid.
+	 */
+	public void validate() throws ClassNotFoundException {
+		Map<BiometricType, String> routed = new EnumMap<>(BiometricType.class);
+		for (Map.Entry<String, BioSdkEngineProperties.Engine> entry : properties.getEngines().entrySet()) {
+			String name = entry.getKey();
+			BioSdkEngineProperties.Engine engine = entry.getValue();
+			if (StringUtils.isBlank(engine.getImpl()) || engine.getModalities().isEmpty()) {
+				throw invalid("engine " + name + " needs an impl and modalities");
+			}
+			for (BiometricType modality : engine.getModalities()) {
+				String other = routed.put(modality, name);
+				if (other != null && !other.equals(name)) {
+					throw invalid(modality + " is routed to engines " + other + " and " + name);
+				}
+			}
+			Class.forName(engine.getImpl(), false, classLoader(name, engine));
+			logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "validate",
+					"engine " + name + ": " + engine.getImpl() + " for " + engine.getModalities());
+		}
+	}
+
+	/**
+	 * Returns the SDK class each engine is configured with.
+	 *
+	 * @param defaultClass the class of {@code biosdk_bioapi_impl}; may be blank.
+	 * @return the class names by engine name, in routing order.
+	 */
+	public Map<String, String> engineClasses(String defaultClass) {
+		Map<String, String> classes = new LinkedHashMap<>();
+		properties.getEngines().forEach((name, engine) -> classes.put(name, engine.getImpl()));
+		if (StringUtils.isNotBlank(defaultClass)) {
+			classes.put(DEFAULT_ENGINE, defaultClass);
+		}
+		return classes;
+	}
+
+	/**
+	 * Creates a new SDK routing each modality to its engine, with a new instance
+	 * of every engine.
+	 *
+	 * @param defaultSdk the SDK serving the modalities of no engine; may be
+	 *                   {@code null}.
+	 * @return a new, uninitialised routing SDK.
+	 * @throws ClassNotFoundException    if the class of an engine is not found.
+	 * @throws InstantiationException    if an engine cannot be instantiated.
+	 * @throws IllegalAccessException    if the nullary constructor of an engine is
+	 *                                   not accessible.
+	 * @throws NoSuchMethodException     if an engine has no nullary constructor.
+	 * @throws InvocationTargetException if the constructor of an engine throws an
+	 *                                   exception.
+	 */
+	public IBioApiV2 newBioApi(IBioApiV2 defaultSdk) throws ClassNotFoundException, InstantiationException,
+			IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+		List<ModalityRoutingBioApi.Engine> engines = new ArrayList<>();
+		for (Map.Entry<String, BioSdkEngineProperties.Engine> entry : properties.getEngines().entrySet()) {
+			BioSdkEngineProperties.Engine engine = entry.getValue();
+			ClassLoader classLoader = classLoader(entry.getKey(), engine);
+			engines.add(new ModalityRoutingBioApi.Engine(entry.getKey(), instantiate(engine.getImpl(), classLoader),
+					classLoader, engine.getModalities(), engine.getMaxConcurrency(), metrics));
+		}
+		ModalityRoutingBioApi.Engine defaultEngine = defaultSdk == null ? null
+				: new ModalityRoutingBioApi.Engine(DEFAULT_ENGINE, defaultSdk, defaultSdk.getClass().getClassLoader(),
+						List.of(), 0, metrics);
+		return new ModalityRoutingBioApi(engines, defaultEngine, executor);
+	}
+
+	/**
+	 * Creates an SDK instance from a class loader, with the class loader as the
+	 * thread context class loader. An instance that is {@link EnvironmentAware}
+	 * is handed the environment.
+	 *
+	 * @param className   the class implementing {@code IBioApiV2}.
+	 * @param classLoader the class loader to load it from.
+	 * @return a new, uninitialised instance.
+	 * @throws ClassNotFoundException    if the class is not found.
+	 * @throws InstantiationException    if the class cannot be instantiated.
+	 * @throws IllegalAccessException    if its nullary constructor is not
+	 *                                   accessible.
+	 * @throws NoSuchMethodException     if it has no nullary constructor.
+	 * @throws InvocationTargetException if its constructor throws an exception.
+	 */
+	public IBioApiV2 instantiate(String className, ClassLoader classLoader) throws ClassNotFoundException,
+			InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		thread.setContextClassLoader(classLoader);
+		try {
+			IBioApiV2 sdk = (IBioApiV2) Class.forName(className, true, classLoader).getDeclaredConstructor()
+					.newInstance();
+			if (sdk instanceof EnvironmentAware environmentAware) {
+				environmentAware.setEnvironment(env);
+			}
+			return sdk;
+		} finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	private ClassLoader classLoader(String name, BioSdkEngineProperties.Engine engine) {
+		return classLoaders.computeIfAbsent(name, n -> newClassLoader("biosdk-engine-" + name, engine.getClassPath()));
+	}
+
+	/**
+	 * Creates a class loader isolating an SDK loaded from the given class path.
+	 *
+	 * @param name      the name of the class loader.
+	 * @param classPath the class path entries, resolved against
+	 *                  {@code loader.path} unless absolute.
+	 * @return a new {@link EngineClassLoader}, or the application class loader
+	 *         for an empty class path.
+	 */
+	public ClassLoader newClassLoader(String name, List<String> classPath) {
+		ClassLoader parent = BioSdkEngines.class.getClassLoader();
+		if (classPath.isEmpty()) {
+			return parent;
+		}
+		List<URL> urls = new ArrayList<>();
+		for (String entry : classPath) {
+			addUrls(resolve(entry), urls);
+		}
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "classLoader", name + " class path: " + urls);
+		return new EngineClassLoader(name, urls.toArray(new URL[0]), parent, properties.getEngineParentFirstPackages());
+	}
+
+	/**
+	 * Resolves a class path entry against the directories of {@code loader.path}.
+	 */
+	private Path resolve(String entry) {
+		Path path = Path.of(entry);
+		if (path.isAbsolute()) {
+			return path;
+		}
+		for (String loaderPath : env.getProperty("loader.path", "").split(",")) {
+			if (StringUtils.isBlank(loaderPath)) {
+				continue;
+			}
+			Path base = Path.of(loaderPath.trim());
+			Path directory = Files.isDirectory(base) || base.getParent() == null ? base : base.getParent();
+			Path candidate = directory.resolve(path);
+			if (Files.exists(candidate)) {
+				return candidate;
+			}
+		}
+		return path;
+	}
+
+	private static void addUrls(Path path, List<URL> urls) {
+		if (!Files.exists(path)) {
+			throw invalid("class path entry " + path + " does not exist");
+		}
+		try {
+			urls.add(path.toUri().toURL());
+			if (Files.isDirectory(path)) {
+				try (Stream<Path> files = Files.list(path)) {
+					for (Path jar : files.filter(file -> file.toString().endsWith(".jar")).sorted().toList()) {
+						urls.add(jar.toUri().toURL());
+					}
+				}
+			}
+		} catch (MalformedURLException e) {
+			throw invalid("class path entry " + path + " is not a valid URL");
+		} catch (IOException e) {
+			throw invalid("class path entry " + path + " cannot be listed");
+		}
+	}
+
+	private static BioSDKException invalid(String detail) {
+		return new BioSDKException(ErrorMessages.INVALID_ENGINE_CONFIGURATION.toString(),
+				ErrorMessages.INVALID_ENGINE_CONFIGURATION.getMessage() + ": " + detail);
+	}
+
+	/**
+	 * Stops the engine executor and closes the engine class loaders.
+	 */
+	@PreDestroy
+	public void close() {
+		executor.shutdownNow();
+		for (ClassLoader classLoader : classLoaders.values()) {
+			if (classLoader instanceof EngineClassLoader engineClassLoader) {
+				try {
+					engineClassLoader.close();
+				} catch (IOException e) {
+					logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, "close", "cannot close class loader "
+							+ engineClassLoader.getName() + ": " + e.getMessage());
+				}
+			}
+		}
+		classLoaders.clear();
+	}
+}
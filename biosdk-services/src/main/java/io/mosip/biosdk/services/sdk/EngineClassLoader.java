@@ -0,0 +1,83 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Class loader of one SDK engine, isolating its classes from the application
+ * and from the other engines.
+ * <p>
+ * Classes and resources are looked up in the engine jars first, so that
+ * engines may bundle conflicting versions of the same library, except for the
+ * parent-first packages, which hold the SDK interfaces and model shared with
+ * the service.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class EngineClassLoader extends URLClassLoader {
+	static {
+		registerAsParallelCapable();
+	}
+
+	private final List<String> parentFirstPackages;
+
+	EngineClassLoader(String name, URL[] urls, ClassLoader parent, List<String> parentFirstPackages) {
+		super(name, urls, parent);
+		this.parentFirstPackages = parentFirstPackages;
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if (isParentFirst(name)) {
+			return super.loadClass(name, resolve);
+		}
+		synchronized (getClassLoadingLock(name)) {
+			Class<?> loaded = findLoadedClass(name);
+			if (loaded == null) {
+				try {
+					loaded = findClass(name);
+				} catch (ClassNotFoundException e) {
+					loaded = getParent().loadClass(name);
+				}
+			}
+			if (resolve) {
+				resolveClass(loaded);
+			}
+			return loaded;
+		}
+	}
+
+	@Override
+	public URL getResource(String name) {
+		if (isParentFirst(name.replace('/', '.'))) {
+			return super.getResource(name);
+		}
+		URL url = findResource(name);
+		return url != null ? url : getParent().getResource(name);
+	}
+
+	@Override
+	public Enumeration<URL> getResources(String name) throws IOException {
+		if (isParentFirst(name.replace('/', '.'))) {
+			return super.getResources(name);
+		}
+		List<URL> urls = new ArrayList<>(Collections.list(findResources(name)));
+		urls.addAll(Collections.list(getParent().getResources(name)));
+		return Collections.enumeration(urls);
+	}
+
+	private boolean isParentFirst(String name) {
+		for (String prefix : parentFirstPackages) {
+			if (name.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,603 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.RequestTimings;
+import io.mosip.biosdk.services.sdk.worker.WorkerBioApi;
+import io.mosip.biosdk.services.utils.BiometricRecordProjection;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Bio SDK composed of several engines, each serving some modalities, that
+ * routes every call to the engines of the modalities involved.
+ * <p>
+ * The requested modalities, or the modalities present in the sample when none
+ * are requested, are grouped by engine, and each engine receives a sub-request
+ * with its modalities and the segments of the records typed with them;
+ * segments without type information go to the first engine. A call involving
+ * a modality of no engine, when there is no default engine, is answered with
+ * {@code INVALID_INPUT} without calling any engine. The sub-requests run
+ * concurrently, all but one on the engine executor bound to the request being
+ * served, so that their CPU time and allocations are accounted to it, and
+ * their responses are merged into the response a single SDK would give:
+ * quality scores and match decisions are united, and the segments produced by
+ * each engine take the place of those it received. The first response that is
+ * not successful is returned as is. A call that involves one engine only is
+ * passed to it unchanged.
+ * </p>
+ * <p>
+ * {@code init} initialises every engine, and the {@link SDKInfo} it returns
+ * declares, for each engine, the functions and modalities the engine declares
+ * among those routed to it.
+ * </p>
+ * <p>
+ * Each engine is called with its class loader as the thread context class
+ * loader, optionally behind a limit of concurrent calls, and its calls are
+ * timed per operation.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class ModalityRoutingBioApi implements IBioApiV2 {
+	private static final String INIT = "init";
+	private static final String CHECK_QUALITY = "checkQuality";
+	private static final String MATCH = "match";
+	private static final String EXTRACT_TEMPLATE = "extractTemplate";
+	private static final String SEGMENT = "segment";
+	private static final String CONVERT_FORMAT = "convertFormat";
+	private static final int SUCCESS = ResponseStatus.SUCCESS.getStatusCode();
+	private static final int INVALID_INPUT = ResponseStatus.INVALID_INPUT.getStatusCode();
+
+	private final List<Engine> engines;
+	private final Engine defaultEngine;
+	private final Map<BiometricType, Engine> routes = new EnumMap<>(BiometricType.class);
+	private final Executor executor;
+
+	/**
+	 * Constructs a new {@code ModalityRoutingBioApi}.
+	 *
+	 * @param engines       the engines serving the modalities they declare, in
+	 *                      order; at least one.
+	 * @param defaultEngine the engine serving the other modalities; may be
+	 *                      {@code null}.
+	 * @param executor      the executor running the sub-requests of a call but
+	 *                      one.
+	 */
+	ModalityRoutingBioApi(List<Engine> engines, Engine defaultEngine, Executor executor) {
+		this.engines = new ArrayList<>(engines);
+		this.defaultEngine = defaultEngine;
+		this.executor = executor;
+		for (Engine engine : engines) {
+			for (BiometricType modality : engine.modalities) {
+				routes.put(modality, engine);
+			}
+		}
+		if (defaultEngine != null) {
+			this.engines.add(defaultEngine);
+		}
+	}
+
+	/**
+	 * Returns the class of the SDK of each engine.
+	 *
+	 * @return the class names by engine name, in routing order.
+	 */
+	public Map<String, String> getEngineClasses() {
+		Map<String, String> classes = new LinkedHashMap<>();
+		for (Engine engine : engines) {
+			classes.put(engine.name, WorkerBioApi.sdkClassOf(engine.sdk));
+		}
+		return classes;
+	}
+
+	@Override
+	public SDKInfo init(Map<String, String> initParams) {
+		List<Route> all = new ArrayList<>(engines.size());
+		for (Engine engine : engines) {
+			all.add(new Route(engine, null));
+		}
+		List<SDKInfo> infos = fanOut(INIT, all, i -> all.get(i).engine.sdk.init(initParams));
+		SDKInfo merged = new SDKInfo();
+		Map<BiometricFunction, List<BiometricType>> methods = new EnumMap<>(BiometricFunction.class);
+		Set<BiometricType> modalities = new LinkedHashSet<>();
+		Map<String, String> otherInfo = new LinkedHashMap<>();
+		List<String> versions = new ArrayList<>(engines.size());
+		for (int i = 0; i < engines.size(); i++) {
+			Engine engine = engines.get(i);
+			SDKInfo info = infos.get(i);
+			if (info != null && merged.getApiVersion() == null) {
+				merged.setApiVersion(info.getApiVersion());
+				merged.setProductOwner(info.getProductOwner());
+			}
+			if (info != null && info.getOtherInfo() != null) {
+				otherInfo.putAll(info.getOtherInfo());
+			}
+			versions.add(engine.name + ":" + (info == null ? null : info.getSdkVersion()));
+			Set<BiometricType> served = served(engine);
+			for (BiometricFunction function : BiometricFunction.values()) {
+				List<BiometricType> declared = declared(info, function);
+				for (BiometricType modality : served) {
+					if (declared == null || declared.contains(modality)) {
+						methods.computeIfAbsent(function, f -> new ArrayList<>()).add(modality);
+						modalities.add(modality);
+					}
+				}
+			}
+		}
+		merged.setSdkVersion(String.join(",", versions));
+		merged.setSupportedMethods(methods);
+		merged.setSupportedModalities(new ArrayList<>(modalities));
+		merged.setOtherInfo(otherInfo);
+		return merged;
+	}
+
+	/**
+	 * Returns the modalities an engine declares for a function, or {@code null}
+	 * if it declares none at all.
+	 */
+	private static List<BiometricType> declared(SDKInfo info, BiometricFunction function) {
+		if (info == null) {
+			return null;
+		}
+		if (info.getSupportedMethods() != null && !info.getSupportedMethods().isEmpty()) {
+			return info.getSupportedMethods().getOrDefault(function, Collections.emptyList());
+		}
+		if (info.getSupportedModalities() != null && !info.getSupportedModalities().isEmpty()) {
+			return info.getSupportedModalities();
+		}
+		return null;
+	}
+
+	private Set<BiometricType> served(Engine engine) {
+		if (engine != defaultEngine) {
+			return engine.modalities;
+		}
+		Set<BiometricType> served = EnumSet.allOf(BiometricType.class);
+		served.removeAll(routes.keySet());
+		return served;
+	}
+
+	@Override
+	public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+			Map<String, String> flags) {
+		List<Route> plan = route(modalitiesToCheck, sample);
+		if (plan == null) {
+			return unrouted(modalitiesToCheck, sample);
+		}
+		if (plan.size() == 1) {
+			Engine engine = plan.get(0).engine;
+			return engine.call(CHECK_QUALITY, () -> engine.sdk.checkQuality(sample, modalitiesToCheck, flags));
+		}
+		int[] segments = assign(sample, plan);
+		List<Response<QualityCheck>> responses = fanOut(CHECK_QUALITY, plan, i -> plan.get(i).engine.sdk
+				.checkQuality(part(sample, segments, i), plan.get(i).modalities, flags));
+		int failed = indexOfFailure(responses);
+		if (failed >= 0) {
+			return responses.get(failed);
+		}
+		QualityCheck merged = new QualityCheck();
+		merged.setScores(new LinkedHashMap<>());
+		merged.setAnalyticsInfo(new LinkedHashMap<>());
+		for (Response<QualityCheck> response : responses) {
+			QualityCheck qualityCheck = response.getResponse();
+			if (qualityCheck != null) {
+				putAll(merged.getScores(), qualityCheck.getScores());
+				putAll(merged.getAnalyticsInfo(), qualityCheck.getAnalyticsInfo());
+			}
+		}
+		return success(responses.get(0), merged);
+	}
+
+	@Override
+	public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+			List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+		List<Route> plan = route(modalitiesToMatch, sample);
+		if (plan == null) {
+			return unrouted(modalitiesToMatch, sample);
+		}
+		if (plan.size() == 1) {
+			Engine engine = plan.get(0).engine;
+			return engine.call(MATCH, () -> engine.sdk.match(sample, gallery, modalitiesToMatch, flags));
+		}
+		int[] probeSegments = assign(sample, plan);
+		int[][] gallerySegments = new int[gallery == null ? 0 : gallery.length][];
+		for (int g = 0; g < gallerySegments.length; g++) {
+			gallerySegments[g] = assign(gallery[g], plan);
+		}
+		List<Response<MatchDecision[]>> responses = fanOut(MATCH, plan, i -> {
+			BiometricRecord[] galleryPart = gallery == null ? null : new BiometricRecord[gallery.length];
+			for (int g = 0; g < gallerySegments.length; g++) {
+				galleryPart[g] = part(gallery[g], gallerySegments[g], i);
+			}
+			return plan.get(i).engine.sdk.match(part(sample, probeSegments, i), galleryPart, plan.get(i).modalities,
+					flags);
+		});
+		int failed = indexOfFailure(responses);
+		if (failed >= 0) {
+			return responses.get(failed);
+		}
+		Map<Integer, MatchDecision> merged = new TreeMap<>();
+		for (Response<MatchDecision[]> response : responses) {
+			if (response.getResponse() == null) {
+				continue;
+			}
+			for (MatchDecision decision : response.getResponse()) {
+				if (decision == null) {
+					continue;
+				}
+				MatchDecision mergedDecision = merged.computeIfAbsent(decision.getGalleryIndex(), index -> {
+					MatchDecision matchDecision = new MatchDecision(index);
+					matchDecision.setDecisions(new LinkedHashMap<>());
+					matchDecision.setAnalyticsInfo(new LinkedHashMap<>());
+					return matchDecision;
+				});
+				putAll(mergedDecision.getDecisions(), decision.getDecisions());
+				putAll(mergedDecision.getAnalyticsInfo(), decision.getAnalyticsInfo());
+			}
+		}
+		return success(responses.get(0), merged.values().toArray(new MatchDecision[0]));
+	}
+
+	@Override
+	public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+			Map<String, String> flags) {
+		return routeRecord(EXTRACT_TEMPLATE, sample, modalitiesToExtract,
+				(sdk, record, modalities) -> sdk.extractTemplate(record, modalities, flags));
+	}
+
+	@Override
+	public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+			Map<String, String> flags) {
+		return routeRecord(SEGMENT, sample, modalitiesToSegment,
+				(sdk, record, modalities) -> sdk.segment(record, modalities, flags));
+	}
+
+	@Override
+	public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat,
+			String targetFormat, Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		return routeRecord(CONVERT_FORMAT, sample, modalitiesToConvert, (sdk, record, modalities) -> sdk
+				.convertFormatV2(record, sourceFormat, targetFormat, sourceParams, targetParams, modalities));
+	}
+
+	/**
+	 * @deprecated use
+	 *             {@link #convertFormatV2(BiometricRecord, String, String, Map, Map, List)}.
+	 */
+	@Override
+	@Deprecated(forRemoval = true)
+	@SuppressWarnings({ "removal" })
+	public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		Response<BiometricRecord> response = routeRecord(CONVERT_FORMAT, sample, modalitiesToConvert,
+				(sdk, record, modalities) -> {
+					Response<BiometricRecord> converted = new Response<>();
+					converted.setStatusCode(SUCCESS);
+					converted.setResponse(sdk.convertFormat(record, sourceFormat, targetFormat, sourceParams,
+							targetParams, modalities));
+					return converted;
+				});
+		if (response != null && Integer.valueOf(INVALID_INPUT).equals(response.getStatusCode())) {
+			throw new IllegalArgumentException(response.getStatusMessage());
+		}
+		return response == null ? null : response.getResponse();
+	}
+
+	/**
+	 * A call of the SDK producing a record from a record.
+	 */
+	@FunctionalInterface
+	private interface RecordCall {
+		Response<BiometricRecord> apply(IBioApiV2 sdk, BiometricRecord sample, List<BiometricType> modalities);
+	}
+
+	private Response<BiometricRecord> routeRecord(String operation, BiometricRecord sample,
+			List<BiometricType> modalities, RecordCall call) {
+		List<Route> plan = route(modalities, sample);
+		if (plan == null) {
+			return unrouted(modalities, sample);
+		}
+		if (plan.size() == 1) {
+			Engine engine = plan.get(0).engine;
+			return engine.call(operation, () -> call.apply(engine.sdk, sample, modalities));
+		}
+		int[] segments = assign(sample, plan);
+		List<Response<BiometricRecord>> responses = fanOut(operation, plan,
+				i -> call.apply(plan.get(i).engine.sdk, part(sample, segments, i), plan.get(i).modalities));
+		int failed = indexOfFailure(responses);
+		if (failed >= 0) {
+			return responses.get(failed);
+		}
+		List<List<BIR>> outputs = new ArrayList<>(plan.size());
+		BiometricRecord header = sample;
+		for (Response<BiometricRecord> response : responses) {
+			BiometricRecord output = response.getResponse();
+			outputs.add(output == null || output.getSegments() == null ? Collections.emptyList()
+					: output.getSegments());
+			if (header == sample && output != null) {
+				header = output;
+			}
+		}
+		int[] counts = new int[plan.size()];
+		for (int engine : segments) {
+			if (engine >= 0) {
+				counts[engine]++;
+			}
+		}
+		// an engine that returns one segment per segment it received answers in place,
+		// the output of any other engine is appended
+		int[] taken = new int[plan.size()];
+		List<BIR> merged = new ArrayList<>();
+		for (int s = 0; s < segments.length; s++) {
+			int engine = segments[s];
+			if (engine < 0) {
+				merged.add(sample.getSegments().get(s));
+			} else if (outputs.get(engine).size() == counts[engine]) {
+				merged.add(outputs.get(engine).get(taken[engine]++));
+			}
+		}
+		for (int engine = 0; engine < plan.size(); engine++) {
+			if (outputs.get(engine).size() != counts[engine]) {
+				merged.addAll(outputs.get(engine));
+			}
+		}
+		return success(responses.get(0),
+				header == null ? null : BiometricRecordProjection.withSegments(header, merged));
+	}
+
+	/**
+	 * Groups the modalities of a call by engine. A single route carries the
+	 * modalities as requested.
+	 *
+	 * @return the routes, or {@code null} if a modality has no engine.
+	 */
+	private List<Route> route(List<BiometricType> modalities, BiometricRecord sample) {
+		Map<Engine, List<BiometricType>> grouped = new LinkedHashMap<>();
+		for (BiometricType modality : requested(modalities, sample)) {
+			if (modality == null) {
+				continue;
+			}
+			Engine engine = routes.getOrDefault(modality, defaultEngine);
+			if (engine == null) {
+				return null;
+			}
+			List<BiometricType> engineModalities = grouped.computeIfAbsent(engine, e -> new ArrayList<>());
+			if (!engineModalities.contains(modality)) {
+				engineModalities.add(modality);
+			}
+		}
+		if (grouped.size() <= 1) {
+			Engine engine = grouped.isEmpty() ? (defaultEngine != null ? defaultEngine : engines.get(0))
+					: grouped.keySet().iterator().next();
+			return List.of(new Route(engine, modalities));
+		}
+		List<Route> plan = new ArrayList<>(grouped.size());
+		grouped.forEach((engine, engineModalities) -> plan.add(new Route(engine, engineModalities)));
+		return plan;
+	}
+
+	private static Collection<BiometricType> requested(List<BiometricType> modalities, BiometricRecord sample) {
+		return modalities != null && !modalities.isEmpty() ? modalities : modalitiesOf(sample);
+	}
+
+	/**
+	 * Answers a call involving modalities of no engine, rather than leaving them
+	 * out of the call.
+	 */
+	private <T> Response<T> unrouted(List<BiometricType> modalities, BiometricRecord sample) {
+		Set<BiometricType> unrouted = new LinkedHashSet<>();
+		for (BiometricType modality : requested(modalities, sample)) {
+			if (modality != null && !routes.containsKey(modality)) {
+				unrouted.add(modality);
+			}
+		}
+		Response<T> response = new Response<>();
+		response.setStatusCode(INVALID_INPUT);
+		response.setStatusMessage(String.format(ResponseStatus.INVALID_INPUT.getStatusMessage(),
+				"no SDK engine for modalities " + unrouted));
+		return response;
+	}
+
+	private static Set<BiometricType> modalitiesOf(BiometricRecord sample) {
+		Set<BiometricType> modalities = new LinkedHashSet<>();
+		if (sample != null && sample.getSegments() != null) {
+			for (BIR segment : sample.getSegments()) {
+				if (segment != null && segment.getBdbInfo() != null && segment.getBdbInfo().getType() != null) {
+					modalities.addAll(segment.getBdbInfo().getType());
+				}
+			}
+		}
+		return modalities;
+	}
+
+	/**
+	 * Returns the index of the route each segment of a record goes to, -1 for a
+	 * segment of no routed modality.
+	 */
+	private static int[] assign(BiometricRecord biometricRecord, List<Route> plan) {
+		if (biometricRecord == null || biometricRecord.getSegments() == null) {
+			return new int[0];
+		}
+		List<BIR> segments = biometricRecord.getSegments();
+		int[] assigned = new int[segments.size()];
+		for (int s = 0; s < assigned.length; s++) {
+			BIR segment = segments.get(s);
+			List<BiometricType> types = segment == null || segment.getBdbInfo() == null ? null
+					: segment.getBdbInfo().getType();
+			assigned[s] = types == null || types.isEmpty() ? 0 : -1;
+			for (int r = 0; types != null && assigned[s] < 0 && r < plan.size(); r++) {
+				for (BiometricType type : types) {
+					if (plan.get(r).modalities.contains(type)) {
+						assigned[s] = r;
+						break;
+					}
+				}
+			}
+		}
+		return assigned;
+	}
+
+	private static BiometricRecord part(BiometricRecord biometricRecord, int[] assigned, int route) {
+		if (biometricRecord == null || biometricRecord.getSegments() == null) {
+			return biometricRecord;
+		}
+		List<BIR> segments = new ArrayList<>();
+		for (int s = 0; s < assigned.length; s++) {
+			if (assigned[s] == route) {
+				segments.add(biometricRecord.getSegments().get(s));
+			}
+		}
+		return BiometricRecordProjection.withSegments(biometricRecord, segments);
+	}
+
+	/**
+	 * Calls each route, all but the first on the executor bound to the request
+	 * being served, and waits for all of them.
+	 */
+	private <T> List<T> fanOut(String operation, List<Route> plan, IntFunction<T> call) {
+		List<CompletableFuture<T>> futures = new ArrayList<>(plan.size() - 1);
+		for (int i = 1; i < plan.size(); i++) {
+			int route = i;
+			Engine engine = plan.get(i).engine;
+			futures.add(CompletableFuture.supplyAsync(
+					RequestTimings.bound(() -> engine.call(operation, () -> call.apply(route))), executor));
+		}
+		List<T> results = new ArrayList<>(plan.size());
+		results.add(plan.get(0).engine.call(operation, () -> call.apply(0)));
+		try {
+			for (CompletableFuture<T> future : futures) {
+				results.add(future.join());
+			}
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+		return results;
+	}
+
+	private static <T> int indexOfFailure(List<Response<T>> responses) {
+		for (int i = 0; i < responses.size(); i++) {
+			Response<T> response = responses.get(i);
+			if (response == null || !Integer.valueOf(SUCCESS).equals(response.getStatusCode())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static <T> Response<T> success(Response<?> first, T value) {
+		Response<T> response = new Response<>();
+		response.setStatusCode(first.getStatusCode());
+		response.setStatusMessage(first.getStatusMessage());
+		response.setResponse(value);
+		return response;
+	}
+
+	private static <K, V> void putAll(Map<K, V> target, Map<K, V> source) {
+		if (source != null) {
+			target.putAll(source);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ModalityRoutingBioApi" + getEngineClasses();
+	}
+
+	/**
+	 * The engine and modalities of one sub-request.
+	 */
+	private record Route(Engine engine, List<BiometricType> modalities) {
+	}
+
+	/**
+	 * One SDK engine: an instance of a vendor SDK and the modalities routed to it.
+	 */
+	static final class Engine {
+		private final String name;
+		private final IBioApiV2 sdk;
+		private final ClassLoader classLoader;
+		private final Set<BiometricType> modalities;
+		private final Semaphore permits;
+		private final BioSdkMetrics metrics;
+
+		/**
+		 * Constructs a new {@code Engine}.
+		 *
+		 * @param name           the engine name, used in metrics.
+		 * @param sdk            the SDK instance.
+		 * @param classLoader    the class loader of the SDK.
+		 * @param modalities     the modalities routed to the engine; empty for the
+		 *                       default engine.
+		 * @param maxConcurrency the maximum number of concurrent calls; 0 for no
+		 *                       limit.
+		 * @param metrics        the service metrics.
+		 */
+		Engine(String name, IBioApiV2 sdk, ClassLoader classLoader, Collection<BiometricType> modalities,
+				int maxConcurrency, BioSdkMetrics metrics) {
+			this.name = name;
+			this.sdk = sdk;
+			this.classLoader = classLoader;
+			this.modalities = modalities.isEmpty() ? EnumSet.noneOf(BiometricType.class) : EnumSet.copyOf(modalities);
+			this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency, true) : null;
+			this.metrics = metrics;
+		}
+
+		private <T> T call(String operation, Supplier<T> call) {
+			if (permits != null) {
+				long waitStart = System.nanoTime();
+				permits.acquireUninterruptibly();
+				metrics.recordEngineWait(name, System.nanoTime() - waitStart);
+			}
+			Thread thread = Thread.currentThread();
+			ClassLoader previous = thread.getContextClassLoader();
+			thread.setContextClassLoader(classLoader);
+			long start = System.nanoTime();
+			String outcome = "error";
+			try {
+				T result = call.get();
+				outcome = result instanceof Response<?> response
+						&& !Integer.valueOf(SUCCESS).equals(response.getStatusCode()) ? "failure" : "success";
+				return result;
+			} finally {
+				metrics.recordEngineCall(name, operation, outcome, System.nanoTime() - start);
+				thread.setContextClassLoader(previous);
+				if (permits != null) {
+					permits.release();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+
+/**
+ * Functions and modalities an initialised SDK declares in its {@link SDKInfo}.
+ * <p>
+ * {@code supportedMethods} is used when present, otherwise every function is
+ * taken to support the {@code supportedModalities}. The declaration is not
+ * taken as exhaustive: a function is unsupported only when it is listed with no
+ * modality, and a function missing from {@code supportedMethods} supports
+ * everything. An SDK that declares neither, or that has not been initialised,
+ * is {@link #UNKNOWN} and supports everything.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class SdkCapabilities {
+	/** Capabilities of an SDK that declared none; nothing is rejected. */
+	public static final SdkCapabilities UNKNOWN = new SdkCapabilities(null);
+
+	private final Map<BiometricFunction, Set<BiometricType>> supported;
+
+	private SdkCapabilities(Map<BiometricFunction, Set<BiometricType>> supported) {
+		this.supported = supported;
+	}
+
+	/**
+	 * Builds the capabilities declared by the result of an SDK {@code init}.
+	 *
+	 * @param sdkInfo the SDK info; may be {@code null}.
+	 * @return the capabilities, {@link #UNKNOWN} if none are declared.
+	 */
+	public static SdkCapabilities of(SDKInfo sdkInfo) {
+		if (sdkInfo == null) {
+			return UNKNOWN;
+		}
+		Map<BiometricFunction, Set<BiometricType>> supported = new EnumMap<>(BiometricFunction.class);
+		Map<BiometricFunction, List<BiometricType>> methods = sdkInfo.getSupportedMethods();
+		if (methods != null && !methods.isEmpty()) {
+			methods.forEach((function, modalities) -> {
+				if (function != null) {
+					supported.put(function, toSet(modalities));
+				}
+			});
+		} else if (sdkInfo.getSupportedModalities() != null && !sdkInfo.getSupportedModalities().isEmpty()) {
+			for (BiometricFunction function : BiometricFunction.values()) {
+				supported.put(function, toSet(sdkInfo.getSupportedModalities()));
+			}
+		} else {
+			return UNKNOWN;
+		}
+		return new SdkCapabilities(supported);
+	}
+
+	private static Set<BiometricType> toSet(List<BiometricType> modalities) {
+		Set<BiometricType> set = EnumSet.noneOf(BiometricType.class);
+		if (modalities != null) {
+			for (BiometricType modality : modalities) {
+				if (modality != null) {
+					set.add(modality);
+				}
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Returns whether a request can be rejected on these capabilities at all.
+	 *
+	 * @return {@code false} for {@link #UNKNOWN}.
+	 */
+	public boolean isKnown() {
+		return supported != null;
+	}
+
+	/**
+	 * Returns whether the SDK supports a function, which it does unless it lists
+	 * the function with no modality.
+	 *
+	 * @param function the function.
+	 * @return whether the function is supported.
+	 */
+	public boolean supports(BiometricFunction function) {
+		if (supported == null) {
+			return true;
+		}
+		Set<BiometricType> modalities = supported.get(function);
+		return modalities == null || !modalities.isEmpty();
+	}
+
+	/**
+	 * Returns whether the SDK supports a function for at least one of the
+	 * requested modalities, so that it has something to do with the request. No
+	 * modalities, meaning all that are present in the sample, are left to the
+	 * SDK.
+	 *
+	 * @param function   the function.
+	 * @param modalities the requested modalities; may be {@code null}.
+	 * @return whether one of the modalities is supported.
+	 */
+	public boolean supportsAny(BiometricFunction function, List<BiometricType> modalities) {
+		Set<BiometricType> functionModalities = supported == null ? null : supported.get(function);
+		if (functionModalities == null || modalities == null) {
+			return true;
+		}
+		boolean isRequested = false;
+		for (BiometricType modality : modalities) {
+			if (modality != null) {
+				if (functionModalities.contains(modality)) {
+					return true;
+				}
+				isRequested = true;
+			}
+		}
+		return !isRequested;
+	}
+
+	/**
+	 * Returns the requested modalities the SDK does not support for a function.
+	 *
+	 * @param function   the function.
+	 * @param modalities the requested modalities; may be {@code null}.
+	 * @return the unsupported modalities, empty if all are supported.
+	 */
+	public List<BiometricType> unsupported(BiometricFunction function, List<BiometricType> modalities) {
+		Set<BiometricType> functionModalities = supported == null ? null : supported.get(function);
+		if (functionModalities == null || modalities == null || modalities.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<BiometricType> unsupported = new ArrayList<>(0);
+		for (BiometricType modality : modalities) {
+			if (modality != null && !functionModalities.contains(modality) && !unsupported.contains(modality)) {
+				unsupported.add(modality);
+			}
+		}
+		return unsupported;
+	}
+
+	@Override
+	public String toString() {
+		return supported == null ? "unknown" : supported.toString();
+	}
+}
@@ -0,0 +1,506 @@
+package io.mosip.biosdk.services.sdk;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Initialised instances of the Bio SDK, one per distinct set of init
+ * parameters, of which the active one serves requests.
+ * <p>
+ * An {@code init} with the parameters the active instance was initialised with
+ * returns its {@link SDKInfo} without calling the SDK. With other parameters a
+ * standby instance is created by {@link BioSdkLibConfig#newBioApi()} and
+ * initialised while the active instance keeps serving, then swapped in
+ * atomically; requests take the instance once with {@link #acquire()}, so
+ * those in flight finish on the instance they started with. Up to
+ * {@code mosip.biosdk.init.cache.max-instances} initialised instances are kept,
+ * so that going back to earlier parameters is a swap too, and the least
+ * recently used one is dropped beyond that; a dropped instance that is
+ * {@link AutoCloseable}, such as a
+ * {@link io.mosip.biosdk.services.sdk.worker.WorkerBioApi}, is closed once no
+ * request uses it. The first {@code init} initialises the SDK bean itself.
+ * </p>
+ * <p>
+ * The SDK is called outside of the lock guarding the instances, so that
+ * requests and {@link #swap} do not wait for a slow {@code init}; concurrent
+ * {@code init} calls are serialised. A standby instance whose {@code init}
+ * fails is closed if it is {@link AutoCloseable}.
+ * </p>
+ * <p>
+ * An instance initialised by the
+ * {@link io.mosip.biosdk.services.warmup.SdkWarmup} and marked with
+ * {@link #markWarmedUp()} is initialised again in place by the first
+ * {@code init} with other parameters, unless a request used it meanwhile, so
+ * that {@code mosip.biosdk.warmup.init-params} need not match the parameters
+ * of the clients for the warmed instance to serve them.
+ * </p>
+ * <p>
+ * The {@link SdkCapabilities} declared by each instance are derived once, when
+ * it is initialised, so that requests can be checked against them cheaply.
+ * </p>
+ * <p>
+ * {@link #swap} replaces the SDK implementation itself, e.g. with a new vendor
+ * release loaded by {@link io.mosip.biosdk.services.warmup.SdkHotSwap}: the
+ * instances of the previous implementation are retired, and requests holding
+ * a {@link Lease} on one of them finish on it while new requests go to the new
+ * implementation.
+ * </p>
+ * <p>
+ * When {@code mosip.biosdk.init.cache.enabled} is false every {@code init} is
+ * passed to the active instance.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class SdkInitCache {
+	private Logger logger = LoggerConfig.logConfig(SdkInitCache.class);
+
+	private static final String INIT = "init";
+	private static final long DRAIN_POLL_MILLIS = 10;
+
+	private final ObjectProvider<IBioApiV2> iBioApi;
+	private final BioSdkMetrics metrics;
+	private volatile Factory factory;
+
+	@Value("${mosip.biosdk.init.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${mosip.biosdk.init.cache.max-instances:2}")
+	private int maxInstances;
+
+	private final AtomicReference<Instance> active = new AtomicReference<>();
+	/** Serialises the {@code init} calls, held while the SDK is called. */
+	private final Object initLock = new Object();
+	/** Initialised instances by parameters, least recently used first; guarded by itself. */
+	private final LinkedHashMap<Map<String, String>, Instance> instances = new LinkedHashMap<>(4, 0.75f, true);
+
+	/**
+	 * Constructs a new {@code SdkInitCache}.
+	 *
+	 * @param iBioApi         the provider of the lazily created SDK bean, the
+	 *                        first active instance.
+	 * @param bioSdkLibConfig the SDK configuration creating standby instances.
+	 * @param metrics         the service metrics.
+	 */
+	@Autowired
+	public SdkInitCache(ObjectProvider<IBioApiV2> iBioApi, BioSdkLibConfig bioSdkLibConfig, BioSdkMetrics metrics) {
+		this.iBioApi = iBioApi;
+		this.factory = bioSdkLibConfig::newBioApi;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Creates new, uninitialised instances of the SDK implementation.
+	 */
+	@FunctionalInterface
+	public interface Factory {
+		/**
+		 * Creates a new instance.
+		 *
+		 * @return the instance.
+		 * @throws ReflectiveOperationException if the instance cannot be created.
+		 */
+		IBioApiV2 newBioApi() throws ReflectiveOperationException;
+	}
+
+	/**
+	 * Returns the instance serving requests, creating the SDK bean on first use.
+	 * Requests use {@link #acquire()} instead, so that a swap waits for them.
+	 *
+	 * @return the active SDK instance.
+	 */
+	public IBioApiV2 current() {
+		return active().sdk;
+	}
+
+	/**
+	 * Returns the capabilities declared by the active instance when it was
+	 * initialised.
+	 *
+	 * @return the capabilities, {@link SdkCapabilities#UNKNOWN} before the first
+	 *         {@code init}.
+	 */
+	public SdkCapabilities capabilities() {
+		Instance instance = active.get();
+		return instance == null ? SdkCapabilities.UNKNOWN : instance.capabilities;
+	}
+
+	/**
+	 * Takes a lease on the active instance, for a request that must complete on
+	 * one instance even if the implementation is swapped meanwhile.
+	 *
+	 * @return the lease, to be closed once the request is done with the SDK.
+	 */
+	public Lease acquire() {
+		while (true) {
+			Instance instance = active();
+			instance.usage.leases.incrementAndGet();
+			if (!instance.usage.retired) {
+				if (instance.usage.warmedUp) {
+					instance.usage.warmedUp = false;
+				}
+				return new Lease(instance);
+			}
+			// swapped out before the lease was counted, take the new instance
+			instance.usage.leases.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the parameters the active instance was initialised with.
+	 *
+	 * @return the init parameters, {@code null} before the first {@code init}.
+	 */
+	public Map<String, String> initParams() {
+		Instance instance = active.get();
+		return instance == null ? null : instance.params;
+	}
+
+	private Instance active() {
+		Instance instance = active.get();
+		if (instance == null) {
+			active.compareAndSet(null, new Instance(iBioApi.getObject(), null, null));
+			instance = active.get();
+		}
+		return instance;
+	}
+
+	/**
+	 * Initialises the SDK with the given parameters, or reuses an instance
+	 * initialised with them.
+	 *
+	 * @param initParams the init parameters; {@code null} is the same as empty.
+	 * @param initCall   calls {@code init} with the parameters on the given
+	 *                   instance.
+	 * @return the {@link SDKInfo} of the instance initialised with the parameters.
+	 * @throws ReflectiveOperationException if a standby instance cannot be
+	 *                                      created.
+	 */
+	public SDKInfo init(Map<String, String> initParams, Function<IBioApiV2, SDKInfo> initCall)
+			throws ReflectiveOperationException {
+		Instance current = active();
+		if (!enabled) {
+			SDKInfo info = initCall.apply(current.sdk);
+			active.set(new Instance(current.sdk, initParams, info, current.usage));
+			return info;
+		}
+		Map<String, String> params = initParams == null ? Collections.emptyMap()
+				: Collections.unmodifiableMap(new HashMap<>(initParams));
+		if (params.equals(current.params)) {
+			metrics.recordInit("cached");
+			return current.info;
+		}
+		synchronized (initLock) {
+			while (true) {
+				boolean inPlace;
+				Factory standbyFactory;
+				synchronized (instances) {
+					current = active();
+					if (params.equals(current.params)) {
+						metrics.recordInit("cached");
+						return current.info;
+					}
+					Instance cached = instances.get(params);
+					if (cached != null) {
+						return activate(cached, "swapped");
+					}
+					inPlace = current.info == null || (current.usage.warmedUp && current.usage.leases.get() == 0);
+					standbyFactory = factory;
+				}
+				IBioApiV2 sdk = inPlace ? current.sdk : standbyFactory.newBioApi();
+				SDKInfo info;
+				try {
+					info = initCall.apply(sdk);
+				} catch (RuntimeException | Error e) {
+					if (!inPlace) {
+						close(sdk, "failed standby");
+					}
+					throw e;
+				}
+				synchronized (instances) {
+					// a swap or invalidate meanwhile makes the new instance stale
+					if (active.get() == current && factory == standbyFactory) {
+						Instance instance = new Instance(sdk, params, info, inPlace ? current.usage : new Usage());
+						if (inPlace) {
+							current.usage.warmedUp = false;
+							instances.remove(current.params, current);
+						}
+						instances.put(params, instance);
+						return activate(instance, inPlace ? "in-place" : "standby");
+					}
+				}
+				if (!inPlace) {
+					close(sdk, "stale standby");
+				}
+			}
+		}
+	}
+
+	private SDKInfo activate(Instance instance, String outcome) {
+		active.set(instance);
+		evict();
+		metrics.recordInit(outcome);
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT,
+				"SDK instance " + outcome + ", " + instances.size() + " initialised instances");
+		return instance.info;
+	}
+
+	/**
+	 * Marks the active instance as initialised and used by the warm-up only, so
+	 * that the first {@code init} with other parameters initialises it again
+	 * instead of creating a standby instance. The mark is cleared by the next
+	 * request.
+	 */
+	public void markWarmedUp() {
+		Instance instance = active.get();
+		if (instance != null && instance.info != null) {
+			instance.usage.warmedUp = true;
+		}
+	}
+
+	/**
+	 * Makes an initialised instance of another implementation the active one.
+	 * The instances of the previous implementation are retired: they take no new
+	 * lease, and standby instances are created by the given factory from now on.
+	 *
+	 * @param sdk        the new instance.
+	 * @param initParams the parameters it was initialised with.
+	 * @param info       the {@link SDKInfo} it returned.
+	 * @param newFactory creates further instances of the new implementation.
+	 * @return the retired instances, to wait for the requests still using them.
+	 */
+	public Retired swap(IBioApiV2 sdk, Map<String, String> initParams, SDKInfo info, Factory newFactory) {
+		Map<String, String> params = initParams == null ? Collections.emptyMap()
+				: Collections.unmodifiableMap(new HashMap<>(initParams));
+		Instance instance = new Instance(sdk, params, info);
+		List<Instance> retired = new ArrayList<>(instances.size() + 1);
+		synchronized (instances) {
+			Instance previous = active();
+			retired.add(previous);
+			for (Instance cached : instances.values()) {
+				if (cached != previous) {
+					retired.add(cached);
+				}
+			}
+			instances.clear();
+			instances.put(params, instance);
+			factory = newFactory;
+			active.set(instance);
+			for (Instance old : retired) {
+				old.usage.retired = true;
+			}
+		}
+		metrics.recordInit("implementation-swapped");
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT,
+				"SDK implementation swapped to " + sdk.getClass().getName() + ", " + retired.size()
+						+ " instances retired");
+		return new Retired(retired);
+	}
+
+	private void evict() {
+		Instance current = active.get();
+		Iterator<Instance> iterator = instances.values().iterator();
+		while (instances.size() > Math.max(1, maxInstances) && iterator.hasNext()) {
+			Instance evicted = iterator.next();
+			if (evicted != current) {
+				iterator.remove();
+				discard(evicted, current);
+			}
+		}
+	}
+
+	/**
+	 * Closes a dropped instance once the requests using it are done, unless it is
+	 * the SDK of the active instance.
+	 */
+	private void discard(Instance instance, Instance current) {
+		if ((current == null || instance.sdk != current.sdk) && instance.sdk instanceof AutoCloseable closeable) {
+			instance.usage.dropped = closeable;
+			closeIfDrained(instance.usage);
+		}
+	}
+
+	private void closeIfDrained(Usage usage) {
+		AutoCloseable sdk = usage.dropped;
+		if (sdk != null && usage.leases.get() == 0 && usage.closed.compareAndSet(false, true)) {
+			close(sdk, "dropped");
+		}
+	}
+
+	private void close(Object sdk, String state) {
+		if (sdk instanceof AutoCloseable closeable) {
+			try {
+				closeable.close();
+				logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT, state + " SDK instance closed");
+			} catch (Exception e) {
+				logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, INIT, "cannot close " + state + " SDK instance: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the initialised instances but the active one, which is considered
+	 * uninitialised, so that the next {@code init} calls it in place. Used when
+	 * the state of the SDK cannot be trusted, e.g. after a CRaC restore.
+	 */
+	public void invalidate() {
+		synchronized (instances) {
+			Instance current = active.get();
+			for (Instance instance : instances.values()) {
+				discard(instance, current);
+			}
+			instances.clear();
+			if (current != null) {
+				active.set(new Instance(current.sdk, null, null, current.usage));
+			}
+		}
+	}
+
+	/**
+	 * The use of an SDK instance by one request.
+	 */
+	public final class Lease implements AutoCloseable {
+		private final Instance instance;
+		private boolean closed;
+
+		private Lease(Instance instance) {
+			this.instance = instance;
+		}
+
+		/**
+		 * Returns the leased instance.
+		 *
+		 * @return the SDK instance.
+		 */
+		public IBioApiV2 sdk() {
+			return instance.sdk;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				if (instance.usage.leases.decrementAndGet() == 0) {
+					closeIfDrained(instance.usage);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The instances retired by a {@link #swap}.
+	 */
+	public static final class Retired {
+		private final List<Instance> instances;
+
+		private Retired(List<Instance> instances) {
+			this.instances = instances;
+		}
+
+		/**
+		 * Returns the retired SDK instances.
+		 *
+		 * @return the instances, the previously active one first.
+		 */
+		public List<IBioApiV2> sdks() {
+			List<IBioApiV2> sdks = new ArrayList<>(instances.size());
+			for (Instance instance : instances) {
+				if (!sdks.contains(instance.sdk)) {
+					sdks.add(instance.sdk);
+				}
+			}
+			return sdks;
+		}
+
+		/**
+		 * Returns the number of requests still using a retired instance.
+		 *
+		 * @return the number of open leases.
+		 */
+		public int inFlight() {
+			int inFlight = 0;
+			for (Instance instance : instances) {
+				inFlight += instance.usage.leases.get();
+			}
+			return inFlight;
+		}
+
+		/**
+		 * Waits for the requests using the retired instances to complete.
+		 *
+		 * @param timeoutMillis the maximum time to wait.
+		 * @return {@code true} if they completed, {@code false} on timeout.
+		 * @throws InterruptedException if interrupted while waiting.
+		 */
+		public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+			while (inFlight() > 0) {
+				if (System.nanoTime() - deadline >= 0) {
+					return false;
+				}
+				Thread.sleep(DRAIN_POLL_MILLIS);
+			}
+			return true;
+		}
+	}
+
+	private static final class Instance {
+		private final IBioApiV2 sdk;
+		private final Map<String, String> params;
+		private final SDKInfo info;
+		private final SdkCapabilities capabilities;
+		private final Usage usage;
+
+		private Instance(IBioApiV2 sdk, Map<String, String> params, SDKInfo info) {
+			this(sdk, params, info, new Usage());
+		}
+
+		private Instance(IBioApiV2 sdk, Map<String, String> params, SDKInfo info, Usage usage) {
+			this.sdk = sdk;
+			this.params = params;
+			this.info = info;
+			this.capabilities = SdkCapabilities.of(info);
+			this.usage = usage;
+		}
+	}
+
+	/**
+	 * Leases and retirement of an SDK instance, shared by its successive
+	 * {@link Instance} records.
+	 */
+	private static final class Usage {
+		private final AtomicInteger leases = new AtomicInteger();
+		private volatile boolean retired;
+		/** Set once the instance is dropped, to be closed when its leases are. */
+		private volatile AutoCloseable dropped;
+		/** Set by {@link #markWarmedUp()}, cleared by the next lease. */
+		private volatile boolean warmedUp;
+		private final AtomicBoolean closed = new AtomicBoolean();
+	}
+}
@@ -0,0 +1,76 @@
+package io.mosip.biosdk.services.sdk.foreign;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The native memory of one SDK call: the BDBs, structs, strings and outputs
+ * passed to the engine, freed at once when the call returns.
+ * <p>
+ * Allocations are carved out of chunks of a confined {@link Arena}, so a call
+ * copying a large gallery makes a few {@code malloc}s rather than one per
+ * segment; larger allocations get a chunk of their own. The arenas not closed
+ * yet are counted, so that a call leaving its memory allocated can be detected.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class NativeArena implements SegmentAllocator, AutoCloseable {
+	private static final long CHUNK_BYTES = 256 * 1024L;
+	private static final AtomicInteger OPEN = new AtomicInteger();
+
+	private final Arena arena = Arena.ofConfined();
+	private MemorySegment chunk = MemorySegment.NULL;
+	private long offset;
+
+	NativeArena() {
+		OPEN.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of arenas not closed yet.
+	 *
+	 * @return the open arenas.
+	 */
+	static int open() {
+		return OPEN.get();
+	}
+
+	@Override
+	public MemorySegment allocate(long byteSize, long byteAlignment) {
+		long base = chunk.address();
+		long start = ((base + offset + byteAlignment - 1) & -byteAlignment) - base;
+		if (start + byteSize <= chunk.byteSize()) {
+			offset = start + byteSize;
+			return chunk.asSlice(start, byteSize);
+		}
+		if (byteSize > CHUNK_BYTES / 4) {
+			return arena.allocate(byteSize, byteAlignment);
+		}
+		chunk = arena.allocate(CHUNK_BYTES, Math.max(Long.BYTES, byteAlignment));
+		offset = byteSize;
+		return chunk.asSlice(0, byteSize);
+	}
+
+	/**
+	 * Copies a byte array into native memory.
+	 *
+	 * @param bytes the bytes.
+	 * @return the native copy.
+	 */
+	MemorySegment copy(byte[] bytes) {
+		MemorySegment segment = allocate(bytes.length, 1);
+		MemorySegment.copy(bytes, 0, segment, JAVA_BYTE, 0, bytes.length);
+		return segment;
+	}
+
+	@Override
+	public void close() {
+		arena.close();
+		OPEN.decrementAndGet();
+	}
+}
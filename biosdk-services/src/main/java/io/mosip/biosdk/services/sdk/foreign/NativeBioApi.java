@@ -0,0 +1,442 @@
+package io.mosip.biosdk.services.sdk.foreign;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * {@link IBioApiV2} over a native engine library implementing the C ABI of
+ * {@code src/main/native/biosdk_native.h}, called through the Foreign Function
+ * and Memory API rather than a JNI shim.
+ * <p>
+ * Selected with
+ * {@code biosdk_bioapi_impl=io.mosip.biosdk.services.sdk.foreign.NativeBioApi}
+ * and {@code mosip.biosdk.native.library}, the path or name of the library,
+ * which is loaded by the first call and unloaded when the instance is closed.
+ * The library exports a function per SDK method it supports; the modalities
+ * of each method are those of {@code biosdk_modalities}. The ABI has no
+ * segmentation: {@code segment} returns the sample as it is.
+ * </p>
+ * <p>
+ * Each call allocates its native memory in a {@link NativeArena}, freed when
+ * the call returns. The BDBs of the sample and of every gallery record are
+ * copied there once, and passed by address to every engine function of the
+ * call; Java 21 cannot hand heap arrays to native code. Quality and match
+ * are called per modality, extraction and conversion per segment. A status
+ * other than {@code BIOSDK_OK} fails the call with the {@link ResponseStatus}
+ * of that code.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public class NativeBioApi implements IBioApiV2, EnvironmentAware, AutoCloseable {
+	/**
+	 * Property holding the path or name of the engine library.
+	 */
+	public static final String LIBRARY_PROPERTY = "mosip.biosdk.native.library";
+
+	private static final String API_VERSION = "0.9";
+	private static final String ANALYTICS_SCORE = "score";
+	private static final long OUTPUT_BYTES = 16 * 1024L;
+	private static final List<BiometricType> ABI_MODALITIES = List.of(BiometricType.FINGER, BiometricType.IRIS,
+			BiometricType.FACE);
+
+	private Logger logger = LoggerConfig.logConfig(NativeBioApi.class);
+
+	private volatile UnaryOperator<String> properties = System::getProperty;
+	private volatile NativeEngine engine;
+
+	/**
+	 * The output of {@code biosdk_extract} or {@code biosdk_convert}.
+	 */
+	private record Output(int status, byte[] bytes) {
+	}
+
+	/**
+	 * A call of {@code biosdk_extract} or {@code biosdk_convert} on a segment.
+	 */
+	private interface OutputFunction {
+		long write(MemorySegment out, long capacity);
+	}
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.properties = environment::getProperty;
+	}
+
+	private NativeEngine engine() {
+		NativeEngine loaded = engine;
+		if (loaded == null) {
+			synchronized (this) {
+				loaded = engine;
+				if (loaded == null) {
+					String library = properties.apply(LIBRARY_PROPERTY);
+					if (library == null || library.isBlank()) {
+						throw new IllegalStateException(LIBRARY_PROPERTY + " is not set");
+					}
+					loaded = NativeEngine.load(library);
+					logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "native SDK", "loaded " + library + ": "
+							+ loaded.organization() + " " + loaded.type() + " " + loaded.sdkVersion());
+					engine = loaded;
+				}
+			}
+		}
+		return loaded;
+	}
+
+	@Override
+	public SDKInfo init(Map<String, String> initParams) {
+		NativeEngine loaded = engine();
+		try (NativeArena arena = new NativeArena()) {
+			Map<String, String> params = initParams == null ? Collections.emptyMap() : initParams;
+			MemorySegment array = arena.allocateArray(NativeEngine.PARAM, params.size());
+			int count = 0;
+			for (Map.Entry<String, String> param : params.entrySet()) {
+				if (param.getKey() != null && param.getValue() != null) {
+					MemorySegment entry = array.asSlice(count++ * NativeEngine.PARAM.byteSize(),
+							NativeEngine.PARAM.byteSize());
+					entry.set(ADDRESS, NativeEngine.PARAM_KEY, arena.allocateUtf8String(param.getKey()));
+					entry.set(ADDRESS, NativeEngine.PARAM_VALUE, arena.allocateUtf8String(param.getValue()));
+				}
+			}
+			int status = loaded.init(array, count);
+			if (status != NativeEngine.OK) {
+				throw new IllegalStateException(loaded.getLibrary() + " init failed with status " + status);
+			}
+		}
+		SDKInfo sdkInfo = new SDKInfo(API_VERSION, loaded.sdkVersion(), loaded.organization(), loaded.type());
+		for (BiometricFunction function : BiometricFunction.values()) {
+			if (function == BiometricFunction.SEGMENT || loaded.supports(function)) {
+				for (BiometricType type : ABI_MODALITIES) {
+					if (loaded.supports(type)) {
+						sdkInfo.withSupportedMethod(function, type);
+					}
+				}
+			}
+		}
+		return sdkInfo;
+	}
+
+	@Override
+	public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+			Map<String, String> flags) {
+		NativeEngine loaded = engine();
+		if (!loaded.supports(BiometricFunction.QUALITY_CHECK)) {
+			return unsupported(loaded, BiometricFunction.QUALITY_CHECK);
+		}
+		try (NativeArena arena = new NativeArena()) {
+			MemorySegment score = arena.allocate(JAVA_FLOAT);
+			Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+			for (Map.Entry<BiometricType, MemorySegment> segments : segments(arena, sample,
+					modalities(modalitiesToCheck)).entrySet()) {
+				int status = loaded.quality(segments.getValue(), count(segments.getValue()), score);
+				if (status != NativeEngine.OK) {
+					return failure(status, "checkQuality");
+				}
+				QualityScore qualityScore = new QualityScore();
+				qualityScore.setScore(score.get(JAVA_FLOAT, 0));
+				qualityScore.setErrors(new ArrayList<>());
+				qualityScore.setAnalyticsInfo(new HashMap<>());
+				scores.put(segments.getKey(), qualityScore);
+			}
+			QualityCheck qualityCheck = new QualityCheck();
+			qualityCheck.setScores(scores);
+			qualityCheck.setAnalyticsInfo(new HashMap<>());
+			return success(qualityCheck);
+		}
+	}
+
+	@Override
+	public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+			List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+		NativeEngine loaded = engine();
+		if (!loaded.supports(BiometricFunction.MATCH)) {
+			return unsupported(loaded, BiometricFunction.MATCH);
+		}
+		int galleryLength = gallery == null ? 0 : gallery.length;
+		try (NativeArena arena = new NativeArena()) {
+			Map<BiometricType, MemorySegment> probe = segments(arena, sample, modalities(modalitiesToMatch));
+			MemorySegment score = arena.allocate(JAVA_FLOAT);
+			MemorySegment matched = arena.allocate(JAVA_INT);
+			MatchDecision[] matchDecisions = new MatchDecision[galleryLength];
+			for (int i = 0; i < galleryLength; i++) {
+				Map<BiometricType, MemorySegment> candidate = segments(arena, gallery[i], probe.keySet());
+				Map<BiometricType, Decision> decisions = new EnumMap<>(BiometricType.class);
+				float best = 0;
+				for (Map.Entry<BiometricType, MemorySegment> segments : probe.entrySet()) {
+					MemorySegment candidateSegments = candidate.getOrDefault(segments.getKey(), MemorySegment.NULL);
+					int status = loaded.match(segments.getValue(), count(segments.getValue()), candidateSegments,
+							count(candidateSegments), score, matched);
+					if (status != NativeEngine.OK) {
+						return failure(status, "match");
+					}
+					Decision decision = new Decision();
+					decision.setMatch(matched.get(JAVA_INT, 0) != 0 ? Match.MATCHED : Match.NOT_MATCHED);
+					decision.setErrors(new ArrayList<>());
+					decision.setAnalyticsInfo(
+							new HashMap<>(Map.of(ANALYTICS_SCORE, Float.toString(score.get(JAVA_FLOAT, 0)))));
+					decisions.put(segments.getKey(), decision);
+					best = Math.max(best, score.get(JAVA_FLOAT, 0));
+				}
+				MatchDecision matchDecision = new MatchDecision(i);
+				matchDecision.setDecisions(decisions);
+				matchDecision.setAnalyticsInfo(new HashMap<>(Map.of(ANALYTICS_SCORE, Float.toString(best))));
+				matchDecisions[i] = matchDecision;
+			}
+			return success(matchDecisions);
+		}
+	}
+
+	@Override
+	public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+			Map<String, String> flags) {
+		NativeEngine loaded = engine();
+		if (!loaded.supports(BiometricFunction.EXTRACT)) {
+			return unsupported(loaded, BiometricFunction.EXTRACT);
+		}
+		return transform(sample, modalities(modalitiesToExtract), "extractTemplate",
+				(arena, segment) -> output(arena, (out, capacity) -> loaded.extract(segment, out, capacity)));
+	}
+
+	@Override
+	public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+			Map<String, String> flags) {
+		return success(sample);
+	}
+
+	/**
+	 * @deprecated use
+	 *             {@link #convertFormatV2(BiometricRecord, String, String, Map, Map, List)}.
+	 */
+	@Override
+	@Deprecated(forRemoval = true)
+	@SuppressWarnings({ "removal" })
+	public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		Response<BiometricRecord> response = convertFormatV2(sample, sourceFormat, targetFormat, sourceParams,
+				targetParams, modalitiesToConvert);
+		if (response.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+			throw new IllegalStateException(response.getStatusMessage());
+		}
+		return response.getResponse();
+	}
+
+	@Override
+	public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		NativeEngine loaded = engine();
+		if (!loaded.supports(BiometricFunction.CONVERT_FORMAT)) {
+			return unsupported(loaded, BiometricFunction.CONVERT_FORMAT);
+		}
+		return transform(sample, modalities(modalitiesToConvert), "convertFormat", (arena, segment) -> {
+			MemorySegment source = sourceFormat == null ? MemorySegment.NULL : arena.allocateUtf8String(sourceFormat);
+			MemorySegment target = targetFormat == null ? MemorySegment.NULL : arena.allocateUtf8String(targetFormat);
+			return output(arena, (out, capacity) -> loaded.convert(segment, source, target, out, capacity));
+		});
+	}
+
+	/**
+	 * Replaces the BDB of each segment of the given modalities.
+	 *
+	 * @param sample     the sample.
+	 * @param modalities the modalities, all if empty.
+	 * @param operation  the name of the operation, for errors.
+	 * @param function   the native function writing the new BDB of a segment.
+	 * @return the response holding the new record.
+	 */
+	private static Response<BiometricRecord> transform(BiometricRecord sample, Set<BiometricType> modalities,
+			String operation, BiFunction<NativeArena, MemorySegment, Output> function) {
+		try (NativeArena arena = new NativeArena()) {
+			BiometricRecord result = new BiometricRecord(sample.getVersion(), sample.getCbeffversion(),
+					sample.getBirInfo());
+			result.setOthers(sample.getOthers());
+			result.setSegments(new ArrayList<>());
+			for (BIR segment : sample.getSegments()) {
+				if (!isOf(segment, modalities)) {
+					result.getSegments().add(segment);
+					continue;
+				}
+				MemorySegment nativeSegment = arena.allocate(NativeEngine.SEGMENT);
+				write(arena, nativeSegment, segment);
+				Output output = function.apply(arena, nativeSegment);
+				if (output.status() != NativeEngine.OK) {
+					return failure(output.status(), operation);
+				}
+				result.getSegments().add(withBdb(segment, output.bytes()));
+			}
+			return success(result);
+		}
+	}
+
+	/**
+	 * Calls a function writing its output into a buffer, and again with a buffer
+	 * of the length it returned when the first one was too small.
+	 */
+	private static Output output(NativeArena arena, OutputFunction function) {
+		MemorySegment out = arena.allocate(OUTPUT_BYTES);
+		long length = function.write(out, OUTPUT_BYTES);
+		if (length > OUTPUT_BYTES) {
+			out = arena.allocate(length);
+			long capacity = length;
+			length = function.write(out, capacity);
+			if (length > capacity) {
+				return new Output(ResponseStatus.UNKNOWN_ERROR.getStatusCode(), null);
+			}
+		}
+		if (length < 0) {
+			return new Output((int) -length, null);
+		}
+		return new Output(NativeEngine.OK, out.asSlice(0, length).toArray(JAVA_BYTE));
+	}
+
+	private static BIR withBdb(BIR segment, byte[] bdb) {
+		BIR bir = new BIR();
+		bir.setVersion(segment.getVersion());
+		bir.setCbeffversion(segment.getCbeffversion());
+		bir.setBirInfo(segment.getBirInfo());
+		bir.setBdbInfo(segment.getBdbInfo());
+		bir.setBdb(bdb);
+		bir.setSb(segment.getSb());
+		bir.setSbInfo(segment.getSbInfo());
+		bir.setOthers(segment.getOthers());
+		return bir;
+	}
+
+	/**
+	 * Copies the segments of a record of the given modalities into native
+	 * memory, as an array of {@code biosdk_segment} per modality.
+	 */
+	private static Map<BiometricType, MemorySegment> segments(NativeArena arena, BiometricRecord biometricRecord,
+			Set<BiometricType> modalities) {
+		Map<BiometricType, List<BIR>> byType = new EnumMap<>(BiometricType.class);
+		if (biometricRecord != null && biometricRecord.getSegments() != null) {
+			for (BIR segment : biometricRecord.getSegments()) {
+				if (isOf(segment, modalities)) {
+					byType.computeIfAbsent(typeOf(segment), t -> new ArrayList<>()).add(segment);
+				}
+			}
+		}
+		Map<BiometricType, MemorySegment> segments = new EnumMap<>(BiometricType.class);
+		byType.forEach((type, birs) -> {
+			MemorySegment array = arena.allocateArray(NativeEngine.SEGMENT, birs.size());
+			for (int i = 0; i < birs.size(); i++) {
+				write(arena, array.asSlice(i * NativeEngine.SEGMENT.byteSize(), NativeEngine.SEGMENT.byteSize()),
+						birs.get(i));
+			}
+			segments.put(type, array);
+		});
+		return segments;
+	}
+
+	private static void write(NativeArena arena, MemorySegment nativeSegment, BIR segment) {
+		byte[] bdb = segment.getBdb();
+		List<String> subtypes = segment.getBdbInfo().getSubtype();
+		nativeSegment.set(ADDRESS, NativeEngine.SEGMENT_BDB, bdb == null ? MemorySegment.NULL : arena.copy(bdb));
+		nativeSegment.set(JAVA_LONG, NativeEngine.SEGMENT_BDB_LENGTH, bdb == null ? 0 : bdb.length);
+		nativeSegment.set(JAVA_INT, NativeEngine.SEGMENT_MODALITY, NativeEngine.modalityCode(typeOf(segment)));
+		nativeSegment.set(ADDRESS, NativeEngine.SEGMENT_SUBTYPE, subtypes == null || subtypes.isEmpty()
+				? MemorySegment.NULL
+				: arena.allocateUtf8String(String.join(" ", subtypes)));
+	}
+
+	private static int count(MemorySegment segments) {
+		return (int) (segments.byteSize() / NativeEngine.SEGMENT.byteSize());
+	}
+
+	private static Set<BiometricType> modalities(List<BiometricType> modalities) {
+		return modalities == null || modalities.isEmpty() ? Collections.emptySet() : EnumSet.copyOf(modalities);
+	}
+
+	/**
+	 * Returns whether a segment is of one of the modalities, all if empty, and of
+	 * a modality of the ABI.
+	 */
+	private static boolean isOf(BIR segment, Set<BiometricType> modalities) {
+		BiometricType type = segment == null ? null : typeOf(segment);
+		return NativeEngine.modalityCode(type) != 0 && (modalities.isEmpty() || modalities.contains(type));
+	}
+
+	private static BiometricType typeOf(BIR segment) {
+		BDBInfo bdbInfo = segment.getBdbInfo();
+		return bdbInfo == null || bdbInfo.getType() == null || bdbInfo.getType().isEmpty() ? null
+				: bdbInfo.getType().get(0);
+	}
+
+	private static <T> Response<T> success(T result) {
+		Response<T> response = new Response<>();
+		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+		response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+		response.setResponse(result);
+		return response;
+	}
+
+	private static <T> Response<T> failure(int status, String operation) {
+		ResponseStatus responseStatus = ResponseStatus.UNKNOWN_ERROR;
+		for (ResponseStatus candidate : ResponseStatus.values()) {
+			if (candidate.getStatusCode() == status) {
+				responseStatus = candidate;
+			}
+		}
+		Response<T> response = new Response<>();
+		response.setStatusCode(responseStatus.getStatusCode());
+		response.setStatusMessage(String.format(responseStatus.getStatusMessage(), operation)
+				+ (responseStatus.getStatusCode() == status ? "" : " (native status " + status + ")"));
+		return response;
+	}
+
+	private static <T> Response<T> unsupported(NativeEngine loaded, BiometricFunction function) {
+		Response<T> response = new Response<>();
+		response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
+		response.setStatusMessage(function + " is not supported by " + loaded.getLibrary());
+		return response;
+	}
+
+	/**
+	 * Unloads the library.
+	 */
+	@Override
+	public synchronized void close() {
+		if (engine != null) {
+			engine.close();
+			engine = null;
+		}
+	}
+}
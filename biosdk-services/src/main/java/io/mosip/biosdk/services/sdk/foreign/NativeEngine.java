@@ -0,0 +1,268 @@
+package io.mosip.biosdk.services.sdk.foreign;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.AddressLayout;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemoryLayout.PathElement;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.util.Map;
+
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+
+/**
+ * A native engine library loaded through the C ABI of
+ * {@code src/main/native/biosdk_native.h}: its layouts, and a downcall handle
+ * per function.
+ * <p>
+ * The library stays loaded until the engine is closed. Memory passed to the
+ * functions is allocated by the caller, see {@link NativeArena}.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class NativeEngine implements AutoCloseable {
+	/** ABI version implemented by the service. */
+	static final int ABI_VERSION = 1;
+	/** Status returned by the functions on success. */
+	static final int OK = 0;
+
+	/** {@code biosdk_segment}. */
+	static final StructLayout SEGMENT = MemoryLayout.structLayout(ADDRESS.withName("bdb"),
+			JAVA_LONG.withName("bdb_length"), JAVA_INT.withName("modality"), MemoryLayout.paddingLayout(4),
+			ADDRESS.withName("subtype")).withName("biosdk_segment");
+	static final long SEGMENT_BDB = SEGMENT.byteOffset(PathElement.groupElement("bdb"));
+	static final long SEGMENT_BDB_LENGTH = SEGMENT.byteOffset(PathElement.groupElement("bdb_length"));
+	static final long SEGMENT_MODALITY = SEGMENT.byteOffset(PathElement.groupElement("modality"));
+	static final long SEGMENT_SUBTYPE = SEGMENT.byteOffset(PathElement.groupElement("subtype"));
+
+	/** {@code biosdk_param}. */
+	static final StructLayout PARAM = MemoryLayout.structLayout(ADDRESS.withName("key"), ADDRESS.withName("value"))
+			.withName("biosdk_param");
+	static final long PARAM_KEY = PARAM.byteOffset(PathElement.groupElement("key"));
+	static final long PARAM_VALUE = PARAM.byteOffset(PathElement.groupElement("value"));
+
+	private static final Map<BiometricType, Integer> MODALITIES = Map.of(BiometricType.FINGER, 1,
+			BiometricType.IRIS, 2, BiometricType.FACE, 3);
+
+	private static final AddressLayout C_STRING = ADDRESS
+			.withTargetLayout(MemoryLayout.sequenceLayout(Integer.MAX_VALUE, JAVA_BYTE));
+
+	private final String library;
+	private final Arena arena;
+	private final MethodHandle sdkVersion;
+	private final MethodHandle organization;
+	private final MethodHandle type;
+	private final MethodHandle modalities;
+	private final MethodHandle init;
+	private final MethodHandle quality;
+	private final MethodHandle match;
+	private final MethodHandle extract;
+	private final MethodHandle convert;
+
+	private NativeEngine(String library, Arena arena, SymbolLookup lookup) {
+		this.library = library;
+		this.arena = arena;
+		Linker linker = Linker.nativeLinker();
+		MethodHandle abiVersion = required(linker, lookup, "biosdk_abi_version", FunctionDescriptor.of(JAVA_INT));
+		int version;
+		try {
+			version = (int) abiVersion.invokeExact();
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+		if (version != ABI_VERSION) {
+			throw new IllegalStateException(
+					library + " implements biosdk ABI version " + version + ", expected " + ABI_VERSION);
+		}
+		this.sdkVersion = required(linker, lookup, "biosdk_sdk_version", FunctionDescriptor.of(C_STRING));
+		this.organization = required(linker, lookup, "biosdk_organization", FunctionDescriptor.of(C_STRING));
+		this.type = required(linker, lookup, "biosdk_type", FunctionDescriptor.of(C_STRING));
+		this.modalities = required(linker, lookup, "biosdk_modalities", FunctionDescriptor.of(JAVA_INT));
+		this.init = required(linker, lookup, "biosdk_init", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT));
+		this.quality = optional(linker, lookup, "biosdk_quality",
+				FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS));
+		this.match = optional(linker, lookup, "biosdk_match",
+				FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, ADDRESS));
+		this.extract = optional(linker, lookup, "biosdk_extract",
+				FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, JAVA_LONG));
+		this.convert = optional(linker, lookup, "biosdk_convert",
+				FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS, ADDRESS, JAVA_LONG));
+	}
+
+	/**
+	 * Loads a library.
+	 *
+	 * @param library the path of the library, or its name when it contains no
+	 *                separator, looked up as the system loader does, e.g. in
+	 *                {@code LD_LIBRARY_PATH}.
+	 * @return the engine.
+	 * @throws IllegalArgumentException if the library cannot be loaded.
+	 * @throws IllegalStateException    if it does not implement the ABI.
+	 */
+	static NativeEngine load(String library) {
+		Arena arena = Arena.ofShared();
+		try {
+			SymbolLookup lookup = library.indexOf('/') >= 0 ? SymbolLookup.libraryLookup(Path.of(library), arena)
+					: SymbolLookup.libraryLookup(library, arena);
+			return new NativeEngine(library, arena, lookup);
+		} catch (RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+	}
+
+	private static MethodHandle required(Linker linker, SymbolLookup lookup, String name,
+			FunctionDescriptor descriptor) {
+		return lookup.find(name).map(symbol -> linker.downcallHandle(symbol, descriptor))
+				.orElseThrow(() -> new IllegalStateException("Missing biosdk ABI function " + name));
+	}
+
+	private static MethodHandle optional(Linker linker, SymbolLookup lookup, String name,
+			FunctionDescriptor descriptor) {
+		return lookup.find(name).map(symbol -> linker.downcallHandle(symbol, descriptor)).orElse(null);
+	}
+
+	/**
+	 * Returns the code of a modality in the ABI.
+	 *
+	 * @param type the modality.
+	 * @return the code, or {@code 0} if the ABI has none.
+	 */
+	static int modalityCode(BiometricType type) {
+		return type == null ? 0 : MODALITIES.getOrDefault(type, 0);
+	}
+
+	String getLibrary() {
+		return library;
+	}
+
+	String sdkVersion() {
+		try {
+			return string((MemorySegment) sdkVersion.invokeExact());
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	String organization() {
+		try {
+			return string((MemorySegment) organization.invokeExact());
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	String type() {
+		try {
+			return string((MemorySegment) type.invokeExact());
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	/**
+	 * Returns whether the library exports the function of an SDK method.
+	 */
+	boolean supports(BiometricFunction function) {
+		switch (function) {
+		case QUALITY_CHECK:
+			return quality != null;
+		case MATCH:
+			return match != null;
+		case EXTRACT:
+			return extract != null;
+		case CONVERT_FORMAT:
+			return convert != null;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Returns whether the library supports a modality.
+	 */
+	boolean supports(BiometricType type) {
+		int code = modalityCode(type);
+		try {
+			return code != 0 && ((int) modalities.invokeExact() & 1 << code) != 0;
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	int init(MemorySegment params, int count) {
+		try {
+			return (int) init.invokeExact(params, count);
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	int quality(MemorySegment segments, int count, MemorySegment score) {
+		try {
+			return (int) quality.invokeExact(segments, count, score);
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	int match(MemorySegment probe, int probeCount, MemorySegment candidate, int candidateCount, MemorySegment score,
+			MemorySegment matched) {
+		try {
+			return (int) match.invokeExact(probe, probeCount, candidate, candidateCount, score, matched);
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	long extract(MemorySegment segment, MemorySegment out, long capacity) {
+		try {
+			return (long) extract.invokeExact(segment, out, capacity);
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	long convert(MemorySegment segment, MemorySegment sourceFormat, MemorySegment targetFormat, MemorySegment out,
+			long capacity) {
+		try {
+			return (long) convert.invokeExact(segment, sourceFormat, targetFormat, out, capacity);
+		} catch (Throwable e) {
+			throw failure(e);
+		}
+	}
+
+	private static String string(MemorySegment address) {
+		return address.equals(MemorySegment.NULL) ? null : address.getUtf8String(0);
+	}
+
+	private static RuntimeException failure(Throwable e) {
+		if (e instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (e instanceof Error error) {
+			throw error;
+		}
+		return new IllegalStateException(e);
+	}
+
+	/**
+	 * Unloads the library; it must not be called anymore.
+	 */
+	@Override
+	public void close() {
+		arena.close();
+	}
+}
@@ -0,0 +1,314 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * One SDK worker process and its call slots, seen from the service.
+ * <p>
+ * Each slot has its own {@link SharedBuffer}, so a worker runs as many calls
+ * at once as it has slots. A call takes a free slot, writes its arguments into
+ * the slot buffer, sends a control frame to the worker and waits for the frame
+ * telling that the result is in the buffer. A thread per worker reads the
+ * frames the worker writes; when the worker exits, the calls still waiting
+ * fail and the pool is told.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class SdkWorker {
+	private Logger logger = LoggerConfig.logConfig(SdkWorker.class);
+
+	/**
+	 * A frame from the worker.
+	 */
+	private record Reply(byte status, int length) {
+	}
+
+	private final String name;
+	private final Process process;
+	private final DataOutputStream control;
+	private final List<Path> files = new ArrayList<>();
+	private final SharedBuffer[] buffers;
+	private final BlockingQueue<Integer> freeSlots;
+	private final AtomicReferenceArray<CompletableFuture<Reply>> pending;
+	private final AtomicReference<CompletableFuture<Void>> pong = new AtomicReference<>(new CompletableFuture<>());
+	private final BiConsumer<SdkWorker, String> onExit;
+	private final Thread reader;
+	private volatile boolean alive = true;
+	private volatile boolean stopped;
+	private volatile String killReason;
+
+	/**
+	 * Starts a worker process.
+	 *
+	 * @param name        the name of the worker, unique among the running ones.
+	 * @param command     the command running {@link WorkerMain} with the SDK
+	 *                    class; the buffer files are appended.
+	 * @param directory   the directory of the buffer files.
+	 * @param slots       the number of call slots.
+	 * @param bufferBytes the initial size of the slot buffers.
+	 * @param onExit      told the worker and the reason once the process exits,
+	 *                    unless it was stopped.
+	 * @throws IOException if the buffers cannot be created or the process
+	 *                     cannot be started.
+	 */
+	SdkWorker(String name, List<String> command, Path directory, int slots, int bufferBytes,
+			BiConsumer<SdkWorker, String> onExit) throws IOException {
+		this.name = name;
+		this.onExit = onExit;
+		this.buffers = new SharedBuffer[slots];
+		this.freeSlots = new ArrayBlockingQueue<>(slots);
+		this.pending = new AtomicReferenceArray<>(slots);
+		List<String> arguments = new ArrayList<>(command);
+		try {
+			for (int slot = 0; slot < slots; slot++) {
+				Path file = directory.resolve(name + "-" + slot);
+				files.add(file);
+				buffers[slot] = SharedBuffer.create(file, bufferBytes);
+				arguments.add(file.toString());
+				freeSlots.add(slot);
+			}
+			process = new ProcessBuilder(arguments).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		} catch (IOException e) {
+			closeBuffers();
+			throw e;
+		}
+		control = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+		reader = new Thread(this::read, name + "-reader");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	String getName() {
+		return name;
+	}
+
+	boolean isAlive() {
+		return alive;
+	}
+
+	/**
+	 * Waits for the worker to have loaded the SDK class.
+	 */
+	boolean awaitReady(long timeoutMillis) throws InterruptedException {
+		return await(pong.get(), timeoutMillis);
+	}
+
+	/**
+	 * Checks that the worker answers within the given time.
+	 */
+	boolean ping(long timeoutMillis) throws InterruptedException {
+		CompletableFuture<Void> answer = new CompletableFuture<>();
+		pong.set(answer);
+		try {
+			send(WorkerMain.PING, WorkerOperation.INIT, 0, 0);
+		} catch (IOException e) {
+			return false;
+		}
+		return await(answer, timeoutMillis);
+	}
+
+	private static boolean await(CompletableFuture<Void> answer, long timeoutMillis) throws InterruptedException {
+		try {
+			answer.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Takes a free call slot.
+	 *
+	 * @return the slot, or {@code null} if none is free or the worker exited.
+	 */
+	Integer tryAcquire() {
+		return alive ? freeSlots.poll() : null;
+	}
+
+	/**
+	 * Runs an operation in a slot taken by {@link #tryAcquire()}, and frees the
+	 * slot once the worker is done with it.
+	 *
+	 * @param slot      the slot.
+	 * @param operation the operation.
+	 * @param instance  the SDK instance.
+	 * @param args      the arguments of the operation.
+	 * @return the result of the operation.
+	 * @throws BioSDKException if the SDK threw an exception, or the worker exited
+	 *                         or cannot be reached.
+	 */
+	Object call(int slot, WorkerOperation operation, int instance, Object[] args) {
+		CompletableFuture<Reply> reply = new CompletableFuture<>();
+		boolean sent = false;
+		try {
+			SharedBuffer buffer = buffers[slot];
+			SharedBuffer.Output out = buffer.output();
+			WorkerCodec.writeArguments(out, operation, args);
+			pending.set(slot, reply);
+			if (!alive) {
+				throw failure(operation, "worker " + name + " exited");
+			}
+			send(slot, operation, instance, out.size());
+			sent = true;
+			Reply result = reply.get();
+			ByteBuffer in = buffer.input(result.length());
+			if (result.status() == WorkerMain.OK) {
+				return WorkerCodec.readResult(in, operation.resultType());
+			}
+			throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(),
+					ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage() + ": " + WorkerCodec.readError(in));
+		} catch (IOException e) {
+			throw failure(operation, "worker " + name + " cannot be reached: " + e);
+		} catch (ExecutionException e) {
+			throw failure(operation, e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw failure(operation, "interrupted");
+		} finally {
+			if (!sent || reply.isDone()) {
+				release(slot);
+			} else {
+				reply.whenComplete((result, e) -> release(slot));
+			}
+		}
+	}
+
+	private void release(int slot) {
+		pending.set(slot, null);
+		freeSlots.offer(slot);
+	}
+
+	private void send(int slot, WorkerOperation operation, int instance, int length) throws IOException {
+		synchronized (control) {
+			control.writeInt(slot);
+			control.writeByte(operation.ordinal());
+			control.writeInt(instance);
+			control.writeInt(length);
+			control.flush();
+		}
+	}
+
+	private void read() {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()))) {
+			while (true) {
+				int slot = in.readInt();
+				Reply reply = new Reply(in.readByte(), in.readInt());
+				if (slot == WorkerMain.PING) {
+					pong.get().complete(null);
+				} else {
+					CompletableFuture<Reply> call = pending.get(slot);
+					if (call != null) {
+						call.complete(reply);
+					}
+				}
+			}
+		} catch (IOException e) {
+			exited();
+		}
+	}
+
+	private void exited() {
+		alive = false;
+		process.destroyForcibly();
+		String exitCode;
+		try {
+			exitCode = process.waitFor(1, TimeUnit.SECONDS) ? String.valueOf(process.exitValue()) : "unknown";
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			exitCode = "unknown";
+		}
+		String reason = killReason != null ? killReason : "exited";
+		IllegalStateException cause = new IllegalStateException(
+				"worker " + name + " " + reason + ", exit code " + exitCode);
+		for (int slot = 0; slot < buffers.length; slot++) {
+			CompletableFuture<Reply> call = pending.get(slot);
+			if (call != null) {
+				call.completeExceptionally(cause);
+			}
+		}
+		pong.get().completeExceptionally(cause);
+		closeBuffers();
+		if (!stopped) {
+			logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, "worker", cause.getMessage());
+			onExit.accept(this, reason);
+		}
+	}
+
+	/**
+	 * Kills the worker, e.g. when it does not answer; the pool is told once it
+	 * exited.
+	 */
+	void kill(String reason) {
+		killReason = reason;
+		process.destroyForcibly();
+	}
+
+	/**
+	 * Stops the worker: its standard input is closed and it is killed if it does
+	 * not exit within the given time. Returns once its buffers are deleted.
+	 */
+	void stop(long timeoutMillis) {
+		stopped = true;
+		try {
+			synchronized (control) {
+				control.close();
+			}
+		} catch (IOException e) {
+			// exited already
+		}
+		try {
+			if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				process.destroyForcibly();
+			}
+			reader.join(timeoutMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			process.destroyForcibly();
+		}
+	}
+
+	private void closeBuffers() {
+		for (int slot = 0; slot < files.size(); slot++) {
+			try {
+				if (buffers[slot] != null) {
+					buffers[slot].close();
+				}
+				Files.deleteIfExists(files.get(slot));
+			} catch (IOException e) {
+				logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, "worker", "cannot delete " + files.get(slot) + ": " + e);
+			}
+		}
+	}
+
+	private static BioSDKException failure(WorkerOperation operation, String detail) {
+		return new BioSDKException(ErrorMessages.SDK_WORKER_FAILURE.toString(),
+				ErrorMessages.SDK_WORKER_FAILURE.getMessage() + ": " + operation.operation() + ": " + detail);
+	}
+}
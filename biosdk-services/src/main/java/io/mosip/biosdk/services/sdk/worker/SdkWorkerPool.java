@@ -0,0 +1,489 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.lang3.StringUtils;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.config.SdkWorkerProperties;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.core.logger.spi.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * A pool of child JVMs running {@code biosdk_bioapi_impl} out of the service
+ * process, when {@code mosip.biosdk.worker.enabled} is set, so that a vendor
+ * SDK that crashes its JVM, stalls its garbage collector or pins its threads
+ * does not take the service down with it.
+ * <p>
+ * The workers are started with the JVM and class path of the service, or
+ * through the Spring Boot launcher with the same {@code loader.path} when the
+ * service runs from its jar. Each worker hosts the SDK instances of the
+ * {@link WorkerBioApi} handles created by {@link #newBioApi()}: {@code init}
+ * runs on every worker, and is replayed on a worker restarted after a crash,
+ * while the other calls go to the next worker with a free slot. Payloads pass
+ * through memory-mapped files in {@code mosip.biosdk.worker.shared-directory}
+ * rather than through sockets.
+ * </p>
+ * <p>
+ * Every {@code mosip.biosdk.worker.health-interval-ms} each worker must answer
+ * a health check within {@code mosip.biosdk.worker.health-timeout-ms}, or it is
+ * killed. A worker that exited is restarted after
+ * {@code mosip.biosdk.worker.restart-delay-ms}; the calls it was running fail
+ * with {@code SDK_WORKER_FAILURE}. The workers are stopped before a CRaC
+ * checkpoint and started again on restore.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class SdkWorkerPool implements Resource {
+	private static final String WORKER = "worker";
+	private static final String LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+	private static final long STOP_TIMEOUT_MILLIS = 2000;
+	private static final long SLOT_POLL_MILLIS = 10;
+
+	private Logger logger = LoggerConfig.logConfig(SdkWorkerPool.class);
+
+	private final SdkWorkerProperties properties;
+	private final Environment env;
+	private final BioSdkMetrics metrics;
+	private final AtomicInteger instances = new AtomicInteger();
+	private final AtomicInteger generations = new AtomicInteger();
+	private final AtomicInteger next = new AtomicInteger();
+	/**
+	 * Init parameters by SDK instance, replayed on restarted workers; guards the
+	 * publication of workers.
+	 */
+	private final Map<Integer, Map<String, String>> initParams = new LinkedHashMap<>();
+	private final ExecutorService executor;
+	private AtomicReferenceArray<SdkWorker> workers;
+	private Semaphore permits;
+	private ScheduledExecutorService scheduler;
+	private volatile boolean started;
+	private boolean restartAfterRestore;
+
+	/**
+	 * Constructs a new {@code SdkWorkerPool}.
+	 *
+	 * @param properties the worker configuration.
+	 * @param env        the environment, with the SDK class and the properties
+	 *                   forwarded to the workers.
+	 * @param metrics    the service metrics.
+	 */
+	@Autowired
+	public SdkWorkerPool(SdkWorkerProperties properties, Environment env, BioSdkMetrics metrics) {
+		this.properties = properties;
+		this.env = env;
+		this.metrics = metrics;
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "biosdk-worker-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Registers the pool with the CRaC global context, a no-op on a JVM without
+	 * CRaC support.
+	 */
+	@PostConstruct
+	public void registerCheckpointResource() {
+		Core.getGlobalContext().register(this);
+	}
+
+	@Override
+	public synchronized void beforeCheckpoint(Context<? extends Resource> context) {
+		restartAfterRestore = started;
+		stop();
+	}
+
+	@Override
+	public synchronized void afterRestore(Context<? extends Resource> context) {
+		if (restartAfterRestore) {
+			restartAfterRestore = false;
+			start();
+		}
+	}
+
+	/**
+	 * Returns whether SDK calls run in worker processes.
+	 *
+	 * @return {@code true} if {@code mosip.biosdk.worker.enabled} is set.
+	 */
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	/**
+	 * Creates a new SDK instance in the workers, starting them if needed.
+	 *
+	 * @return a new, uninitialised handle of the instance.
+	 * @throws BioSDKException if the workers cannot be started.
+	 */
+	public WorkerBioApi newBioApi() {
+		start();
+		return new WorkerBioApi(this, instances.incrementAndGet(), sdkClass());
+	}
+
+	private String sdkClass() {
+		return env.getProperty("biosdk_bioapi_impl");
+	}
+
+	private synchronized void start() {
+		if (started) {
+			return;
+		}
+		int size = properties.getWorkers();
+		workers = new AtomicReferenceArray<>(size);
+		permits = new Semaphore(size * properties.getConcurrency());
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "biosdk-worker-health");
+			thread.setDaemon(true);
+			return thread;
+		});
+		started = true;
+		try {
+			List<CompletableFuture<Void>> launches = new ArrayList<>();
+			for (int index = 0; index < size; index++) {
+				int worker = index;
+				launches.add(CompletableFuture.runAsync(() -> launchAndPublish(worker), executor));
+			}
+			CompletableFuture.allOf(launches.toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException e) {
+			stop();
+			throw e.getCause() instanceof BioSDKException cause ? cause : failure("cannot start workers: " + e);
+		}
+		scheduler.scheduleWithFixedDelay(this::checkHealth, properties.getHealthIntervalMs(),
+				properties.getHealthIntervalMs(), TimeUnit.MILLISECONDS);
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WORKER, size + " workers started for " + sdkClass());
+	}
+
+	/**
+	 * Stops the workers; they are started again by the next new instance.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (!started) {
+			return;
+		}
+		started = false;
+		scheduler.shutdownNow();
+		for (int index = 0; index < workers.length(); index++) {
+			SdkWorker worker = workers.getAndSet(index, null);
+			if (worker != null) {
+				worker.stop(STOP_TIMEOUT_MILLIS);
+			}
+		}
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WORKER, "workers stopped");
+	}
+
+	/**
+	 * Starts a worker and waits for it to be ready.
+	 */
+	private SdkWorker launch(int index) {
+		String name = "biosdk-worker-" + ProcessHandle.current().pid() + "-" + index + "-"
+				+ generations.incrementAndGet();
+		long start = System.nanoTime();
+		SdkWorker worker;
+		try {
+			Path directory = Path.of(properties.getSharedDirectory());
+			if (!Files.isDirectory(directory)) {
+				directory = Path.of(System.getProperty("java.io.tmpdir"));
+			}
+			worker = new SdkWorker(name, command(), directory, properties.getConcurrency(), properties.getBufferBytes(),
+					(exited, reason) -> exited(index, exited, reason));
+			if (!worker.awaitReady(properties.getStartTimeoutMs())) {
+				worker.stop(0);
+				throw failure("worker " + name + " not ready in " + properties.getStartTimeoutMs() + " ms");
+			}
+		} catch (IOException e) {
+			throw failure("cannot start worker " + name + ": " + e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw failure("interrupted starting worker " + name);
+		}
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WORKER,
+				"worker " + name + " ready in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		return worker;
+	}
+
+	private void launchAndPublish(int index) {
+		SdkWorker worker = launch(index);
+		try {
+			publish(index, worker);
+		} catch (RuntimeException e) {
+			worker.stop(0);
+			throw e;
+		}
+	}
+
+	/**
+	 * Initialises the instances on a new worker and makes it take calls.
+	 */
+	private void publish(int index, SdkWorker worker) {
+		synchronized (initParams) {
+			if (!started) {
+				throw failure("workers stopped");
+			}
+			for (Map.Entry<Integer, Map<String, String>> entry : initParams.entrySet()) {
+				callOn(worker, entry.getKey(), WorkerOperation.INIT, entry.getValue());
+			}
+			workers.set(index, worker);
+		}
+	}
+
+	private void exited(int index, SdkWorker worker, String reason) {
+		metrics.recordWorkerRestart(reason);
+		if (started && workers.get(index) == worker) {
+			scheduler.schedule(() -> restart(index, worker), properties.getRestartDelayMs(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void restart(int index, SdkWorker exited) {
+		if (!started || workers.get(index) != exited) {
+			return;
+		}
+		try {
+			launchAndPublish(index);
+		} catch (RuntimeException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, WORKER, "cannot restart worker " + index + ": " + e);
+			if (started) {
+				scheduler.schedule(() -> restart(index, exited), properties.getRestartDelayMs(), TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private void checkHealth() {
+		for (int index = 0; index < workers.length(); index++) {
+			SdkWorker worker = workers.get(index);
+			try {
+				if (worker != null && worker.isAlive() && !worker.ping(properties.getHealthTimeoutMs())) {
+					logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, WORKER, "worker " + worker.getName()
+							+ " did not answer in " + properties.getHealthTimeoutMs() + " ms, killing it");
+					worker.kill("unresponsive");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Initialises an SDK instance on every worker.
+	 */
+	SDKInfo init(int instance, Map<String, String> params) {
+		Map<String, String> copy = params == null ? Collections.emptyMap() : new HashMap<>(params);
+		synchronized (initParams) {
+			initParams.put(instance, copy);
+			List<CompletableFuture<Object>> inits = new ArrayList<>();
+			for (int index = 0; index < workers.length(); index++) {
+				SdkWorker worker = workers.get(index);
+				if (worker != null && worker.isAlive()) {
+					inits.add(CompletableFuture.supplyAsync(() -> callOn(worker, instance, WorkerOperation.INIT, copy),
+							executor));
+				}
+			}
+			if (inits.isEmpty()) {
+				throw failure("no worker running");
+			}
+			try {
+				SDKInfo info = (SDKInfo) inits.get(0).join();
+				CompletableFuture.allOf(inits.toArray(new CompletableFuture[0])).join();
+				return info;
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+		}
+	}
+
+	/**
+	 * Discards an SDK instance from the workers.
+	 */
+	void release(int instance) {
+		synchronized (initParams) {
+			initParams.remove(instance);
+		}
+		if (!started) {
+			return;
+		}
+		for (int index = 0; index < workers.length(); index++) {
+			SdkWorker worker = workers.get(index);
+			if (worker != null && worker.isAlive()) {
+				try {
+					callOn(worker, instance, WorkerOperation.RELEASE);
+				} catch (BioSDKException e) {
+					logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, WORKER,
+							"cannot release instance " + instance + " from " + worker.getName() + ": " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs an operation of an SDK instance on the next worker with a free slot,
+	 * waiting for one if all are busy.
+	 */
+	Object call(int instance, WorkerOperation operation, Object... args) {
+		if (!started) {
+			throw failure("workers are not running");
+		}
+		long waitStart = System.nanoTime();
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw failure("interrupted waiting for a worker");
+		}
+		try {
+			long deadline = waitStart + TimeUnit.MILLISECONDS.toNanos(properties.getStartTimeoutMs());
+			int size = workers.length();
+			while (true) {
+				int first = Math.floorMod(next.getAndIncrement(), size);
+				for (int i = 0; i < size; i++) {
+					SdkWorker worker = workers.get((first + i) % size);
+					Integer slot = worker == null ? null : worker.tryAcquire();
+					if (slot != null) {
+						metrics.recordWorkerWait(System.nanoTime() - waitStart);
+						return callInSlot(worker, slot, instance, operation, args);
+					}
+				}
+				if (System.nanoTime() > deadline) {
+					throw failure("no worker available");
+				}
+				Thread.sleep(SLOT_POLL_MILLIS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw failure("interrupted waiting for a worker");
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Runs an operation on a given worker, waiting for one of its slots.
+	 */
+	private Object callOn(SdkWorker worker, int instance, WorkerOperation operation, Object... args) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getStartTimeoutMs());
+		Integer slot;
+		while ((slot = worker.tryAcquire()) == null) {
+			if (!worker.isAlive() || System.nanoTime() > deadline) {
+				throw failure("worker " + worker.getName() + " not available");
+			}
+			try {
+				Thread.sleep(SLOT_POLL_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw failure("interrupted waiting for worker " + worker.getName());
+			}
+		}
+		return callInSlot(worker, slot, instance, operation, args);
+	}
+
+	private Object callInSlot(SdkWorker worker, int slot, int instance, WorkerOperation operation, Object[] args) {
+		long start = System.nanoTime();
+		String outcome = "success";
+		try {
+			return worker.call(slot, operation, instance, args);
+		} catch (BioSDKException e) {
+			outcome = ErrorMessages.SDK_WORKER_FAILURE.toString().equals(e.getErrorCode()) ? "failure" : "error";
+			throw e;
+		} finally {
+			metrics.recordWorkerCall(operation.operation(), outcome, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Returns the command starting a worker for the SDK class.
+	 */
+	private List<String> command() {
+		List<String> command = new ArrayList<>();
+		command.add(ProcessHandle.current().info().command()
+				.orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+		command.addAll(properties.getJvmOptions());
+		forwardedProperties().forEach((name, value) -> command.add("-D" + name + "=" + value));
+		String classPath = System.getProperty("java.class.path");
+		command.add("-cp");
+		command.add(classPath);
+		if (isLauncherJar(classPath)) {
+			command.add("-Dloader.main=" + WorkerMain.class.getName());
+			String loaderPath = env.getProperty("loader.path");
+			if (StringUtils.isNotBlank(loaderPath)) {
+				command.add("-Dloader.path=" + loaderPath);
+			}
+			command.add(LAUNCHER);
+		} else {
+			command.add(WorkerMain.class.getName());
+		}
+		command.add(sdkClass());
+		return command;
+	}
+
+	private static boolean isLauncherJar(String classPath) {
+		return classPath.endsWith(".jar") && !classPath.contains(File.pathSeparator)
+				&& ClassLoader.getSystemClassLoader().getResource(LAUNCHER.replace('.', '/') + ".class") != null;
+	}
+
+	private Map<String, String> forwardedProperties() {
+		Map<String, String> forwarded = new LinkedHashMap<>();
+		if (env instanceof ConfigurableEnvironment configurable) {
+			TreeSet<String> names = new TreeSet<>();
+			for (PropertySource<?> source : configurable.getPropertySources()) {
+				if (source instanceof EnumerablePropertySource<?> enumerable) {
+					for (String name : enumerable.getPropertyNames()) {
+						if (properties.getForwardedProperties().stream().anyMatch(name::startsWith)) {
+							names.add(name);
+						}
+					}
+				}
+			}
+			for (String name : names) {
+				forwarded.put(name, env.getProperty(name));
+			}
+		}
+		return forwarded;
+	}
+
+	private static BioSDKException failure(String detail) {
+		return new BioSDKException(ErrorMessages.SDK_WORKER_FAILURE.toString(),
+				ErrorMessages.SDK_WORKER_FAILURE.getMessage() + ": " + detail);
+	}
+}
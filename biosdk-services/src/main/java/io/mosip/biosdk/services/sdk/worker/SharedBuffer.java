@@ -0,0 +1,119 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * A file mapped in memory by the service and by a worker process, through
+ * which the payload of a call and then its result are passed.
+ * <p>
+ * Only one side uses the buffer at a time, taking turns through the control
+ * frames of the worker pipes, which also order the writes to the mapping. The
+ * writer grows the file when a payload does not fit; the reader maps the
+ * larger file when it is told a longer payload. The file is only readable by
+ * the user running the service, since payloads hold biometric data.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class SharedBuffer implements Closeable {
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+	private final FileChannel channel;
+	private MappedByteBuffer buffer;
+
+	private SharedBuffer(FileChannel channel, int capacity) throws IOException {
+		this.channel = channel;
+		this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+	}
+
+	/**
+	 * Creates the file of a new buffer.
+	 */
+	static SharedBuffer create(Path file, int capacity) throws IOException {
+		Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		FileAttribute<?>[] attributes = file.getFileSystem().supportedFileAttributeViews().contains("posix")
+				? new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(OWNER_ONLY) }
+				: new FileAttribute<?>[0];
+		return new SharedBuffer(FileChannel.open(file, options, attributes), capacity);
+	}
+
+	/**
+	 * Maps the file of a buffer created by the other side.
+	 */
+	static SharedBuffer open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		return new SharedBuffer(channel, (int) channel.size());
+	}
+
+	/**
+	 * Returns a stream writing a payload from the start of the buffer.
+	 */
+	Output output() {
+		return new Output();
+	}
+
+	/**
+	 * Returns the payload of the given length at the start of the buffer.
+	 */
+	ByteBuffer input(int length) throws IOException {
+		if (length > buffer.capacity()) {
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(length, channel.size()));
+		}
+		return buffer.slice(0, length);
+	}
+
+	private void ensureCapacity(int capacity) throws IOException {
+		if (capacity < 0) {
+			throw new IOException("Payload larger than 2 GiB");
+		}
+		if (capacity > buffer.capacity()) {
+			long grown = Math.min(Integer.MAX_VALUE, Math.max(capacity, 2L * buffer.capacity()));
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, grown);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Stream writing a payload into the buffer.
+	 */
+	final class Output extends OutputStream {
+		private int size;
+
+		/**
+		 * Returns the number of bytes written.
+		 */
+		int size() {
+			return size;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureCapacity(size + 1);
+			buffer.put(size++, (byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ensureCapacity(size + len);
+			buffer.put(size, b, off, len);
+			size += len;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import java.util.List;
+import java.util.Map;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * An SDK instance hosted by the processes of a {@link SdkWorkerPool}.
+ * <p>
+ * Calls are made on a worker with a free slot; {@code init} is made on every
+ * worker. A call the SDK fails, or that cannot complete because its worker
+ * exited, throws a {@link io.mosip.biosdk.services.exceptions.BioSDKException}.
+ * Closing the instance discards it from the workers.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class WorkerBioApi implements IBioApiV2, AutoCloseable {
+	private final SdkWorkerPool pool;
+	private final int instance;
+	private final String sdkClass;
+
+	WorkerBioApi(SdkWorkerPool pool, int instance, String sdkClass) {
+		this.pool = pool;
+		this.instance = instance;
+		this.sdkClass = sdkClass;
+	}
+
+	/**
+	 * Returns the SDK class run by the workers.
+	 *
+	 * @return the class name.
+	 */
+	public String getSdkClass() {
+		return sdkClass;
+	}
+
+	/**
+	 * Returns the class of an SDK instance, or the class run by the workers for
+	 * a {@code WorkerBioApi}.
+	 *
+	 * @param sdk the SDK instance.
+	 * @return the class name.
+	 */
+	public static String sdkClassOf(IBioApiV2 sdk) {
+		return sdk instanceof WorkerBioApi worker ? worker.getSdkClass() : sdk.getClass().getName();
+	}
+
+	@Override
+	public SDKInfo init(Map<String, String> initParams) {
+		return pool.init(instance, initParams);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+			Map<String, String> flags) {
+		return (Response<QualityCheck>) pool.call(instance, WorkerOperation.CHECK_QUALITY, sample, modalitiesToCheck,
+				flags);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+			List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+		return (Response<MatchDecision[]>) pool.call(instance, WorkerOperation.MATCH, sample, gallery,
+				modalitiesToMatch, flags);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+			Map<String, String> flags) {
+		return (Response<BiometricRecord>) pool.call(instance, WorkerOperation.EXTRACT_TEMPLATE, sample,
+				modalitiesToExtract, flags);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+			Map<String, String> flags) {
+		return (Response<BiometricRecord>) pool.call(instance, WorkerOperation.SEGMENT, sample, modalitiesToSegment,
+				flags);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		return (Response<BiometricRecord>) pool.call(instance, WorkerOperation.CONVERT_FORMAT_V2, sample,
+				sourceFormat, targetFormat, sourceParams, targetParams, modalitiesToConvert);
+	}
+
+	/**
+	 * @deprecated use {@link #convertFormatV2}.
+	 */
+	@Deprecated(forRemoval = true)
+	@Override
+	@SuppressWarnings({ "removal" })
+	public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		return (BiometricRecord) pool.call(instance, WorkerOperation.CONVERT_FORMAT, sample, sourceFormat,
+				targetFormat, sourceParams, targetParams, modalitiesToConvert);
+	}
+
+	@Override
+	public void close() {
+		pool.release(instance);
+	}
+
+	@Override
+	public String toString() {
+		return "WorkerBioApi[" + sdkClass + "#" + instance + "]";
+	}
+}
@@ -0,0 +1,178 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Encoding of the arguments and results of the {@link WorkerOperation}s in the
+ * shared buffers: JSON streamed straight to and from the mapped memory,
+ * followed by the byte arrays, such as the biometric data blocks, which are
+ * copied as they are rather than written in Base64. The JSON holds the index
+ * of each byte array, and the payload ends with the length of the JSON:
+ *
+ * <pre>
+ * JSON | length, bytes | ... | length of the JSON
+ * </pre>
+ *
+ * @since 1.2.1
+ */
+final class WorkerCodec {
+	private static final Gson GSON = new GsonBuilder().serializeNulls()
+			.registerTypeAdapter(byte[].class, new BytesAdapter().nullSafe()).create();
+
+	/**
+	 * The byte arrays of the payload being written or read by the thread.
+	 */
+	private static final ThreadLocal<List<byte[]>> BYTES = new ThreadLocal<>();
+
+	private WorkerCodec() {
+		throw new IllegalStateException("WorkerCodec class");
+	}
+
+	private interface JsonWrite {
+		void write(JsonWriter writer) throws IOException;
+	}
+
+	private interface JsonRead<T> {
+		T read(JsonReader reader) throws IOException;
+	}
+
+	static void writeArguments(OutputStream out, WorkerOperation operation, Object[] args) throws IOException {
+		Type[] types = operation.parameterTypes();
+		write(out, writer -> {
+			writer.beginArray();
+			for (int i = 0; i < types.length; i++) {
+				GSON.toJson(args[i], types[i], writer);
+			}
+			writer.endArray();
+		});
+	}
+
+	static Object[] readArguments(ByteBuffer in, WorkerOperation operation) throws IOException {
+		Type[] types = operation.parameterTypes();
+		return read(in, reader -> {
+			Object[] args = new Object[types.length];
+			reader.beginArray();
+			for (int i = 0; i < types.length; i++) {
+				args[i] = GSON.fromJson(reader, types[i]);
+			}
+			reader.endArray();
+			return args;
+		});
+	}
+
+	static void writeResult(OutputStream out, Type type, Object result) throws IOException {
+		write(out, writer -> GSON.toJson(result, type, writer));
+	}
+
+	static Object readResult(ByteBuffer in, Type type) throws IOException {
+		return read(in, reader -> GSON.fromJson(reader, type));
+	}
+
+	static void writeError(OutputStream out, String message) throws IOException {
+		out.write(message.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static String readError(ByteBuffer in) {
+		return StandardCharsets.UTF_8.decode(in).toString();
+	}
+
+	private static void write(OutputStream out, JsonWrite body) throws IOException {
+		List<byte[]> bytes = new ArrayList<>();
+		BYTES.set(bytes);
+		try {
+			DataOutputStream data = new DataOutputStream(out);
+			JsonWriter writer = GSON.newJsonWriter(new OutputStreamWriter(data, StandardCharsets.UTF_8));
+			body.write(writer);
+			writer.flush();
+			int jsonLength = data.size();
+			for (byte[] value : bytes) {
+				data.writeInt(value.length);
+				data.write(value);
+			}
+			data.writeInt(jsonLength);
+			data.flush();
+		} finally {
+			BYTES.remove();
+		}
+	}
+
+	private static <T> T read(ByteBuffer in, JsonRead<T> body) throws IOException {
+		int end = in.limit() - Integer.BYTES;
+		int jsonLength = in.getInt(end);
+		List<byte[]> bytes = new ArrayList<>();
+		for (int position = jsonLength; position < end;) {
+			byte[] value = new byte[in.getInt(position)];
+			in.get(position + Integer.BYTES, value);
+			bytes.add(value);
+			position += Integer.BYTES + value.length;
+		}
+		BYTES.set(bytes);
+		try {
+			return body.read(GSON.newJsonReader(
+					new InputStreamReader(new ByteBufferInput(in.slice(0, jsonLength)), StandardCharsets.UTF_8)));
+		} finally {
+			BYTES.remove();
+		}
+	}
+
+	private static final class BytesAdapter extends TypeAdapter<byte[]> {
+		@Override
+		public void write(JsonWriter out, byte[] value) throws IOException {
+			List<byte[]> bytes = BYTES.get();
+			out.value(bytes.size());
+			bytes.add(value);
+		}
+
+		@Override
+		public byte[] read(JsonReader in) throws IOException {
+			return BYTES.get().get(in.nextInt());
+		}
+	}
+
+	private static final class ByteBufferInput extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInput(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, buffer.remaining());
+			buffer.get(b, off, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.StandardEnvironment;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Entry point of an SDK worker process, started by {@link SdkWorker}.
+ * <p>
+ * The process is given the SDK class and the files of its call slots. It reads
+ * the control frames of the calls on its standard input, runs each call on a
+ * thread of its own, one per slot, and writes a control frame on its standard
+ * output once the result is in the slot buffer. Anything the SDK prints goes
+ * to the standard error, which the service inherits. The process exits when
+ * its standard input is closed, and on any {@link Error} thrown by the SDK,
+ * since its state can no longer be trusted.
+ * </p>
+ * <p>
+ * A frame to the worker is the slot, the ordinal of the
+ * {@link WorkerOperation}, the SDK instance and the length of the payload; a
+ * frame from the worker is the slot, a status and the length of the result.
+ * {@link #PING} frames are answered at once by the thread reading the frames,
+ * which shows the process is responsive even while every slot is busy; the
+ * first one is sent unasked once the SDK class is loaded.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class WorkerMain {
+	/** Slot of the health check frames. */
+	static final int PING = -1;
+	/** Status of a result. */
+	static final byte OK = 0;
+	/** Status of an error message. */
+	static final byte ERROR = 1;
+
+	private Logger logger = LoggerConfig.logConfig(WorkerMain.class);
+
+	private final Class<?> sdkClass;
+	private final SharedBuffer[] buffers;
+	private final DataOutputStream control;
+	private final Map<Integer, IBioApiV2> sdks = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+
+	private WorkerMain(Class<?> sdkClass, SharedBuffer[] buffers, DataOutputStream control) {
+		this.sdkClass = sdkClass;
+		this.buffers = buffers;
+		this.control = control;
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(buffers.length, runnable -> {
+			Thread thread = new Thread(runnable, "biosdk-worker-call-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Runs a worker.
+	 *
+	 * @param args the SDK class, then the buffer file of each slot.
+	 * @throws Exception if the SDK class or a buffer cannot be loaded.
+	 */
+	public static void main(String[] args) throws Exception {
+		DataOutputStream control = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+		System.setOut(System.err);
+		Class<?> sdkClass = Class.forName(args[0]);
+		SharedBuffer[] buffers = new SharedBuffer[args.length - 1];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = SharedBuffer.open(Path.of(args[i + 1]));
+		}
+		new WorkerMain(sdkClass, buffers, control).serve(new DataInputStream(new BufferedInputStream(System.in)));
+		System.exit(0);
+	}
+
+	private void serve(DataInputStream in) throws IOException {
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "worker",
+				"serving " + sdkClass.getName() + " with " + buffers.length + " slots");
+		reply(PING, OK, 0);
+		while (true) {
+			int slot;
+			try {
+				slot = in.readInt();
+			} catch (EOFException e) {
+				return;
+			}
+			WorkerOperation operation = WorkerOperation.values()[in.readByte()];
+			int instance = in.readInt();
+			int length = in.readInt();
+			if (slot == PING) {
+				reply(PING, OK, 0);
+			} else {
+				executor.execute(() -> handle(slot, operation, instance, length));
+			}
+		}
+	}
+
+	private void handle(int slot, WorkerOperation operation, int instance, int length) {
+		SharedBuffer buffer = buffers[slot];
+		try {
+			byte status;
+			SharedBuffer.Output out;
+			try {
+				Object[] args = WorkerCodec.readArguments(buffer.input(length), operation);
+				Object result = operation == WorkerOperation.RELEASE ? release(instance)
+						: operation.call(sdk(operation, instance), args);
+				out = buffer.output();
+				WorkerCodec.writeResult(out, operation.resultType(), result);
+				status = OK;
+			} catch (Exception e) {
+				out = buffer.output();
+				WorkerCodec.writeError(out, e.toString());
+				status = ERROR;
+			}
+			reply(slot, status, out.size());
+		} catch (IOException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "worker", "cannot answer call: " + e);
+			Runtime.getRuntime().halt(1);
+		} catch (Error e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "worker", operation.operation() + " failed: " + e);
+			Runtime.getRuntime().halt(1);
+		}
+	}
+
+	private IBioApiV2 sdk(WorkerOperation operation, int instance) {
+		IBioApiV2 sdk = operation == WorkerOperation.INIT ? sdks.computeIfAbsent(instance, i -> newSdk())
+				: sdks.get(instance);
+		if (sdk == null) {
+			throw new IllegalStateException("SDK instance " + instance + " is not initialised");
+		}
+		return sdk;
+	}
+
+	private IBioApiV2 newSdk() {
+		try {
+			IBioApiV2 sdk = (IBioApiV2) sdkClass.getDeclaredConstructor().newInstance();
+			if (sdk instanceof EnvironmentAware environmentAware) {
+				environmentAware.setEnvironment(new StandardEnvironment());
+			}
+			return sdk;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot create SDK " + sdkClass.getName() + ": " + e, e);
+		}
+	}
+
+	private Object release(int instance) throws Exception {
+		IBioApiV2 sdk = sdks.remove(instance);
+		if (sdk instanceof AutoCloseable closeable) {
+			closeable.close();
+		}
+		return null;
+	}
+
+	private void reply(int slot, byte status, int length) throws IOException {
+		synchronized (control) {
+			control.writeInt(slot);
+			control.writeByte(status);
+			control.writeInt(length);
+			control.flush();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.reflect.TypeToken;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * The operations a worker process runs on its SDK instances, with the types of
+ * their arguments and result as they are encoded in the shared buffers.
+ *
+ * @since 1.2.1
+ */
+enum WorkerOperation {
+	/** {@code init}, also creating the instance in the worker. */
+	INIT("init", SDKInfo.class, Types.PARAMS),
+	/** {@code checkQuality}. */
+	CHECK_QUALITY("checkQuality", Types.response(QualityCheck.class), BiometricRecord.class, Types.MODALITIES,
+			Types.PARAMS),
+	/** {@code match}. */
+	MATCH("match", Types.response(MatchDecision[].class), BiometricRecord.class, BiometricRecord[].class,
+			Types.MODALITIES, Types.PARAMS),
+	/** {@code extractTemplate}. */
+	EXTRACT_TEMPLATE("extractTemplate", Types.response(BiometricRecord.class), BiometricRecord.class,
+			Types.MODALITIES, Types.PARAMS),
+	/** {@code segment}. */
+	SEGMENT("segment", Types.response(BiometricRecord.class), BiometricRecord.class, Types.MODALITIES,
+			Types.PARAMS),
+	/** {@code convertFormatV2}. */
+	CONVERT_FORMAT_V2("convertFormat", Types.response(BiometricRecord.class), BiometricRecord.class, String.class,
+			String.class, Types.PARAMS, Types.PARAMS, Types.MODALITIES),
+	/** The deprecated {@code convertFormat}. */
+	CONVERT_FORMAT("convertFormat", BiometricRecord.class, BiometricRecord.class, String.class, String.class,
+			Types.PARAMS, Types.PARAMS, Types.MODALITIES),
+	/** Discards an instance. */
+	RELEASE("release", Void.class);
+
+	private final String operation;
+	private final Type resultType;
+	private final Type[] parameterTypes;
+
+	WorkerOperation(String operation, Type resultType, Type... parameterTypes) {
+		this.operation = operation;
+		this.resultType = resultType;
+		this.parameterTypes = parameterTypes;
+	}
+
+	/**
+	 * Returns the name of the SDK operation, as used in the metrics.
+	 */
+	String operation() {
+		return operation;
+	}
+
+	Type resultType() {
+		return resultType;
+	}
+
+	Type[] parameterTypes() {
+		return parameterTypes;
+	}
+
+	/**
+	 * Calls the operation on an SDK instance; not used for {@link #RELEASE}.
+	 */
+	@SuppressWarnings({ "unchecked", "removal" })
+	Object call(IBioApiV2 sdk, Object[] args) {
+		return switch (this) {
+		case INIT -> sdk.init((Map<String, String>) args[0]);
+		case CHECK_QUALITY -> sdk.checkQuality((BiometricRecord) args[0], (List<BiometricType>) args[1],
+				(Map<String, String>) args[2]);
+		case MATCH -> sdk.match((BiometricRecord) args[0], (BiometricRecord[]) args[1], (List<BiometricType>) args[2],
+				(Map<String, String>) args[3]);
+		case EXTRACT_TEMPLATE -> sdk.extractTemplate((BiometricRecord) args[0], (List<BiometricType>) args[1],
+				(Map<String, String>) args[2]);
+		case SEGMENT -> sdk.segment((BiometricRecord) args[0], (List<BiometricType>) args[1],
+				(Map<String, String>) args[2]);
+		case CONVERT_FORMAT_V2 -> sdk.convertFormatV2((BiometricRecord) args[0], (String) args[1], (String) args[2],
+				(Map<String, String>) args[3], (Map<String, String>) args[4], (List<BiometricType>) args[5]);
+		case CONVERT_FORMAT -> sdk.convertFormat((BiometricRecord) args[0], (String) args[1], (String) args[2],
+				(Map<String, String>) args[3], (Map<String, String>) args[4], (List<BiometricType>) args[5]);
+		case RELEASE -> throw new IllegalStateException("release is not an SDK call");
+		};
+	}
+
+	private static final class Types {
+		static final Type PARAMS = new TypeToken<Map<String, String>>() {
+		}.getType();
+		static final Type MODALITIES = new TypeToken<List<BiometricType>>() {
+		}.getType();
+
+		private Types() {
+			throw new IllegalStateException("Types class");
+		}
+
+		static Type response(Type result) {
+			return TypeToken.getParameterized(Response.class, result).getType();
+		}
+	}
+}
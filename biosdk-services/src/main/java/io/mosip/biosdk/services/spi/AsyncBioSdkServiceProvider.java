@@ -0,0 +1,76 @@
+package io.mosip.biosdk.services.spi;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.mosip.biosdk.services.dto.RequestDto;
+
+/**
+ * Asynchronous Service Provider Interface (SPI) of the MOSIP Biometric SDK
+ * service.
+ * <p>
+ * It offers the operations of {@link BioSdkServiceProvider} as
+ * {@link CompletableFuture}s, so that the thread receiving a request is not
+ * held while the SDK works on it. A future fails with a
+ * {@link io.mosip.biosdk.services.exceptions.BioSDKException} where the
+ * synchronous operation would throw one.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public interface AsyncBioSdkServiceProvider {
+
+	/**
+	 * Retrieves the specific version of the BioSDK service provider.
+	 *
+	 * @return the version of the BioSDK service provider.
+	 */
+	Object getSpecVersion();
+
+	/**
+	 * Initializes the BioSDK service provider with the provided request data.
+	 *
+	 * @param request the request data encapsulated in a {@link RequestDto}.
+	 * @return the result of initialization operation.
+	 */
+	CompletableFuture<Object> init(RequestDto request);
+
+	/**
+	 * Checks the quality of biometric data provided in the request.
+	 *
+	 * @param request the request data encapsulated in a {@link RequestDto}.
+	 * @return the result of quality checking operation.
+	 */
+	CompletableFuture<Object> checkQuality(RequestDto request);
+
+	/**
+	 * Matches biometric data provided in the request.
+	 *
+	 * @param request the request data encapsulated in a {@link RequestDto}.
+	 * @return the result of matching operation.
+	 */
+	CompletableFuture<Object> match(RequestDto request);
+
+	/**
+	 * Extracts biometric template from the provided data in the request.
+	 *
+	 * @param request the request data encapsulated in a {@link RequestDto}.
+	 * @return the result of template extraction operation.
+	 */
+	CompletableFuture<Object> extractTemplate(RequestDto request);
+
+	/**
+	 * Segments biometric data provided in the request.
+	 *
+	 * @param request the request data encapsulated in a {@link RequestDto}.
+	 * @return the result of segmentation operation.
+	 */
+	CompletableFuture<Object> segment(RequestDto request);
+
+	/**
+	 * Converts biometric data format as per the request.
+	 *
+	 * @param request the request data encapsulated in a {@link RequestDto}.
+	 * @return the result of format conversion operation.
+	 */
+	CompletableFuture<Object> convertFormat(RequestDto request);
+}
@@ -1,6 +1,12 @@
 package io.mosip.biosdk.services.spi;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+import io.mosip.biosdk.services.constants.ErrorMessages;
 import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
 
 /**
  * Service Provider Interface (SPI) defining operations for the MOSIP Biometric
@@ -70,4 +76,23 @@ public interface BioSdkServiceProvider {
 	 * @return the result of format conversion operation.
 	 */
 	Object convertFormat(RequestDto request);
-}
\ No newline at end of file
+
+	/**
+	 * Matches a probe against a gallery streamed as newline-delimited records,
+	 * writing the decisions as newline-delimited JSON in gallery order as soon as
+	 * each batch of the gallery has been matched.
+	 * <p>
+	 * Implementations that do not support streaming keep this default, which
+	 * rejects the request.
+	 * </p>
+	 *
+	 * @param request   the request data holding the probe, modalities and flags.
+	 * @param gallery   the reader positioned on the first gallery record.
+	 * @param decisions the writer the decisions are written to.
+	 * @throws IOException if reading the gallery or writing a decision fails.
+	 */
+	default void matchStream(RequestDto request, BufferedReader gallery, Writer decisions) throws IOException {
+		throw new BioSDKException(ErrorMessages.UNSUPPORTED_OPERATION.toString(),
+				ErrorMessages.UNSUPPORTED_OPERATION.getMessage());
+	}
+}
@@ -0,0 +1,291 @@
+package io.mosip.biosdk.services.synthetic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
+import io.mosip.kernel.biometrics.constant.PurposeType;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+
+/**
+ * Shape of the segments of one modality built by
+ * {@link SyntheticRecordGenerator}: how many segments, their subtypes, BDB
+ * size and format, and how their quality scores are distributed.
+ * <p>
+ * The presets approximate MOSIP captures: ISO 19794 images of ten fingers,
+ * two irises or one face, and ISO 19794-2 finger minutiae templates. Every
+ * BDB starts with the magic and version of its ISO record followed by random
+ * content.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class ModalityProfile {
+	private static final List<String> FINGERS = List.of("Left IndexFinger", "Left MiddleFinger", "Left RingFinger",
+			"Left LittleFinger", "Left Thumb", "Right IndexFinger", "Right MiddleFinger", "Right RingFinger",
+			"Right LittleFinger", "Right Thumb");
+	private static final List<String> IRISES = List.of("Left", "Right");
+
+	/**
+	 * Distributions of the quality score, clipped to {@code [0, 100]}.
+	 */
+	public enum Distribution {
+		/** Always the mean. */
+		FIXED,
+		/** Uniform within the mean plus or minus the spread. */
+		UNIFORM,
+		/** Normal of the mean and a standard deviation of the spread. */
+		NORMAL
+	}
+
+	private final BiometricType type;
+	private List<String> subtypes;
+	private int segmentCount;
+	private int bdbBytes;
+	private int bdbBytesJitter;
+	private RegistryIDType format;
+	private byte[] header;
+	private ProcessedLevelType level = ProcessedLevelType.RAW;
+	private PurposeType purpose = PurposeType.VERIFY;
+	private Distribution qualityDistribution = Distribution.UNIFORM;
+	private double qualityMean = 70;
+	private double qualitySpread = 30;
+
+	private ModalityProfile(BiometricType type, List<String> subtypes, int bdbBytes, String formatType,
+			String header) {
+		this.type = type;
+		this.subtypes = subtypes;
+		this.segmentCount = Math.max(1, subtypes.size());
+		this.bdbBytes = bdbBytes;
+		this.format = new RegistryIDType("Mosip", formatType);
+		this.header = header.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Ten ISO 19794-4 finger images of 16 KiB.
+	 *
+	 * @return a new profile.
+	 */
+	public static ModalityProfile fingerImage() {
+		return new ModalityProfile(BiometricType.FINGER, FINGERS, 16 * 1024, "7", "FIR\0" + "020\0");
+	}
+
+	/**
+	 * Two ISO 19794-6 iris images of 40 KiB.
+	 *
+	 * @return a new profile.
+	 */
+	public static ModalityProfile irisImage() {
+		return new ModalityProfile(BiometricType.IRIS, IRISES, 40 * 1024, "9", "IIR\0" + "020\0");
+	}
+
+	/**
+	 * One ISO 19794-5 face image of 120 KiB.
+	 *
+	 * @return a new profile.
+	 */
+	public static ModalityProfile faceImage() {
+		return new ModalityProfile(BiometricType.FACE, List.of(), 120 * 1024, "8", "FAC\0" + "030\0");
+	}
+
+	/**
+	 * Two ISO 19794-2 finger minutiae templates of 1.5 KiB.
+	 *
+	 * @return a new profile.
+	 */
+	public static ModalityProfile fingerTemplate() {
+		return new ModalityProfile(BiometricType.FINGER, List.of(FINGERS.get(0), FINGERS.get(5)), 1536, "2",
+				"FMR\0" + "030\0").withLevel(ProcessedLevelType.PROCESSED);
+	}
+
+	/**
+	 * Returns the image profile of a modality.
+	 *
+	 * @param type FINGER, IRIS or FACE.
+	 * @return a new profile.
+	 * @throws IllegalArgumentException for other modalities.
+	 */
+	public static ModalityProfile imageOf(BiometricType type) {
+		switch (type) {
+		case FINGER:
+			return fingerImage();
+		case IRIS:
+			return irisImage();
+		case FACE:
+			return faceImage();
+		default:
+			throw new IllegalArgumentException("No image profile for " + type);
+		}
+	}
+
+	/**
+	 * Sets the number of segments. Subtypes are assigned in order and repeat when
+	 * there are more segments than subtypes.
+	 *
+	 * @param segmentCount the number of segments.
+	 * @return this profile.
+	 */
+	public ModalityProfile withSegments(int segmentCount) {
+		if (segmentCount < 0) {
+			throw new IllegalArgumentException("segmentCount must not be negative: " + segmentCount);
+		}
+		this.segmentCount = segmentCount;
+		return this;
+	}
+
+	/**
+	 * Sets the subtypes of the segments, as {@code "Left IndexFinger"} style
+	 * strings, and the segment count to match.
+	 *
+	 * @param subtypes the subtypes.
+	 * @return this profile.
+	 */
+	public ModalityProfile withSubtypes(List<String> subtypes) {
+		this.subtypes = new ArrayList<>(subtypes);
+		this.segmentCount = Math.max(1, subtypes.size());
+		return this;
+	}
+
+	/**
+	 * Sets the BDB size.
+	 *
+	 * @param bdbBytes the mean size in bytes.
+	 * @param jitter   the maximum deviation from the mean, in bytes.
+	 * @return this profile.
+	 */
+	public ModalityProfile withBdbBytes(int bdbBytes, int jitter) {
+		if (bdbBytes < 0 || jitter < 0 || jitter > bdbBytes) {
+			throw new IllegalArgumentException("Invalid BDB size " + bdbBytes + " +/- " + jitter);
+		}
+		this.bdbBytes = bdbBytes;
+		this.bdbBytesJitter = jitter;
+		return this;
+	}
+
+	/**
+	 * Sets the BDB format and the bytes every BDB starts with.
+	 *
+	 * @param organization the format owner.
+	 * @param formatType   the format type.
+	 * @param header       the BDB prefix; may be empty.
+	 * @return this profile.
+	 */
+	public ModalityProfile withFormat(String organization, String formatType, byte[] header) {
+		this.format = new RegistryIDType(organization, formatType);
+		this.header = header.clone();
+		return this;
+	}
+
+	/**
+	 * Sets the quality score distribution.
+	 *
+	 * @param distribution the distribution.
+	 * @param mean         the mean score.
+	 * @param spread       the half range or standard deviation.
+	 * @return this profile.
+	 */
+	public ModalityProfile withQuality(Distribution distribution, double mean, double spread) {
+		this.qualityDistribution = distribution;
+		this.qualityMean = mean;
+		this.qualitySpread = spread;
+		return this;
+	}
+
+	/**
+	 * Sets the processed level of the segments.
+	 *
+	 * @param level the level.
+	 * @return this profile.
+	 */
+	public ModalityProfile withLevel(ProcessedLevelType level) {
+		this.level = level;
+		return this;
+	}
+
+	/**
+	 * Sets the purpose of the segments.
+	 *
+	 * @param purpose the purpose.
+	 * @return this profile.
+	 */
+	public ModalityProfile withPurpose(PurposeType purpose) {
+		this.purpose = purpose;
+		return this;
+	}
+
+	public BiometricType getType() {
+		return type;
+	}
+
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+
+	public RegistryIDType getFormat() {
+		return format;
+	}
+
+	public ProcessedLevelType getLevel() {
+		return level;
+	}
+
+	public PurposeType getPurpose() {
+		return purpose;
+	}
+
+	/**
+	 * Returns the subtype of a segment.
+	 *
+	 * @param segment the segment index.
+	 * @return the subtype words, empty when the profile has no subtypes.
+	 */
+	List<String> subtypeOf(int segment) {
+		return subtypes.isEmpty() ? new ArrayList<>()
+				: new ArrayList<>(Arrays.asList(subtypes.get(segment % subtypes.size()).split(" ")));
+	}
+
+	/**
+	 * Builds the BDB of a segment.
+	 *
+	 * @param random the random source of the segment.
+	 * @return the BDB.
+	 */
+	byte[] bdb(SplittableRandom random) {
+		int length = bdbBytesJitter == 0 ? bdbBytes
+				: bdbBytes - bdbBytesJitter + random.nextInt(2 * bdbBytesJitter + 1);
+		byte[] bdb = new byte[Math.max(length, header.length)];
+		random.nextBytes(bdb);
+		System.arraycopy(header, 0, bdb, 0, header.length);
+		return bdb;
+	}
+
+	/**
+	 * Draws the quality score of a segment.
+	 *
+	 * @param random the random source of the segment.
+	 * @return the score in {@code [0, 100]}.
+	 */
+	long quality(SplittableRandom random) {
+		double score;
+		switch (qualityDistribution) {
+		case UNIFORM:
+			score = qualityMean - qualitySpread + random.nextDouble() * 2 * qualitySpread;
+			break;
+		case NORMAL:
+			score = qualityMean + qualitySpread * gaussian(random);
+			break;
+		default:
+			score = qualityMean;
+		}
+		return Math.round(Math.min(100, Math.max(0, score)));
+	}
+
+	private static double gaussian(SplittableRandom random) {
+		double u = 1 - random.nextDouble();
+		return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+	}
+}
@@ -0,0 +1,412 @@
+package io.mosip.biosdk.services.synthetic;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.metrics.ThreadResources;
+import io.mosip.biosdk.services.synthetic.SyntheticSdkSettings.FailureMode;
+import io.mosip.biosdk.services.synthetic.SyntheticSdkSettings.Operation;
+import io.mosip.biosdk.services.synthetic.SyntheticSdkSettings.OperationSettings;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Synthetic {@link IBioApiV2} for load and capacity testing of the service
+ * without a vendor SDK.
+ * <p>
+ * Selected with
+ * {@code biosdk_bioapi_impl=io.mosip.biosdk.services.synthetic.SyntheticBioApi},
+ * it burns CPU, allocates heap, waits and fails as configured by
+ * {@link SyntheticSdkSettings}, in proportion to the number of segments and
+ * gallery records of each call. Its results are deterministic functions of the
+ * BDBs: templates are derived from the sample hash, so a gallery record holding
+ * a template extracted from the same sample is {@link Match#MATCHED} with score
+ * {@code 100}, and any other record scores below {@code 60}.
+ * </p>
+ * <p>
+ * Settings come from the Spring environment, or from system properties when
+ * the SDK is created outside Spring, and can be changed at run time through
+ * the init parameters.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public class SyntheticBioApi implements IBioApiV2, EnvironmentAware {
+	private static final String API_VERSION = "0.9";
+	private static final String SDK_VERSION = "1.0";
+	private static final String ANALYTICS_SCORE = "score";
+	private static final int MATCHED_SCORE = 100;
+	private static final int NOT_MATCHED_SCORE_BOUND = 60;
+	private static final int PAGE_BYTES = 4096;
+	private static final int RETAINED_CHUNK_BYTES = 1024 * 1024;
+
+	private Logger logger = LoggerConfig.logConfig(SyntheticBioApi.class);
+
+	private volatile UnaryOperator<String> properties = System::getProperty;
+	private volatile SyntheticSdkSettings settings;
+	private volatile Semaphore permits;
+	@SuppressWarnings("unused")
+	private volatile byte[][] retained;
+	private volatile long sink;
+
+	/**
+	 * Creates the SDK with the settings of the system properties.
+	 */
+	public SyntheticBioApi() {
+		configure(SyntheticSdkSettings.of(properties));
+	}
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.properties = environment::getProperty;
+		configure(SyntheticSdkSettings.of(properties));
+	}
+
+	private synchronized void configure(SyntheticSdkSettings newSettings) {
+		switch (newSettings.getThreadSafety()) {
+		case SERIALIZED:
+			permits = new Semaphore(1, true);
+			break;
+		case BOUNDED:
+			permits = new Semaphore(Math.max(1, newSettings.getMaxConcurrency()), true);
+			break;
+		default:
+			permits = null;
+		}
+		if (newSettings.getRetainedBytes() != (settings == null ? 0 : settings.getRetainedBytes())) {
+			retained = churn(RETAINED_CHUNK_BYTES,
+					(int) ((newSettings.getRetainedBytes() + RETAINED_CHUNK_BYTES - 1) / RETAINED_CHUNK_BYTES));
+		}
+		settings = newSettings;
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "synthetic SDK",
+				"configured with thread safety " + newSettings.getThreadSafety() + ", retained heap "
+						+ newSettings.getRetainedBytes() + " bytes");
+	}
+
+	@Override
+	public SDKInfo init(Map<String, String> initParams) {
+		configure(SyntheticSdkSettings.of(properties, initParams));
+		SDKInfo sdkInfo = new SDKInfo(API_VERSION, SDK_VERSION, "MOSIP", "synthetic");
+		for (BiometricFunction function : BiometricFunction.values()) {
+			for (BiometricType type : List.of(BiometricType.FINGER, BiometricType.IRIS, BiometricType.FACE)) {
+				sdkInfo.withSupportedMethod(function, type);
+			}
+		}
+		return sdkInfo;
+	}
+
+	@Override
+	public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+			Map<String, String> flags) {
+		Set<BiometricType> modalities = modalities(modalitiesToCheck);
+		return call(Operation.CHECK_QUALITY, countSegments(sample, modalities), () -> {
+			Map<BiometricType, long[]> totals = new EnumMap<>(BiometricType.class);
+			for (BIR segment : segments(sample, modalities)) {
+				long[] total = totals.computeIfAbsent(typeOf(segment), t -> new long[2]);
+				BDBInfo bdbInfo = segment.getBdbInfo();
+				total[0] += bdbInfo != null && bdbInfo.getQuality() != null && bdbInfo.getQuality().getScore() != null
+						? bdbInfo.getQuality().getScore()
+						: Math.floorMod(Arrays.hashCode(segment.getBdb()), 101);
+				total[1]++;
+			}
+			Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+			totals.forEach((type, total) -> {
+				QualityScore qualityScore = new QualityScore();
+				qualityScore.setScore((float) total[0] / total[1]);
+				qualityScore.setErrors(new ArrayList<>());
+				qualityScore.setAnalyticsInfo(new HashMap<>());
+				scores.put(type, qualityScore);
+			});
+			QualityCheck qualityCheck = new QualityCheck();
+			qualityCheck.setScores(scores);
+			qualityCheck.setAnalyticsInfo(new HashMap<>());
+			return qualityCheck;
+		});
+	}
+
+	@Override
+	public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+			List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+		Set<BiometricType> modalities = modalities(modalitiesToMatch);
+		Map<BiometricType, List<byte[]>> sampleBdbs = bdbsByType(sample, modalities);
+		int galleryLength = gallery == null ? 0 : gallery.length;
+		return call(Operation.MATCH, sampleBdbs.size() * galleryLength, () -> {
+			MatchDecision[] matchDecisions = new MatchDecision[galleryLength];
+			for (int i = 0; i < galleryLength; i++) {
+				matchDecisions[i] = decide(i, sampleBdbs, bdbsByType(gallery[i], sampleBdbs.keySet()));
+			}
+			return matchDecisions;
+		});
+	}
+
+	private static MatchDecision decide(int galleryIndex, Map<BiometricType, List<byte[]>> sampleBdbs,
+			Map<BiometricType, List<byte[]>> recordBdbs) {
+		Map<BiometricType, Decision> decisions = new EnumMap<>(BiometricType.class);
+		int best = 0;
+		for (Map.Entry<BiometricType, List<byte[]>> entry : sampleBdbs.entrySet()) {
+			int score = 0;
+			for (byte[] recordBdb : recordBdbs.getOrDefault(entry.getKey(), Collections.emptyList())) {
+				for (byte[] sampleBdb : entry.getValue()) {
+					score = Math.max(score, Arrays.equals(sampleBdb, recordBdb) ? MATCHED_SCORE
+							: Math.floorMod(Arrays.hashCode(sampleBdb) * 31 + Arrays.hashCode(recordBdb),
+									NOT_MATCHED_SCORE_BOUND));
+				}
+			}
+			Decision decision = new Decision();
+			decision.setMatch(score == MATCHED_SCORE ? Match.MATCHED : Match.NOT_MATCHED);
+			decision.setErrors(new ArrayList<>());
+			decision.setAnalyticsInfo(new HashMap<>(Map.of(ANALYTICS_SCORE, Integer.toString(score))));
+			decisions.put(entry.getKey(), decision);
+			best = Math.max(best, score);
+		}
+		MatchDecision matchDecision = new MatchDecision(galleryIndex);
+		matchDecision.setDecisions(decisions);
+		matchDecision.setAnalyticsInfo(new HashMap<>(Map.of(ANALYTICS_SCORE, Integer.toString(best))));
+		return matchDecision;
+	}
+
+	@Override
+	public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+			Map<String, String> flags) {
+		Set<BiometricType> modalities = modalities(modalitiesToExtract);
+		int templateBytes = settings.getTemplateBytes();
+		return call(Operation.EXTRACT_TEMPLATE, countSegments(sample, modalities), () -> {
+			BiometricRecord template = new BiometricRecord(sample.getVersion(), sample.getCbeffversion(),
+					sample.getBirInfo());
+			template.setOthers(sample.getOthers());
+			template.setSegments(new ArrayList<>());
+			for (BIR segment : sample.getSegments()) {
+				template.getSegments().add(isOf(segment, modalities) ? toTemplate(segment, templateBytes) : segment);
+			}
+			return template;
+		});
+	}
+
+	private static BIR toTemplate(BIR segment, int templateBytes) {
+		byte[] bdb = new byte[templateBytes];
+		new SplittableRandom(segment.getBdb() == null ? 0 : Arrays.hashCode(segment.getBdb())).nextBytes(bdb);
+		BIR template = new BIR();
+		template.setVersion(segment.getVersion());
+		template.setCbeffversion(segment.getCbeffversion());
+		template.setBirInfo(segment.getBirInfo());
+		template.setBdbInfo(segment.getBdbInfo());
+		template.setBdb(bdb);
+		template.setSb(segment.getSb());
+		template.setSbInfo(segment.getSbInfo());
+		template.setOthers(segment.getOthers());
+		return template;
+	}
+
+	@Override
+	public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+			Map<String, String> flags) {
+		return call(Operation.SEGMENT, countSegments(sample, modalities(modalitiesToSegment)), () -> sample);
+	}
+
+	/**
+	 * @deprecated use
+	 *             {@link #convertFormatV2(BiometricRecord, String, String, Map, Map, List)}.
+	 */
+	@Override
+	@Deprecated(forRemoval = true)
+	@SuppressWarnings({ "removal" })
+	public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		Response<BiometricRecord> response = convertFormatV2(sample, sourceFormat, targetFormat, sourceParams,
+				targetParams, modalitiesToConvert);
+		if (response.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+			throw new IllegalStateException(response.getStatusMessage());
+		}
+		return response.getResponse();
+	}
+
+	@Override
+	public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+			Map<String, String> sourceParams, Map<String, String> targetParams,
+			List<BiometricType> modalitiesToConvert) {
+		return call(Operation.CONVERT_FORMAT, countSegments(sample, modalities(modalitiesToConvert)), () -> sample);
+	}
+
+	/**
+	 * Runs one SDK call under the cost model of its operation.
+	 *
+	 * @param operation the operation.
+	 * @param units     the units of work the call is charged for.
+	 * @param result    builds the result of a successful call.
+	 * @return the response of the call.
+	 */
+	private <T> Response<T> call(Operation operation, int units, Supplier<T> result) {
+		OperationSettings operationSettings = settings.get(operation);
+		Semaphore semaphore = permits;
+		if (semaphore != null) {
+			try {
+				semaphore.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return failure(operationSettings, "interrupted while waiting for the SDK");
+			}
+		}
+		try {
+			if (operationSettings.drawTimeout()) {
+				park(TimeUnit.MILLISECONDS.toNanos(operationSettings.getTimeoutMillis()));
+				return failure(operationSettings, "timed out");
+			}
+			park(operationSettings.drawLatencyNanos());
+			byte[][] churn = churn(operationSettings.getAllocatedBytesPerUnit(), units);
+			burn(operationSettings.getCpuNanosPerUnit() * Math.max(1, units));
+			if (operationSettings.drawFailure()) {
+				return failure(operationSettings, "injected failure");
+			}
+			Response<T> response = new Response<>();
+			response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+			response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+			response.setResponse(result.get());
+			sink += churn == null ? 0 : churn.length;
+			return response;
+		} finally {
+			if (semaphore != null) {
+				semaphore.release();
+			}
+		}
+	}
+
+	private static <T> Response<T> failure(OperationSettings operationSettings, String message) {
+		if (operationSettings.getFailureMode() == FailureMode.EXCEPTION) {
+			throw new IllegalStateException("Synthetic SDK " + message);
+		}
+		Response<T> response = new Response<>();
+		response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
+		response.setStatusMessage("Synthetic SDK " + message);
+		return response;
+	}
+
+	private static void park(long nanos) {
+		long deadline = System.nanoTime() + nanos;
+		for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Consumes CPU time on the current thread.
+	 *
+	 * @param nanos the CPU time to consume; wall-clock time when the JVM does not
+	 *              measure thread CPU time.
+	 */
+	private void burn(long nanos) {
+		if (nanos <= 0) {
+			return;
+		}
+		boolean cpuClock = ThreadResources.cpuTime() != 0;
+		long start = cpuClock ? ThreadResources.cpuTime() : System.nanoTime();
+		long x = start | 1;
+		do {
+			for (int i = 0; i < 10_000; i++) {
+				x ^= x << 13;
+				x ^= x >>> 7;
+				x ^= x << 17;
+			}
+		} while ((cpuClock ? ThreadResources.cpuTime() : System.nanoTime()) - start < nanos);
+		sink += x;
+	}
+
+	/**
+	 * Allocates and touches heap memory.
+	 *
+	 * @param bytesPerUnit the bytes allocated per unit.
+	 * @param units        the number of units.
+	 * @return the allocated arrays, or {@code null} if nothing was allocated.
+	 */
+	private static byte[][] churn(int bytesPerUnit, int units) {
+		if (bytesPerUnit <= 0 || units <= 0) {
+			return null;
+		}
+		byte[][] chunks = new byte[units][];
+		for (int i = 0; i < units; i++) {
+			chunks[i] = new byte[bytesPerUnit];
+			for (int j = 0; j < bytesPerUnit; j += PAGE_BYTES) {
+				chunks[i][j] = (byte) j;
+			}
+		}
+		return chunks;
+	}
+
+	private static Set<BiometricType> modalities(List<BiometricType> modalities) {
+		return modalities == null || modalities.isEmpty() ? Collections.emptySet() : EnumSet.copyOf(modalities);
+	}
+
+	private static boolean isOf(BIR segment, Set<BiometricType> modalities) {
+		BiometricType type = segment == null ? null : typeOf(segment);
+		return type != null && (modalities.isEmpty() || modalities.contains(type));
+	}
+
+	private static BiometricType typeOf(BIR segment) {
+		BDBInfo bdbInfo = segment.getBdbInfo();
+		return bdbInfo == null || bdbInfo.getType() == null || bdbInfo.getType().isEmpty() ? null
+				: bdbInfo.getType().get(0);
+	}
+
+	private static List<BIR> segments(BiometricRecord biometricRecord, Set<BiometricType> modalities) {
+		List<BIR> segments = new ArrayList<>();
+		if (biometricRecord != null && biometricRecord.getSegments() != null) {
+			for (BIR segment : biometricRecord.getSegments()) {
+				if (isOf(segment, modalities)) {
+					segments.add(segment);
+				}
+			}
+		}
+		return segments;
+	}
+
+	private static int countSegments(BiometricRecord biometricRecord, Set<BiometricType> modalities) {
+		return segments(biometricRecord, modalities).size();
+	}
+
+	private static Map<BiometricType, List<byte[]>> bdbsByType(BiometricRecord biometricRecord,
+			Set<BiometricType> modalities) {
+		Map<BiometricType, List<byte[]>> bdbs = new EnumMap<>(BiometricType.class);
+		for (BIR segment : segments(biometricRecord, modalities)) {
+			if (segment.getBdb() != null) {
+				bdbs.computeIfAbsent(typeOf(segment), t -> new ArrayList<>()).add(segment.getBdb());
+			}
+		}
+		return bdbs;
+	}
+}
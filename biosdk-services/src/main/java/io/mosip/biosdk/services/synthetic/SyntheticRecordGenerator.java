@@ -0,0 +1,129 @@
+package io.mosip.biosdk.services.synthetic;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import io.mosip.kernel.biometrics.constant.QualityType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BIRInfo;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.entities.VersionType;
+
+/**
+ * Builds synthetic CBEFF {@link BiometricRecord}s for benchmarks and load
+ * tests.
+ * <p>
+ * A record holds the segments of every {@link ModalityProfile} added to the
+ * generator, in order. Record {@code i} of a generator depends only on its seed
+ * and {@code i}, so galleries of any size can be rebuilt or streamed without
+ * keeping them in memory, and the probe matching gallery record {@code i} is
+ * simply {@code record(i)}.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * SyntheticRecordGenerator galleryGenerator = new SyntheticRecordGenerator(42)
+ * 		.withModality(ModalityProfile.fingerTemplate().withQuality(Distribution.NORMAL, 60, 15));
+ * BiometricRecord[] gallery = galleryGenerator.records(0, 1000);
+ * }
+ * </pre>
+ *
+ * @since 1.2.1
+ */
+public final class SyntheticRecordGenerator {
+	private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final long seed;
+	private final List<ModalityProfile> profiles = new ArrayList<>();
+
+	/**
+	 * Creates a generator without modalities.
+	 *
+	 * @param seed the seed every record is derived from.
+	 */
+	public SyntheticRecordGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Adds the segments of a modality to every record.
+	 *
+	 * @param profile the modality profile.
+	 * @return this generator.
+	 */
+	public SyntheticRecordGenerator withModality(ModalityProfile profile) {
+		profiles.add(profile);
+		return this;
+	}
+
+	/**
+	 * Builds a record.
+	 *
+	 * @param index the record index.
+	 * @return the record.
+	 */
+	public BiometricRecord record(long index) {
+		SplittableRandom random = new SplittableRandom(seed * GOLDEN_GAMMA + index);
+		BiometricRecord biometricRecord = new BiometricRecord(new VersionType(1, 1), new VersionType(1, 1),
+				birInfo());
+		biometricRecord.setSegments(new ArrayList<>());
+		LocalDateTime creationDate = CREATION_DATE.plusSeconds(Math.floorMod(index, 365L * 24 * 3600));
+		for (ModalityProfile profile : profiles) {
+			for (int i = 0; i < profile.getSegmentCount(); i++) {
+				biometricRecord.getSegments().add(segment(profile, i, random.split(), creationDate));
+			}
+		}
+		return biometricRecord;
+	}
+
+	/**
+	 * Builds consecutive records.
+	 *
+	 * @param from  the index of the first record.
+	 * @param count the number of records.
+	 * @return the records.
+	 */
+	public BiometricRecord[] records(long from, int count) {
+		BiometricRecord[] records = new BiometricRecord[count];
+		for (int i = 0; i < count; i++) {
+			records[i] = record(from + i);
+		}
+		return records;
+	}
+
+	private static BIR segment(ModalityProfile profile, int index, SplittableRandom random,
+			LocalDateTime creationDate) {
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setType(new ArrayList<>(List.of(profile.getType())));
+		bdbInfo.setSubtype(profile.subtypeOf(index));
+		bdbInfo.setFormat(new RegistryIDType(profile.getFormat().getOrganization(), profile.getFormat().getType()));
+		bdbInfo.setLevel(profile.getLevel());
+		bdbInfo.setPurpose(profile.getPurpose());
+		bdbInfo.setCreationDate(creationDate);
+		QualityType quality = new QualityType();
+		quality.setAlgorithm(new RegistryIDType("HMAC", "SHA-256"));
+		quality.setScore(profile.quality(random));
+		bdbInfo.setQuality(quality);
+
+		BIR bir = new BIR();
+		bir.setVersion(new VersionType(1, 1));
+		bir.setCbeffversion(new VersionType(1, 1));
+		bir.setBirInfo(birInfo());
+		bir.setBdbInfo(bdbInfo);
+		bir.setBdb(profile.bdb(random));
+		bir.setOthers(new HashMap<>());
+		return bir;
+	}
+
+	private static BIRInfo birInfo() {
+		BIRInfo birInfo = new BIRInfo();
+		birInfo.setIntegrity(Boolean.FALSE);
+		return birInfo;
+	}
+}
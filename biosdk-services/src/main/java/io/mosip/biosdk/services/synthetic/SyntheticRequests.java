@@ -0,0 +1,156 @@
+package io.mosip.biosdk.services.synthetic;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Encodes synthetic requests the way clients send them to the service.
+ * <p>
+ * Requests are either spec 1.0 {@link RequestDto} envelopes, whose
+ * {@code request} is the Base64 encoded JSON of the operation request, or the
+ * newline-delimited JSON of {@code /match-stream}. Match requests with large
+ * galleries are written straight to a file, one gallery record at a time, so
+ * the gallery is never held in memory.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class SyntheticRequests {
+	/**
+	 * Spec version of the generated requests.
+	 */
+	public static final String VERSION = "1.0";
+
+	private static final String GALLERY = "gallery";
+	private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+	private static final int BUFFER_BYTES = 64 * 1024;
+
+	private SyntheticRequests() {
+		throw new IllegalStateException("SyntheticRequests class");
+	}
+
+	/**
+	 * Encodes a request body in a spec 1.0 envelope.
+	 *
+	 * @param body the operation request, e.g. a {@code CheckQualityRequestDto}.
+	 * @return the JSON of the {@link RequestDto}.
+	 */
+	public static String requestJson(Object body) {
+		return GSON.toJson(request(body));
+	}
+
+	/**
+	 * Wraps a request body in a spec 1.0 envelope.
+	 *
+	 * @param body the operation request, e.g. a {@code CheckQualityRequestDto}.
+	 * @return the {@link RequestDto}.
+	 */
+	public static RequestDto request(Object body) {
+		RequestDto requestDto = new RequestDto();
+		requestDto.setVersion(VERSION);
+		requestDto.setRequest(
+				Base64.getEncoder().encodeToString(GSON.toJson(body).getBytes(StandardCharsets.UTF_8)));
+		return requestDto;
+	}
+
+	/**
+	 * Writes a spec 1.0 {@code /match} request with a generated gallery.
+	 *
+	 * @param file      the file to write.
+	 * @param request   the match request; its gallery is ignored.
+	 * @param generator the generator of the gallery records.
+	 * @param from      the index of the first gallery record.
+	 * @param count     the number of gallery records.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeMatchRequest(Path file, MatchRequestDto request, SyntheticRecordGenerator generator,
+			long from, int count) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES)) {
+			out.write(("{\"version\":\"" + VERSION + "\",\"request\":\"").getBytes(StandardCharsets.UTF_8));
+			try (Writer writer = new OutputStreamWriter(Base64.getEncoder().wrap(new NonClosingOutputStream(out)),
+					StandardCharsets.UTF_8)) {
+				JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+				jsonWriter.beginObject();
+				for (Map.Entry<String, JsonElement> field : withoutGallery(request).entrySet()) {
+					jsonWriter.name(field.getKey());
+					GSON.toJson(field.getValue(), jsonWriter);
+				}
+				jsonWriter.name(GALLERY).beginArray();
+				for (int i = 0; i < count; i++) {
+					GSON.toJson(generator.record(from + i), BiometricRecord.class, jsonWriter);
+				}
+				jsonWriter.endArray();
+				jsonWriter.endObject();
+				jsonWriter.flush();
+			}
+			out.write("\"}".getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Writes a {@code /match-stream} request with a generated gallery.
+	 *
+	 * @param file      the file to write.
+	 * @param request   the match request; its gallery is ignored.
+	 * @param generator the generator of the gallery records.
+	 * @param from      the index of the first gallery record.
+	 * @param count     the number of gallery records.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeMatchStream(Path file, MatchRequestDto request, SyntheticRecordGenerator generator,
+			long from, int count) throws IOException {
+		try (Writer writer = new OutputStreamWriter(
+				new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES), StandardCharsets.UTF_8)) {
+			writer.write(requestJson(withoutGallery(request)));
+			writer.write('\n');
+			for (int i = 0; i < count; i++) {
+				GSON.toJson(generator.record(from + i), BiometricRecord.class, writer);
+				writer.write('\n');
+			}
+		}
+	}
+
+	private static JsonObject withoutGallery(MatchRequestDto request) {
+		JsonObject json = GSON.toJsonTree(request).getAsJsonObject();
+		json.remove(GALLERY);
+		return json;
+	}
+
+	/**
+	 * Keeps the file open when the Base64 encoder is closed to write its padding.
+	 */
+	private static final class NonClosingOutputStream extends FilterOutputStream {
+		private NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
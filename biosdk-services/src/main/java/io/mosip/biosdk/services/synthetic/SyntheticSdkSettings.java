@@ -0,0 +1,266 @@
+package io.mosip.biosdk.services.synthetic;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cost model of the {@link SyntheticBioApi}.
+ * <p>
+ * Every setting is read from {@value #PREFIX}{@code <key>} and can be
+ * overridden for one operation by
+ * {@value #PREFIX}{@code <operation>.<key>}, where {@code <operation>} is one
+ * of {@code check-quality}, {@code extract-template}, {@code segment},
+ * {@code convert-format} or {@code match}. CPU time and allocations are
+ * charged per unit of work: a segment of a requested modality, or for match a
+ * (gallery record, modality) comparison. Latency, failures and timeouts are
+ * drawn once per call.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class SyntheticSdkSettings {
+	/**
+	 * Prefix of the synthetic SDK settings.
+	 */
+	public static final String PREFIX = "mosip.biosdk.synthetic.";
+
+	/**
+	 * Operations of the synthetic SDK.
+	 */
+	public enum Operation {
+		CHECK_QUALITY("check-quality", 2_000), EXTRACT_TEMPLATE("extract-template", 15_000),
+		SEGMENT("segment", 5_000), CONVERT_FORMAT("convert-format", 3_000), MATCH("match", 100);
+
+		private final String key;
+		private final long defaultCpuMicros;
+
+		Operation(String key, long defaultCpuMicros) {
+			this.key = key;
+			this.defaultCpuMicros = defaultCpuMicros;
+		}
+
+		public String getKey() {
+			return key;
+		}
+	}
+
+	/**
+	 * Shapes of the latency added to every call, spent off-CPU.
+	 */
+	public enum Latency {
+		/** No added latency. */
+		NONE,
+		/** Exactly {@code latency-ms}. */
+		FIXED,
+		/** Uniform between 0 and twice {@code latency-ms}. */
+		UNIFORM,
+		/** Exponential of mean {@code latency-ms}. */
+		EXPONENTIAL,
+		/** Log-normal of mean {@code latency-ms} and shape {@code latency-sigma}. */
+		LOGNORMAL
+	}
+
+	/**
+	 * Concurrency the synthetic SDK tolerates, as vendor SDKs differ in whether
+	 * they may be called from several threads.
+	 */
+	public enum ThreadSafety {
+		/** Any number of concurrent calls. */
+		CONCURRENT,
+		/** One call at a time. */
+		SERIALIZED,
+		/** At most {@code max-concurrency} concurrent calls. */
+		BOUNDED
+	}
+
+	/**
+	 * Ways an injected failure surfaces.
+	 */
+	public enum FailureMode {
+		/** A response with the {@code UNKNOWN_ERROR} status code. */
+		STATUS,
+		/** A runtime exception thrown by the SDK. */
+		EXCEPTION
+	}
+
+	private final Map<Operation, OperationSettings> operations = new EnumMap<>(Operation.class);
+	private final ThreadSafety threadSafety;
+	private final int maxConcurrency;
+	private final long retainedBytes;
+	private final int templateBytes;
+
+	private SyntheticSdkSettings(UnaryOperator<String> properties) {
+		for (Operation operation : Operation.values()) {
+			operations.put(operation, new OperationSettings(operation, properties));
+		}
+		this.threadSafety = parseEnum(ThreadSafety.class, properties.apply(PREFIX + "thread-safety"),
+				ThreadSafety.CONCURRENT);
+		this.maxConcurrency = (int) parseLong(properties.apply(PREFIX + "max-concurrency"), 4);
+		this.retainedBytes = parseLong(properties.apply(PREFIX + "retained-mb"), 0) * 1024 * 1024;
+		this.templateBytes = (int) parseLong(properties.apply(PREFIX + "template-bytes"), 1024);
+	}
+
+	/**
+	 * Reads the settings.
+	 *
+	 * @param properties the property lookup, returning {@code null} for unset
+	 *                   keys.
+	 * @return the settings.
+	 */
+	public static SyntheticSdkSettings of(UnaryOperator<String> properties) {
+		return new SyntheticSdkSettings(properties);
+	}
+
+	/**
+	 * Reads the settings, letting init parameters override the properties.
+	 * Parameter keys may omit the {@value #PREFIX} prefix.
+	 *
+	 * @param properties the property lookup, returning {@code null} for unset
+	 *                   keys.
+	 * @param overrides  the init parameters; may be {@code null}.
+	 * @return the settings.
+	 */
+	public static SyntheticSdkSettings of(UnaryOperator<String> properties, Map<String, String> overrides) {
+		if (overrides == null || overrides.isEmpty()) {
+			return of(properties);
+		}
+		return of(key -> {
+			String value = overrides.get(key);
+			if (value == null) {
+				value = overrides.get(key.substring(PREFIX.length()));
+			}
+			return value != null ? value : properties.apply(key);
+		});
+	}
+
+	public OperationSettings get(Operation operation) {
+		return operations.get(operation);
+	}
+
+	public ThreadSafety getThreadSafety() {
+		return threadSafety;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public long getRetainedBytes() {
+		return retainedBytes;
+	}
+
+	public int getTemplateBytes() {
+		return templateBytes;
+	}
+
+	/**
+	 * Cost model of one operation.
+	 */
+	public static final class OperationSettings {
+		private final long cpuNanosPerUnit;
+		private final int allocatedBytesPerUnit;
+		private final Latency latency;
+		private final double latencyMillis;
+		private final double latencySigma;
+		private final double failureRate;
+		private final FailureMode failureMode;
+		private final double timeoutRate;
+		private final long timeoutMillis;
+
+		private OperationSettings(Operation operation, UnaryOperator<String> properties) {
+			UnaryOperator<String> lookup = key -> {
+				String value = properties.apply(PREFIX + operation.key + "." + key);
+				return value != null ? value : properties.apply(PREFIX + key);
+			};
+			this.cpuNanosPerUnit = TimeUnit.MICROSECONDS
+					.toNanos(parseLong(lookup.apply("cpu-micros"), operation.defaultCpuMicros));
+			this.allocatedBytesPerUnit = (int) (parseLong(lookup.apply("allocation-kb"), 0) * 1024);
+			this.latency = parseEnum(Latency.class, lookup.apply("latency"), Latency.NONE);
+			this.latencyMillis = parseDouble(lookup.apply("latency-ms"), 0);
+			this.latencySigma = parseDouble(lookup.apply("latency-sigma"), 0.5);
+			this.failureRate = parseDouble(lookup.apply("failure-rate"), 0);
+			this.failureMode = parseEnum(FailureMode.class, lookup.apply("failure-mode"), FailureMode.STATUS);
+			this.timeoutRate = parseDouble(lookup.apply("timeout-rate"), 0);
+			this.timeoutMillis = parseLong(lookup.apply("timeout-ms"), 30_000);
+		}
+
+		public long getCpuNanosPerUnit() {
+			return cpuNanosPerUnit;
+		}
+
+		public int getAllocatedBytesPerUnit() {
+			return allocatedBytesPerUnit;
+		}
+
+		public FailureMode getFailureMode() {
+			return failureMode;
+		}
+
+		public long getTimeoutMillis() {
+			return timeoutMillis;
+		}
+
+		/**
+		 * Draws whether the call fails.
+		 *
+		 * @return {@code true} with probability {@code failure-rate}.
+		 */
+		public boolean drawFailure() {
+			return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+		}
+
+		/**
+		 * Draws whether the call stalls until {@code timeout-ms}.
+		 *
+		 * @return {@code true} with probability {@code timeout-rate}.
+		 */
+		public boolean drawTimeout() {
+			return timeoutRate > 0 && ThreadLocalRandom.current().nextDouble() < timeoutRate;
+		}
+
+		/**
+		 * Draws the latency added to the call.
+		 *
+		 * @return the latency in nanoseconds.
+		 */
+		public long drawLatencyNanos() {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			double millis;
+			switch (latency) {
+			case FIXED:
+				millis = latencyMillis;
+				break;
+			case UNIFORM:
+				millis = random.nextDouble() * 2 * latencyMillis;
+				break;
+			case EXPONENTIAL:
+				millis = -latencyMillis * Math.log(1 - random.nextDouble());
+				break;
+			case LOGNORMAL:
+				double mu = Math.log(latencyMillis) - latencySigma * latencySigma / 2;
+				millis = latencyMillis <= 0 ? 0 : Math.exp(mu + latencySigma * random.nextGaussian());
+				break;
+			default:
+				millis = 0;
+			}
+			return (long) (millis * 1_000_000);
+		}
+	}
+
+	private static long parseLong(String value, long defaultValue) {
+		return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+	}
+
+	private static double parseDouble(String value, double defaultValue) {
+		return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value.trim());
+	}
+
+	private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue) {
+		return value == null || value.isBlank() ? defaultValue
+				: Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+	}
+}
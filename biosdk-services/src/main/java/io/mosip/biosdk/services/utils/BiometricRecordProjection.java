@@ -0,0 +1,163 @@
+package io.mosip.biosdk.services.utils;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * View of a {@link BiometricRecord} restricted to a set of modalities.
+ * <p>
+ * The projected record shares the header and the {@link BIR} instances of the
+ * source record; only the segment list is new, so projecting never copies
+ * biometric data. Segments without type information are kept since they cannot
+ * be attributed to a modality.
+ * </p>
+ * <p>
+ * {@link #restore(BiometricRecord)} puts the segments that were left out back
+ * into a record produced from the projection, so that callers receive a record
+ * of the same shape as the one they sent.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+public final class BiometricRecordProjection {
+	private final BiometricRecord source;
+	private final BiometricRecord projected;
+	private final boolean[] kept;
+	private final int keptCount;
+
+	private BiometricRecordProjection(BiometricRecord source, BiometricRecord projected, boolean[] kept,
+			int keptCount) {
+		this.source = source;
+		this.projected = projected;
+		this.kept = kept;
+		this.keptCount = keptCount;
+	}
+
+	/**
+	 * Projects the record down to the given modalities.
+	 *
+	 * @param biometricRecord the record to project; may be {@code null}.
+	 * @param modalities      the modalities to keep; {@code null} or empty keeps
+	 *                        every segment, {@code null} entries are ignored.
+	 * @return the projection of the record.
+	 */
+	public static BiometricRecordProjection of(BiometricRecord biometricRecord, List<BiometricType> modalities) {
+		Set<BiometricType> wanted = EnumSet.noneOf(BiometricType.class);
+		if (modalities != null) {
+			for (BiometricType modality : modalities) {
+				if (modality != null) {
+					wanted.add(modality);
+				}
+			}
+		}
+		if (biometricRecord == null || biometricRecord.getSegments() == null || wanted.isEmpty()) {
+			return new BiometricRecordProjection(biometricRecord, biometricRecord, null, 0);
+		}
+		List<BIR> segments = biometricRecord.getSegments();
+		boolean[] kept = new boolean[segments.size()];
+		List<BIR> keptSegments = new ArrayList<>(segments.size());
+		for (int i = 0; i < segments.size(); i++) {
+			if (isOfModality(segments.get(i), wanted)) {
+				kept[i] = true;
+				keptSegments.add(segments.get(i));
+			}
+		}
+		if (keptSegments.size() == segments.size()) {
+			return new BiometricRecordProjection(biometricRecord, biometricRecord, null, 0);
+		}
+		return new BiometricRecordProjection(biometricRecord, withSegments(biometricRecord, keptSegments), kept,
+				keptSegments.size());
+	}
+
+	/**
+	 * Creates a record sharing the header of {@code source} with the given
+	 * segments.
+	 *
+	 * @param source   the record whose header is reused.
+	 * @param segments the segments of the new record.
+	 * @return the new record.
+	 */
+	public static BiometricRecord withSegments(BiometricRecord source, List<BIR> segments) {
+		BiometricRecord biometricRecord = new BiometricRecord(source.getVersion(), source.getCbeffversion(),
+				source.getBirInfo());
+		biometricRecord.setSegments(segments);
+		biometricRecord.setOthers(source.getOthers());
+		return biometricRecord;
+	}
+
+	private static boolean isOfModality(BIR segment, Set<BiometricType> modalities) {
+		BDBInfo bdbInfo = segment == null ? null : segment.getBdbInfo();
+		if (bdbInfo == null || bdbInfo.getType() == null || bdbInfo.getType().isEmpty()) {
+			return true;
+		}
+		for (BiometricType type : bdbInfo.getType()) {
+			if (modalities.contains(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the record to hand to the SDK.
+	 *
+	 * @return the projected record, or the source record when nothing was left
+	 *         out.
+	 */
+	public BiometricRecord getRecord() {
+		return projected;
+	}
+
+	/**
+	 * Returns the number of segments left out of the projection.
+	 *
+	 * @return the skipped segment count.
+	 */
+	public int getSkippedSegments() {
+		return kept == null ? 0 : kept.length - keptCount;
+	}
+
+	/**
+	 * Re-inserts the segments left out of the projection into a record produced
+	 * from it.
+	 * <p>
+	 * When the SDK returned one segment per projected segment, every segment is
+	 * put back at its original position. Otherwise the segments that were left
+	 * out are appended, in their original order, after the SDK segments.
+	 * </p>
+	 *
+	 * @param processed the record produced by the SDK from {@link #getRecord()}.
+	 * @return {@code processed} with the left out segments restored.
+	 */
+	public BiometricRecord restore(BiometricRecord processed) {
+		if (kept == null || processed == null || processed.getSegments() == null) {
+			return processed;
+		}
+		List<BIR> sourceSegments = source.getSegments();
+		List<BIR> processedSegments = processed.getSegments();
+		List<BIR> restored = new ArrayList<>(sourceSegments.size() - keptCount + processedSegments.size());
+		if (processedSegments.size() == keptCount) {
+			Iterator<BIR> processedIterator = processedSegments.iterator();
+			for (int i = 0; i < kept.length; i++) {
+				restored.add(kept[i] ? processedIterator.next() : sourceSegments.get(i));
+			}
+		} else {
+			restored.addAll(processedSegments);
+			for (int i = 0; i < kept.length; i++) {
+				if (!kept[i]) {
+					restored.add(sourceSegments.get(i));
+				}
+			}
+		}
+		processed.setSegments(restored);
+		return processed;
+	}
+}
@@ -92,7 +92,17 @@ public class Utils {
 	 * @return decoded UTF-8 string.
 	 */
 	public static String base64Decode(String data) {
-		return new String(Base64.getDecoder().decode(data), StandardCharsets.UTF_8);
+		return new String(base64DecodeToBytes(data), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes a Base64 encoded string into its raw bytes.
+	 *
+	 * @param data Base64 encoded string to decode.
+	 * @return decoded bytes.
+	 */
+	public static byte[] base64DecodeToBytes(String data) {
+		return Base64.getDecoder().decode(data);
 	}
 
 	/**
@@ -271,7 +281,11 @@ public class Utils {
 		stringBuilder.append(SAMPLE);
 		appendString(matchRequestDto.getSample(), stringBuilder);
 		stringBuilder.append(", \"gallery\": ");
-		appendString(Arrays.stream(matchRequestDto.getGallery()).iterator(), stringBuilder, this::appendString);
+		if (matchRequestDto.getGallery() == null) {
+			stringBuilder.append("null");
+		} else {
+			appendString(Arrays.stream(matchRequestDto.getGallery()).iterator(), stringBuilder, this::appendString);
+		}
 		stringBuilder.append(" }");
 		return stringBuilder.toString();
 	}
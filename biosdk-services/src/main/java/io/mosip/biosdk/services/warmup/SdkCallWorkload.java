@@ -0,0 +1,74 @@
+package io.mosip.biosdk.services.warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import io.mosip.biosdk.services.synthetic.ModalityProfile;
+import io.mosip.biosdk.services.synthetic.SyntheticRecordGenerator;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Synthetic SDK calls of every operation but {@code init}, made directly on an
+ * {@link IBioApiV2} instance rather than through a provider, so that an
+ * instance that does not serve requests yet can be warmed up.
+ * <p>
+ * The samples and the match gallery are those of the {@link WarmupWorkload}.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+final class SdkCallWorkload {
+	private static final String TARGET_FORMAT = "IMAGE/JPEG";
+
+	/**
+	 * One SDK call of the workload.
+	 *
+	 * @param operation the SDK operation.
+	 * @param call      makes the call on an instance.
+	 */
+	record Call(String operation, Function<IBioApiV2, Object> call) {
+	}
+
+	private final List<Call> calls = new ArrayList<>();
+
+	/**
+	 * Builds the calls of the workload.
+	 *
+	 * @param modalities  the modalities of the samples.
+	 * @param gallerySize the number of records of the match gallery.
+	 */
+	SdkCallWorkload(List<BiometricType> modalities, int gallerySize) {
+		for (BiometricType modality : modalities) {
+			BiometricRecord sample = new SyntheticRecordGenerator(modality.ordinal())
+					.withModality(ModalityProfile.imageOf(modality)).record(0);
+			List<BiometricType> sampleModalities = List.of(modality);
+			String sourceFormat = WarmupWorkload.sourceFormat(modality);
+			calls.add(new Call(WarmupWorkload.CHECK_QUALITY,
+					sdk -> sdk.checkQuality(sample, sampleModalities, new HashMap<>())));
+			calls.add(new Call(WarmupWorkload.EXTRACT_TEMPLATE,
+					sdk -> sdk.extractTemplate(sample, sampleModalities, new HashMap<>())));
+			calls.add(new Call(WarmupWorkload.SEGMENT, sdk -> sdk.segment(sample, sampleModalities, new HashMap<>())));
+			calls.add(new Call(WarmupWorkload.CONVERT_FORMAT, sdk -> sdk.convertFormatV2(sample, sourceFormat,
+					TARGET_FORMAT, new HashMap<>(), new HashMap<>(), sampleModalities)));
+		}
+		SyntheticRecordGenerator templates = new SyntheticRecordGenerator(0L)
+				.withModality(ModalityProfile.fingerTemplate());
+		BiometricRecord probe = templates.record(gallerySize / 2L);
+		BiometricRecord[] gallery = templates.records(0, gallerySize);
+		calls.add(new Call(WarmupWorkload.MATCH,
+				sdk -> sdk.match(probe, gallery, List.of(BiometricType.FINGER), new HashMap<>())));
+	}
+
+	/**
+	 * Returns the calls of one iteration.
+	 *
+	 * @return the calls, in order.
+	 */
+	List<Call> calls() {
+		return calls;
+	}
+}
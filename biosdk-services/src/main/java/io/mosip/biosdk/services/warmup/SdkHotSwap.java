@@ -0,0 +1,405 @@
+package io.mosip.biosdk.services.warmup;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.sdk.BioSdkEngines;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
+import io.mosip.biosdk.services.sdk.worker.SdkWorkerPool;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Replaces the Bio SDK implementation while the service runs, e.g. with a new
+ * vendor release, without losing the warm JIT and caches of a restart.
+ * <p>
+ * A swap runs in the background through the phases of {@link State}: the new
+ * implementation is loaded from its class path into a fresh class loader,
+ * initialised with the parameters of the active instance, and warmed up with
+ * the {@link SdkCallWorkload}. The warm-up calls are only made on the new
+ * instance, so that they do not compete with the requests served by the
+ * active one. The new instance then becomes the active one in a single step
+ * through {@link SdkInitCache#swap}; requests in flight finish on the previous
+ * instance, and once they have all completed, within
+ * {@code mosip.biosdk.swap.drain-timeout-ms}, the previous instance is closed
+ * if it is {@link AutoCloseable} and its class loader is closed too when it
+ * was created by an earlier swap. A previous instance still in use after the
+ * timeout is left to the garbage collector.
+ * </p>
+ * <p>
+ * The class path of the new implementation is restricted to the jars and
+ * directories under {@code mosip.biosdk.swap.class-path-directory}; when it is
+ * not set, only classes of the application class path can be swapped in.
+ * </p>
+ * <p>
+ * A failure before the switch leaves the active instance serving. Swapping is
+ * not supported when {@link BioSdkEngines} are configured, as it replaces the
+ * whole SDK, nor when the SDK runs in {@link SdkWorkerPool} processes. The
+ * phases are timed in the {@code biosdk.swap.phase} timer and the warm-up
+ * calls in {@code biosdk.swap.call}.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class SdkHotSwap {
+	private Logger logger = LoggerConfig.logConfig(SdkHotSwap.class);
+
+	private static final String SWAP = "swap";
+	private static final String PHASE_LOAD = "load";
+	private static final String PHASE_INIT = "init";
+	private static final String PHASE_WARMUP = "warmup";
+	private static final String PHASE_DRAIN = "drain";
+	private static final long DRAIN_PROGRESS_MILLIS = 100;
+
+	/**
+	 * States of a swap.
+	 */
+	public enum State {
+		/** No swap was requested. */
+		IDLE,
+		/** Loading the new implementation. */
+		LOADING,
+		/** Calling {@code init} on the new instance. */
+		INITIALISING,
+		/** Running the warm-up calls on the new instance. */
+		WARMING_UP,
+		/** Switched; waiting for the requests on the previous instance. */
+		DRAINING,
+		/** The new instance serves all requests. */
+		COMPLETED,
+		/** The swap failed; the previous instance keeps serving. */
+		FAILED
+	}
+
+	@Value("${mosip.biosdk.swap.warmup-iterations:10}")
+	private int iterations;
+
+	@Value("${mosip.biosdk.swap.drain-timeout-ms:60000}")
+	private long drainTimeoutMillis;
+
+	@Value("${mosip.biosdk.swap.class-path-directory:}")
+	private String classPathDirectory;
+
+	@Value("${mosip.biosdk.warmup.modalities:FINGER,IRIS,FACE}")
+	private List<BiometricType> modalities;
+
+	@Value("${mosip.biosdk.warmup.gallery-size:20}")
+	private int gallerySize;
+
+	private final SdkInitCache sdkInitCache;
+	private final BioSdkEngines bioSdkEngines;
+	private final SdkWorkerPool sdkWorkerPool;
+	private final BioSdkMetrics metrics;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final AtomicInteger swaps = new AtomicInteger();
+	private volatile State state = State.IDLE;
+	private volatile Map<String, Object> details = Collections.emptyMap();
+	/** Class loader of the implementation swapped in last; only used by the swap thread. */
+	private ClassLoader swappedLoader;
+
+	/**
+	 * Constructs a new {@code SdkHotSwap}.
+	 *
+	 * @param sdkInitCache  the initialised SDK instances.
+	 * @param bioSdkEngines the engines, which load SDK classes.
+	 * @param sdkWorkerPool the worker processes running the SDK, when enabled.
+	 * @param metrics       the service metrics.
+	 */
+	@Autowired
+	public SdkHotSwap(SdkInitCache sdkInitCache, BioSdkEngines bioSdkEngines, SdkWorkerPool sdkWorkerPool,
+			BioSdkMetrics metrics) {
+		this.sdkInitCache = sdkInitCache;
+		this.bioSdkEngines = bioSdkEngines;
+		this.sdkWorkerPool = sdkWorkerPool;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Starts swapping to a new implementation in the background.
+	 *
+	 * @param impl      the class implementing {@code IBioApiV2}.
+	 * @param classPath the jars and directories of jars to load it from, relative
+	 *                  to {@code mosip.biosdk.swap.class-path-directory}; empty
+	 *                  to load it from the application class path.
+	 * @return the progress of the swap.
+	 * @throws IllegalArgumentException if no class is given, or a class path
+	 *                                  entry is not found under
+	 *                                  {@code mosip.biosdk.swap.class-path-directory}.
+	 * @throws IllegalStateException    if a swap is in progress, SDK engines
+	 *                                  are configured or the SDK runs in worker
+	 *                                  processes.
+	 */
+	public Map<String, Object> start(String impl, List<String> classPath) {
+		if (StringUtils.isBlank(impl)) {
+			throw new IllegalArgumentException("No SDK class given");
+		}
+		if (bioSdkEngines.isConfigured()) {
+			throw new IllegalStateException("SDK swap is not supported with SDK engines");
+		}
+		if (sdkWorkerPool.isEnabled()) {
+			throw new IllegalStateException("SDK swap is not supported with SDK workers");
+		}
+		List<String> entries = resolve(classPath);
+		if (!running.compareAndSet(false, true)) {
+			throw new IllegalStateException("SDK swap already in progress");
+		}
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("impl", impl);
+		summary.put("classPath", entries);
+		summary.put("startedAt", Instant.now().toString());
+		publish(State.LOADING, summary);
+		Thread thread = new Thread(() -> {
+			try {
+				run(impl, entries, summary);
+			} finally {
+				running.set(false);
+			}
+		}, "biosdk-swap");
+		thread.setDaemon(true);
+		thread.start();
+		return status();
+	}
+
+	/**
+	 * Resolves class path entries against the class path directory, rejecting
+	 * those that do not exist or lead out of it.
+	 */
+	private List<String> resolve(List<String> classPath) {
+		if (classPath.isEmpty()) {
+			return classPath;
+		}
+		if (StringUtils.isBlank(classPathDirectory)) {
+			throw new IllegalArgumentException(
+					"SDK jars cannot be loaded: mosip.biosdk.swap.class-path-directory is not set");
+		}
+		Path directory;
+		try {
+			directory = Path.of(classPathDirectory).toRealPath();
+		} catch (IOException | InvalidPathException e) {
+			throw new IllegalStateException("Invalid mosip.biosdk.swap.class-path-directory: " + e.getMessage(), e);
+		}
+		List<String> entries = new ArrayList<>(classPath.size());
+		for (String entry : classPath) {
+			Path path;
+			try {
+				path = directory.resolve(entry).toRealPath();
+			} catch (IOException | InvalidPathException e) {
+				throw new IllegalArgumentException("Class path entry not found: " + entry, e);
+			}
+			if (!path.startsWith(directory)) {
+				throw new IllegalArgumentException("Class path entry outside " + directory + ": " + entry);
+			}
+			entries.add(path.toString());
+		}
+		return entries;
+	}
+
+	/**
+	 * Returns the progress of the last swap.
+	 *
+	 * @return the state, the timings of the completed phases, the warm-up
+	 *         latency of the new instance, and the requests still in flight on
+	 *         the previous instance while draining.
+	 */
+	public Map<String, Object> status() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("state", state);
+		status.putAll(details);
+		return status;
+	}
+
+	private void run(String impl, List<String> classPath, Map<String, Object> summary) {
+		long start = System.nanoTime();
+		ClassLoader classLoader = null;
+		boolean switched = false;
+		try {
+			long phaseStart = System.nanoTime();
+			classLoader = bioSdkEngines.newClassLoader("biosdk-swap-" + swaps.incrementAndGet(), classPath);
+			ClassLoader loader = classLoader;
+			IBioApiV2 candidate;
+			try {
+				candidate = bioSdkEngines.instantiate(impl, loader);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Cannot create SDK " + impl + ": " + e, e);
+			}
+			summary.put("loadMillis", phaseEnd(PHASE_LOAD, phaseStart));
+
+			publish(State.INITIALISING, summary);
+			Map<String, String> activeParams = sdkInitCache.initParams();
+			Map<String, String> initParams = activeParams == null ? new HashMap<>() : new HashMap<>(activeParams);
+			phaseStart = System.nanoTime();
+			SDKInfo info = inLoader(loader, () -> candidate.init(initParams));
+			summary.put("initMillis", phaseEnd(PHASE_INIT, phaseStart));
+			summary.put("sdkVersion", info == null ? null : info.getSdkVersion());
+
+			publish(State.WARMING_UP, summary);
+			phaseStart = System.nanoTime();
+			summary.put("latency", warmUp(candidate, loader));
+			summary.put("warmupMillis", phaseEnd(PHASE_WARMUP, phaseStart));
+
+			SdkInitCache.Retired retired = sdkInitCache.swap(candidate, initParams, info,
+					() -> bioSdkEngines.instantiate(impl, loader));
+			switched = true;
+			ClassLoader previousLoader = swappedLoader;
+			swappedLoader = loader;
+			summary.put("switchedAt", Instant.now().toString());
+			publish(State.DRAINING, summary);
+			phaseStart = System.nanoTime();
+			boolean drained = drain(retired, summary);
+			summary.put("drainMillis", phaseEnd(PHASE_DRAIN, phaseStart));
+			summary.put("drained", drained);
+			if (drained) {
+				unload(retired, previousLoader);
+			} else {
+				logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, SWAP, retired.inFlight()
+						+ " requests still on the previous SDK after the drain timeout, left to the garbage collector");
+			}
+			summary.put("totalMillis", millis(System.nanoTime() - start));
+			publish(State.COMPLETED, summary);
+			metrics.recordSwap(State.COMPLETED.name().toLowerCase());
+			logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, SWAP, "SDK swapped: " + summary);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail(e, summary, switched ? null : classLoader);
+		} catch (RuntimeException | Error e) {
+			fail(e, summary, switched ? null : classLoader);
+		}
+	}
+
+	/**
+	 * Runs the warm-up calls on the new instance.
+	 */
+	private Map<String, Object> warmUp(IBioApiV2 candidate, ClassLoader loader) {
+		SdkCallWorkload workload = new SdkCallWorkload(modalities, gallerySize);
+		Map<String, WarmupWorkload.OperationStats> stats = new LinkedHashMap<>();
+		for (int i = 0; i < iterations; i++) {
+			for (SdkCallWorkload.Call call : workload.calls()) {
+				time(call, candidate, loader, stats);
+			}
+		}
+		Map<String, Object> latency = new LinkedHashMap<>();
+		stats.forEach((operation, operationStats) -> latency.put(operation, operationStats.toDetails()));
+		return latency;
+	}
+
+	private void time(SdkCallWorkload.Call call, IBioApiV2 sdk, ClassLoader loader,
+			Map<String, WarmupWorkload.OperationStats> stats) {
+		long start = System.nanoTime();
+		boolean failed = false;
+		try {
+			inLoader(loader, () -> call.call().apply(sdk));
+		} catch (RuntimeException e) {
+			failed = true;
+		}
+		long nanos = System.nanoTime() - start;
+		stats.computeIfAbsent(call.operation(), o -> new WarmupWorkload.OperationStats()).add(nanos, failed);
+		metrics.recordSwapCall(call.operation(), nanos);
+	}
+
+	private boolean drain(SdkInitCache.Retired retired, Map<String, Object> summary) throws InterruptedException {
+		long deadline = System.nanoTime() + drainTimeoutMillis * 1_000_000L;
+		while (true) {
+			summary.put("inFlight", retired.inFlight());
+			publish(State.DRAINING, summary);
+			long remainingMillis = (deadline - System.nanoTime()) / 1_000_000L;
+			if (retired.awaitDrained(Math.max(0, Math.min(DRAIN_PROGRESS_MILLIS, remainingMillis)))) {
+				summary.put("inFlight", 0);
+				return true;
+			}
+			if (remainingMillis <= 0) {
+				return false;
+			}
+		}
+	}
+
+	private void unload(SdkInitCache.Retired retired, ClassLoader previousLoader) {
+		for (IBioApiV2 sdk : retired.sdks()) {
+			if (sdk instanceof AutoCloseable closeable) {
+				try {
+					inLoader(sdk.getClass().getClassLoader(), () -> {
+						try {
+							closeable.close();
+						} catch (Exception e) {
+							throw new IllegalStateException(e);
+						}
+						return null;
+					});
+				} catch (RuntimeException e) {
+					logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, SWAP, "closing the previous SDK failed: " + e);
+				}
+			}
+		}
+		close(previousLoader);
+	}
+
+	private void close(ClassLoader classLoader) {
+		if (classLoader instanceof Closeable closeable && classLoader != getClass().getClassLoader()) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, SWAP, "closing the previous class loader failed: " + e);
+			}
+		}
+	}
+
+	private void fail(Throwable e, Map<String, Object> summary, ClassLoader unused) {
+		logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, SWAP, "SDK swap failed in " + state + ": " + e);
+		close(unused);
+		summary.put("error", e.toString());
+		publish(State.FAILED, summary);
+		metrics.recordSwap(State.FAILED.name().toLowerCase());
+	}
+
+	private void publish(State newState, Map<String, Object> summary) {
+		details = new LinkedHashMap<>(summary);
+		state = newState;
+	}
+
+	private static <T> T inLoader(ClassLoader loader, Supplier<T> call) {
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			return call.get();
+		} finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	private long phaseEnd(String phase, long phaseStart) {
+		long nanos = System.nanoTime() - phaseStart;
+		metrics.recordSwapPhase(phase, nanos);
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, SWAP, phase + " took " + millis(nanos) + " ms");
+		return millis(nanos);
+	}
+
+	private static long millis(long nanos) {
+		return nanos / 1_000_000L;
+	}
+}
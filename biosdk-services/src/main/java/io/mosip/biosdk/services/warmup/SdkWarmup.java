@@ -0,0 +1,358 @@
+package io.mosip.biosdk.services.warmup;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.crac.RestoreException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.sdk.ModalityRoutingBioApi;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
+import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.synthetic.SyntheticRequests;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Creates, initialises and warms up the Bio SDK in the background while the
+ * application starts, when {@code mosip.biosdk.warmup.enabled} is set.
+ * <p>
+ * Once the context is refreshed a daemon thread creates the {@link IBioApiV2}
+ * bean, which loads the SDK classes and native libraries, calls {@code init}
+ * through every spec 1.0 {@link BioSdkServiceProvider}, and then runs the
+ * {@link WarmupWorkload} through all their operations so that the JIT compiles
+ * the request path before the first real request. The
+ * {@link SdkWarmupHealthIndicator} keeps the readiness probe out of service
+ * until this completes.
+ * </p>
+ * <p>
+ * The duration of each phase is recorded in the {@code biosdk.startup} timer
+ * and logged. Failed warm-up calls are only counted, as an SDK may reject
+ * synthetic samples; a failure to create or initialise the SDK marks the
+ * service as down. Once the warm-up ends the other {@code biosdk} meters are
+ * reset, so that the request, prefilter and projection meters report real
+ * traffic only. When {@code mosip.biosdk.warmup.enabled} is false the
+ * service is ready at once and the SDK is created by the first request.
+ * </p>
+ * <p>
+ * With {@code mosip.biosdk.warmup.exit-when-ready} the application exits once
+ * the warm-up ends, with status 0 when ready and 1 on failure. This is the
+ * training run of the {@code cds} build profile, which archives the classes
+ * loaded by a complete startup, SDK included.
+ * </p>
+ * <p>
+ * With {@code mosip.biosdk.warmup.checkpoint-when-ready} a CRaC checkpoint is
+ * requested once the SDK is warm, so that a restored instance starts with the
+ * SDK initialised and the request path compiled. Whether taken this way or
+ * with {@code jcmd <pid> JDK.checkpoint}, on restore the SDK class is
+ * validated again against {@code biosdk_bioapi_impl}, the restored SDK
+ * instance must be of that class, and {@code init} is called again unless
+ * {@code mosip.biosdk.warmup.reinit-on-restore} is false. The service stays
+ * out of service until this completes, and is down if it fails. An SDK holding
+ * files, sockets or devices must register its own {@link Resource} to release
+ * them. On a JVM without CRaC support the checkpoint is skipped.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class SdkWarmup implements Resource {
+	private Logger logger = LoggerConfig.logConfig(SdkWarmup.class);
+
+	private static final String WARMUP = "warmup";
+	private static final String PHASE_BOOTSTRAP = "bootstrap";
+	private static final String PHASE_INIT = "init";
+	private static final String PHASE_RESTORE = "restore";
+
+	/**
+	 * States of the startup of the SDK.
+	 */
+	public enum State {
+		/** Waiting for the application context. */
+		PENDING,
+		/** Creating the SDK. */
+		BOOTSTRAPPING,
+		/** Calling {@code init}. */
+		INITIALISING,
+		/** Running the warm-up workload. */
+		WARMING_UP,
+		/** Ready for traffic. */
+		READY,
+		/** Taking a CRaC checkpoint. */
+		CHECKPOINTING,
+		/** Validating and initialising the SDK after a CRaC restore. */
+		RESTORING,
+		/** The SDK could not be created or initialised. */
+		FAILED
+	}
+
+	private final SdkInitCache sdkInitCache;
+	private final List<BioSdkServiceProvider> providers;
+	private final BioSdkMetrics metrics;
+	private final BioSdkLibConfig bioSdkLibConfig;
+	private final ApplicationContext applicationContext;
+
+	@Value("${mosip.biosdk.warmup.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.biosdk.warmup.iterations:10}")
+	private int iterations;
+
+	@Value("${mosip.biosdk.warmup.max-duration-ms:120000}")
+	private long maxDurationMillis;
+
+	@Value("${mosip.biosdk.warmup.modalities:FINGER,IRIS,FACE}")
+	private List<BiometricType> modalities;
+
+	@Value("${mosip.biosdk.warmup.gallery-size:20}")
+	private int gallerySize;
+
+	@Value("#{${mosip.biosdk.warmup.init-params:{:}}}")
+	private Map<String, String> initParams;
+
+	@Value("${mosip.biosdk.warmup.exit-when-ready:false}")
+	private boolean exitWhenReady;
+
+	@Value("${mosip.biosdk.warmup.checkpoint-when-ready:false}")
+	private boolean checkpointWhenReady;
+
+	@Value("${mosip.biosdk.warmup.reinit-on-restore:true}")
+	private boolean reinitOnRestore;
+
+	private final AtomicBoolean started = new AtomicBoolean();
+	private volatile State state = State.PENDING;
+	private volatile Throwable failure;
+	private volatile Map<String, Object> details = Collections.emptyMap();
+	private final List<BioSdkServiceProvider> warmed = new ArrayList<>();
+	private volatile RequestDto initRequest;
+
+	/**
+	 * Constructs a new {@code SdkWarmup}.
+	 *
+	 * @param sdkInitCache       the initialised SDK instances.
+	 * @param providers          the service providers to warm up.
+	 * @param metrics            the service metrics.
+	 * @param bioSdkLibConfig    the SDK configuration, validated again on
+	 *                           restore.
+	 * @param applicationContext the application context, closed on
+	 *                           {@code exit-when-ready}.
+	 */
+	@Autowired
+	public SdkWarmup(SdkInitCache sdkInitCache, List<BioSdkServiceProvider> providers,
+			BioSdkMetrics metrics, BioSdkLibConfig bioSdkLibConfig, ApplicationContext applicationContext) {
+		this.sdkInitCache = sdkInitCache;
+		this.providers = providers;
+		this.metrics = metrics;
+		this.bioSdkLibConfig = bioSdkLibConfig;
+		this.applicationContext = applicationContext;
+		for (BioSdkServiceProvider provider : providers) {
+			if (SyntheticRequests.VERSION.equals(provider.getSpecVersion())) {
+				warmed.add(provider);
+			}
+		}
+	}
+
+	/**
+	 * Starts the warm-up thread once the application context is refreshed.
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	public void start() {
+		if (!started.compareAndSet(false, true)) {
+			return;
+		}
+		if (!enabled) {
+			logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "SDK warm-up disabled");
+			state = State.READY;
+			return;
+		}
+		Core.getGlobalContext().register(this);
+		Thread thread = new Thread(() -> {
+			run();
+			if (checkpointWhenReady && state == State.READY) {
+				checkpoint();
+			}
+			if (exitWhenReady) {
+				exit();
+			}
+		}, "biosdk-warmup");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void run() {
+		long start = System.nanoTime();
+		Map<String, Object> summary = new LinkedHashMap<>();
+		WarmupWorkload workload;
+		try {
+			state = State.BOOTSTRAPPING;
+			long phaseStart = System.nanoTime();
+			sdkInitCache.current();
+			summary.put("bootstrapMillis", phaseEnd(PHASE_BOOTSTRAP, phaseStart));
+
+			state = State.INITIALISING;
+			workload = new WarmupWorkload(modalities, gallerySize, initParams);
+			initRequest = workload.initRequest();
+			phaseStart = System.nanoTime();
+			init();
+			summary.put("initMillis", phaseEnd(PHASE_INIT, phaseStart));
+		} catch (RuntimeException | Error e) {
+			fail(e, summary);
+			return;
+		}
+
+		state = State.WARMING_UP;
+		long phaseStart = System.nanoTime();
+		long deadline = phaseStart + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+		int completed = 0;
+		while (completed < iterations && System.nanoTime() - deadline < 0) {
+			for (BioSdkServiceProvider provider : warmed) {
+				workload.iterate(provider);
+			}
+			completed++;
+		}
+		summary.put("warmupMillis", phaseEnd(WARMUP, phaseStart));
+		summary.put("iterations", completed);
+		summary.put("failedCalls", workload.getFailures());
+		Map<String, Object> operations = new LinkedHashMap<>();
+		workload.getStats().forEach((operation, stats) -> operations.put(operation, stats.toDetails()));
+		summary.put("operations", operations);
+		summary.put("totalMillis", millis(System.nanoTime() - start));
+		details = summary;
+		sdkInitCache.markWarmedUp();
+		metrics.reset();
+		state = State.READY;
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "SDK ready: " + summary);
+	}
+
+	private void init() {
+		for (BioSdkServiceProvider provider : warmed) {
+			provider.init(initRequest);
+		}
+	}
+
+	private void fail(Throwable e, Map<String, Object> summary) {
+		logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "SDK startup failed in " + state + ": " + e);
+		failure = e;
+		details = summary;
+		state = State.FAILED;
+	}
+
+	private void checkpoint() {
+		try {
+			Core.checkpointRestore();
+		} catch (UnsupportedOperationException e) {
+			logger.warn(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP,
+					"checkpoint skipped, the JVM does not support CRaC");
+		} catch (CheckpointException | RestoreException e) {
+			logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "checkpoint failed: " + e);
+		}
+	}
+
+	@Override
+	public void beforeCheckpoint(Context<? extends Resource> context) {
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "taking checkpoint in state " + state);
+		state = State.CHECKPOINTING;
+	}
+
+	/**
+	 * Validates the SDK again and initialises it, as the restored process may
+	 * run with another configuration or on another host than the checkpointed
+	 * one. Failures mark the service as down rather than failing the restore.
+	 */
+	@Override
+	public void afterRestore(Context<? extends Resource> context) {
+		state = State.RESTORING;
+		long start = System.nanoTime();
+		Map<String, Object> summary = new LinkedHashMap<>(details);
+		try {
+			bioSdkLibConfig.validateBioSdkLib();
+			IBioApiV2 sdk = sdkInitCache.current();
+			if (!bioSdkLibConfig.isCurrent(sdk)) {
+				throw new IllegalStateException("Checkpoint holds SDK "
+						+ (sdk instanceof ModalityRoutingBioApi ? sdk : sdk.getClass().getName())
+						+ " which is not the configured SDK");
+			}
+			if (reinitOnRestore && initRequest != null) {
+				sdkInitCache.invalidate();
+				init();
+				sdkInitCache.markWarmedUp();
+			}
+		} catch (ClassNotFoundException | RuntimeException | Error e) {
+			fail(e, summary);
+			return;
+		}
+		summary.put("restoreMillis", phaseEnd(PHASE_RESTORE, start));
+		details = summary;
+		failure = null;
+		state = State.READY;
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "SDK ready after restore");
+	}
+
+	private void exit() {
+		int status = state == State.READY ? 0 : 1;
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, "exiting with status " + status);
+		System.exit(SpringApplication.exit(applicationContext, () -> status));
+	}
+
+	private long phaseEnd(String phase, long phaseStart) {
+		long nanos = System.nanoTime() - phaseStart;
+		metrics.recordStartup(phase, nanos);
+		logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, WARMUP, phase + " took " + millis(nanos) + " ms");
+		return millis(nanos);
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * Returns the startup state of the SDK.
+	 *
+	 * @return the state.
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Returns why the SDK could not be created or initialised.
+	 *
+	 * @return the failure, or {@code null}.
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Returns the timings of the completed phases and the per operation warm-up
+	 * statistics.
+	 *
+	 * @return the details.
+	 */
+	public Map<String, Object> getDetails() {
+		return details;
+	}
+}
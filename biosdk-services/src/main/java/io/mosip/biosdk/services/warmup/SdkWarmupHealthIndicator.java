@@ -0,0 +1,54 @@
+package io.mosip.biosdk.services.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the startup of the SDK by the {@link SdkWarmup} as the
+ * {@code sdkWarmup} health component.
+ * <p>
+ * The component is {@code OUT_OF_SERVICE} while the SDK is being created,
+ * initialised and warmed up, or checkpointed and restored with CRaC,
+ * {@code UP} with the startup timings once it is ready, and {@code DOWN} if it
+ * could not be created or initialised. It is part of the readiness group
+ * ({@code /actuator/health/readiness}) but not of the liveness group
+ * ({@code /actuator/health/liveness}), so that a slow SDK load holds back
+ * traffic without getting the pod restarted. The Helm chart probes these two
+ * groups; the root {@code /actuator/health} aggregates every component and is
+ * not meant for probes.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+@Component
+public class SdkWarmupHealthIndicator implements HealthIndicator {
+	private static final String STATE = "state";
+
+	private final SdkWarmup sdkWarmup;
+
+	/**
+	 * Constructs a new {@code SdkWarmupHealthIndicator}.
+	 *
+	 * @param sdkWarmup the SDK warm-up.
+	 */
+	@Autowired
+	public SdkWarmupHealthIndicator(SdkWarmup sdkWarmup) {
+		this.sdkWarmup = sdkWarmup;
+	}
+
+	@Override
+	public Health health() {
+		SdkWarmup.State state = sdkWarmup.getState();
+		switch (state) {
+		case READY:
+			return Health.up().withDetail(STATE, state).withDetails(sdkWarmup.getDetails()).build();
+		case FAILED:
+			return Health.down(new IllegalStateException(String.valueOf(sdkWarmup.getFailure())))
+					.withDetail(STATE, state).withDetails(sdkWarmup.getDetails()).build();
+		default:
+			return Health.outOfService().withDetail(STATE, state).build();
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package io.mosip.biosdk.services.warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.synthetic.ModalityProfile;
+import io.mosip.biosdk.services.synthetic.SyntheticRecordGenerator;
+import io.mosip.biosdk.services.synthetic.SyntheticRequests;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Synthetic spec 1.0 requests run through every operation of a
+ * {@link BioSdkServiceProvider} to load the SDK classes and warm up the JIT
+ * before the service takes traffic.
+ * <p>
+ * Samples are built by {@link SyntheticRecordGenerator} for each configured
+ * modality, and match galleries hold finger templates. Each call is timed and
+ * its failure recorded, since an SDK may reject synthetic data while still
+ * having been exercised.
+ * </p>
+ *
+ * @since 1.2.1
+ */
+class WarmupWorkload {
+	static final String CHECK_QUALITY = "checkQuality";
+	static final String EXTRACT_TEMPLATE = "extractTemplate";
+	static final String SEGMENT = "segment";
+	static final String CONVERT_FORMAT = "convertFormat";
+	static final String MATCH = "match";
+	static final String MATCH_STREAM = "matchStream";
+
+	private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+	private final Map<String, String> initParams;
+	private final List<Sample> samples = new ArrayList<>();
+	private final RequestDto matchRequest;
+	private final String matchStreamRequest;
+	private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+
+	/**
+	 * Builds the requests of the workload.
+	 *
+	 * @param modalities  the modalities of the samples.
+	 * @param gallerySize the number of records of the match galleries.
+	 * @param initParams  the parameters of the SDK init call.
+	 */
+	WarmupWorkload(List<BiometricType> modalities, int gallerySize, Map<String, String> initParams) {
+		this.initParams = initParams;
+		for (BiometricType modality : modalities) {
+			samples.add(new Sample(modality));
+		}
+		SyntheticRecordGenerator templates = new SyntheticRecordGenerator(0L)
+				.withModality(ModalityProfile.fingerTemplate());
+		MatchRequestDto matchRequestDto = new MatchRequestDto();
+		matchRequestDto.setSample(templates.record(gallerySize / 2L));
+		matchRequestDto.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		matchRequestDto.setGallery(templates.records(0, gallerySize));
+		matchRequest = SyntheticRequests.request(matchRequestDto);
+
+		StringBuilder stream = new StringBuilder();
+		matchRequestDto.setGallery(null);
+		stream.append(SyntheticRequests.requestJson(matchRequestDto)).append('\n');
+		for (BiometricRecord biometricRecord : templates.records(0, gallerySize)) {
+			stream.append(GSON.toJson(biometricRecord)).append('\n');
+		}
+		matchStreamRequest = stream.toString();
+	}
+
+	/**
+	 * Builds the {@code init} request. It is not part of the iterations, as the
+	 * SDK is initialised only once.
+	 *
+	 * @return the request.
+	 */
+	RequestDto initRequest() {
+		InitRequestDto initRequestDto = new InitRequestDto();
+		initRequestDto.setInitParams(initParams);
+		return SyntheticRequests.request(initRequestDto);
+	}
+
+	/**
+	 * Runs one iteration of every operation but {@code init} on a provider.
+	 *
+	 * @param provider the provider.
+	 */
+	void iterate(BioSdkServiceProvider provider) {
+		for (Sample sample : samples) {
+			call(CHECK_QUALITY, () -> provider.checkQuality(sample.checkQuality));
+			call(EXTRACT_TEMPLATE, () -> provider.extractTemplate(sample.extractTemplate));
+			call(SEGMENT, () -> provider.segment(sample.segment));
+			call(CONVERT_FORMAT, () -> provider.convertFormat(sample.convertFormat));
+		}
+		call(MATCH, () -> provider.match(matchRequest));
+		call(MATCH_STREAM, () -> {
+			BufferedReader gallery = new BufferedReader(new StringReader(matchStreamRequest));
+			try {
+				RequestDto header = GSON.fromJson(gallery.readLine(), RequestDto.class);
+				provider.matchStream(header, gallery, new StringWriter());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Returns the image format of the synthetic samples of a modality, the source
+	 * format of the {@code convertFormat} calls.
+	 *
+	 * @param modality the modality.
+	 * @return the ISO format name.
+	 */
+	static String sourceFormat(BiometricType modality) {
+		switch (modality) {
+		case IRIS:
+			return "ISO19794_6_2011";
+		case FACE:
+			return "ISO19794_5_2011";
+		default:
+			return "ISO19794_4_2011";
+		}
+	}
+
+	private void call(String operation, Supplier<Object> call) {
+		OperationStats operationStats = stats.computeIfAbsent(operation, o -> new OperationStats());
+		long start = System.nanoTime();
+		boolean failed = false;
+		try {
+			call.get();
+		} catch (RuntimeException e) {
+			failed = true;
+		}
+		operationStats.add(System.nanoTime() - start, failed);
+	}
+
+	/**
+	 * Returns the statistics of the calls made so far, by operation.
+	 *
+	 * @return the statistics, in call order.
+	 */
+	Map<String, OperationStats> getStats() {
+		return stats;
+	}
+
+	/**
+	 * Returns the number of failed calls.
+	 *
+	 * @return the number of calls that threw.
+	 */
+	long getFailures() {
+		return stats.values().stream().mapToLong(OperationStats::getFailures).sum();
+	}
+
+	private static final class Sample {
+		private final RequestDto checkQuality;
+		private final RequestDto extractTemplate;
+		private final RequestDto segment;
+		private final RequestDto convertFormat;
+
+		private Sample(BiometricType modality) {
+			BiometricRecord sample = new SyntheticRecordGenerator(modality.ordinal())
+					.withModality(ModalityProfile.imageOf(modality)).record(0);
+			List<BiometricType> modalities = List.of(modality);
+
+			CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
+			checkQualityRequestDto.setSample(sample);
+			checkQualityRequestDto.setModalitiesToCheck(modalities);
+			checkQuality = SyntheticRequests.request(checkQualityRequestDto);
+
+			ExtractTemplateRequestDto extractTemplateRequestDto = new ExtractTemplateRequestDto();
+			extractTemplateRequestDto.setSample(sample);
+			extractTemplateRequestDto.setModalitiesToExtract(modalities);
+			extractTemplate = SyntheticRequests.request(extractTemplateRequestDto);
+
+			SegmentRequestDto segmentRequestDto = new SegmentRequestDto();
+			segmentRequestDto.setSample(sample);
+			segmentRequestDto.setModalitiesToSegment(modalities);
+			segment = SyntheticRequests.request(segmentRequestDto);
+
+			ConvertFormatRequestDto convertFormatRequestDto = new ConvertFormatRequestDto();
+			convertFormatRequestDto.setSample(sample);
+			convertFormatRequestDto.setSourceFormat(sourceFormat(modality));
+			convertFormatRequestDto.setTargetFormat("IMAGE/JPEG");
+			convertFormatRequestDto.setModalitiesToConvert(modalities);
+			convertFormat = SyntheticRequests.request(convertFormatRequestDto);
+		}
+	}
+
+	/**
+	 * Call count, failures and durations of one operation.
+	 */
+	static final class OperationStats {
+		private long calls;
+		private long failures;
+		private long firstNanos;
+		private long lastNanos;
+		private long totalNanos;
+
+		void add(long nanos, boolean failed) {
+			if (calls == 0) {
+				firstNanos = nanos;
+			}
+			calls++;
+			lastNanos = nanos;
+			totalNanos += nanos;
+			if (failed) {
+				failures++;
+			}
+		}
+
+		long getFailures() {
+			return failures;
+		}
+
+		long getMeanNanos() {
+			return calls == 0 ? 0 : totalNanos / calls;
+		}
+
+		/**
+		 * Returns the statistics as health details.
+		 *
+		 * @return the call count, failures, and first, last and mean durations in
+		 *         milliseconds.
+		 */
+		Map<String, Object> toDetails() {
+			Map<String, Object> details = new LinkedHashMap<>();
+			details.put("calls", calls);
+			details.put("failures", failures);
+			details.put("firstMillis", millis(firstNanos));
+			details.put("lastMillis", millis(lastNanos));
+			details.put("meanMillis", calls == 0 ? 0 : millis(totalNanos / calls));
+			return details;
+		}
+
+		private static double millis(long nanos) {
+			return Math.round(nanos / 1_000.0) / 1_000.0;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * C ABI of the native SDK engines loaded by
+ * io.mosip.biosdk.services.sdk.foreign.NativeBioApi.
+ *
+ * The biosdk_abi_version, biosdk_sdk_version, biosdk_organization,
+ * biosdk_type, biosdk_modalities and biosdk_init functions are required. The
+ * others are optional: an SDK method is supported, for the modalities of
+ * biosdk_modalities, when its function is exported.
+ *
+ * The service calls the functions from several threads at once. The memory
+ * passed to a function, BDBs included, is only valid until it returns and
+ * must not be freed or written by the engine.
+ *
+ * Functions return BIOSDK_OK or one of the status codes below, which are the
+ * ResponseStatus codes of the service; biosdk_extract and biosdk_convert
+ * return the length of their output, or a negated status code.
+ */
+#ifndef BIOSDK_NATIVE_H
+#define BIOSDK_NATIVE_H
+
+#include <stdint.h>
+
+#define BIOSDK_ABI_VERSION 1
+
+/* Modalities, and bits of biosdk_modalities. */
+#define BIOSDK_FINGER 1
+#define BIOSDK_IRIS 2
+#define BIOSDK_FACE 3
+
+#define BIOSDK_OK 0
+#define BIOSDK_INVALID_INPUT 401
+#define BIOSDK_MISSING_INPUT 402
+#define BIOSDK_QUALITY_CHECK_FAILED 403
+#define BIOSDK_POOR_DATA_QUALITY 406
+#define BIOSDK_UNKNOWN_ERROR 500
+
+/* One segment (BIR) of a biometric record. */
+typedef struct biosdk_segment {
+	const uint8_t *bdb;
+	int64_t bdb_length;
+	int32_t modality;
+	/* the subtypes of the segment separated by spaces, e.g. "Left IndexFinger", or NULL */
+	const char *subtype;
+} biosdk_segment;
+
+/* An init parameter. */
+typedef struct biosdk_param {
+	const char *key;
+	const char *value;
+} biosdk_param;
+
+/* Returns BIOSDK_ABI_VERSION. */
+int32_t biosdk_abi_version(void);
+
+const char *biosdk_sdk_version(void);
+
+const char *biosdk_organization(void);
+
+const char *biosdk_type(void);
+
+/* Returns the supported modalities, as the bits 1 << BIOSDK_FINGER etc. */
+int32_t biosdk_modalities(void);
+
+/* Initialises the engine; may be called again with new parameters. */
+int32_t biosdk_init(const biosdk_param *params, int32_t count);
+
+/* Scores the quality of the segments of one modality, from 0 to 100. */
+int32_t biosdk_quality(const biosdk_segment *segments, int32_t count, float *score);
+
+/*
+ * Matches the segments of one modality of the probe against those of a
+ * gallery record; matched is set to 1 if they are of the same person.
+ */
+int32_t biosdk_match(const biosdk_segment *probe, int32_t probe_count, const biosdk_segment *candidate,
+		int32_t candidate_count, float *score, int32_t *matched);
+
+/*
+ * Extracts the template of a segment into out. When the template is longer
+ * than capacity nothing is written, and the call is made again with a buffer
+ * of the returned length.
+ */
+int64_t biosdk_extract(const biosdk_segment *segment, uint8_t *out, int64_t capacity);
+
+/* Converts the BDB of a segment between formats into out, as biosdk_extract. */
+int64_t biosdk_convert(const biosdk_segment *segment, const char *source_format, const char *target_format,
+		uint8_t *out, int64_t capacity);
+
+#endif
@@ -0,0 +1,145 @@
+/*
+ * Stub native engine implementing biosdk_native.h, to try
+ * io.mosip.biosdk.services.sdk.foreign.NativeBioApi without a vendor library.
+ * Built by the native profile: mvn -Pnative compile
+ *
+ * Like the synthetic SDK its results are deterministic functions of the BDBs:
+ * a template is derived from the hash of the sample, so a gallery record
+ * holding the template extracted from the probe sample scores 100 and is
+ * matched, and any other record scores below the match threshold.
+ */
+#include <stdlib.h>
+#include <string.h>
+
+#include "biosdk_native.h"
+
+#define TEMPLATE_BYTES 32
+
+static float match_threshold = 60.0f;
+
+static uint64_t fnv1a(const uint8_t *data, int64_t length) {
+	uint64_t hash = 0xcbf29ce484222325ULL;
+	for (int64_t i = 0; i < length; i++) {
+		hash = (hash ^ data[i]) * 0x100000001b3ULL;
+	}
+	return hash;
+}
+
+static int32_t check(const biosdk_segment *segments, int32_t count) {
+	if (segments == NULL || count <= 0) {
+		return BIOSDK_MISSING_INPUT;
+	}
+	for (int32_t i = 0; i < count; i++) {
+		if (segments[i].bdb == NULL || segments[i].bdb_length <= 0) {
+			return BIOSDK_INVALID_INPUT;
+		}
+	}
+	return BIOSDK_OK;
+}
+
+int32_t biosdk_abi_version(void) {
+	return BIOSDK_ABI_VERSION;
+}
+
+const char *biosdk_sdk_version(void) {
+	return "1.0";
+}
+
+const char *biosdk_organization(void) {
+	return "MOSIP";
+}
+
+const char *biosdk_type(void) {
+	return "stub";
+}
+
+int32_t biosdk_modalities(void) {
+	return 1 << BIOSDK_FINGER | 1 << BIOSDK_IRIS | 1 << BIOSDK_FACE;
+}
+
+int32_t biosdk_init(const biosdk_param *params, int32_t count) {
+	for (int32_t i = 0; i < count; i++) {
+		if (strcmp(params[i].key, "match-threshold") == 0) {
+			char *end;
+			float threshold = strtof(params[i].value, &end);
+			if (*end != '\0' || threshold < 0 || threshold > 100) {
+				return BIOSDK_INVALID_INPUT;
+			}
+			match_threshold = threshold;
+		}
+	}
+	return BIOSDK_OK;
+}
+
+int32_t biosdk_quality(const biosdk_segment *segments, int32_t count, float *score) {
+	int32_t status = check(segments, count);
+	if (status != BIOSDK_OK) {
+		return status;
+	}
+	uint64_t total = 0;
+	for (int32_t i = 0; i < count; i++) {
+		total += fnv1a(segments[i].bdb, segments[i].bdb_length) % 101;
+	}
+	*score = (float) total / count;
+	return BIOSDK_OK;
+}
+
+int32_t biosdk_match(const biosdk_segment *probe, int32_t probe_count, const biosdk_segment *candidate,
+		int32_t candidate_count, float *score, int32_t *matched) {
+	int32_t status = check(probe, probe_count);
+	if (status != BIOSDK_OK) {
+		return status;
+	}
+	uint64_t bound = match_threshold >= 1 ? (uint64_t) match_threshold : 1;
+	float best = 0;
+	for (int32_t i = 0; i < probe_count; i++) {
+		uint64_t probe_hash = fnv1a(probe[i].bdb, probe[i].bdb_length);
+		for (int32_t j = 0; j < candidate_count; j++) {
+			float value = probe[i].bdb_length == candidate[j].bdb_length
+					&& memcmp(probe[i].bdb, candidate[j].bdb, (size_t) probe[i].bdb_length) == 0 ? 100.0f
+					: (float) ((probe_hash * 31 + fnv1a(candidate[j].bdb, candidate[j].bdb_length))
+							% bound);
+			if (value > best) {
+				best = value;
+			}
+		}
+	}
+	*score = best;
+	*matched = best >= match_threshold;
+	return BIOSDK_OK;
+}
+
+int64_t biosdk_extract(const biosdk_segment *segment, uint8_t *out, int64_t capacity) {
+	int32_t status = check(segment, 1);
+	if (status != BIOSDK_OK) {
+		return -status;
+	}
+	if (capacity < TEMPLATE_BYTES) {
+		return TEMPLATE_BYTES;
+	}
+	uint64_t state = fnv1a(segment->bdb, segment->bdb_length);
+	for (int i = 0; i < TEMPLATE_BYTES; i += 8) {
+		uint64_t value = state += 0x9e3779b97f4a7c15ULL;
+		value = (value ^ (value >> 30)) * 0xbf58476d1ce4e5b9ULL;
+		value = (value ^ (value >> 27)) * 0x94d049bb133111ebULL;
+		value ^= value >> 31;
+		memcpy(out + i, &value, 8);
+	}
+	return TEMPLATE_BYTES;
+}
+
+int64_t biosdk_convert(const biosdk_segment *segment, const char *source_format, const char *target_format,
+		uint8_t *out, int64_t capacity) {
+	int32_t status = check(segment, 1);
+	if (status != BIOSDK_OK) {
+		return -status;
+	}
+	if (source_format == NULL || target_format == NULL) {
+		return -BIOSDK_MISSING_INPUT;
+	}
+	if (capacity < segment->bdb_length) {
+		return segment->bdb_length;
+	}
+	memcpy(out, segment->bdb, (size_t) segment->bdb_length);
+	return segment->bdb_length;
+}
@@ -0,0 +1,47 @@
+package io.mosip.biosdk.services.actuator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JfrRecordingEndpointTest {
+	private JfrRecordingEndpoint endpoint;
+
+	@Before
+	public void setUp() {
+		endpoint = new JfrRecordingEndpoint();
+		ReflectionTestUtils.setField(endpoint, "settings", "default");
+		ReflectionTestUtils.setField(endpoint, "maxAgeMinutes", 1L);
+	}
+
+	@After
+	public void tearDown() {
+		endpoint.stop();
+	}
+
+	@Test
+	public void restartsRunningRecordingAfterRestore() {
+		endpoint.recording("start");
+
+		endpoint.beforeCheckpoint(null);
+		assertEquals("NONE", endpoint.status().get("state"));
+		endpoint.afterRestore(null);
+
+		assertEquals("RUNNING", endpoint.status().get("state"));
+		assertEquals("default", endpoint.status().get("settings"));
+	}
+
+	@Test
+	public void leavesRecordingStoppedAfterRestore() {
+		endpoint.recording("start");
+		endpoint.recording("stop");
+
+		endpoint.beforeCheckpoint(null);
+		endpoint.afterRestore(null);
+
+		assertEquals("NONE", endpoint.status().get("state"));
+	}
+}
@@ -0,0 +1,106 @@
+package io.mosip.biosdk.services.config;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.jayway.jsonpath.JsonPath;
+
+import io.mosip.biosdk.services.actuator.JfrRecordingEndpoint;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = SecurityConfigTest.TestApplication.class, properties = {
+		"spring.cloud.bootstrap.enabled=false", "spring.cloud.config.enabled=false",
+		"management.endpoint.jfr.enabled=true", "management.endpoints.web.exposure.include=health,jfr",
+		"management.endpoint.health.validate-group-membership=false", "mosip.biosdk.admin.password={noop}secret",
+		"mosip.biosdk.jfr.dump-directory=target/jfr-test" })
+@AutoConfigureMockMvc
+public class SecurityConfigTest {
+	private static final String ADMIN = basic("biosdk-admin", "secret");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JfrRecordingEndpoint jfrRecordingEndpoint;
+
+	@After
+	public void tearDown() {
+		jfrRecordingEndpoint.stop();
+	}
+
+	@Test
+	public void rejectsAdminEndpointWithoutCredentials() throws Exception {
+		mockMvc.perform(get("/actuator/jfr")).andExpect(status().isUnauthorized());
+		mockMvc.perform(action("start")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	public void rejectsAdminEndpointWithWrongPassword() throws Exception {
+		mockMvc.perform(get("/actuator/jfr").header(HttpHeaders.AUTHORIZATION, basic("biosdk-admin", "guess")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	public void servesJfrRecordingToAdmin() throws Exception {
+		mockMvc.perform(get("/actuator/jfr").header(HttpHeaders.AUTHORIZATION, ADMIN)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("NONE"));
+		mockMvc.perform(action("start").header(HttpHeaders.AUTHORIZATION, ADMIN)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("RUNNING"));
+
+		MvcResult dump = mockMvc.perform(action("dump").header(HttpHeaders.AUTHORIZATION, ADMIN))
+				.andExpect(status().isOk()).andReturn();
+
+		Path file = Path.of(JsonPath.<String>read(dump.getResponse().getContentAsString(), "$.file"));
+		assertTrue(Files.size(file) > 0);
+		Files.delete(file);
+		mockMvc.perform(action("stop").header(HttpHeaders.AUTHORIZATION, ADMIN)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("NONE"));
+		mockMvc.perform(action("rewind").header(HttpHeaders.AUTHORIZATION, ADMIN))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void leavesOtherEndpointsOpen() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+	}
+
+	private static MockHttpServletRequestBuilder action(String action) {
+		return post("/actuator/jfr").contentType(MediaType.APPLICATION_JSON).content("{\"action\":\"" + action + "\"}");
+	}
+
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder()
+				.encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Configuration
+	@EnableAutoConfiguration(exclude = DataSourceAutoConfiguration.class)
+	@Import({ SecurityConfig.class, JfrRecordingEndpoint.class })
+	static class TestApplication {
+	}
+}
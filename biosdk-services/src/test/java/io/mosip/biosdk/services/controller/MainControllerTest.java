@@ -0,0 +1,335 @@
+package io.mosip.biosdk.services.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.factory.BioSdkServiceFactory;
+import io.mosip.biosdk.services.impl.spec_1_0.AsyncBioSdkServiceProviderImpl_V_1_0;
+import io.mosip.biosdk.services.impl.spec_1_0.BioSdkServiceProviderImpl_V_1_0;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.ServerTimingFilter;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
+import io.mosip.biosdk.services.utils.ErrorCode;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import jakarta.servlet.http.HttpServletRequest;
+
+public class MainControllerTest {
+	private final Gson gson = new GsonBuilder().serializeNulls().create();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final List<AsyncBioSdkServiceProviderImpl_V_1_0> asyncProviders = new ArrayList<>();
+	private IBioApiV2 sdk;
+	private BioSdkMetrics metrics;
+	private BioSdkServiceProviderImpl_V_1_0 provider;
+	private MainController controller;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		sdk = mock(IBioApiV2.class);
+		when(sdk.match(any(), any(), any(), any())).thenAnswer(invocation -> matchResponse(invocation.getArgument(1)));
+		ObjectProvider<IBioApiV2> sdkProvider = mock(ObjectProvider.class);
+		when(sdkProvider.getObject()).thenReturn(sdk);
+		metrics = new BioSdkMetrics(registry, false, new SlowRequestLog(-1, 1));
+		SdkInitCache sdkInitCache = new SdkInitCache(sdkProvider, mock(BioSdkLibConfig.class), metrics);
+		provider = new BioSdkServiceProviderImpl_V_1_0(sdkInitCache, new Utils(), metrics);
+		ReflectionTestUtils.setField(provider, "matchStreamBatchSize", 2);
+		controller = new MainController(new Utils(), new BioSdkServiceFactory(List.of(provider), List.of()), metrics);
+	}
+
+	@After
+	public void tearDown() {
+		asyncProviders.forEach(AsyncBioSdkServiceProviderImpl_V_1_0::close);
+	}
+
+	@Test
+	public void streamsDecisionsInGalleryOrder() throws Exception {
+		List<String> lines = matchStream(requestLine("1.0"), record("a"), record("m"), record("b"));
+
+		assertEquals(3, lines.size());
+		for (int i = 0; i < lines.size(); i++) {
+			MatchDecision decision = gson.fromJson(lines.get(i), MatchDecision.class);
+			assertEquals(i, decision.getGalleryIndex());
+		}
+		assertEquals(Match.MATCHED,
+				gson.fromJson(lines.get(1), MatchDecision.class).getDecisions().get(BiometricType.FINGER).getMatch());
+	}
+
+	@Test
+	public void endsStreamWithErrorEnvelopeOnMalformedRecord() throws Exception {
+		List<String> lines = matchStream(requestLine("1.0"), record("a"), record("b"), "{\"segments\":\"x\"}",
+				record("c"));
+
+		assertEquals(3, lines.size());
+		assertEquals(1, gson.fromJson(lines.get(1), MatchDecision.class).getGalleryIndex());
+		JsonObject envelope = JsonParser.parseString(lines.get(2)).getAsJsonObject();
+		assertEquals("1.0", envelope.get("version").getAsString());
+		assertEquals(ErrorMessages.INVALID_REQUEST_BODY.toString(), errorCode(envelope));
+	}
+
+	@Test
+	public void answersMalformedRequestLineWithErrorEnvelope() throws Exception {
+		List<String> lines = matchStream("{\"version\":", record("a"));
+
+		assertEquals(1, lines.size());
+		assertEquals(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+				errorCode(JsonParser.parseString(lines.get(0)).getAsJsonObject()));
+	}
+
+	@Test
+	public void answersUnknownVersionWithErrorEnvelope() throws Exception {
+		List<String> lines = matchStream(requestLine("9.9"), record("a"));
+
+		assertEquals(1, lines.size());
+		JsonObject envelope = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+		assertEquals("9.9", envelope.get("version").getAsString());
+		assertEquals(ErrorCode.NO_PROVIDERS.getErrorCode(), errorCode(envelope));
+	}
+
+	@Test
+	public void tagsOnlyServedVersionsInMetrics() throws Exception {
+		matchStream(requestLine("1.0"), record("a"));
+		matchStream(requestLine("9.9"), record("a"));
+		RequestDto request = gson.fromJson(requestLine("7.7"), RequestDto.class);
+		controller.match(request, null).get();
+
+		assertEquals(1, registry.find("biosdk.request").tag("version", "1.0").timers().size());
+		assertEquals(2, registry.find("biosdk.request").tag("version", "unknown").timers().size());
+		assertTrue(registry.find("biosdk.request").tag("version", "9.9").timers().isEmpty());
+		assertTrue(registry.find("biosdk.request.phase").tag("version", "7.7").timers().isEmpty());
+	}
+
+	@Test
+	public void servesMatchOnCallThread() throws Exception {
+		List<String> threads = new ArrayList<>();
+		doAnswer(invocation -> {
+			threads.add(Thread.currentThread().getName());
+			return matchResponse(invocation.getArgument(1));
+		}).when(sdk).match(any(), any(), any(), any());
+		MainController asyncController = asyncController(1, 1, 5000);
+
+		JsonObject envelope = body(asyncController.match(matchRequest("a", "m"), null));
+
+		assertTrue(envelope.getAsJsonArray("errors").isEmpty());
+		assertEquals(2, envelope.getAsJsonObject("response").getAsJsonArray("response").size());
+		assertEquals(1, threads.size());
+		assertTrue(threads.get(0).startsWith("biosdk-call-"));
+	}
+
+	@Test
+	public void answersSdkBusyWhenCallQueueIsFull() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			started.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return matchResponse(invocation.getArgument(1));
+		}).when(sdk).match(any(), any(), any(), any());
+		MainController asyncController = asyncController(1, 1, 0);
+		try {
+			CompletableFuture<ResponseEntity<String>> running = asyncController.match(matchRequest("a"), null);
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+			CompletableFuture<ResponseEntity<String>> queued = asyncController.match(matchRequest("b"), null);
+
+			CompletableFuture<ResponseEntity<String>> rejected = asyncController.match(matchRequest("c"), null);
+
+			assertTrue(rejected.isDone());
+			assertEquals(ErrorMessages.SDK_BUSY.toString(), errorCode(body(rejected)));
+			assertEquals(1, registry.get("biosdk.call.rejected").counter().count(), 0);
+			release.countDown();
+			assertTrue(body(running).getAsJsonArray("errors").isEmpty());
+			assertTrue(body(queued).getAsJsonArray("errors").isEmpty());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void answersSdkFailureWithErrorEnvelope() throws Exception {
+		doThrow(new IllegalStateException("engine down")).when(sdk).match(any(), any(), any(), any());
+
+		JsonObject envelope = body(asyncController(1, 1, 5000).match(matchRequest("a"), null));
+
+		assertEquals("1.0", envelope.get("version").getAsString());
+		assertEquals(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), errorCode(envelope));
+	}
+
+	@Test
+	public void answersSdkTimeoutWithErrorEnvelope() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return matchResponse(invocation.getArgument(1));
+		}).when(sdk).match(any(), any(), any(), any());
+		try {
+			JsonObject envelope = body(asyncController(1, 1, 100).match(matchRequest("a"), null));
+
+			assertEquals(ErrorMessages.SDK_TIMEOUT.toString(), errorCode(envelope));
+			assertEquals(1, registry.get("biosdk.call.timeout").counter().count(), 0);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void addsServerTimingHeaderWhenRequested() throws Exception {
+		MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/match");
+		httpRequest.addHeader(ServerTimingFilter.REQUEST_HEADER, "true");
+		List<ResponseEntity<String>> responses = new ArrayList<>();
+
+		new ServerTimingFilter().doFilter(httpRequest, new MockHttpServletResponse(), (request, response) -> {
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+			try {
+				responses.add(controller.match(matchRequest("a", "m"), null).get());
+			} catch (InterruptedException | ExecutionException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+			}
+		});
+
+		String header = responses.get(0).getHeaders().getFirst(ServerTimingFilter.SERVER_TIMING);
+		for (String metric : new String[] { "queue;dur=", "decode;dur=", "parse;dur=", "sdk;dur=", "serialise;dur=",
+				"total;dur=", "request-bytes;desc=" }) {
+			assertTrue(header, header.contains(metric));
+		}
+		assertTrue(header, header.endsWith("response-bytes;desc="
+				+ responses.get(0).getBody().getBytes(StandardCharsets.UTF_8).length));
+		assertNull(controller.match(matchRequest("a"), null).get().getHeaders()
+				.getFirst(ServerTimingFilter.SERVER_TIMING));
+	}
+
+	private MainController asyncController(int threads, int queueCapacity, long timeoutMs) {
+		AsyncBioSdkServiceProviderImpl_V_1_0 asyncProvider = new AsyncBioSdkServiceProviderImpl_V_1_0(provider,
+				metrics, threads, queueCapacity, timeoutMs);
+		asyncProviders.add(asyncProvider);
+		return new MainController(new Utils(),
+				new BioSdkServiceFactory(List.of(provider), List.of(asyncProvider)), metrics);
+	}
+
+	private RequestDto matchRequest(String... gallerySubtypes) {
+		MatchRequestDto matchRequest = new MatchRequestDto();
+		matchRequest.setSample(gson.fromJson(record("probe"), BiometricRecord.class));
+		BiometricRecord[] gallery = new BiometricRecord[gallerySubtypes.length];
+		for (int i = 0; i < gallery.length; i++) {
+			gallery[i] = gson.fromJson(record(gallerySubtypes[i]), BiometricRecord.class);
+		}
+		matchRequest.setGallery(gallery);
+		matchRequest.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		RequestDto request = new RequestDto();
+		request.setVersion("1.0");
+		request.setRequest(
+				Base64.getEncoder().encodeToString(gson.toJson(matchRequest).getBytes(StandardCharsets.UTF_8)));
+		return request;
+	}
+
+	private static JsonObject body(CompletableFuture<ResponseEntity<String>> response) throws Exception {
+		ResponseEntity<String> entity = response.get(10, TimeUnit.SECONDS);
+		assertEquals(200, entity.getStatusCode().value());
+		return JsonParser.parseString(entity.getBody()).getAsJsonObject();
+	}
+
+	private List<String> matchStream(String... lines) throws Exception {
+		MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/match-stream");
+		httpRequest.setContent((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+
+		controller.matchStream(httpRequest, httpResponse);
+
+		assertEquals(200, httpResponse.getStatus());
+		assertTrue(httpResponse.getContentType().startsWith("application/x-ndjson"));
+		String body = httpResponse.getContentAsString(StandardCharsets.UTF_8);
+		return body.isEmpty() ? List.of() : List.of(body.split("\n"));
+	}
+
+	private String requestLine(String version) {
+		MatchRequestDto matchRequest = new MatchRequestDto();
+		matchRequest.setSample(new BiometricRecord());
+		matchRequest.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		RequestDto request = new RequestDto();
+		request.setVersion(version);
+		request.setRequest(
+				Base64.getEncoder().encodeToString(gson.toJson(matchRequest).getBytes(StandardCharsets.UTF_8)));
+		return gson.toJson(request);
+	}
+
+	private String record(String subtype) {
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setType(new ArrayList<>(List.of(BiometricType.FINGER)));
+		bdbInfo.setSubtype(new ArrayList<>(List.of(subtype)));
+		BIR bir = new BIR();
+		bir.setBdbInfo(bdbInfo);
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>(List.of(bir)));
+		return gson.toJson(biometricRecord);
+	}
+
+	private static String errorCode(JsonObject envelope) {
+		return envelope.getAsJsonArray("errors").get(0).getAsJsonObject().get("code").getAsString();
+	}
+
+	private static Response<MatchDecision[]> matchResponse(BiometricRecord[] gallery) {
+		MatchDecision[] decisions = new MatchDecision[gallery.length];
+		for (int i = 0; i < gallery.length; i++) {
+			Decision decision = new Decision();
+			String subtype = gallery[i].getSegments().get(0).getBdbInfo().getSubtype().get(0);
+			decision.setMatch("m".equals(subtype) ? Match.MATCHED : Match.NOT_MATCHED);
+			Map<BiometricType, Decision> modalityDecisions = new EnumMap<>(BiometricType.class);
+			modalityDecisions.put(BiometricType.FINGER, decision);
+			decisions[i] = new MatchDecision(i);
+			decisions[i].setDecisions(modalityDecisions);
+		}
+		Response<MatchDecision[]> response = new Response<>();
+		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+		response.setResponse(decisions);
+		return response;
+	}
+}
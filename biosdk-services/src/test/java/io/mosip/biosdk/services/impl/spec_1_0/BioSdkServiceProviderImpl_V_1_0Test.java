@@ -0,0 +1,311 @@
+package io.mosip.biosdk.services.impl.spec_1_0;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.match.DecisionSelector;
+import io.mosip.biosdk.services.impl.spec_1_0.match.FirstMatchSearch;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.constant.QualityType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+public class BioSdkServiceProviderImpl_V_1_0Test {
+	private final Gson gson = new GsonBuilder().serializeNulls().create();
+	private final List<Integer> gallerySizes = new ArrayList<>();
+	private final List<String> scoredSubtypes = new ArrayList<>();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private IBioApiV2 sdk;
+	private BioSdkServiceProviderImpl_V_1_0 provider;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		sdk = mock(IBioApiV2.class);
+		when(sdk.match(any(), any(), any(), any())).thenAnswer(invocation -> {
+			BiometricRecord[] gallery = invocation.getArgument(1);
+			gallerySizes.add(gallery.length);
+			for (BiometricRecord biometricRecord : gallery) {
+				scoredSubtypes.add(biometricRecord.getSegments().get(0).getBdbInfo().getSubtype().get(0));
+			}
+			return matchResponse(gallery);
+		});
+		ObjectProvider<IBioApiV2> sdkProvider = mock(ObjectProvider.class);
+		when(sdkProvider.getObject()).thenReturn(sdk);
+		BioSdkMetrics metrics = new BioSdkMetrics(registry, false, new SlowRequestLog(-1, 1));
+		SdkInitCache sdkInitCache = new SdkInitCache(sdkProvider, mock(BioSdkLibConfig.class), metrics);
+		provider = new BioSdkServiceProviderImpl_V_1_0(sdkInitCache, new Utils(), metrics);
+	}
+
+	@Test
+	public void matchesGalleryOnePartitionAtATime() {
+		ReflectionTestUtils.setField(provider, "matchPartitionSize", 3);
+
+		MatchDecision[] decisions = match(matchRequest("a", "m", "b", "c", "d", "m", "e"));
+
+		assertEquals(List.of(3, 3, 1), gallerySizes);
+		assertEquals(7, decisions.length);
+		for (int i = 0; i < decisions.length; i++) {
+			assertEquals(i, decisions[i].getGalleryIndex());
+		}
+		assertEquals(Match.MATCHED, decisions[1].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertEquals(Match.MATCHED, decisions[5].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertEquals(Match.NOT_MATCHED, decisions[6].getDecisions().get(BiometricType.FINGER).getMatch());
+	}
+
+	@Test
+	public void matchesWholeGalleryWithoutPartitionSize() {
+		MatchDecision[] decisions = match(matchRequest("a", "b", "c"));
+
+		assertEquals(List.of(3), gallerySizes);
+		assertEquals(3, decisions.length);
+	}
+
+	@Test
+	public void keepsTopKDecisionsAcrossPartitions() {
+		ReflectionTestUtils.setField(provider, "matchPartitionSize", 3);
+		MatchRequestDto matchRequestDto = withFlag(matchRequest("a", "m", "b", "c", "d", "m", "e"),
+				DecisionSelector.FLAG_TOP_K, "2");
+
+		MatchDecision[] decisions = match(matchRequestDto);
+
+		assertEquals(List.of(3, 3, 1), gallerySizes);
+		assertEquals(2, decisions.length);
+		assertEquals(1, decisions[0].getGalleryIndex());
+		assertEquals(5, decisions[1].getGalleryIndex());
+	}
+
+	@Test
+	public void keepsDecisionsOverScoreThreshold() {
+		MatchRequestDto matchRequestDto = withFlag(matchRequest("m", "a", "m"), DecisionSelector.FLAG_SCORE_THRESHOLD, "1");
+
+		MatchDecision[] decisions = match(matchRequestDto);
+
+		assertEquals(2, decisions.length);
+		assertEquals(0, decisions[0].getGalleryIndex());
+		assertEquals(2, decisions[1].getGalleryIndex());
+	}
+
+	@Test
+	public void rejectsInvalidTopKBeforeCallingSdk() {
+		try {
+			provider.match(request(gson.toJson(withFlag(matchRequest("a"), DecisionSelector.FLAG_TOP_K, "-1"))));
+			fail("invalid topK accepted");
+		} catch (BioSDKException e) {
+			assertEquals(ErrorMessages.INVALID_REQUEST_BODY.toString(), e.getErrorCode());
+		}
+		verify(sdk, never()).match(any(), any(), any(), any());
+	}
+
+	@Test
+	public void reportsMalformedGalleryRecordAsInvalidRequestBody() {
+		ReflectionTestUtils.setField(provider, "matchPartitionSize", 1);
+		String json = "{\"sample\":" + gson.toJson(record("p")) + ",\"gallery\":[" + gson.toJson(record("a"))
+				+ ",{\"segments\":\"x\"}],\"modalitiesToMatch\":[\"FINGER\"]}";
+
+		try {
+			provider.match(request(json));
+			fail("malformed gallery record accepted");
+		} catch (BioSDKException e) {
+			assertEquals(ErrorMessages.INVALID_REQUEST_BODY.toString(), e.getErrorCode());
+		}
+		assertEquals(List.of(1), gallerySizes);
+	}
+
+	@Test
+	public void reportsMalformedGalleryRecordBeforeCallingSdk() {
+		String json = "{\"gallery\":[{\"segments\":\"x\"}]}";
+
+		try {
+			provider.match(request(json));
+			fail("malformed gallery record accepted");
+		} catch (BioSDKException e) {
+			assertEquals(ErrorMessages.INVALID_REQUEST_BODY.toString(), e.getErrorCode());
+		}
+		verify(sdk, never()).match(any(), any(), any(), any());
+	}
+
+	@Test
+	public void reportsSdkFailureAsLibraryException() {
+		doThrow(new IllegalStateException("engine down")).when(sdk).match(any(), any(), any(), any());
+
+		try {
+			provider.match(request(gson.toJson(matchRequest("a"))));
+			fail("SDK failure not reported");
+		} catch (BioSDKException e) {
+			assertEquals(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), e.getErrorCode());
+		}
+	}
+
+	@Test
+	public void firstMatchScoresBestQualityRecordsFirstAndStopsAtMatchedBatch() {
+		ReflectionTestUtils.setField(provider, "firstMatchBatchSize", 2);
+		MatchRequestDto matchRequestDto = withFlag(matchRequest(), FirstMatchSearch.FLAG_FIRST_MATCH, "true");
+		matchRequestDto.setGallery(new BiometricRecord[] { record("a", 10), record("m", 90), record("b", 50),
+				record("c", 70), record("d", 20) });
+
+		MatchDecision[] decisions = match(matchRequestDto);
+
+		assertEquals(List.of(2), gallerySizes);
+		assertEquals(List.of("m", "c"), scoredSubtypes);
+		assertEquals(5, decisions.length);
+		for (int i = 0; i < decisions.length; i++) {
+			assertEquals(i, decisions[i].getGalleryIndex());
+		}
+		assertEquals(Match.MATCHED, decisions[1].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertEquals(Match.NOT_MATCHED, decisions[3].getDecisions().get(BiometricType.FINGER).getMatch());
+		for (int i : new int[] { 0, 2, 4 }) {
+			assertTrue(decisions[i].getDecisions().isEmpty());
+			assertEquals("false", decisions[i].getAnalyticsInfo().get(FirstMatchSearch.ANALYTICS_EVALUATED));
+		}
+		DistributionSummary scoredRatio = registry.get("biosdk.match.first-match.scored.ratio").summary();
+		assertEquals(1, scoredRatio.count());
+		assertEquals(0.4, scoredRatio.totalAmount(), 1e-9);
+	}
+
+	@Test
+	public void firstMatchScoresWholeGalleryWithoutMatch() {
+		ReflectionTestUtils.setField(provider, "firstMatchBatchSize", 2);
+		MatchRequestDto matchRequestDto = withFlag(matchRequest(), FirstMatchSearch.FLAG_FIRST_MATCH, "true");
+		matchRequestDto.setGallery(new BiometricRecord[] { record("a", 10), record("b", 30), record("c", 20) });
+
+		MatchDecision[] decisions = match(matchRequestDto);
+
+		assertEquals(List.of(2, 1), gallerySizes);
+		assertEquals(List.of("b", "c", "a"), scoredSubtypes);
+		for (MatchDecision decision : decisions) {
+			assertEquals(Match.NOT_MATCHED, decision.getDecisions().get(BiometricType.FINGER).getMatch());
+		}
+		assertEquals(1.0, registry.get("biosdk.match.first-match.scored.ratio").summary().totalAmount(), 1e-9);
+	}
+
+	@Test
+	public void firstMatchIgnoresUnknownModality() {
+		MatchRequestDto matchRequestDto = withFlag(matchRequest(), FirstMatchSearch.FLAG_FIRST_MATCH, "true");
+		matchRequestDto.setGallery(new BiometricRecord[] { record("a", 10), record("m", 90) });
+		String json = gson.toJson(matchRequestDto).replace("\"modalitiesToMatch\":[\"FINGER\"]",
+				"\"modalitiesToMatch\":[\"FINGER\",\"PALM_VEIN\"]");
+
+		@SuppressWarnings("unchecked")
+		Response<MatchDecision[]> response = (Response<MatchDecision[]>) provider.match(request(json));
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode().intValue());
+		assertEquals(List.of("m"), scoredSubtypes);
+		assertEquals(Match.MATCHED,
+				response.getResponse()[1].getDecisions().get(BiometricType.FINGER).getMatch());
+	}
+
+	@SuppressWarnings("unchecked")
+	private MatchDecision[] match(MatchRequestDto matchRequest) {
+		Response<MatchDecision[]> response = (Response<MatchDecision[]>) provider.match(
+				request(gson.toJson(matchRequest)));
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode().intValue());
+		return response.getResponse();
+	}
+
+	static MatchRequestDto withFlag(MatchRequestDto matchRequest, String flag, String value) {
+		matchRequest.setFlags(Map.of(flag, value));
+		return matchRequest;
+	}
+
+	static MatchRequestDto matchRequest(String... gallerySubtypes) {
+		MatchRequestDto matchRequest = new MatchRequestDto();
+		matchRequest.setSample(record("probe"));
+		BiometricRecord[] gallery = new BiometricRecord[gallerySubtypes.length];
+		for (int i = 0; i < gallery.length; i++) {
+			gallery[i] = record(gallerySubtypes[i]);
+		}
+		matchRequest.setGallery(gallery);
+		matchRequest.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		return matchRequest;
+	}
+
+	static RequestDto request(String json) {
+		RequestDto request = new RequestDto();
+		request.setVersion("1.0");
+		request.setRequest(Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8)));
+		return request;
+	}
+
+	static BiometricRecord record(String subtype) {
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setType(new ArrayList<>(List.of(BiometricType.FINGER)));
+		bdbInfo.setSubtype(new ArrayList<>(List.of(subtype)));
+		BIR bir = new BIR();
+		bir.setBdbInfo(bdbInfo);
+		bir.setBdb(subtype.getBytes(StandardCharsets.UTF_8));
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>(List.of(bir)));
+		return biometricRecord;
+	}
+
+	static BiometricRecord record(String subtype, long quality) {
+		BiometricRecord biometricRecord = record(subtype);
+		QualityType qualityType = new QualityType();
+		qualityType.setScore(quality);
+		biometricRecord.getSegments().get(0).getBdbInfo().setQuality(qualityType);
+		return biometricRecord;
+	}
+
+	/**
+	 * Matches every gallery record whose first segment has the {@code m}
+	 * subtype.
+	 */
+	static Response<MatchDecision[]> matchResponse(BiometricRecord[] gallery) {
+		MatchDecision[] decisions = new MatchDecision[gallery.length];
+		for (int i = 0; i < gallery.length; i++) {
+			Decision decision = new Decision();
+			String subtype = gallery[i].getSegments().get(0).getBdbInfo().getSubtype().get(0);
+			decision.setMatch("m".equals(subtype) ? Match.MATCHED : Match.NOT_MATCHED);
+			Map<BiometricType, Decision> modalityDecisions = new EnumMap<>(BiometricType.class);
+			modalityDecisions.put(BiometricType.FINGER, decision);
+			decisions[i] = new MatchDecision(i);
+			decisions[i].setDecisions(modalityDecisions);
+		}
+		Response<MatchDecision[]> response = new Response<>();
+		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+		response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+		response.setResponse(decisions);
+		return response;
+	}
+}
@@ -0,0 +1,120 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+public class DecisionSelectorTest {
+	@Test
+	public void selectsNothingWithoutFlags() {
+		assertNull(DecisionSelector.of(null));
+		assertNull(DecisionSelector.of(Map.of()));
+		assertNull(DecisionSelector.of(Map.of(DecisionSelector.FLAG_TOP_K, " ")));
+	}
+
+	@Test
+	public void keepsBestScoringDecisionsByDecreasingScore() {
+		DecisionSelector selector = DecisionSelector.of(Map.of(DecisionSelector.FLAG_TOP_K, "3"));
+		double[] scores = { 0.2, 0.9, 0.4, 0.9, 0.1, 0.7 };
+		for (int i = 0; i < scores.length; i++) {
+			selector.offer(scored(i, scores[i]));
+		}
+		selector.offer(null);
+
+		assertArrayEquals(new int[] { 1, 3, 5 }, galleryIndexes(selector.toArray()));
+	}
+
+	@Test
+	public void keepsDecisionsAtOrAboveThresholdInGalleryOrder() {
+		DecisionSelector selector = DecisionSelector.of(Map.of(DecisionSelector.FLAG_SCORE_THRESHOLD, "0.4"));
+		double[] scores = { 0.2, 0.9, 0.4, 0.3, 0.5 };
+		for (int i = 0; i < scores.length; i++) {
+			selector.offer(scored(i, scores[i]));
+		}
+
+		assertArrayEquals(new int[] { 1, 2, 4 }, galleryIndexes(selector.toArray()));
+	}
+
+	@Test
+	public void combinesTopKAndThreshold() {
+		DecisionSelector selector = DecisionSelector
+				.of(Map.of(DecisionSelector.FLAG_TOP_K, "5", DecisionSelector.FLAG_SCORE_THRESHOLD, "0.5"));
+		double[] scores = { 0.6, 0.1, 0.8, 0.4 };
+		for (int i = 0; i < scores.length; i++) {
+			selector.offer(scored(i, scores[i]));
+		}
+
+		assertArrayEquals(new int[] { 2, 0 }, galleryIndexes(selector.toArray()));
+	}
+
+	@Test
+	public void scoresFromModalityDecisionsOrMatchOutcome() {
+		MatchDecision modalityScored = decision(0, Match.NOT_MATCHED, "0.3");
+		modalityScored.getDecisions().put(BiometricType.IRIS, modalityDecision(Match.NOT_MATCHED, "0.8"));
+		assertEquals(0.8, DecisionSelector.scoreOf(modalityScored), 0);
+		assertEquals(1, DecisionSelector.scoreOf(decision(1, Match.MATCHED, null)), 0);
+		assertEquals(0, DecisionSelector.scoreOf(decision(2, Match.NOT_MATCHED, "n/a")), 0);
+		assertEquals(0.6, DecisionSelector.scoreOf(scored(3, 0.6)), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonPositiveTopK() {
+		DecisionSelector.of(Map.of(DecisionSelector.FLAG_TOP_K, "0"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonNumericTopK() {
+		DecisionSelector.of(Map.of(DecisionSelector.FLAG_TOP_K, "ten"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonFiniteThreshold() {
+		DecisionSelector.of(Map.of(DecisionSelector.FLAG_SCORE_THRESHOLD, "NaN"));
+	}
+
+	private static int[] galleryIndexes(MatchDecision[] decisions) {
+		int[] indexes = new int[decisions.length];
+		for (int i = 0; i < decisions.length; i++) {
+			indexes[i] = decisions[i].getGalleryIndex();
+		}
+		return indexes;
+	}
+
+	private static MatchDecision scored(int galleryIndex, double score) {
+		MatchDecision matchDecision = decision(galleryIndex, Match.NOT_MATCHED, null);
+		Map<String, String> analyticsInfo = new HashMap<>();
+		analyticsInfo.put(DecisionSelector.ANALYTICS_SCORE, Double.toString(score));
+		matchDecision.setAnalyticsInfo(analyticsInfo);
+		return matchDecision;
+	}
+
+	private static MatchDecision decision(int galleryIndex, Match match, String modalityScore) {
+		Map<BiometricType, Decision> decisions = new EnumMap<>(BiometricType.class);
+		decisions.put(BiometricType.FINGER, modalityDecision(match, modalityScore));
+		MatchDecision matchDecision = new MatchDecision(galleryIndex);
+		matchDecision.setDecisions(decisions);
+		return matchDecision;
+	}
+
+	private static Decision modalityDecision(Match match, String score) {
+		Decision decision = new Decision();
+		decision.setMatch(match);
+		Map<String, String> analyticsInfo = new HashMap<>();
+		if (score != null) {
+			analyticsInfo.put(DecisionSelector.ANALYTICS_SCORE, score);
+		}
+		decision.setAnalyticsInfo(analyticsInfo);
+		return decision;
+	}
+}
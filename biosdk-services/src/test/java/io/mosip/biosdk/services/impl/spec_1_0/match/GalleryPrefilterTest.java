@@ -0,0 +1,167 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.constant.QualityType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+public class GalleryPrefilterTest {
+	private static final RegistryIDType ISO = new RegistryIDType("ISO", "19794");
+	private static final RegistryIDType VENDOR = new RegistryIDType("VENDOR", "1");
+
+	@Test
+	public void dropsGallerySegmentsOfOtherSubtypes() {
+		BiometricRecord probe = record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null)),
+				record(segment(BiometricType.FINGER, "Right Thumb", ISO, null)),
+				record(segment(BiometricType.FINGER, "Right Thumb", ISO, null),
+						segment(BiometricType.FINGER, "Left IndexFinger", ISO, null)) };
+
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				List.of(BiometricType.FINGER), false, 0);
+
+		assertEquals(2, result.getKeptSegments());
+		assertEquals(2, result.getSkippedSegments());
+		assertEquals(1, result.getSkippedRecords());
+		assertEquals(2, result.getFilteredGallery().length);
+		assertEquals(1, result.getFilteredGallery()[1].getSegments().size());
+	}
+
+	@Test
+	public void keepsGallerySegmentsWithoutSubtype() {
+		BiometricRecord probe = record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FINGER, null, ISO, null)),
+				record(new BIR()) };
+
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				List.of(BiometricType.FINGER), false, 0);
+
+		assertEquals(0, result.getSkippedSegments());
+	}
+
+	@Test
+	public void dropsGallerySegmentsOfOtherFormatsOnlyWhenChecked() {
+		BiometricRecord probe = record(segment(BiometricType.IRIS, "Left", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.IRIS, "Left", ISO, null)),
+				record(segment(BiometricType.IRIS, "Left", VENDOR, null)) };
+		GalleryPrefilter prefilter = new GalleryPrefilter(gallery);
+
+		assertEquals(0, prefilter.filter(probe, List.of(BiometricType.IRIS), false, 0).getSkippedSegments());
+		GalleryPrefilter.Result checked = prefilter.filter(probe, List.of(BiometricType.IRIS), true, 0);
+		assertEquals(1, checked.getSkippedSegments());
+		assertEquals(1, checked.getSkippedRecords());
+	}
+
+	@Test
+	public void dropsGallerySegmentsBelowMinimumQuality() {
+		BiometricRecord probe = record(segment(BiometricType.FACE, null, ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FACE, null, ISO, 80L)),
+				record(segment(BiometricType.FACE, null, ISO, 20L)),
+				record(segment(BiometricType.FACE, null, ISO, null)) };
+
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				List.of(BiometricType.FACE), false, 50);
+
+		assertEquals(1, result.getSkippedSegments());
+		assertEquals(2, result.getFilteredGallery().length);
+	}
+
+	@Test
+	public void keepsEveryGallerySegmentWhenProbeIsUntyped() {
+		BiometricRecord probe = record(segment(null, "Left IndexFinger", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FINGER, "Right Thumb", ISO, null)),
+				record(segment(BiometricType.IRIS, "Left", ISO, null)) };
+
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				List.of(BiometricType.FINGER), true, 0);
+
+		assertEquals(0, result.getSkippedSegments());
+		assertEquals(0, result.getSkippedRecords());
+	}
+
+	@Test
+	public void keepsEveryGallerySegmentWhenRequestedModalityIsNotInProbe() {
+		BiometricRecord probe = record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FINGER, "Right Thumb", ISO, null)),
+				record(segment(BiometricType.FACE, null, ISO, null)) };
+
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				List.of(BiometricType.FINGER, BiometricType.FACE), false, 0);
+
+		assertEquals(0, result.getSkippedSegments());
+	}
+
+	@Test
+	public void ignoresNullRequestedModalities() {
+		BiometricRecord probe = record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FINGER, "Right Thumb", ISO, null)) };
+
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				Arrays.asList(null, BiometricType.FINGER), false, 0);
+
+		assertEquals(1, result.getSkippedRecords());
+		GalleryPrefilter.Result onlyNull = new GalleryPrefilter(gallery).filter(probe,
+				Collections.singletonList(null), false, 0);
+		assertEquals(1, onlyNull.getSkippedRecords());
+	}
+
+	@Test
+	public void mergesDecisionsBackToGalleryPositions() {
+		BiometricRecord probe = record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null));
+		BiometricRecord[] gallery = { record(segment(BiometricType.FINGER, "Right Thumb", ISO, null)),
+				record(segment(BiometricType.FINGER, "Left IndexFinger", ISO, null)),
+				record(segment(BiometricType.FINGER, "Right Thumb", ISO, null)) };
+		GalleryPrefilter.Result result = new GalleryPrefilter(gallery).filter(probe,
+				List.of(BiometricType.FINGER), false, 0);
+		assertSame(gallery[1], result.getFilteredGallery()[0]);
+
+		MatchDecision[] merged = result.merge(new MatchDecision[] { new MatchDecision(0) });
+
+		assertEquals(3, merged.length);
+		for (int i = 0; i < merged.length; i++) {
+			assertEquals(i, merged[i].getGalleryIndex());
+		}
+		assertEquals(Match.NOT_MATCHED, merged[0].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertTrue(merged[2].getAnalyticsInfo().containsKey(GalleryPrefilter.ANALYTICS_PREFILTERED));
+	}
+
+	private static BiometricRecord record(BIR... segments) {
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>(Arrays.asList(segments)));
+		return biometricRecord;
+	}
+
+	private static BIR segment(BiometricType type, String subtype, RegistryIDType format, Long quality) {
+		BDBInfo bdbInfo = new BDBInfo();
+		if (type != null) {
+			bdbInfo.setType(new ArrayList<>(List.of(type)));
+		}
+		if (subtype != null) {
+			bdbInfo.setSubtype(new ArrayList<>(List.of(subtype.split(" "))));
+		}
+		bdbInfo.setFormat(format);
+		if (quality != null) {
+			QualityType qualityType = new QualityType();
+			qualityType.setScore(quality);
+			bdbInfo.setQuality(qualityType);
+		}
+		BIR bir = new BIR();
+		bir.setBdbInfo(bdbInfo);
+		return bir;
+	}
+}
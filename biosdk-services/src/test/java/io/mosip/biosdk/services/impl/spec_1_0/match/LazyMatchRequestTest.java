@@ -0,0 +1,138 @@
+package io.mosip.biosdk.services.impl.spec_1_0.match;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+public class LazyMatchRequestTest {
+	private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+	@Test
+	public void indexesGalleryEntriesAndBindsOtherMembers() {
+		MatchRequestDto request = new MatchRequestDto();
+		request.setSample(record("probe", 1));
+		request.setGallery(new BiometricRecord[] { record("a", 2), record("b ] } \" [ {", 3), record("c", 4) });
+		request.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		request.setFlags(Map.of("topK", "2"));
+
+		LazyMatchRequest lazy = parse(gson.toJson(request));
+
+		assertTrue(lazy.isGalleryPresent());
+		assertEquals(3, lazy.size());
+		assertNull(lazy.getRequest().getGallery());
+		assertEquals(List.of(BiometricType.FINGER), lazy.getRequest().getModalitiesToMatch());
+		assertEquals("2", lazy.getRequest().getFlags().get("topK"));
+		assertEquals("probe", lazy.getRequest().getSample().getSegments().get(0).getBdbInfo().getSubtype().get(0));
+		assertEquals("b ] } \" [ {", lazy.materialize(1).getSegments().get(0).getBdbInfo().getSubtype().get(0));
+	}
+
+	@Test
+	public void materializesPartitions() {
+		MatchRequestDto request = new MatchRequestDto();
+		BiometricRecord[] gallery = new BiometricRecord[40];
+		for (int i = 0; i < gallery.length; i++) {
+			gallery[i] = record("r" + i, i);
+		}
+		request.setGallery(gallery);
+
+		LazyMatchRequest lazy = parse(gson.toJson(request));
+
+		assertEquals(40, lazy.size());
+		BiometricRecord[] partition = lazy.materialize(16, 24);
+		assertEquals(8, partition.length);
+		for (int i = 0; i < partition.length; i++) {
+			assertEquals("r" + (16 + i), partition[i].getSegments().get(0).getBdbInfo().getSubtype().get(0));
+			assertArrayEquals(new byte[] { (byte) (16 + i) }, partition[i].getSegments().get(0).getBdb());
+		}
+		assertEquals(0, lazy.materialize(40, 40).length);
+		assertEquals(gson.toJson(gallery[7]).length(), lazy.entryLength(7));
+	}
+
+	@Test
+	public void readsMetadataWithoutBiometricData() {
+		MatchRequestDto request = new MatchRequestDto();
+		request.setGallery(new BiometricRecord[] { record("a", 9) });
+
+		BiometricRecord metadata = parse(gson.toJson(request)).metadata(0);
+
+		assertEquals("a", metadata.getSegments().get(0).getBdbInfo().getSubtype().get(0));
+		assertNull(metadata.getSegments().get(0).getBdb());
+	}
+
+	@Test
+	public void reportsAbsentNullAndEmptyGalleries() {
+		LazyMatchRequest absent = parse("{\"modalitiesToMatch\":[\"IRIS\"]}");
+		assertFalse(absent.isGalleryPresent());
+		assertEquals(0, absent.size());
+		assertEquals(List.of(BiometricType.IRIS), absent.getRequest().getModalitiesToMatch());
+
+		LazyMatchRequest nullGallery = parse(" { \"gallery\" : null , \"flags\" : { } } ");
+		assertFalse(nullGallery.isGalleryPresent());
+		assertTrue(nullGallery.getRequest().getFlags().isEmpty());
+
+		LazyMatchRequest empty = parse("{\"gallery\":[ ]}");
+		assertTrue(empty.isGalleryPresent());
+		assertEquals(0, empty.size());
+
+		assertFalse(parse("{}").isGalleryPresent());
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void rejectsUnterminatedGallery() {
+		parse("{\"gallery\":[{\"segments\":[]}");
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void rejectsUnterminatedString() {
+		parse("{\"flags\":{\"topK\":\"2}}");
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void rejectsNonObject() {
+		parse("[]");
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void reportsMalformedEntryWhenMaterialized() {
+		LazyMatchRequest lazy = parse("{\"gallery\":[{\"segments\":[]},{\"segments\":\"x\"}]}");
+		assertEquals(2, lazy.size());
+		lazy.materialize(0);
+		lazy.materialize(1);
+	}
+
+	private LazyMatchRequest parse(String json) {
+		return LazyMatchRequest.parse(json.getBytes(StandardCharsets.UTF_8), gson);
+	}
+
+	private static BiometricRecord record(String subtype, int bdb) {
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setType(new ArrayList<>(List.of(BiometricType.FINGER)));
+		bdbInfo.setSubtype(new ArrayList<>(List.of(subtype)));
+		BIR bir = new BIR();
+		bir.setBdbInfo(bdbInfo);
+		bir.setBdb(new byte[] { (byte) bdb });
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>(List.of(bir)));
+		return biometricRecord;
+	}
+}
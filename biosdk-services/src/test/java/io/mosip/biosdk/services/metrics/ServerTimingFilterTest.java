@@ -0,0 +1,81 @@
+package io.mosip.biosdk.services.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+public class ServerTimingFilterTest {
+	private final BioSdkMetrics metrics = new BioSdkMetrics(new SimpleMeterRegistry(), false,
+			new SlowRequestLog(-1, 1));
+
+	@Test
+	public void enablesHeaderForRequestAskingForIt() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/match");
+		request.addHeader(ServerTimingFilter.REQUEST_HEADER, "true");
+
+		try (RequestTimings timings = filter(new ServerTimingFilter(), request)) {
+			assertTrue(timings.isServerTiming());
+			assertTrue(timings.isRecorded(RequestTimings.Phase.QUEUE));
+		}
+	}
+
+	@Test
+	public void leavesHeaderOffByDefault() throws Exception {
+		try (RequestTimings timings = filter(new ServerTimingFilter(), new MockHttpServletRequest("POST", "/match"))) {
+			assertFalse(timings.isServerTiming());
+			assertTrue(timings.isRecorded(RequestTimings.Phase.QUEUE));
+		}
+	}
+
+	@Test
+	public void enablesHeaderForEveryRequestWhenConfigured() throws Exception {
+		ServerTimingFilter filter = new ServerTimingFilter();
+		ReflectionTestUtils.setField(filter, "isServerTimingEnabled", true);
+
+		try (RequestTimings timings = filter(filter, new MockHttpServletRequest("POST", "/match"))) {
+			assertTrue(timings.isServerTiming());
+		}
+	}
+
+	@Test
+	public void formatsRecordedPhasesTotalAndSizes() {
+		try (RequestTimings timings = metrics.startRequest("match", "1.0", 2048)) {
+			timings.add(RequestTimings.Phase.DECODE, 1_500_000);
+			timings.add(RequestTimings.Phase.SDK, 20_000_000);
+			timings.add(RequestTimings.Phase.SDK, 5_000_000);
+			timings.setResponseBytes(512);
+
+			String header = ServerTimingFilter.format(timings);
+
+			assertTrue(header, header.startsWith("decode;dur=1.5, sdk;dur=25.0, total;dur="));
+			assertFalse(header, header.contains("parse"));
+			assertTrue(header, header.endsWith(", request-bytes;desc=2048, response-bytes;desc=512"));
+		}
+	}
+
+	@Test
+	public void measuresUtf8LengthWithoutEncoding() {
+		for (String value : new String[] { "", "ascii", "déjà", "€100", "😀 ok" }) {
+			assertEquals(value, value.getBytes(StandardCharsets.UTF_8).length, ServerTimingFilter.utf8Length(value));
+		}
+	}
+
+	private RequestTimings filter(ServerTimingFilter filter, MockHttpServletRequest request) throws Exception {
+		RequestTimings[] timings = new RequestTimings[1];
+		filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+			timings[0] = metrics.startRequest("match", "1.0", -1);
+			ServerTimingFilter.apply((HttpServletRequest) servletRequest, timings[0]);
+		});
+		return timings[0];
+	}
+}
@@ -0,0 +1,112 @@
+package io.mosip.biosdk.services.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.actuator.SlowRequestsEndpoint;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+
+public class SlowRequestLogTest {
+	@Test
+	public void capturesShapeOfSlowRequest() {
+		SlowRequestLog log = new SlowRequestLog(0, 4);
+		BioSdkMetrics metrics = new BioSdkMetrics(new SimpleMeterRegistry(), false, log);
+
+		try (RequestTimings timings = metrics.startRequest("match", "1.0", 123)) {
+			RequestTimings.describe(List.of(BiometricType.FINGER, BiometricType.IRIS), 3, sample());
+			timings.add(RequestTimings.Phase.SDK, 5_000_000L);
+			timings.setResponseBytes(42);
+			timings.setOutcome(RequestTimings.OUTCOME_SUCCESS);
+		}
+
+		List<SlowRequest> requests = log.snapshot();
+		assertEquals(1, requests.size());
+		SlowRequest request = requests.get(0);
+		assertEquals("match", request.getOperation());
+		assertEquals("1.0", request.getVersion());
+		assertEquals(RequestTimings.OUTCOME_SUCCESS, request.getOutcome());
+		assertEquals(Thread.currentThread().getName(), request.getThread());
+		assertEquals("FINGER,IRIS", request.getModalities());
+		assertEquals(3, request.getGallerySize());
+		assertEquals(123, request.getRequestBytes());
+		assertEquals(42, request.getResponseBytes());
+		assertEquals(Map.of("sdk", 5.0), request.getPhaseMillis());
+		assertTrue(request.getTotalMillis() >= 0);
+		assertEquals(-1, request.getCpuMillis(), 0);
+		assertEquals(1, request.getSampleSegments().size());
+		SlowRequest.Segment segment = request.getSampleSegments().get(0);
+		assertEquals("[FINGER]", segment.getType());
+		assertEquals("Left Thumb", segment.getSubtype());
+		assertEquals("257/7", segment.getFormat());
+		assertEquals(10, segment.getBdbBytes());
+	}
+
+	@Test
+	public void skipsRequestsUnderThreshold() {
+		SlowRequestLog log = new SlowRequestLog(60_000, 4);
+		SlowRequestLog disabled = new SlowRequestLog(-1, 4);
+
+		new BioSdkMetrics(new SimpleMeterRegistry(), false, log).startRequest("match", "1.0", -1).close();
+		new BioSdkMetrics(new SimpleMeterRegistry(), false, disabled).startRequest("match", "1.0", -1).close();
+
+		assertTrue(log.snapshot().isEmpty());
+		assertEquals(60_000, log.getThresholdMillis());
+		assertTrue(disabled.snapshot().isEmpty());
+		assertEquals(-1, disabled.getThresholdMillis());
+	}
+
+	@Test
+	public void keepsMostRecentRequests() {
+		SlowRequestLog log = new SlowRequestLog(0, 3);
+		BioSdkMetrics metrics = new BioSdkMetrics(new SimpleMeterRegistry(), false, log);
+
+		for (int i = 0; i < 6; i++) {
+			metrics.startRequest("op" + i, "1.0", -1).close();
+		}
+
+		List<String> operations = new ArrayList<>();
+		for (SlowRequest request : log.snapshot()) {
+			operations.add(request.getOperation());
+		}
+		assertEquals(List.of("op5", "op4", "op3", "op2"), operations);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void servesAndClearsLogThroughEndpoint() {
+		SlowRequestLog log = new SlowRequestLog(0, 4);
+		SlowRequestsEndpoint endpoint = new SlowRequestsEndpoint(log);
+		new BioSdkMetrics(new SimpleMeterRegistry(), false, log).startRequest("extractTemplate", "1.0", -1).close();
+
+		Map<String, Object> result = endpoint.slowRequests();
+		assertEquals(0L, result.get("thresholdMillis"));
+		assertEquals(1, ((List<SlowRequest>) result.get("requests")).size());
+
+		endpoint.clear();
+		assertTrue(((List<SlowRequest>) endpoint.slowRequests().get("requests")).isEmpty());
+	}
+
+	private static BiometricRecord sample() {
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setType(new ArrayList<>(List.of(BiometricType.FINGER)));
+		bdbInfo.setSubtype(new ArrayList<>(List.of("Left", "Thumb")));
+		bdbInfo.setFormat(new RegistryIDType("257", "7"));
+		BIR bir = new BIR();
+		bir.setBdbInfo(bdbInfo);
+		bir.setBdb(new byte[10]);
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>(List.of(bir)));
+		return biometricRecord;
+	}
+}
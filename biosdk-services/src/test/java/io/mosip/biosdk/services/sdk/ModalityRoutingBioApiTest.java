@@ -0,0 +1,189 @@
+package io.mosip.biosdk.services.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.RequestTimings;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.metrics.ThreadResources;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+public class ModalityRoutingBioApiTest {
+	private static final long BURN_NANOS = 50_000_000L;
+	private static final int ALLOCATION_BYTES = 32 << 20;
+
+	private final BioSdkMetrics metrics = new BioSdkMetrics(new SimpleMeterRegistry(), false,
+			new SlowRequestLog(-1, 1));
+	private IBioApiV2 finger;
+	private IBioApiV2 iris;
+
+	@Before
+	public void setUp() {
+		finger = engineSdk(BiometricType.FINGER);
+		iris = engineSdk(BiometricType.IRIS);
+	}
+
+	@Test
+	public void mergesQualityScoresOfEngines() {
+		ModalityRoutingBioApi sdk = routing(null);
+
+		Response<QualityCheck> response = sdk.checkQuality(record(BiometricType.FINGER, BiometricType.IRIS),
+				List.of(BiometricType.FINGER, BiometricType.IRIS), Map.of());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode().intValue());
+		assertEquals(2, response.getResponse().getScores().size());
+		verify(finger).checkQuality(any(), eq(List.of(BiometricType.FINGER)), any());
+		verify(iris).checkQuality(any(), eq(List.of(BiometricType.IRIS)), any());
+	}
+
+	@Test
+	public void rejectsModalityOfNoEngineWithoutDefaultEngine() {
+		ModalityRoutingBioApi sdk = routing(null);
+
+		Response<QualityCheck> response = sdk.checkQuality(record(BiometricType.FINGER, BiometricType.FACE), null,
+				Map.of());
+
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusCode(), response.getStatusCode().intValue());
+		assertTrue(response.getStatusMessage().contains("FACE"));
+		verify(finger, never()).checkQuality(any(), any(), any());
+		verify(iris, never()).checkQuality(any(), any(), any());
+	}
+
+	@Test
+	public void routesModalityOfNoEngineToDefaultEngine() {
+		IBioApiV2 face = engineSdk(BiometricType.FACE);
+		ModalityRoutingBioApi sdk = routing(face);
+
+		Response<QualityCheck> response = sdk.checkQuality(record(BiometricType.FINGER, BiometricType.FACE),
+				List.of(BiometricType.FINGER, BiometricType.FACE), Map.of());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode().intValue());
+		assertEquals(2, response.getResponse().getScores().size());
+		verify(face).checkQuality(any(), eq(List.of(BiometricType.FACE)), any());
+	}
+
+	@Test
+	public void accountsFanOutResourcesToRequest() throws Exception {
+		assumeTrue("thread counters unsupported",
+				ThreadResources.cpuTime() > 0 && ThreadResources.allocatedBytes() > 0);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BioSdkMetrics accounting = new BioSdkMetrics(registry, true, new SlowRequestLog(-1, 1));
+		when(finger.checkQuality(any(), any(), any())).thenAnswer(invocation -> consume(BiometricType.FINGER));
+		when(iris.checkQuality(any(), any(), any())).thenAnswer(invocation -> consume(BiometricType.IRIS));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ModalityRoutingBioApi sdk = new ModalityRoutingBioApi(
+					List.of(engine("finger", finger, BiometricType.FINGER), engine("iris", iris, BiometricType.IRIS)),
+					null, executor);
+
+			try (RequestTimings timings = accounting.startRequest("checkQuality", "1.0", -1)) {
+				sdk.checkQuality(record(BiometricType.FINGER, BiometricType.IRIS), null, Map.of());
+				timings.setOutcome(RequestTimings.OUTCOME_SUCCESS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		DistributionSummary cpu = registry.get("biosdk.request.cpu").summary();
+		DistributionSummary allocated = registry.get("biosdk.request.allocated").summary();
+		assertTrue(cpu.totalAmount() >= 2 * BURN_NANOS / 1e9);
+		assertTrue(allocated.totalAmount() >= 2 * ALLOCATION_BYTES);
+	}
+
+	private ModalityRoutingBioApi routing(IBioApiV2 defaultSdk) {
+		List<ModalityRoutingBioApi.Engine> engines = List.of(engine("finger", finger, BiometricType.FINGER),
+				engine("iris", iris, BiometricType.IRIS));
+		return new ModalityRoutingBioApi(engines,
+				defaultSdk == null ? null : engine(BioSdkEngines.DEFAULT_ENGINE, defaultSdk), Runnable::run);
+	}
+
+	private ModalityRoutingBioApi.Engine engine(String name, IBioApiV2 sdk, BiometricType... modalities) {
+		return new ModalityRoutingBioApi.Engine(name, sdk, getClass().getClassLoader(), List.of(modalities), 0,
+				metrics);
+	}
+
+	/**
+	 * Scores every requested modality of the given type.
+	 */
+	private static IBioApiV2 engineSdk(BiometricType modality) {
+		IBioApiV2 sdk = mock(IBioApiV2.class);
+		when(sdk.checkQuality(any(), any(), any())).thenAnswer(invocation -> {
+			Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+			scores.put(modality, new QualityScore());
+			QualityCheck qualityCheck = new QualityCheck();
+			qualityCheck.setScores(scores);
+			Response<QualityCheck> response = new Response<>();
+			response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+			response.setResponse(qualityCheck);
+			return response;
+		});
+		return sdk;
+	}
+
+	/**
+	 * Burns CPU time and allocates heap on the calling thread before scoring.
+	 */
+	private static Response<QualityCheck> consume(BiometricType modality) {
+		long start = ThreadResources.cpuTime();
+		long sink = 0;
+		while (ThreadResources.cpuTime() - start < BURN_NANOS) {
+			sink += System.nanoTime() % 7;
+		}
+		byte[][] chunks = new byte[ALLOCATION_BYTES / (1 << 20)][];
+		for (int i = 0; i < chunks.length; i++) {
+			chunks[i] = new byte[1 << 20];
+		}
+		Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+		QualityScore score = new QualityScore();
+		score.setScore(chunks.length + sink % 2);
+		scores.put(modality, score);
+		QualityCheck qualityCheck = new QualityCheck();
+		qualityCheck.setScores(scores);
+		Response<QualityCheck> response = new Response<>();
+		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+		response.setResponse(qualityCheck);
+		return response;
+	}
+
+	private static BiometricRecord record(BiometricType... modalities) {
+		List<BIR> segments = new ArrayList<>();
+		for (BiometricType modality : modalities) {
+			BDBInfo bdbInfo = new BDBInfo();
+			bdbInfo.setType(new ArrayList<>(List.of(modality)));
+			BIR bir = new BIR();
+			bir.setBdbInfo(bdbInfo);
+			segments.add(bir);
+		}
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(segments);
+		return biometricRecord;
+	}
+}
@@ -0,0 +1,75 @@
+package io.mosip.biosdk.services.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+
+public class SdkCapabilitiesTest {
+	@Test
+	public void supportsEverythingWithoutDeclaration() {
+		SdkCapabilities capabilities = SdkCapabilities.of(new SDKInfo("1.0", "1", "test", "test"));
+
+		assertFalse(capabilities.isKnown());
+		assertTrue(capabilities.supports(BiometricFunction.MATCH));
+		assertTrue(capabilities.supportsAny(BiometricFunction.MATCH, List.of(BiometricType.IRIS)));
+		assertFalse(SdkCapabilities.of(null).isKnown());
+	}
+
+	@Test
+	public void rejectsOnlyMethodsListedWithoutModality() {
+		SdkCapabilities capabilities = SdkCapabilities.of(methods(BiometricFunction.MATCH,
+				List.of(BiometricType.FINGER), BiometricFunction.SEGMENT, List.of()));
+
+		assertTrue(capabilities.isKnown());
+		assertTrue(capabilities.supports(BiometricFunction.MATCH));
+		assertFalse(capabilities.supports(BiometricFunction.SEGMENT));
+		assertTrue(capabilities.supports(BiometricFunction.EXTRACT));
+		assertTrue(capabilities.supportsAny(BiometricFunction.EXTRACT, List.of(BiometricType.IRIS)));
+	}
+
+	@Test
+	public void supportsRequestWithAtLeastOneSupportedModality() {
+		SdkCapabilities capabilities = SdkCapabilities.of(methods(BiometricFunction.MATCH,
+				List.of(BiometricType.FINGER, BiometricType.FACE), BiometricFunction.SEGMENT, List.of()));
+
+		assertTrue(capabilities.supportsAny(BiometricFunction.MATCH, List.of(BiometricType.IRIS, BiometricType.FACE)));
+		assertFalse(capabilities.supportsAny(BiometricFunction.MATCH, List.of(BiometricType.IRIS)));
+		assertTrue(capabilities.supportsAny(BiometricFunction.MATCH, List.of()));
+		assertTrue(capabilities.supportsAny(BiometricFunction.MATCH, null));
+		assertEquals(List.of(BiometricType.IRIS), capabilities.unsupported(BiometricFunction.MATCH,
+				List.of(BiometricType.IRIS, BiometricType.FACE, BiometricType.IRIS)));
+	}
+
+	@Test
+	public void appliesSupportedModalitiesToEveryMethod() {
+		SDKInfo sdkInfo = new SDKInfo("1.0", "1", "test", "test");
+		sdkInfo.setSupportedModalities(List.of(BiometricType.FACE));
+		SdkCapabilities capabilities = SdkCapabilities.of(sdkInfo);
+
+		for (BiometricFunction function : BiometricFunction.values()) {
+			assertTrue(capabilities.supports(function));
+			assertTrue(capabilities.supportsAny(function, List.of(BiometricType.FACE)));
+			assertFalse(capabilities.supportsAny(function, List.of(BiometricType.FINGER)));
+		}
+	}
+
+	private static SDKInfo methods(BiometricFunction first, List<BiometricType> firstModalities,
+			BiometricFunction second, List<BiometricType> secondModalities) {
+		Map<BiometricFunction, List<BiometricType>> methods = new EnumMap<>(BiometricFunction.class);
+		methods.put(first, firstModalities);
+		methods.put(second, secondModalities);
+		SDKInfo sdkInfo = new SDKInfo("1.0", "1", "test", "test");
+		sdkInfo.setSupportedMethods(methods);
+		return sdkInfo;
+	}
+}
@@ -0,0 +1,115 @@
+package io.mosip.biosdk.services.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+public class SdkInitCacheTest {
+	private static final Map<String, String> WARMUP_PARAMS = Map.of();
+	private static final Map<String, String> CLIENT_PARAMS = Map.of("license", "client");
+
+	private IBioApiV2 sdk;
+	private IBioApiV2 standby;
+	private BioSdkLibConfig bioSdkLibConfig;
+	private SdkInitCache cache;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		sdk = mock(IBioApiV2.class);
+		standby = mock(IBioApiV2.class, withSettings().extraInterfaces(AutoCloseable.class));
+		when(sdk.init(any())).thenAnswer(invocation -> new SDKInfo("1.0", "1", "sdk", "a"));
+		when(standby.init(any())).thenAnswer(invocation -> new SDKInfo("1.0", "1", "standby", "a"));
+		ObjectProvider<IBioApiV2> sdkProvider = mock(ObjectProvider.class);
+		when(sdkProvider.getObject()).thenReturn(sdk);
+		bioSdkLibConfig = mock(BioSdkLibConfig.class);
+		when(bioSdkLibConfig.newBioApi()).thenReturn(standby);
+		cache = new SdkInitCache(sdkProvider, bioSdkLibConfig,
+				new BioSdkMetrics(new SimpleMeterRegistry(), false, new SlowRequestLog(-1, 1)));
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "maxInstances", 2);
+	}
+
+	@Test
+	public void initialisesWarmedInstanceAgainWithClientParams() throws Exception {
+		init(WARMUP_PARAMS);
+		cache.markWarmedUp();
+
+		init(CLIENT_PARAMS);
+
+		verify(bioSdkLibConfig, never()).newBioApi();
+		verify(sdk).init(WARMUP_PARAMS);
+		verify(sdk).init(CLIENT_PARAMS);
+		assertSame(sdk, cache.current());
+		assertEquals(CLIENT_PARAMS, cache.initParams());
+
+		init(WARMUP_PARAMS);
+		verify(bioSdkLibConfig).newBioApi();
+		assertSame(standby, cache.current());
+	}
+
+	@Test
+	public void createsStandbyOnceWarmedInstanceServedRequest() throws Exception {
+		init(WARMUP_PARAMS);
+		cache.markWarmedUp();
+		cache.acquire().close();
+
+		init(CLIENT_PARAMS);
+
+		verify(sdk, times(1)).init(any());
+		assertSame(standby, cache.current());
+		init(WARMUP_PARAMS);
+		assertSame(sdk, cache.current());
+		verify(sdk, times(1)).init(any());
+	}
+
+	@Test
+	public void closesStandbyWhoseInitFails() throws Exception {
+		init(WARMUP_PARAMS);
+		when(standby.init(any())).thenThrow(new IllegalStateException("no license"));
+
+		try {
+			init(CLIENT_PARAMS);
+			fail("failed init not reported");
+		} catch (IllegalStateException e) {
+			assertEquals("no license", e.getMessage());
+		}
+
+		verify((AutoCloseable) standby).close();
+		assertSame(sdk, cache.current());
+		assertEquals(WARMUP_PARAMS, cache.initParams());
+	}
+
+	@Test
+	public void answersSameParamsFromActiveInstance() throws Exception {
+		init(CLIENT_PARAMS);
+		init(Map.of("license", "client"));
+
+		verify(sdk, times(1)).init(any());
+	}
+
+	private void init(Map<String, String> params) throws ReflectiveOperationException {
+		cache.init(params, instance -> instance.init(params));
+	}
+}
@@ -0,0 +1,164 @@
+package io.mosip.biosdk.services.sdk.foreign;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+
+public class NativeBioApiTest {
+	private static final Path STUB = Path.of("target", "native", "libbiosdk_stub.so").toAbsolutePath();
+	private static final int SUCCESS = ResponseStatus.SUCCESS.getStatusCode();
+
+	private NativeBioApi sdk;
+
+	@Before
+	public void setUp() {
+		assumeTrue("stub engine not built, run mvn -Pnative test", Files.isRegularFile(STUB));
+		sdk = new NativeBioApi();
+		sdk.setEnvironment(new MockEnvironment().withProperty(NativeBioApi.LIBRARY_PROPERTY, STUB.toString()));
+		SDKInfo sdkInfo = sdk.init(Map.of("match-threshold", "60"));
+		assertEquals("stub", sdkInfo.getProductOwner().getType());
+		assertEquals(List.of(BiometricType.FINGER, BiometricType.IRIS, BiometricType.FACE),
+				sdkInfo.getSupportedMethods().get(BiometricFunction.MATCH));
+		assertNoOpenArena();
+	}
+
+	@After
+	public void tearDown() {
+		if (sdk != null) {
+			sdk.close();
+		}
+	}
+
+	@Test
+	public void checksQualityPerModality() {
+		Response<QualityCheck> response = sdk.checkQuality(record(BiometricType.FINGER, "a", BiometricType.IRIS, "b"),
+				null, Map.of());
+
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		assertEquals(2, response.getResponse().getScores().size());
+		float score = response.getResponse().getScores().get(BiometricType.FINGER).getScore();
+		assertTrue(score >= 0 && score <= 100);
+		assertNoOpenArena();
+	}
+
+	@Test
+	public void matchesExtractedTemplates() {
+		BiometricRecord probe = extract(record(BiometricType.FINGER, "probe"));
+		BiometricRecord other = extract(record(BiometricType.FINGER, "other"));
+
+		Response<MatchDecision[]> response = sdk.match(probe, new BiometricRecord[] { other, probe },
+				List.of(BiometricType.FINGER), Map.of());
+
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		MatchDecision[] decisions = response.getResponse();
+		assertEquals(2, decisions.length);
+		assertEquals(Match.NOT_MATCHED, decisions[0].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertEquals(Match.MATCHED, decisions[1].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertEquals("100.0", decisions[1].getAnalyticsInfo().get("score"));
+		assertNoOpenArena();
+	}
+
+	@Test
+	public void extractsTemplateOfRequestedModalitiesOnly() {
+		BiometricRecord sample = record(BiometricType.FINGER, "a", BiometricType.FACE, "b");
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, List.of(BiometricType.FINGER), Map.of());
+
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		List<BIR> segments = response.getResponse().getSegments();
+		assertEquals(32, segments.get(0).getBdb().length);
+		assertSame(sample.getSegments().get(1), segments.get(1));
+		assertNoOpenArena();
+	}
+
+	@Test
+	public void returnsSampleAsSegmented() {
+		BiometricRecord sample = record(BiometricType.FACE, "a");
+
+		assertSame(sample, sdk.segment(sample, null, Map.of()).getResponse());
+		assertNoOpenArena();
+	}
+
+	@Test
+	@SuppressWarnings({ "removal" })
+	public void convertsFormat() {
+		BiometricRecord sample = record(BiometricType.IRIS, "iris");
+
+		Response<BiometricRecord> response = sdk.convertFormatV2(sample, "ISO19794_6_2011", "IMAGE/PNG", null, null,
+				null);
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+		BiometricRecord converted = sdk.convertFormat(sample, "ISO19794_6_2011", "IMAGE/PNG", null, null, null);
+		assertNotNull(converted);
+		assertNoOpenArena();
+	}
+
+	@Test
+	public void reportsEngineStatusAndFreesMemory() {
+		Response<BiometricRecord> missingFormat = sdk.convertFormatV2(record(BiometricType.IRIS, "iris"), null,
+				"IMAGE/PNG", null, null, null);
+		assertEquals(ResponseStatus.MISSING_INPUT.getStatusCode(), missingFormat.getStatusCode().intValue());
+		assertNoOpenArena();
+
+		BiometricRecord empty = record(BiometricType.FINGER, "");
+		Response<MatchDecision[]> invalid = sdk.match(empty, new BiometricRecord[] { empty }, null, Map.of());
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusCode(), invalid.getStatusCode().intValue());
+		assertFalse(invalid.getStatusMessage().isEmpty());
+		assertNoOpenArena();
+	}
+
+	private BiometricRecord extract(BiometricRecord sample) {
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, Map.of());
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		return response.getResponse();
+	}
+
+	private static void assertNoOpenArena() {
+		assertEquals(0, NativeArena.open());
+	}
+
+	/**
+	 * Builds a record of alternating modalities and BDB contents.
+	 */
+	private static BiometricRecord record(Object... segments) {
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>());
+		for (int i = 0; i < segments.length; i += 2) {
+			BDBInfo bdbInfo = new BDBInfo();
+			bdbInfo.setType(new ArrayList<>(List.of((BiometricType) segments[i])));
+			BIR bir = new BIR();
+			bir.setBdbInfo(bdbInfo);
+			bir.setBdb(((String) segments[i + 1]).getBytes(StandardCharsets.UTF_8));
+			biometricRecord.getSegments().add(bir);
+		}
+		return biometricRecord;
+	}
+}
@@ -0,0 +1,150 @@
+package io.mosip.biosdk.services.sdk.worker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.SdkWorkerProperties;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.synthetic.ModalityProfile;
+import io.mosip.biosdk.services.synthetic.SyntheticBioApi;
+import io.mosip.biosdk.services.synthetic.SyntheticRecordGenerator;
+import io.mosip.biosdk.services.synthetic.SyntheticSdkSettings;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+public class SdkWorkerPoolTest {
+	private static final Map<String, String> INIT_PARAMS = Map.of("template-bytes", "4096");
+	private static final List<BiometricType> FINGER = List.of(BiometricType.FINGER);
+	private static final long RESTART_TIMEOUT_MILLIS = 60000;
+
+	/**
+	 * Synthetic SDK bringing its JVM down on {@code segment}, as a native SDK
+	 * crash would.
+	 */
+	public static class CrashingBioApi extends SyntheticBioApi {
+		@Override
+		public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+				Map<String, String> flags) {
+			Runtime.getRuntime().halt(134);
+			return null;
+		}
+	}
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final BiometricRecord sample = new SyntheticRecordGenerator(1L)
+			.withModality(ModalityProfile.fingerImage()).record(0);
+	private SimpleMeterRegistry meterRegistry;
+	private SdkWorkerPool pool;
+
+	@Before
+	public void setUp() {
+		SdkWorkerProperties properties = new SdkWorkerProperties();
+		properties.setEnabled(true);
+		properties.setWorkers(1);
+		properties.setConcurrency(2);
+		properties.setBufferBytes(1024);
+		properties.setSharedDirectory(folder.getRoot().getPath());
+		properties.setHealthIntervalMs(60000);
+		properties.setRestartDelayMs(100);
+		MockEnvironment env = new MockEnvironment().withProperty("biosdk_bioapi_impl", CrashingBioApi.class.getName())
+				.withProperty(SyntheticSdkSettings.PREFIX + "cpu-micros", "0");
+		meterRegistry = new SimpleMeterRegistry();
+		pool = new SdkWorkerPool(properties, env,
+				new BioSdkMetrics(meterRegistry, false, new SlowRequestLog(-1, 1)));
+	}
+
+	@After
+	public void tearDown() {
+		pool.stop();
+	}
+
+	@Test
+	public void passesPayloadsLargerThanSlotBuffersThroughSharedFiles() {
+		WorkerBioApi sdk = pool.newBioApi();
+		assertEquals("0.9", sdk.init(INIT_PARAMS).getApiVersion());
+		assertEquals(2, folder.getRoot().list().length);
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, FINGER, Map.of());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode().intValue());
+		assertTemplatesOf(sample, response.getResponse());
+		try {
+			sdk.extractTemplate(null, FINGER, Map.of());
+			fail("SDK exception not passed back");
+		} catch (BioSDKException e) {
+			assertEquals(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), e.getErrorCode());
+			assertTrue(e.getMessage(), e.getMessage().contains("NullPointerException"));
+		}
+
+		pool.stop();
+		assertEquals(0, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void restartsCrashedWorkerWithInitialisedInstances() throws Exception {
+		WorkerBioApi sdk = pool.newBioApi();
+		sdk.init(INIT_PARAMS);
+
+		try {
+			sdk.segment(sample, FINGER, Map.of());
+			fail("call on crashed worker succeeded");
+		} catch (BioSDKException e) {
+			assertEquals(ErrorMessages.SDK_WORKER_FAILURE.toString(), e.getErrorCode());
+		}
+
+		Response<BiometricRecord> response = null;
+		long deadline = System.currentTimeMillis() + RESTART_TIMEOUT_MILLIS;
+		while (response == null) {
+			try {
+				response = sdk.extractTemplate(sample, FINGER, Map.of());
+			} catch (BioSDKException e) {
+				if (System.currentTimeMillis() > deadline) {
+					throw e;
+				}
+				Thread.sleep(100);
+			}
+		}
+		assertTemplatesOf(sample, response.getResponse());
+		assertEquals(1, meterRegistry.get("biosdk.worker.restart").tag("reason", "exited").counter().count(), 0);
+		for (File file : folder.getRoot().listFiles()) {
+			assertTrue("buffer of crashed worker left: " + file, !file.getName().contains("-0-1-"));
+		}
+	}
+
+	/**
+	 * Checks that the worker extracted the same templates as the SDK in process,
+	 * initialised with the same parameters.
+	 */
+	private static void assertTemplatesOf(BiometricRecord sample, BiometricRecord templates) {
+		SyntheticBioApi local = new SyntheticBioApi();
+		local.setEnvironment(new MockEnvironment().withProperty(SyntheticSdkSettings.PREFIX + "cpu-micros", "0"));
+		local.init(INIT_PARAMS);
+		BiometricRecord expected = local.extractTemplate(sample, FINGER, Map.of()).getResponse();
+		assertEquals(expected.getSegments().size(), templates.getSegments().size());
+		for (int i = 0; i < expected.getSegments().size(); i++) {
+			assertEquals(4096, templates.getSegments().get(i).getBdb().length);
+			assertArrayEquals(expected.getSegments().get(i).getBdb(), templates.getSegments().get(i).getBdb());
+		}
+	}
+}
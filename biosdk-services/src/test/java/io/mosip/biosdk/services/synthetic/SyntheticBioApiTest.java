@@ -0,0 +1,134 @@
+package io.mosip.biosdk.services.synthetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+
+public class SyntheticBioApiTest {
+	private static final int SUCCESS = ResponseStatus.SUCCESS.getStatusCode();
+	private static final List<BiometricType> FINGER = List.of(BiometricType.FINGER);
+
+	private final SyntheticRecordGenerator samples = new SyntheticRecordGenerator(1L)
+			.withModality(ModalityProfile.fingerImage()).withModality(ModalityProfile.irisImage());
+	private SyntheticBioApi sdk;
+
+	@Before
+	public void setUp() {
+		sdk = new SyntheticBioApi();
+		sdk.setEnvironment(new MockEnvironment().withProperty(SyntheticSdkSettings.PREFIX + "cpu-micros", "0"));
+	}
+
+	@Test
+	public void matchesTemplateExtractedFromSameSample() {
+		sdk.init(Map.of());
+		BiometricRecord probe = extract(samples.record(0));
+		BiometricRecord other = extract(samples.record(1));
+
+		Response<MatchDecision[]> response = sdk.match(probe, new BiometricRecord[] { other, probe }, FINGER,
+				Map.of());
+
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		MatchDecision[] decisions = response.getResponse();
+		assertEquals(Match.NOT_MATCHED, decisions[0].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertTrue(Integer.parseInt(decisions[0].getAnalyticsInfo().get("score")) < 60);
+		assertEquals(Match.MATCHED, decisions[1].getDecisions().get(BiometricType.FINGER).getMatch());
+		assertEquals("100", decisions[1].getAnalyticsInfo().get("score"));
+		assertEquals(List.of(BiometricType.FINGER), List.copyOf(decisions[1].getDecisions().keySet()));
+	}
+
+	@Test
+	public void extractsDeterministicTemplatesOfRequestedModality() {
+		sdk.init(Map.of("template-bytes", "256"));
+		BiometricRecord sample = samples.record(0);
+
+		BiometricRecord template = extract(sample);
+
+		List<BIR> segments = template.getSegments();
+		assertEquals(12, segments.size());
+		assertEquals(256, segments.get(0).getBdb().length);
+		assertArrayEquals(segments.get(3).getBdb(), extract(samples.record(0)).getSegments().get(3).getBdb());
+		assertEquals(sample.getSegments().get(10), segments.get(10));
+	}
+
+	@Test
+	public void averagesRecordedQualityPerModality() {
+		BiometricRecord sample = samples.record(0);
+
+		Response<QualityCheck> response = sdk.checkQuality(sample, null, Map.of());
+
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		double total = 0;
+		for (int i = 0; i < 10; i++) {
+			total += sample.getSegments().get(i).getBdbInfo().getQuality().getScore();
+		}
+		assertEquals(total / 10, response.getResponse().getScores().get(BiometricType.FINGER).getScore(), 1e-3);
+		assertEquals(2, response.getResponse().getScores().size());
+	}
+
+	@Test
+	public void injectsFailuresOfConfiguredOperation() {
+		sdk.init(Map.of("match.failure-rate", "1"));
+
+		Response<MatchDecision[]> failed = sdk.match(samples.record(0), new BiometricRecord[] { samples.record(0) },
+				FINGER, Map.of());
+
+		assertEquals(ResponseStatus.UNKNOWN_ERROR.getStatusCode(), failed.getStatusCode().intValue());
+		assertEquals("Synthetic SDK injected failure", failed.getStatusMessage());
+		assertEquals(SUCCESS, sdk.checkQuality(samples.record(0), FINGER, Map.of()).getStatusCode().intValue());
+
+		sdk.init(Map.of(SyntheticSdkSettings.PREFIX + "failure-rate", "1", "failure-mode", "exception"));
+		try {
+			sdk.checkQuality(samples.record(0), FINGER, Map.of());
+			fail("injected failure not thrown");
+		} catch (IllegalStateException e) {
+			assertEquals("Synthetic SDK injected failure", e.getMessage());
+		}
+	}
+
+	@Test
+	public void addsConfiguredLatency() {
+		sdk.init(Map.of("latency", "fixed", "latency-ms", "50"));
+
+		long start = System.nanoTime();
+		sdk.segment(samples.record(0), FINGER, Map.of());
+
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+	}
+
+	@Test
+	public void serializesCallsWhenNotThreadSafe() {
+		sdk.init(Map.of("thread-safety", "serialized", "latency", "fixed", "latency-ms", "100"));
+
+		long start = System.nanoTime();
+		CompletableFuture<?> first = CompletableFuture.runAsync(() -> sdk.segment(samples.record(0), null, Map.of()));
+		CompletableFuture<?> second = CompletableFuture.runAsync(() -> sdk.segment(samples.record(1), null, Map.of()));
+		CompletableFuture.allOf(first, second).join();
+
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+	}
+
+	private BiometricRecord extract(BiometricRecord sample) {
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, FINGER, Map.of());
+		assertEquals(SUCCESS, response.getStatusCode().intValue());
+		return response.getResponse();
+	}
+}
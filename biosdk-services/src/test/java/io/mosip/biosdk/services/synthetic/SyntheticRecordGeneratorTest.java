@@ -0,0 +1,167 @@
+package io.mosip.biosdk.services.synthetic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
+import io.mosip.kernel.biometrics.constant.PurposeType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+public class SyntheticRecordGeneratorTest {
+	private static final Gson GSON = new Gson();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void buildsSegmentsOfEveryProfileInOrder() {
+		BiometricRecord biometricRecord = new SyntheticRecordGenerator(1L).withModality(ModalityProfile.fingerImage())
+				.withModality(ModalityProfile.faceImage()).record(0);
+
+		List<BIR> segments = biometricRecord.getSegments();
+		assertEquals(11, segments.size());
+		BIR finger = segments.get(0);
+		assertEquals(List.of(BiometricType.FINGER), finger.getBdbInfo().getType());
+		assertEquals(List.of("Left", "IndexFinger"), finger.getBdbInfo().getSubtype());
+		assertEquals(List.of("Right", "Thumb"), segments.get(9).getBdbInfo().getSubtype());
+		assertEquals("Mosip", finger.getBdbInfo().getFormat().getOrganization());
+		assertEquals("7", finger.getBdbInfo().getFormat().getType());
+		assertEquals(ProcessedLevelType.RAW, finger.getBdbInfo().getLevel());
+		assertEquals(PurposeType.VERIFY, finger.getBdbInfo().getPurpose());
+		assertEquals(16 * 1024, finger.getBdb().length);
+		assertArrayEquals(("FIR\0" + "020\0").getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(finger.getBdb(), 8));
+		long quality = finger.getBdbInfo().getQuality().getScore();
+		assertTrue(quality >= 40 && quality <= 100);
+		BIR face = segments.get(10);
+		assertEquals(List.of(BiometricType.FACE), face.getBdbInfo().getType());
+		assertTrue(face.getBdbInfo().getSubtype().isEmpty());
+		assertEquals(120 * 1024, face.getBdb().length);
+	}
+
+	@Test
+	public void derivesRecordFromSeedAndIndexOnly() {
+		SyntheticRecordGenerator generator = new SyntheticRecordGenerator(7L)
+				.withModality(ModalityProfile.fingerTemplate());
+
+		BiometricRecord[] records = generator.records(3, 4);
+
+		assertEquals(4, records.length);
+		assertArrayEquals(generator.record(5).getSegments().get(1).getBdb(), records[2].getSegments().get(1).getBdb());
+		assertEquals(generator.record(5).getSegments().get(1).getBdbInfo().getQuality().getScore(),
+				records[2].getSegments().get(1).getBdbInfo().getQuality().getScore());
+		assertFalse(Arrays.equals(records[2].getSegments().get(1).getBdb(),
+				records[3].getSegments().get(1).getBdb()));
+		assertFalse(Arrays.equals(records[2].getSegments().get(1).getBdb(), new SyntheticRecordGenerator(8L)
+				.withModality(ModalityProfile.fingerTemplate()).record(5).getSegments().get(1).getBdb()));
+	}
+
+	@Test
+	public void shapesSegmentsAsConfigured() {
+		ModalityProfile profile = ModalityProfile.fingerTemplate().withSegments(5).withBdbBytes(100, 10)
+				.withQuality(ModalityProfile.Distribution.FIXED, 42, 0);
+
+		List<BIR> segments = new SyntheticRecordGenerator(1L).withModality(profile).record(0).getSegments();
+
+		assertEquals(5, segments.size());
+		assertEquals(List.of("Right", "IndexFinger"), segments.get(3).getBdbInfo().getSubtype());
+		assertEquals(ProcessedLevelType.PROCESSED, segments.get(0).getBdbInfo().getLevel());
+		for (BIR segment : segments) {
+			assertTrue(segment.getBdb().length >= 90 && segment.getBdb().length <= 110);
+			assertEquals(42L, segment.getBdbInfo().getQuality().getScore().longValue());
+		}
+		BIR clipped = new SyntheticRecordGenerator(1L)
+				.withModality(ModalityProfile.irisImage().withQuality(ModalityProfile.Distribution.NORMAL, 150, 5))
+				.record(0).getSegments().get(0);
+		assertEquals(100L, clipped.getBdbInfo().getQuality().getScore().longValue());
+	}
+
+	@Test
+	public void rejectsInvalidProfiles() {
+		try {
+			ModalityProfile.fingerImage().withBdbBytes(10, 20);
+			fail("jitter above size accepted");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid BDB size 10 +/- 20", e.getMessage());
+		}
+		try {
+			ModalityProfile.imageOf(BiometricType.VOICE);
+			fail("image profile of voice built");
+		} catch (IllegalArgumentException e) {
+			assertEquals("No image profile for VOICE", e.getMessage());
+		}
+	}
+
+	@Test
+	public void writesMatchRequestWithGeneratedGallery() throws Exception {
+		SyntheticRecordGenerator generator = new SyntheticRecordGenerator(3L)
+				.withModality(ModalityProfile.fingerTemplate());
+		Path file = folder.newFile("match.json").toPath();
+
+		SyntheticRequests.writeMatchRequest(file, matchRequest(generator), generator, 10, 5);
+
+		RequestDto requestDto = GSON.fromJson(Files.readString(file), RequestDto.class);
+		assertEquals(SyntheticRequests.VERSION, requestDto.getVersion());
+		MatchRequestDto matchRequestDto = GSON.fromJson(
+				new String(Base64.getDecoder().decode(requestDto.getRequest()), StandardCharsets.UTF_8),
+				MatchRequestDto.class);
+		assertEquals(List.of(BiometricType.FINGER), matchRequestDto.getModalitiesToMatch());
+		assertArrayEquals(generator.record(10).getSegments().get(0).getBdb(),
+				matchRequestDto.getSample().getSegments().get(0).getBdb());
+		assertEquals(5, matchRequestDto.getGallery().length);
+		assertArrayEquals(generator.record(14).getSegments().get(1).getBdb(),
+				matchRequestDto.getGallery()[4].getSegments().get(1).getBdb());
+	}
+
+	@Test
+	public void writesMatchStreamOneRecordPerLine() throws Exception {
+		SyntheticRecordGenerator generator = new SyntheticRecordGenerator(3L)
+				.withModality(ModalityProfile.fingerTemplate());
+		Path file = folder.newFile("match.ndjson").toPath();
+
+		SyntheticRequests.writeMatchStream(file, matchRequest(generator), generator, 10, 3);
+
+		try (BufferedReader reader = Files.newBufferedReader(file)) {
+			RequestDto requestDto = GSON.fromJson(reader.readLine(), RequestDto.class);
+			MatchRequestDto matchRequestDto = GSON.fromJson(
+					new String(Base64.getDecoder().decode(requestDto.getRequest()), StandardCharsets.UTF_8),
+					MatchRequestDto.class);
+			assertNull(matchRequestDto.getGallery());
+			for (int i = 0; i < 3; i++) {
+				BiometricRecord galleryRecord = GSON.fromJson(reader.readLine(), BiometricRecord.class);
+				assertArrayEquals(generator.record(10 + i).getSegments().get(0).getBdb(),
+						galleryRecord.getSegments().get(0).getBdb());
+			}
+			assertNull(reader.readLine());
+		}
+	}
+
+	private static MatchRequestDto matchRequest(SyntheticRecordGenerator generator) {
+		MatchRequestDto matchRequestDto = new MatchRequestDto();
+		matchRequestDto.setSample(generator.record(10));
+		matchRequestDto.setGallery(generator.records(0, 2));
+		matchRequestDto.setModalitiesToMatch(List.of(BiometricType.FINGER));
+		return matchRequestDto;
+	}
+}
@@ -0,0 +1,95 @@
+package io.mosip.biosdk.services.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+public class BiometricRecordProjectionTest {
+	private final BIR finger = segment(BiometricType.FINGER);
+	private final BIR iris = segment(BiometricType.IRIS);
+	private final BIR untyped = segment(null);
+	private final BIR face = segment(BiometricType.FACE);
+
+	@Test
+	public void keepsRequestedAndUntypedSegments() {
+		BiometricRecord source = record(finger, iris, untyped, face);
+
+		BiometricRecordProjection projection = BiometricRecordProjection.of(source,
+				List.of(BiometricType.FINGER, BiometricType.FACE));
+
+		assertEquals(List.of(finger, untyped, face), projection.getRecord().getSegments());
+		assertEquals(1, projection.getSkippedSegments());
+		assertSame(source.getOthers(), projection.getRecord().getOthers());
+		assertEquals(4, source.getSegments().size());
+	}
+
+	@Test
+	public void returnsSourceWhenNothingIsLeftOut() {
+		BiometricRecord source = record(finger, untyped);
+
+		assertSame(source, BiometricRecordProjection.of(source, List.of(BiometricType.FINGER)).getRecord());
+		assertSame(source, BiometricRecordProjection.of(source, List.of()).getRecord());
+		assertSame(source, BiometricRecordProjection.of(source, null).getRecord());
+		assertSame(source, BiometricRecordProjection.of(source, Arrays.asList((BiometricType) null)).getRecord());
+		assertNull(BiometricRecordProjection.of(null, List.of(BiometricType.FINGER)).getRecord());
+	}
+
+	@Test
+	public void ignoresNullModalities() {
+		BiometricRecordProjection projection = BiometricRecordProjection.of(record(finger, iris),
+				Arrays.asList(null, BiometricType.IRIS));
+
+		assertEquals(List.of(iris), projection.getRecord().getSegments());
+	}
+
+	@Test
+	public void restoresSegmentsInPlaceWhenSdkReturnsOnePerSegment() {
+		BiometricRecordProjection projection = BiometricRecordProjection.of(record(finger, iris, face),
+				List.of(BiometricType.FINGER, BiometricType.FACE));
+		BIR fingerTemplate = segment(BiometricType.FINGER);
+		BIR faceTemplate = segment(BiometricType.FACE);
+
+		BiometricRecord restored = projection.restore(record(fingerTemplate, faceTemplate));
+
+		assertEquals(List.of(fingerTemplate, iris, faceTemplate), restored.getSegments());
+	}
+
+	@Test
+	public void appendsLeftOutSegmentsWhenSdkChangesSegmentCount() {
+		BiometricRecordProjection projection = BiometricRecordProjection.of(record(finger, iris, face),
+				List.of(BiometricType.FINGER));
+		BIR first = segment(BiometricType.FINGER);
+		BIR second = segment(BiometricType.FINGER);
+
+		BiometricRecord restored = projection.restore(record(first, second));
+
+		assertEquals(List.of(first, second, iris, face), restored.getSegments());
+	}
+
+	private static BiometricRecord record(BIR... segments) {
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(new ArrayList<>(Arrays.asList(segments)));
+		return biometricRecord;
+	}
+
+	private static BIR segment(BiometricType type) {
+		BDBInfo bdbInfo = new BDBInfo();
+		if (type != null) {
+			bdbInfo.setType(new ArrayList<>(List.of(type)));
+		}
+		BIR bir = new BIR();
+		bir.setBdbInfo(bdbInfo);
+		return bir;
+	}
+}
@@ -0,0 +1,182 @@
+package io.mosip.biosdk.services.warmup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.sdk.BioSdkEngines;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
+import io.mosip.biosdk.services.sdk.worker.SdkWorkerPool;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+public class SdkHotSwapTest {
+	private static final String IMPL = "com.example.NewBioApi";
+	private static final Map<String, String> CLIENT_PARAMS = Map.of("license", "client");
+	private static final long WAIT_MILLIS = 10000;
+
+	private IBioApiV2 previous;
+	private IBioApiV2 next;
+	private BioSdkEngines bioSdkEngines;
+	private SdkWorkerPool sdkWorkerPool;
+	private SimpleMeterRegistry meterRegistry;
+	private SdkInitCache sdkInitCache;
+	private SdkHotSwap sdkHotSwap;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		previous = mock(IBioApiV2.class, withSettings().extraInterfaces(AutoCloseable.class));
+		next = mock(IBioApiV2.class);
+		when(previous.init(any())).thenReturn(new SDKInfo("1.0", "1", "previous", "a"));
+		when(next.init(any())).thenReturn(new SDKInfo("1.0", "2", "next", "a"));
+		ObjectProvider<IBioApiV2> sdkProvider = mock(ObjectProvider.class);
+		when(sdkProvider.getObject()).thenReturn(previous);
+		meterRegistry = new SimpleMeterRegistry();
+		BioSdkMetrics metrics = new BioSdkMetrics(meterRegistry, false, new SlowRequestLog(-1, 1));
+		sdkInitCache = new SdkInitCache(sdkProvider, mock(BioSdkLibConfig.class), metrics);
+		ReflectionTestUtils.setField(sdkInitCache, "enabled", true);
+		ReflectionTestUtils.setField(sdkInitCache, "maxInstances", 2);
+		sdkInitCache.init(CLIENT_PARAMS, sdk -> sdk.init(CLIENT_PARAMS));
+
+		bioSdkEngines = mock(BioSdkEngines.class);
+		when(bioSdkEngines.newClassLoader(anyString(), anyList())).thenReturn(getClass().getClassLoader());
+		when(bioSdkEngines.instantiate(eq(IMPL), any())).thenReturn(next);
+		sdkWorkerPool = mock(SdkWorkerPool.class);
+		sdkHotSwap = new SdkHotSwap(sdkInitCache, bioSdkEngines, sdkWorkerPool, metrics);
+		ReflectionTestUtils.setField(sdkHotSwap, "iterations", 1);
+		ReflectionTestUtils.setField(sdkHotSwap, "drainTimeoutMillis", WAIT_MILLIS);
+		ReflectionTestUtils.setField(sdkHotSwap, "classPathDirectory", "");
+		ReflectionTestUtils.setField(sdkHotSwap, "modalities", List.of(BiometricType.FINGER));
+		ReflectionTestUtils.setField(sdkHotSwap, "gallerySize", 2);
+	}
+
+	@Test
+	public void switchesAtOnceAndClosesPreviousSdkOnceDrained() throws Exception {
+		SdkInitCache.Lease inFlight = sdkInitCache.acquire();
+
+		sdkHotSwap.start(IMPL, List.of());
+		Map<String, Object> draining = await(SdkHotSwap.State.DRAINING, "inFlight");
+
+		assertSame(next, sdkInitCache.current());
+		try (SdkInitCache.Lease lease = sdkInitCache.acquire()) {
+			assertSame(next, lease.sdk());
+		}
+		assertSame(previous, inFlight.sdk());
+		assertEquals(CLIENT_PARAMS, sdkInitCache.initParams());
+		assertEquals("2", draining.get("sdkVersion"));
+		assertNotNull(draining.get("switchedAt"));
+		assertEquals(1, draining.get("inFlight"));
+		verify(next).init(CLIENT_PARAMS);
+		verify((AutoCloseable) previous, never()).close();
+
+		inFlight.close();
+		Map<String, Object> completed = await(SdkHotSwap.State.COMPLETED, "totalMillis");
+
+		assertEquals(true, completed.get("drained"));
+		assertEquals(0, completed.get("inFlight"));
+		assertTrue(((Map<?, ?>) completed.get("latency")).containsKey(WarmupWorkload.MATCH));
+		verify((AutoCloseable) previous).close();
+		assertEquals(1, meterRegistry.get("biosdk.swap").tag("outcome", "completed").counter().count(), 0);
+	}
+
+	@Test
+	public void leavesPreviousSdkOpenWhenDrainTimesOut() throws Exception {
+		ReflectionTestUtils.setField(sdkHotSwap, "drainTimeoutMillis", 200L);
+		SdkInitCache.Lease inFlight = sdkInitCache.acquire();
+
+		sdkHotSwap.start(IMPL, List.of());
+		Map<String, Object> completed = await(SdkHotSwap.State.COMPLETED, "totalMillis");
+
+		assertEquals(false, completed.get("drained"));
+		assertEquals(1, completed.get("inFlight"));
+		assertSame(next, sdkInitCache.current());
+		inFlight.close();
+		verify((AutoCloseable) previous, never()).close();
+	}
+
+	@Test
+	public void keepsPreviousSdkServingWhenInitFails() throws Exception {
+		when(next.init(any())).thenThrow(new IllegalStateException("no license"));
+
+		sdkHotSwap.start(IMPL, List.of());
+		Map<String, Object> failed = await(SdkHotSwap.State.FAILED, "error");
+
+		assertEquals("java.lang.IllegalStateException: no license", failed.get("error"));
+		assertSame(previous, sdkInitCache.current());
+		assertEquals(1, meterRegistry.get("biosdk.swap").tag("outcome", "failed").counter().count(), 0);
+	}
+
+	@Test
+	public void rejectsSwapWithEnginesOrWorkers() {
+		try {
+			sdkHotSwap.start(" ", List.of());
+			fail("blank class accepted");
+		} catch (IllegalArgumentException e) {
+			assertEquals("No SDK class given", e.getMessage());
+		}
+		when(sdkWorkerPool.isEnabled()).thenReturn(true);
+		try {
+			sdkHotSwap.start(IMPL, List.of());
+			fail("swap started with workers");
+		} catch (IllegalStateException e) {
+			assertEquals("SDK swap is not supported with SDK workers", e.getMessage());
+		}
+		when(bioSdkEngines.isConfigured()).thenReturn(true);
+		try {
+			sdkHotSwap.start(IMPL, List.of());
+			fail("swap started with engines");
+		} catch (IllegalStateException e) {
+			assertEquals("SDK swap is not supported with SDK engines", e.getMessage());
+		}
+		when(bioSdkEngines.isConfigured()).thenReturn(false);
+		when(sdkWorkerPool.isEnabled()).thenReturn(false);
+		try {
+			sdkHotSwap.start(IMPL, List.of("sdk.jar"));
+			fail("jar loaded without class path directory");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("class-path-directory is not set"));
+		}
+		assertEquals(SdkHotSwap.State.IDLE, sdkHotSwap.status().get("state"));
+	}
+
+	/**
+	 * Waits for the swap to reach the given state with the given detail.
+	 */
+	private Map<String, Object> await(SdkHotSwap.State state, String detail) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		Map<String, Object> status = sdkHotSwap.status();
+		while (status.get("state") != state || !status.containsKey(detail)) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("swap not " + state + ": " + status);
+			}
+			Thread.sleep(10);
+			status = sdkHotSwap.status();
+		}
+		return status;
+	}
+}
@@ -0,0 +1,200 @@
+package io.mosip.biosdk.services.warmup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.services.config.BioSdkLibConfig;
+import io.mosip.biosdk.services.metrics.BioSdkMetrics;
+import io.mosip.biosdk.services.metrics.SlowRequestLog;
+import io.mosip.biosdk.services.sdk.SdkInitCache;
+import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.synthetic.SyntheticRequests;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+public class SdkWarmupTest {
+	private SdkInitCache sdkInitCache;
+	private BioSdkServiceProvider provider;
+	private BioSdkLibConfig bioSdkLibConfig;
+	private SdkWarmup sdkWarmup;
+	private SdkWarmupHealthIndicator healthIndicator;
+
+	@Before
+	public void setUp() {
+		sdkInitCache = mock(SdkInitCache.class);
+		provider = mock(BioSdkServiceProvider.class);
+		when(provider.getSpecVersion()).thenReturn(SyntheticRequests.VERSION);
+		bioSdkLibConfig = mock(BioSdkLibConfig.class);
+		sdkWarmup = new SdkWarmup(sdkInitCache, List.of(provider),
+				new BioSdkMetrics(new SimpleMeterRegistry(), false, new SlowRequestLog(-1, 1)), bioSdkLibConfig,
+				mock(ApplicationContext.class));
+		ReflectionTestUtils.setField(sdkWarmup, "enabled", true);
+		ReflectionTestUtils.setField(sdkWarmup, "iterations", 1);
+		ReflectionTestUtils.setField(sdkWarmup, "maxDurationMillis", 10000L);
+		ReflectionTestUtils.setField(sdkWarmup, "modalities", List.of(BiometricType.FINGER));
+		ReflectionTestUtils.setField(sdkWarmup, "gallerySize", 2);
+		ReflectionTestUtils.setField(sdkWarmup, "initParams", Map.of());
+		ReflectionTestUtils.setField(sdkWarmup, "reinitOnRestore", true);
+		healthIndicator = new SdkWarmupHealthIndicator(sdkWarmup);
+	}
+
+	@Test
+	public void isReadyAtOnceWhenDisabled() {
+		ReflectionTestUtils.setField(sdkWarmup, "enabled", false);
+
+		sdkWarmup.start();
+
+		assertEquals(SdkWarmup.State.READY, sdkWarmup.getState());
+		assertEquals(Status.UP, healthIndicator.health().getStatus());
+		verify(sdkInitCache, never()).current();
+	}
+
+	@Test
+	public void holdsReadinessUntilWarmedUp() throws Exception {
+		assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch loaded = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			loading.countDown();
+			loaded.await(10, TimeUnit.SECONDS);
+			return null;
+		}).when(sdkInitCache).current();
+
+		sdkWarmup.start();
+		assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+		Health health = healthIndicator.health();
+		assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+		assertEquals(SdkWarmup.State.BOOTSTRAPPING, health.getDetails().get("state"));
+		loaded.countDown();
+		awaitState(SdkWarmup.State.READY);
+		health = healthIndicator.health();
+		assertEquals(Status.UP, health.getStatus());
+		assertEquals(1, health.getDetails().get("iterations"));
+		verify(provider).init(any());
+		verify(provider).match(any());
+		verify(sdkInitCache).markWarmedUp();
+	}
+
+	@Test
+	public void reportsDownWhenInitFails() throws Exception {
+		doThrow(new IllegalStateException("no license")).when(provider).init(any());
+
+		sdkWarmup.start();
+		awaitState(SdkWarmup.State.FAILED);
+
+		Health health = healthIndicator.health();
+		assertEquals(Status.DOWN, health.getStatus());
+		assertTrue(String.valueOf(health.getDetails().get("error")).contains("no license"));
+		assertTrue(health.getDetails().containsKey("bootstrapMillis"));
+		verify(provider, never()).match(any());
+		verify(sdkInitCache, never()).markWarmedUp();
+	}
+
+	@Test
+	public void keepsReadyWhenWarmupCallsFail() throws Exception {
+		doThrow(new IllegalArgumentException("synthetic sample rejected")).when(provider).checkQuality(any());
+
+		sdkWarmup.start();
+		awaitState(SdkWarmup.State.READY);
+
+		assertEquals(Status.UP, healthIndicator.health().getStatus());
+		assertEquals(1L, sdkWarmup.getDetails().get("failedCalls"));
+	}
+
+	@Test
+	public void initialisesSdkAgainAfterRestore() throws Exception {
+		when(bioSdkLibConfig.isCurrent(any())).thenReturn(true);
+		sdkWarmup.start();
+		awaitState(SdkWarmup.State.READY);
+
+		sdkWarmup.beforeCheckpoint(null);
+		assertEquals(SdkWarmup.State.CHECKPOINTING, sdkWarmup.getState());
+		assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+		sdkWarmup.afterRestore(null);
+
+		Health health = healthIndicator.health();
+		assertEquals(Status.UP, health.getStatus());
+		assertTrue(health.getDetails().containsKey("restoreMillis"));
+		verify(bioSdkLibConfig).validateBioSdkLib();
+		verify(sdkInitCache).invalidate();
+		verify(provider, times(2)).init(any());
+		verify(sdkInitCache, times(2)).markWarmedUp();
+	}
+
+	@Test
+	public void keepsRestoredSdkWhenReinitDisabled() throws Exception {
+		ReflectionTestUtils.setField(sdkWarmup, "reinitOnRestore", false);
+		when(bioSdkLibConfig.isCurrent(any())).thenReturn(true);
+		sdkWarmup.start();
+		awaitState(SdkWarmup.State.READY);
+
+		sdkWarmup.beforeCheckpoint(null);
+		sdkWarmup.afterRestore(null);
+
+		assertEquals(SdkWarmup.State.READY, sdkWarmup.getState());
+		verify(sdkInitCache, never()).invalidate();
+		verify(provider).init(any());
+	}
+
+	@Test
+	public void reportsDownWhenRestoredSdkIsNotConfiguredOne() throws Exception {
+		when(sdkInitCache.current()).thenReturn(mock(IBioApiV2.class));
+		when(bioSdkLibConfig.isCurrent(any())).thenReturn(true);
+		sdkWarmup.start();
+		awaitState(SdkWarmup.State.READY);
+		when(bioSdkLibConfig.isCurrent(any())).thenReturn(false);
+
+		sdkWarmup.beforeCheckpoint(null);
+		sdkWarmup.afterRestore(null);
+
+		Health health = healthIndicator.health();
+		assertEquals(Status.DOWN, health.getStatus());
+		assertTrue(String.valueOf(health.getDetails().get("error")).contains("not the configured SDK"));
+		verify(sdkInitCache, never()).invalidate();
+		verify(provider).init(any());
+	}
+
+	@Test
+	public void reportsDownWhenSdkClassIsMissingAfterRestore() throws Exception {
+		when(bioSdkLibConfig.isCurrent(any())).thenReturn(true);
+		sdkWarmup.start();
+		awaitState(SdkWarmup.State.READY);
+		doThrow(new ClassNotFoundException("com.vendor.Sdk")).when(bioSdkLibConfig).validateBioSdkLib();
+
+		sdkWarmup.beforeCheckpoint(null);
+		sdkWarmup.afterRestore(null);
+
+		assertEquals(SdkWarmup.State.FAILED, sdkWarmup.getState());
+		assertTrue(sdkWarmup.getFailure() instanceof ClassNotFoundException);
+	}
+
+	private void awaitState(SdkWarmup.State state) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (sdkWarmup.getState() != state && System.nanoTime() - deadline < 0) {
+			Thread.sleep(10);
+		}
+		assertEquals(state, sdkWarmup.getState());
+	}
+}